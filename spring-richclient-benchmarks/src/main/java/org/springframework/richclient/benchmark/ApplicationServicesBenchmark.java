@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.binding.form.FieldFaceSource;
+import org.springframework.binding.value.ValueChangeDetector;
+import org.springframework.richclient.application.ApplicationServicesLocator;
+import org.springframework.richclient.application.support.DefaultApplicationServices;
+import org.springframework.richclient.factory.ComponentFactory;
+
+/**
+ * Measures service lookups through {@link DefaultApplicationServices}, which
+ * bindings, forms and components do for almost every control they create.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ApplicationServicesBenchmark {
+
+	private DefaultApplicationServices applicationServices;
+
+	@Setup
+	public void setUp() {
+		applicationServices = BenchmarkSupport.installApplicationServices();
+		// create the default implementations up front
+		lookupThroughLocator();
+	}
+
+	@Benchmark
+	public Object getService() {
+		return applicationServices.getService(ValueChangeDetector.class);
+	}
+
+	/**
+	 * Looks up several services the way framework code does, through the
+	 * {@link ApplicationServicesLocator}.
+	 */
+	@Benchmark
+	public Object lookupThroughLocator() {
+		ApplicationServicesLocator.services().getService(ValueChangeDetector.class);
+		ApplicationServicesLocator.services().getService(FieldFaceSource.class);
+		return ApplicationServicesLocator.services().getService(ComponentFactory.class);
+	}
+
+	@Benchmark
+	public boolean containsService() {
+		return applicationServices.containsService(FieldFaceSource.class);
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+/**
+ * Bean with a fixed number of string properties, used as form object and table
+ * row by the benchmarks.
+ */
+public class BenchmarkBean {
+
+	/**
+	 * The number of properties, named <code>field0</code> up to
+	 * <code>field15</code>.
+	 */
+	public static final int FIELD_COUNT = 16;
+
+	private final String[] fields = new String[FIELD_COUNT];
+
+	public BenchmarkBean() {
+	}
+
+	/**
+	 * Creates a bean with each property set to the given value followed by the
+	 * property index.
+	 */
+	public BenchmarkBean(String value) {
+		for (int i = 0; i < FIELD_COUNT; i++) {
+			fields[i] = value + i;
+		}
+	}
+
+	public static String getFieldName(int index) {
+		return "field" + index;
+	}
+
+	public String getField(int index) {
+		return fields[index];
+	}
+
+	public void setField(int index, String value) {
+		fields[index] = value;
+	}
+
+	public String getField0() { return fields[0]; }
+	public void setField0(String value) { fields[0] = value; }
+	public String getField1() { return fields[1]; }
+	public void setField1(String value) { fields[1] = value; }
+	public String getField2() { return fields[2]; }
+	public void setField2(String value) { fields[2] = value; }
+	public String getField3() { return fields[3]; }
+	public void setField3(String value) { fields[3] = value; }
+	public String getField4() { return fields[4]; }
+	public void setField4(String value) { fields[4] = value; }
+	public String getField5() { return fields[5]; }
+	public void setField5(String value) { fields[5] = value; }
+	public String getField6() { return fields[6]; }
+	public void setField6(String value) { fields[6] = value; }
+	public String getField7() { return fields[7]; }
+	public void setField7(String value) { fields[7] = value; }
+	public String getField8() { return fields[8]; }
+	public void setField8(String value) { fields[8] = value; }
+	public String getField9() { return fields[9]; }
+	public void setField9(String value) { fields[9] = value; }
+	public String getField10() { return fields[10]; }
+	public void setField10(String value) { fields[10] = value; }
+	public String getField11() { return fields[11]; }
+	public void setField11(String value) { fields[11] = value; }
+	public String getField12() { return fields[12]; }
+	public void setField12(String value) { fields[12] = value; }
+	public String getField13() { return fields[13]; }
+	public void setField13(String value) { fields[13] = value; }
+	public String getField14() { return fields[14]; }
+	public void setField14(String value) { fields[14] = value; }
+	public String getField15() { return fields[15]; }
+	public void setField15(String value) { fields[15] = value; }
+}
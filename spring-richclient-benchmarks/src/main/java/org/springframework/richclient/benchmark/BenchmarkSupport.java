@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.richclient.application.ApplicationServicesLocator;
+import org.springframework.richclient.application.support.DefaultApplicationServices;
+
+/**
+ * Sets up the application services the benchmarked code looks up, the same
+ * way <code>SpringRichTestCase</code> does for the unit tests.
+ */
+public abstract class BenchmarkSupport {
+
+	private BenchmarkSupport() {
+	}
+
+	/**
+	 * Installs new application services with default implementations for all
+	 * services and returns them.
+	 */
+	public static DefaultApplicationServices installApplicationServices() {
+		StaticApplicationContext applicationContext = new StaticApplicationContext();
+		DefaultApplicationServices applicationServices = new DefaultApplicationServices(applicationContext);
+		applicationServices.setMessageSource(new StaticMessageSource());
+		ApplicationServicesLocator.load(new ApplicationServicesLocator(applicationServices));
+		applicationContext.refresh();
+		return applicationServices;
+	}
+}
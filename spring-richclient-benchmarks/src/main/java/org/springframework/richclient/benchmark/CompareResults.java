@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with <code>-rf csv</code>, eg. the
+ * checked in baseline and the results of a branch:
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.springframework.richclient.benchmark.CompareResults \
+ *     baseline/benchmarks.csv results.csv [thresholdPercentage]
+ * </pre>
+ *
+ * Prints the relative change of every benchmark and exits with status 1 when
+ * a benchmark got slower by more than the threshold (10% by default) and the
+ * confidence intervals of both runs (score plus or minus the score error) don't
+ * overlap. Changes within the measurement noise are not reported as
+ * regressions, however large they are.
+ */
+public class CompareResults {
+
+	private static final double DEFAULT_THRESHOLD = 10;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: CompareResults <baseline.csv> <results.csv> [thresholdPercentage]");
+			System.exit(2);
+		}
+		double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+		Map baseline = readResults(args[0]);
+		Map results = readResults(args[1]);
+
+		int regressions = 0;
+		System.out.println(String.format("%-80s %22s %22s %9s", "Benchmark", "Baseline", "Result", "Change"));
+		for (Iterator i = results.entrySet().iterator(); i.hasNext();) {
+			Map.Entry entry = (Map.Entry) i.next();
+			Result result = (Result) entry.getValue();
+			Result base = (Result) baseline.get(entry.getKey());
+			if (base == null) {
+				System.out.println(String.format("%-80s %22s %22s %9s", entry.getKey(), "-", result, "new"));
+				continue;
+			}
+			double change = (result.score - base.score) / base.score * 100;
+			// for throughput modes a lower score is worse
+			double slowdown = result.isThroughput() ? -change : change;
+			boolean significant = !result.overlaps(base);
+			boolean regression = slowdown > threshold && significant;
+			if (regression) {
+				regressions++;
+			}
+			System.out.println(String.format("%-80s %22s %22s %+8.1f%%%s", entry.getKey(), base, result, change,
+					regression ? "  REGRESSION" : (slowdown > threshold ? "  (within error)" : "")));
+		}
+		System.out.println(regressions + " regression(s) over " + threshold + "% outside the score error");
+		System.exit(regressions > 0 ? 1 : 0);
+	}
+
+	/**
+	 * Reads the results keyed by benchmark name and parameters.
+	 */
+	static Map readResults(String fileName) throws IOException {
+		Map results = new LinkedHashMap();
+		BufferedReader reader = new BufferedReader(new FileReader(fileName));
+		try {
+			String[] header = parseLine(reader.readLine());
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] columns = parseLine(line);
+				if (columns.length < 7) {
+					continue;
+				}
+				StringBuffer key = new StringBuffer(columns[0]);
+				for (int i = 7; i < columns.length && i < header.length; i++) {
+					if (columns[i].length() > 0) {
+						key.append(' ').append(header[i].replaceFirst("^Param: ", "")).append('=').append(columns[i]);
+					}
+				}
+				results.put(key.toString(), new Result(columns[1], Double.parseDouble(columns[4]),
+						parseError(columns[5])));
+			}
+		}
+		finally {
+			reader.close();
+		}
+		return results;
+	}
+
+	/**
+	 * Parses the score error, which is NaN when there were too few samples to
+	 * compute it.
+	 */
+	private static double parseError(String column) {
+		if (column.length() == 0) {
+			return 0;
+		}
+		double error = Double.parseDouble(column);
+		return Double.isNaN(error) ? 0 : error;
+	}
+
+	private static String[] parseLine(String line) {
+		List columns = new ArrayList();
+		StringBuffer column = new StringBuffer();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			}
+			else if (c == ',' && !quoted) {
+				columns.add(column.toString());
+				column.setLength(0);
+			}
+			else {
+				column.append(c);
+			}
+		}
+		columns.add(column.toString());
+		return (String[]) columns.toArray(new String[columns.size()]);
+	}
+
+	private static class Result {
+		private final String mode;
+
+		private final double score;
+
+		private final double error;
+
+		public Result(String mode, double score, double error) {
+			this.mode = mode;
+			this.score = score;
+			this.error = error;
+		}
+
+		public boolean isThroughput() {
+			return "thrpt".equals(mode);
+		}
+
+		/**
+		 * Returns whether the confidence intervals of both results overlap.
+		 */
+		public boolean overlaps(Result other) {
+			return score - error <= other.score + other.error && other.score - other.error <= score + error;
+		}
+
+		public String toString() {
+			return String.format("%.3f +- %.3f", score, error);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
+
+/**
+ * Compares firing an event through {@link EventListenerListHelper} by method
+ * name (reflection) with dispatching it through a {@link ListenerInvoker}.
+ * Run with <code>-prof gc</code> to compare the allocation rates as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventListenerListHelperBenchmark {
+
+	private static final ListenerInvoker PROPERTY_CHANGE = new ListenerInvoker() {
+		public void invoke(Object listener, Object event, Object unused) {
+			((PropertyChangeListener) listener).propertyChange((PropertyChangeEvent) event);
+		}
+	};
+
+	@Param( { "1", "5", "20" })
+	public int listenerCount;
+
+	private EventListenerListHelper listeners;
+
+	private PropertyChangeEvent event;
+
+	@Setup
+	public void setUp(final Blackhole blackhole) {
+		listeners = new EventListenerListHelper(PropertyChangeListener.class);
+		for (int i = 0; i < listenerCount; i++) {
+			listeners.add(new PropertyChangeListener() {
+				public void propertyChange(PropertyChangeEvent evt) {
+					blackhole.consume(evt);
+				}
+			});
+		}
+		event = new PropertyChangeEvent(this, "value", "old", "new");
+	}
+
+	@Benchmark
+	public void fireByMethodName() {
+		listeners.fire("propertyChange", event);
+	}
+
+	@Benchmark
+	public void dispatch() {
+		listeners.dispatch(PROPERTY_CHANGE, event);
+	}
+}
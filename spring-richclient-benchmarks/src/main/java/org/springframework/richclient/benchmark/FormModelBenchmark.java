@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.binding.form.support.DefaultFormModel;
+import org.springframework.binding.validation.support.RulesValidator;
+import org.springframework.binding.value.ValueModel;
+import org.springframework.rules.Rules;
+import org.springframework.rules.support.DefaultRulesSource;
+
+/**
+ * Measures the binding and validation paths of a {@link DefaultFormModel}
+ * with <code>fieldCount</code> bound properties and <code>ruleCount</code>
+ * rules on each of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormModelBenchmark {
+
+	@Param( { "4", "16" })
+	public int fieldCount;
+
+	@Param( { "0", "3" })
+	public int ruleCount;
+
+	private DefaultFormModel formModel;
+
+	private ValueModel firstValueModel;
+
+	private BenchmarkBean[] formObjects;
+
+	private int invocation;
+
+	@Setup
+	public void setUp() {
+		BenchmarkSupport.installApplicationServices();
+		Rules rules = new Rules(BenchmarkBean.class);
+		for (int i = 0; i < fieldCount; i++) {
+			String fieldName = BenchmarkBean.getFieldName(i);
+			if (ruleCount > 0) {
+				rules.addRequired(fieldName);
+			}
+			if (ruleCount > 1) {
+				rules.addMinLength(fieldName, 2);
+			}
+			if (ruleCount > 2) {
+				rules.addMaxLength(fieldName, 32);
+			}
+		}
+		DefaultRulesSource rulesSource = new DefaultRulesSource();
+		rulesSource.addRules(rules);
+
+		formObjects = new BenchmarkBean[] { new BenchmarkBean("a"), new BenchmarkBean("b") };
+		formModel = new DefaultFormModel(formObjects[0]);
+		formModel.setValidator(new RulesValidator(formModel, rulesSource));
+		for (int i = 0; i < fieldCount; i++) {
+			formModel.getValueModel(BenchmarkBean.getFieldName(i));
+		}
+		firstValueModel = formModel.getValueModel(BenchmarkBean.getFieldName(0));
+	}
+
+	/**
+	 * Replaces the form object, updating all value models.
+	 */
+	@Benchmark
+	public Object setFormObject() {
+		formModel.setFormObject(formObjects[invocation++ & 1]);
+		return formModel;
+	}
+
+	/**
+	 * Changes a single property, which validates the rules depending on it.
+	 */
+	@Benchmark
+	public Object setValue() {
+		firstValueModel.setValue((invocation++ & 1) == 0 ? "x" : "value");
+		return formModel;
+	}
+
+	/**
+	 * Validates all rules of the form object.
+	 */
+	@Benchmark
+	public Object validate() {
+		formModel.validate();
+		return formModel;
+	}
+
+	/**
+	 * Commits the buffered changes to the form object.
+	 */
+	@Benchmark
+	public Object commit() {
+		firstValueModel.setValue((invocation++ & 1) == 0 ? "xx" : "value");
+		formModel.commit();
+		return formModel;
+	}
+}
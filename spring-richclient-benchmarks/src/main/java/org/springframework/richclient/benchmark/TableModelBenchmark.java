@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.richclient.table.BeanTableModel;
+import org.springframework.richclient.table.ColumnToSort;
+import org.springframework.richclient.table.ShuttleSortableTableModel;
+import org.springframework.richclient.table.SortOrder;
+
+/**
+ * Measures reading and sorting a {@link BeanTableModel} with
+ * <code>rowCount</code> rows, sorted by <code>sortColumnCount</code> columns
+ * through a {@link ShuttleSortableTableModel}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableModelBenchmark {
+
+	private static final int COLUMN_COUNT = 4;
+
+	@Param( { "1000", "10000" })
+	public int rowCount;
+
+	@Param( { "1", "3" })
+	public int sortColumnCount;
+
+	private BeanTableModel tableModel;
+
+	private ShuttleSortableTableModel sortableTableModel;
+
+	private ColumnToSort[][] columnsToSort;
+
+	private int invocation;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		List rows = new ArrayList(rowCount);
+		for (int i = 0; i < rowCount; i++) {
+			BenchmarkBean row = new BenchmarkBean();
+			for (int column = 0; column < COLUMN_COUNT; column++) {
+				// few distinct values, so the secondary sort columns matter
+				row.setField(column, "value" + random.nextInt(10));
+			}
+			rows.add(row);
+		}
+		tableModel = new BeanTableModel(BenchmarkBean.class, rows, new StaticMessageSource()) {
+			protected String[] createColumnPropertyNames() {
+				String[] propertyNames = new String[COLUMN_COUNT];
+				for (int i = 0; i < COLUMN_COUNT; i++) {
+					propertyNames[i] = BenchmarkBean.getFieldName(i);
+				}
+				return propertyNames;
+			}
+
+			protected Class[] createColumnClasses() {
+				Class[] columnClasses = new Class[COLUMN_COUNT];
+				for (int i = 0; i < COLUMN_COUNT; i++) {
+					columnClasses[i] = String.class;
+				}
+				return columnClasses;
+			}
+		};
+		tableModel.setRowNumbers(false);
+		sortableTableModel = new ShuttleSortableTableModel(tableModel);
+
+		// alternate the sort order, so every sort has to reorder the rows
+		columnsToSort = new ColumnToSort[2][sortColumnCount];
+		for (int level = 0; level < sortColumnCount; level++) {
+			columnsToSort[0][level] = new ColumnToSort(level, level, SortOrder.ASCENDING);
+			columnsToSort[1][level] = new ColumnToSort(level, level, SortOrder.DESCENDING);
+		}
+	}
+
+	/**
+	 * Reads every cell of the bean table model.
+	 */
+	@Benchmark
+	public void readAllCells(Blackhole blackhole) {
+		for (int row = 0; row < rowCount; row++) {
+			for (int column = 0; column < COLUMN_COUNT; column++) {
+				blackhole.consume(tableModel.getValueAt(row, column));
+			}
+		}
+	}
+
+	/**
+	 * Sorts the rows by the first <code>sortColumnCount</code> columns.
+	 */
+	@Benchmark
+	public Object sort() {
+		sortableTableModel.sortByColumns(columnsToSort[invocation++ & 1]);
+		return sortableTableModel;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.binding.validation.ValidationListener;
+import org.springframework.binding.validation.ValidationResults;
+import org.springframework.binding.validation.support.DefaultValidationResults;
+import org.springframework.binding.validation.support.DefaultValidationResultsModel;
+import org.springframework.richclient.core.Severity;
+
+/**
+ * Measures publishing validation results with <code>messageCount</code>
+ * messages to a {@link DefaultValidationResultsModel} with a validation
+ * listener on the model and on each of the 16 properties.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationResultsModelBenchmark {
+
+	@Param( { "1", "16" })
+	public int messageCount;
+
+	private DefaultValidationResultsModel resultsModel;
+
+	private ValidationResults[] results;
+
+	private int invocation;
+
+	@Setup
+	public void setUp(final Blackhole blackhole) {
+		ValidationListener listener = new ValidationListener() {
+			public void validationResultsChanged(ValidationResults results) {
+				blackhole.consume(results);
+			}
+		};
+		resultsModel = new DefaultValidationResultsModel();
+		resultsModel.addValidationListener(listener);
+		for (int i = 0; i < BenchmarkBean.FIELD_COUNT; i++) {
+			resultsModel.addValidationListener(BenchmarkBean.getFieldName(i), listener);
+		}
+
+		DefaultValidationResults errors = new DefaultValidationResults();
+		for (int i = 0; i < messageCount; i++) {
+			errors.addMessage(BenchmarkBean.getFieldName(i % BenchmarkBean.FIELD_COUNT), Severity.ERROR, "error " + i);
+		}
+		results = new ValidationResults[] { errors, new DefaultValidationResults() };
+	}
+
+	/**
+	 * Alternates between results with errors and empty results, so every
+	 * update changes the model.
+	 */
+	@Benchmark
+	public Object updateValidationResults() {
+		resultsModel.updateValidationResults(results[invocation++ & 1]);
+		return resultsModel;
+	}
+}
@@ -66,4 +66,23 @@ public interface HierarchicalFormModel extends FormModel {
 	 * Removes a child from this form model.
 	 */
 	void removeChild(HierarchicalFormModel child);
+
+	/**
+	 * Starts a batch update of this form model and its children. Until the
+	 * matching {@link #endBatchUpdate()} value change, dirty, committable and
+	 * validation notifications are held back. Batch updates can be nested.
+	 */
+	void beginBatchUpdate();
+
+	/**
+	 * Ends a batch update. When the outermost batch update ends, the changes
+	 * made during the batch are validated once and a single notification is
+	 * fired for each value and state that changed.
+	 */
+	void endBatchUpdate();
+
+	/**
+	 * Returns <code>true</code> while a batch update is in progress.
+	 */
+	boolean isBatchUpdating();
 }
\ No newline at end of file
@@ -55,6 +55,7 @@ import org.springframework.richclient.application.ApplicationServicesLocator;
 import org.springframework.richclient.util.Assert;
 import org.springframework.richclient.util.ClassUtils;
 import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
 import org.springframework.util.CachingMapDecorator;
 
 /**
@@ -107,6 +108,8 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 
 	private final Set dirtyValueAndFormModels = new HashSet();
 
+	private final Set nonCommittableChildren = new HashSet();
+
 	private final Map propertyConversionServices = new CachingMapDecorator() {
 		public Object create(Object key) {
 			return new DefaultConversionService() {
@@ -122,10 +125,34 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 
 	protected final PropertyChangeListener childStateChangeHandler = new ChildStateChangeHandler();
 
+	private static final ListenerInvoker PRE_COMMIT = new ListenerInvoker() {
+		public void invoke(Object listener, Object formModel, Object unused) {
+			((CommitListener) listener).preCommit((FormModel) formModel);
+		}
+	};
+
+	private static final ListenerInvoker POST_COMMIT = new ListenerInvoker() {
+		public void invoke(Object listener, Object formModel, Object unused) {
+			((CommitListener) listener).postCommit((FormModel) formModel);
+		}
+	};
+
 	private final EventListenerListHelper commitListeners = new EventListenerListHelper(CommitListener.class);
 
 	private Class defaultInstanceClass;
 
+	private boolean settingFormObject;
+
+	private long formObjectChangeCount;
+
+	private long lastFormObjectChangeTime;
+
+	private long totalFormObjectChangeTime;
+
+	private int batchUpdateCount;
+
+	private final List batchUpdatedChildren = new ArrayList();
+
 	protected AbstractFormModel() {
 		this(new ValueHolder());
 	}
@@ -180,19 +207,88 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		return getFormObjectHolder().getValue();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Value change and dirty events of the individual properties are held back
+	 * until all value models have been updated. Subclasses can use
+	 * {@link #isSettingFormObject()} to skip work for each of these events and
+	 * do it once in {@link #formObjectSet()} instead. The time taken is
+	 * recorded, see {@link #getLastFormObjectChangeTime()}.
+	 * </p>
+	 */
 	public void setFormObject(Object formObject) {
-		setDeliverValueChangeEvents(false, false);
-		if (formObject == null) {
-			handleSetNullFormObject();
+		long start = System.nanoTime();
+		settingFormObject = true;
+		try {
+			setDeliverValueChangeEvents(false, false);
+			if (formObject == null) {
+				handleSetNullFormObject();
+			}
+			else {
+				getFormObjectHolder().setValue(formObject);
+				setEnabled(true);
+			}
+			// this will cause all buffered value models to revert
+			// to the new form objects property values
+			commitTrigger.revert();
+			setDeliverValueChangeEvents(true, true);
 		}
-		else {
-			getFormObjectHolder().setValue(formObject);
-			setEnabled(true);
+		finally {
+			settingFormObject = false;
 		}
-		// this will cause all buffered value models to revert
-		// to the new form objects property values
-		commitTrigger.revert();
-		setDeliverValueChangeEvents(true, true);
+		formObjectSet();
+		recordFormObjectChangeTime(System.nanoTime() - start);
+	}
+
+	/**
+	 * Returns <code>true</code> while {@link #setFormObject(Object)} is
+	 * updating the value models of this form model.
+	 */
+	protected boolean isSettingFormObject() {
+		return settingFormObject;
+	}
+
+	/**
+	 * Hook for subclasses called after a new form object has been set and all
+	 * value change events have been delivered.
+	 */
+	protected void formObjectSet() {
+	}
+
+	private void recordFormObjectChangeTime(long time) {
+		formObjectChangeCount++;
+		lastFormObjectChangeTime = time;
+		totalFormObjectChangeTime += time;
+		if (logger.isDebugEnabled()) {
+			logger.debug("Form object of form model '" + getId() + "' set in " + (time / 1000) + " microseconds");
+		}
+	}
+
+	/**
+	 * Returns the number of times a form object has been set on this form
+	 * model.
+	 */
+	public long getFormObjectChangeCount() {
+		return formObjectChangeCount;
+	}
+
+	/**
+	 * Returns the time in nanoseconds the last call to
+	 * {@link #setFormObject(Object)} took.
+	 */
+	public long getLastFormObjectChangeTime() {
+		return lastFormObjectChangeTime;
+	}
+
+	/**
+	 * Returns the average time in nanoseconds a call to
+	 * {@link #setFormObject(Object)} took, or 0 if no form object has been set
+	 * yet.
+	 */
+	public long getAverageFormObjectChangeTime() {
+		return formObjectChangeCount == 0 ? 0 : totalFormObjectChangeTime / formObjectChangeCount;
 	}
 
 	/**
@@ -205,6 +301,8 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * afterwards.
 	 */
 	private void setDeliverValueChangeEvents(boolean deliverValueChangeEvents, boolean clearValueModels) {
+		// events stay suspended until the outermost batch update has ended
+		deliverValueChangeEvents = deliverValueChangeEvents && !isBatchUpdating();
 		formObjectHolder.setDeliverValueChangeEvents(deliverValueChangeEvents);
 		for (Iterator i = mediatingValueModels.values().iterator(); i.hasNext();) {
 			FormModelMediatingValueModel valueModel = (FormModelMediatingValueModel) i.next();
@@ -214,6 +312,57 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		}
 	}
 
+	public void beginBatchUpdate() {
+		if (batchUpdateCount++ == 0) {
+			setDeliverValueChangeEvents(false, false);
+			for (Iterator i = children.iterator(); i.hasNext();) {
+				HierarchicalFormModel child = (HierarchicalFormModel) i.next();
+				child.beginBatchUpdate();
+				batchUpdatedChildren.add(child);
+			}
+		}
+	}
+
+	public void endBatchUpdate() {
+		if (batchUpdateCount == 0) {
+			throw new IllegalStateException("endBatchUpdate called without matching beginBatchUpdate");
+		}
+		if (batchUpdateCount > 1) {
+			batchUpdateCount--;
+			return;
+		}
+		try {
+			for (Iterator i = batchUpdatedChildren.iterator(); i.hasNext();) {
+				((HierarchicalFormModel) i.next()).endBatchUpdate();
+			}
+		}
+		finally {
+			batchUpdatedChildren.clear();
+			// value change events are delivered while still batching so the
+			// work they trigger is collected and done once below
+			formObjectHolder.setDeliverValueChangeEvents(true);
+			for (Iterator i = mediatingValueModels.values().iterator(); i.hasNext();) {
+				((FormModelMediatingValueModel) i.next()).setDeliverValueChangeEvents(true);
+			}
+			batchUpdateCount = 0;
+		}
+		batchUpdateEnded();
+		dirtyUpdated();
+		committableUpdated();
+	}
+
+	public boolean isBatchUpdating() {
+		return batchUpdateCount > 0;
+	}
+
+	/**
+	 * Hook for subclasses called when the outermost batch update has ended and
+	 * the held back value change events have been delivered, just before the
+	 * dirty and committable state changes are fired.
+	 */
+	protected void batchUpdateEnded() {
+	}
+
 	public void setDefaultInstanceClass(Class defaultInstanceClass) {
 		this.defaultInstanceClass = defaultInstanceClass;
 	}
@@ -293,6 +442,10 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 			dirtyValueAndFormModels.add(child);
 			dirtyUpdated();
 		}
+		if (!child.isCommittable()) {
+			nonCommittableChildren.add(child);
+			committableUpdated();
+		}
 	}
 
 	/**
@@ -313,6 +466,8 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		// state
 		if (dirtyValueAndFormModels.remove(child))
 			dirtyUpdated();
+		if (nonCommittableChildren.remove(child))
+			committableUpdated();
 	}
 
 	public boolean hasValueModel(String formProperty) {
@@ -432,6 +587,9 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 
 		FormModelMediatingValueModel mediatingValueModel = new FormModelMediatingValueModel(valueModel,
 				metadataAccessStrategy.isWriteable(formProperty));
+		if (isBatchUpdating()) {
+			mediatingValueModel.setDeliverValueChangeEvents(false);
+		}
 		mediatingValueModels.put(formProperty, mediatingValueModel);
 
 		FieldMetadata metadata = new DefaultFieldMetadata(this, mediatingValueModel, metadataAccessStrategy
@@ -568,16 +726,12 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 			return;
 		}
 		if (isCommittable()) {
-			for (Iterator i = commitListeners.iterator(); i.hasNext();) {
-				((CommitListener) i.next()).preCommit(this);
-			}
+			commitListeners.dispatch(PRE_COMMIT, this);
 			preCommit();
 			if (isCommittable()) {
 				doCommit();
 				postCommit();
-				for (Iterator i = commitListeners.iterator(); i.hasNext();) {
-					((CommitListener) i.next()).postCommit(this);
-				}
+				commitListeners.dispatch(POST_COMMIT, this);
 			}
 			else {
 				throw new IllegalStateException("Form model '" + this
@@ -658,6 +812,9 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * property. Must be called whenever the value of dirty is changed.
 	 */
 	protected void dirtyUpdated() {
+		if (isBatchUpdating()) {
+			return;
+		}
 		boolean dirty = isDirty();
 		if (hasChanged(oldDirty, dirty)) {
 			oldDirty = dirty;
@@ -726,14 +883,13 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if all children are committable. The
+	 * committable state of the children is tracked through their committable
+	 * events, so this doesn't need to visit the children.
+	 */
 	public boolean isCommittable() {
-		for (Iterator i = children.iterator(); i.hasNext();) {
-			final FormModel childFormModel = (FormModel) i.next();
-			if (!childFormModel.isCommittable()) {
-				return false;
-			}
-		}
-		return true;
+		return nonCommittableChildren.isEmpty();
 	}
 
 	/**
@@ -741,6 +897,9 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 	 * property. Must be called whenever the value of committable is changed.
 	 */
 	protected void committableUpdated() {
+		if (isBatchUpdating()) {
+			return;
+		}
 		boolean committable = isCommittable();
 		if (hasChanged(oldCommittable, committable)) {
 			oldCommittable = committable;
@@ -857,6 +1016,15 @@ public abstract class AbstractFormModel extends AbstractPropertyChangePublisher
 			dirtyUpdated();
 		}
 		else if (COMMITTABLE_PROPERTY.equals(evt.getPropertyName())) {
+			if (evt.getSource() instanceof FormModel) {
+				FormModel formModel = (FormModel) evt.getSource();
+				if (formModel.isCommittable()) {
+					nonCommittableChildren.remove(formModel);
+				}
+				else {
+					nonCommittableChildren.add(formModel);
+				}
+			}
 			committableUpdated();
 		}
 	}
@@ -46,6 +46,16 @@ public abstract class CachingFieldFaceSource implements FieldFaceSource {
         }
     };
 
+    /*
+     * A cache with the keys returned by getCacheKey when they differ from the context, eg. form model ids, and with
+     * String contexts. Nothing else refers to these keys, so they are held with strong references.
+     */
+    private final CachingMapDecorator sharedFieldFaceDescriptors = new CachingMapDecorator() {
+        public Object create(Object key) {
+            return new HashMap();
+        }
+    };
+
     protected CachingFieldFaceSource() {
     }
 
@@ -54,7 +64,17 @@ public abstract class CachingFieldFaceSource implements FieldFaceSource {
     }
 
     public FieldFace getFieldFace(final String field, final Object context) {
-        Map faceDescriptors = (Map) cachedFieldFaceDescriptors.get(context == null ? DEFAULT_CONTEXT : context);
+        Object cacheKey = context == null ? null : getCacheKey(context);
+        Map faceDescriptors;
+        if (cacheKey == null) {
+            faceDescriptors = (Map) sharedFieldFaceDescriptors.get(DEFAULT_CONTEXT);
+        }
+        else if (cacheKey == context && !(context instanceof String)) {
+            faceDescriptors = (Map) cachedFieldFaceDescriptors.get(context);
+        }
+        else {
+            faceDescriptors = (Map) sharedFieldFaceDescriptors.get(cacheKey);
+        }
         FieldFace fieldFaceDescriptor = (FieldFace) faceDescriptors.get(field);
         if (fieldFaceDescriptor == null) {
             fieldFaceDescriptor = loadFieldFace(field, context);
@@ -64,6 +84,19 @@ public abstract class CachingFieldFaceSource implements FieldFaceSource {
         return fieldFaceDescriptor;
     }
 
+    /**
+     * Returns the key the field faces for the given context are cached under. This implementation returns the context
+     * itself. Subclasses whose field faces only depend on part of the context, eg. the id of a form model, can return
+     * that part so the field faces are shared by all contexts with the same key. Such keys and String contexts are held
+     * strongly, other contexts are held with a weak reference.
+     * 
+     * @param context the context, never <code>null</code>
+     * @return the cache key, <code>null</code> to use the cache for the <code>null</code> context
+     */
+    protected Object getCacheKey(Object context) {
+        return context;
+    }
+
     /**
      * Loads the FieldFace for the given field path and context id. This value will be cached so performance need not be
      * a concern of this method.
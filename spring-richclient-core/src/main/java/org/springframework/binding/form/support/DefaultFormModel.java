@@ -70,6 +70,10 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 
 	private boolean oldHasErrors = false;
 
+	private boolean validationDeferred = false;
+
+	private boolean validationPending = false;
+
 	private Validator validator;
 
 	private BindingErrorMessageProvider bindingErrorMessageProvider = new DefaultBindingErrorMessageProvider();
@@ -139,6 +143,33 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 		return false;
 	}
 
+	/**
+	 * Returns <code>true</code> if validation is currently deferred.
+	 *
+	 * @see #setValidationDeferred(boolean)
+	 */
+	public boolean isValidationDeferred() {
+		return validationDeferred;
+	}
+
+	/**
+	 * Defers validation of this form model, eg. while the form showing it
+	 * isn't visible. While deferred, changes are not validated and the
+	 * current validation results are kept; when validation is no longer
+	 * deferred the form object is validated once if anything changed in the
+	 * meantime.
+	 */
+	public void setValidationDeferred(boolean validationDeferred) {
+		if (this.validationDeferred == validationDeferred) {
+			return;
+		}
+		this.validationDeferred = validationDeferred;
+		if (!validationDeferred && validationPending) {
+			validationPending = false;
+			validate();
+		}
+	}
+
 	public void setValidating(boolean validating) {
 		this.validating = validating;
 		validatingUpdated();
@@ -240,6 +271,9 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 	}
 
 	protected void hasErrorsUpdated() {
+		if (isBatchUpdating()) {
+			return;
+		}
 		boolean hasErrors = getHasErrors();
 		if (hasChanged(oldHasErrors, hasErrors)) {
 			oldHasErrors = hasErrors;
@@ -303,6 +337,25 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 		validateAfterPropertyChanged(formProperty);
 	}
 
+	/**
+	 * Validates the new form object once instead of once for every property
+	 * value that changed.
+	 */
+	protected void formObjectSet() {
+		validate();
+	}
+
+	/**
+	 * Validates the changes made during the batch update once.
+	 */
+	protected void batchUpdateEnded() {
+		if (validationPending && !validationDeferred) {
+			validationPending = false;
+			validate();
+		}
+		hasErrorsUpdated();
+	}
+
 	/**
 	 *
 	 * @param formProperty the name of the only property that has changed since
@@ -310,6 +363,14 @@ public class DefaultFormModel extends AbstractFormModel implements ValidatingFor
 	 * this is not known/available.
 	 */
 	protected void validateAfterPropertyChanged(String formProperty) {
+		if (isSettingFormObject()) {
+			// validated in formObjectSet()
+			return;
+		}
+		if (validationDeferred || isBatchUpdating()) {
+			validationPending = true;
+			return;
+		}
 		if (isValidating()) {
 			Validator validator = getValidator();
 			if (validator != null) {
@@ -17,8 +17,6 @@ package org.springframework.binding.form.support;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.Iterator;
-
 import org.springframework.binding.value.ValueChangeDetector;
 import org.springframework.binding.value.ValueModel;
 import org.springframework.binding.value.support.AbstractValueModelWrapper;
@@ -26,6 +24,7 @@ import org.springframework.binding.value.support.DirtyTrackingValueModel;
 import org.springframework.binding.value.support.ValueHolder;
 import org.springframework.richclient.application.ApplicationServicesLocator;
 import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
 
 /**
  * <p>
@@ -75,6 +74,12 @@ import org.springframework.richclient.util.EventListenerListHelper;
 public class FormModelMediatingValueModel extends AbstractValueModelWrapper implements DirtyTrackingValueModel,
 		PropertyChangeListener {
 
+	private static final ListenerInvoker PROPERTY_CHANGE = new ListenerInvoker() {
+		public void invoke(Object listener, Object event, Object unused) {
+			((PropertyChangeListener) listener).propertyChange((PropertyChangeEvent) event);
+		}
+	};
+
 	/** Holds all propertyChangeListeners that are interested in Dirty changes. */
 	private final EventListenerListHelper dirtyChangeListeners = new EventListenerListHelper(
 			PropertyChangeListener.class);
@@ -256,12 +261,10 @@ public class FormModelMediatingValueModel extends AbstractValueModelWrapper impl
 	 * @param newValue
 	 */
 	protected final void firePropertyChange(String propertyName, boolean oldValue, boolean newValue) {
-		if (DIRTY_PROPERTY.equals(propertyName)) {
+		if (DIRTY_PROPERTY.equals(propertyName) && dirtyChangeListeners.hasListeners()) {
 			PropertyChangeEvent evt = new PropertyChangeEvent(this, propertyName, Boolean.valueOf(oldValue), Boolean
 					.valueOf(newValue));
-			for (Iterator i = dirtyChangeListeners.iterator(); i.hasNext();) {
-				((PropertyChangeListener) i.next()).propertyChange(evt);
-			}
+			dirtyChangeListeners.dispatch(PROPERTY_CHANGE, evt);
 		}
 	}
 }
\ No newline at end of file
@@ -174,6 +174,19 @@ public class MessageSourceFieldFaceSource extends CachingFieldFaceSource {
         return new DefaultFieldFace(displayName, caption, description, labelInfo, icon);
     }
 
+    /**
+     * Returns the context id, as the field faces only depend on it. This way
+     * the field faces are loaded once for all form models with the same id
+     * instead of once per form model instance. Subclasses whose field faces
+     * depend on more than the context id should return the context itself.
+     */
+    protected Object getCacheKey(Object context) {
+        if (context instanceof FormModel) {
+            return ((FormModel) context).getId();
+        }
+        return visitorHelper.invokeVisit(this, context);
+    }
+
     protected FieldFace loadFieldFace(String field, Object context) {
         String contextId = (String) visitorHelper.invokeVisit(this, context);
         return loadFieldFace(field, contextId);
@@ -31,6 +31,7 @@ import org.springframework.core.style.ToStringCreator;
 import org.springframework.richclient.core.Severity;
 import org.springframework.richclient.util.Assert;
 import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
 import org.springframework.util.CachingMapDecorator;
 import org.springframework.util.ObjectUtils;
 
@@ -91,6 +92,18 @@ import org.springframework.util.ObjectUtils;
 public class DefaultValidationResultsModel implements ValidationResultsModel, ValidationListener,
 		PropertyChangeListener {
 
+	private static final ListenerInvoker VALIDATION_RESULTS_CHANGED = new ListenerInvoker() {
+		public void invoke(Object listener, Object results, Object unused) {
+			((ValidationListener) listener).validationResultsChanged((ValidationResults) results);
+		}
+	};
+
+	private static final ListenerInvoker PROPERTY_CHANGE = new ListenerInvoker() {
+		public void invoke(Object listener, Object event, Object unused) {
+			((PropertyChangeListener) listener).propertyChange((PropertyChangeEvent) event);
+		}
+	};
+
 	private final EventListenerListHelper validationListeners = new EventListenerListHelper(ValidationListener.class);
 
 	private final CachingMapDecorator propertyValidationListeners = new CachingMapDecorator() {
@@ -399,13 +412,11 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 	}
 
 	protected void fireValidationResultsChanged() {
-		validationListeners.fire("validationResultsChanged", delegateFor);
+		validationListeners.dispatch(VALIDATION_RESULTS_CHANGED, delegateFor);
 	}
 
 	protected void fireValidationResultsChanged(String propertyName) {
-		for (Iterator i = getValidationListeners(propertyName).iterator(); i.hasNext();) {
-			((ValidationListener) i.next()).validationResultsChanged(delegateFor);
-		}
+		getValidationListeners(propertyName).dispatch(VALIDATION_RESULTS_CHANGED, delegateFor);
 	}
 
 	protected EventListenerListHelper getValidationListeners(String propertyName) {
@@ -418,7 +429,7 @@ public class DefaultValidationResultsModel implements ValidationResultsModel, Va
 			if (propertyChangeListeners.hasListeners()) {
 				PropertyChangeEvent event = new PropertyChangeEvent(delegateFor, propertyName, Boolean
 						.valueOf(oldValue), Boolean.valueOf(newValue));
-				propertyChangeListeners.fire("propertyChange", event);
+				propertyChangeListeners.dispatch(PROPERTY_CHANGE, event);
 			}
 		}
 	}
@@ -15,9 +15,8 @@
  */
 package org.springframework.binding.value;
 
-import java.util.Iterator;
-
 import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
 
 /**
  * A class that can be used to trigger an event on a group of objects. Mainly
@@ -29,6 +28,18 @@ import org.springframework.richclient.util.EventListenerListHelper;
  */
 public class CommitTrigger {
 
+	private static final ListenerInvoker COMMIT = new ListenerInvoker() {
+		public void invoke(Object listener, Object unused1, Object unused2) {
+			((CommitTriggerListener) listener).commit();
+		}
+	};
+
+	private static final ListenerInvoker REVERT = new ListenerInvoker() {
+		public void invoke(Object listener, Object unused1, Object unused2) {
+			((CommitTriggerListener) listener).revert();
+		}
+	};
+
 	private final EventListenerListHelper listeners = new EventListenerListHelper(CommitTriggerListener.class);
 
 	/**
@@ -41,18 +52,14 @@ public class CommitTrigger {
 	 * Triggers a commit event.
 	 */
 	public void commit() {
-		for (Iterator i = listeners.iterator(); i.hasNext();) {
-			((CommitTriggerListener) i.next()).commit();
-		}
+		listeners.dispatch(COMMIT);
 	}
 
 	/**
 	 * Triggers a revert event.
 	 */
 	public void revert() {
-		for (Iterator i = listeners.iterator(); i.hasNext();) {
-			((CommitTriggerListener) i.next()).revert();
-		}
+		listeners.dispatch(REVERT);
 	}
 
 	/**
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.binding.value.support;
+
+import javax.swing.SwingUtilities;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.rules.closure.Closure;
+import org.springframework.util.Assert;
+
+/**
+ * Refreshable value holder that never blocks while reading its value. Unlike
+ * the {@link RefreshableValueHolder}, the refresh <code>Closure</code> is
+ * executed by a {@link TaskExecutor}, so slow refreshes like remote calls for
+ * reference data don't block the event dispatch thread.
+ * <p>
+ * {@link #getValue()} always returns the cached value right away. When the
+ * value is older than the {@link #setTimeToLive(long) time to live} a refresh
+ * is started in the background while the stale value is still returned. Only
+ * one refresh runs at a time: refreshes requested while one is running are
+ * ignored. The new value is set on the event dispatch thread, so listeners
+ * receive a single value change event there.
+ * <p>
+ * Until the first refresh has completed, the value is <code>null</code>.
+ *
+ * @see RefreshableValueHolder
+ */
+public class AsyncRefreshableValueHolder extends ValueHolder {
+
+	/**
+	 * The default time to live of the value: one minute.
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE = 60000;
+
+	private final Closure refreshFunction;
+
+	private TaskExecutor taskExecutor;
+
+	private long timeToLive = DEFAULT_TIME_TO_LIVE;
+
+	private long refreshTime = -1;
+
+	private boolean refreshing;
+
+	/**
+	 * Constructor supplying a refresh <code>Closure</code>. The value is
+	 * refreshed the first time it is read.
+	 */
+	public AsyncRefreshableValueHolder(Closure refreshFunction) {
+		this(refreshFunction, true);
+	}
+
+	/**
+	 * Constructor supplying a refresh <code>Closure</code>. Unless
+	 * <code>lazyInit</code> is set, a refresh is started on construction.
+	 */
+	public AsyncRefreshableValueHolder(Closure refreshFunction, boolean lazyInit) {
+		this(refreshFunction, lazyInit, createDefaultTaskExecutor());
+	}
+
+	/**
+	 * Constructor supplying a refresh <code>Closure</code> and the executor
+	 * running it. The default executor starts a new daemon thread for every
+	 * refresh, which is fine as long as refreshes are rare; supply a pooled
+	 * executor when many holders refresh often.
+	 */
+	public AsyncRefreshableValueHolder(Closure refreshFunction, boolean lazyInit, TaskExecutor taskExecutor) {
+		Assert.notNull(refreshFunction, "The refresh callback cannot be null");
+		Assert.notNull(taskExecutor, "The task executor cannot be null");
+		this.refreshFunction = refreshFunction;
+		this.taskExecutor = taskExecutor;
+		if (!lazyInit) {
+			refresh();
+		}
+	}
+
+	private static TaskExecutor createDefaultTaskExecutor() {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("value-refresh-");
+		executor.setDaemon(true);
+		return executor;
+	}
+
+	/**
+	 * Sets the time in milliseconds the value stays fresh after it has been
+	 * refreshed. Defaults to {@link #DEFAULT_TIME_TO_LIVE}. A time to live of 0
+	 * starts a refresh on every read while no refresh is running.
+	 */
+	public void setTimeToLive(long timeToLive) {
+		Assert.isTrue(timeToLive >= 0, "timeToLive cannot be negative");
+		this.timeToLive = timeToLive;
+	}
+
+	public long getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Returns the cached value, and starts a refresh in the background if it
+	 * is stale.
+	 */
+	public Object getValue() {
+		if (isStale()) {
+			refresh();
+		}
+		return super.getValue();
+	}
+
+	/**
+	 * Returns <code>true</code> if the value has not been refreshed yet, or
+	 * longer ago than the time to live.
+	 */
+	public synchronized boolean isStale() {
+		return refreshTime < 0 || System.currentTimeMillis() - refreshTime >= timeToLive;
+	}
+
+	/**
+	 * Returns <code>true</code> while a refresh is running.
+	 */
+	public synchronized boolean isRefreshing() {
+		return refreshing;
+	}
+
+	/**
+	 * Starts refreshing the value in the background, unless a refresh is
+	 * already running.
+	 */
+	public void refresh() {
+		synchronized (this) {
+			if (refreshing) {
+				return;
+			}
+			refreshing = true;
+		}
+		try {
+			taskExecutor.execute(new Runnable() {
+				public void run() {
+					doRefresh();
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			// the refresh never started, so a later read may try again
+			synchronized (this) {
+				refreshing = false;
+			}
+			throw e;
+		}
+	}
+
+	private void doRefresh() {
+		final Object value;
+		try {
+			value = refreshFunction.call(null);
+		}
+		catch (RuntimeException e) {
+			logger.warn("Refreshing the held value failed; keeping '" + super.getValue() + "'", e);
+			// wait for the time to live before trying again
+			refreshCompleted();
+			return;
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				refreshCompleted();
+				setValue(value);
+			}
+		});
+	}
+
+	private synchronized void refreshCompleted() {
+		refreshTime = System.currentTimeMillis();
+		refreshing = false;
+	}
+}
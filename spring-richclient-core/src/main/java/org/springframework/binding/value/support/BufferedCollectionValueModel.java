@@ -20,6 +20,7 @@ import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -67,8 +68,17 @@ public class BufferedCollectionValueModel extends BufferedValueModel {
 
     private final Class wrappedConcreteType;
 
+    /**
+     * The largest number of element pairs compared when looking for the
+     * smallest set of changes to the buffered list model. Larger changes are
+     * applied as a replacement of the changed range.
+     */
+    private static final int MAX_DIFF_SIZE = 250000;
+
     private ObservableList bufferedListModel;
 
+    private boolean updatingBufferedListModel;
+
     /**
      * Constructs a new BufferedCollectionValueModel.
      * 
@@ -250,8 +260,9 @@ public class BufferedCollectionValueModel extends BufferedValueModel {
             bufferedListModel.addListDataListener(listChangeHandler);
             setValue(bufferedListModel);
         }
+        List elements;
         if (wrappedCollection == null) {
-            bufferedListModel.clear();
+            elements = Collections.EMPTY_LIST;
         }
         else {
             if (wrappedType.isAssignableFrom(wrappedCollection.getClass())) {
@@ -263,17 +274,102 @@ public class BufferedCollectionValueModel extends BufferedValueModel {
                 else {
                     buffer = (Collection)wrappedCollection;
                 }
-                bufferedListModel.clear();
-                bufferedListModel.addAll(prepareBackingCollection(buffer));
+                elements = new ArrayList(prepareBackingCollection(buffer));
             }
             else {
                 throw new IllegalArgumentException("wrappedCollection must be assignable from " + wrappedType.getName());
             }
-
+        }
+        updatingBufferedListModel = true;
+        boolean changed;
+        try {
+            changed = applyChanges(elements);
+        }
+        finally {
+            updatingBufferedListModel = false;
+        }
+        if (changed) {
+            fireListModelChanged();
         }
         return bufferedListModel;
     }
 
+    /**
+     * Changes the buffered list model into the given elements with as few
+     * insertions, removals and replacements as possible, so views of the
+     * buffer keep their state for the elements that didn't change.
+     *
+     * @return <code>true</code> if the buffered list model was changed
+     */
+    private boolean applyChanges(List elements) {
+        int start = 0;
+        int oldEnd = bufferedListModel.size();
+        int newEnd = elements.size();
+        while (start < oldEnd && start < newEnd && isSameElement(bufferedListModel.get(start), elements.get(start))) {
+            start++;
+        }
+        while (oldEnd > start && newEnd > start
+                && isSameElement(bufferedListModel.get(oldEnd - 1), elements.get(newEnd - 1))) {
+            oldEnd--;
+            newEnd--;
+        }
+        int oldCount = oldEnd - start;
+        int newCount = newEnd - start;
+        if (oldCount == 0 && newCount == 0) {
+            return false;
+        }
+        if ((long)oldCount * newCount > MAX_DIFF_SIZE) {
+            if (oldCount == bufferedListModel.size()) {
+                bufferedListModel.clear();
+            }
+            else {
+                for (int i = oldEnd - 1; i >= start; i--) {
+                    bufferedListModel.remove(i);
+                }
+            }
+            bufferedListModel.addAll(start, elements.subList(start, newEnd));
+            return true;
+        }
+
+        Object[] oldElements = bufferedListModel.subList(start, oldEnd).toArray();
+        Object[] newElements = elements.subList(start, newEnd).toArray();
+        // lcs[i][j] is the length of the longest common subsequence of
+        // oldElements[i..] and newElements[j..]
+        int[][] lcs = new int[oldCount + 1][newCount + 1];
+        for (int i = oldCount - 1; i >= 0; i--) {
+            for (int j = newCount - 1; j >= 0; j--) {
+                lcs[i][j] = isSameElement(oldElements[i], newElements[j]) ? lcs[i + 1][j + 1] + 1 : Math.max(
+                        lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        int i = 0;
+        int j = 0;
+        int index = start;
+        while (i < oldCount || j < newCount) {
+            if (i < oldCount && j < newCount && isSameElement(oldElements[i], newElements[j])) {
+                i++;
+                j++;
+                index++;
+            }
+            else if (i < oldCount && j < newCount && lcs[i][j] == lcs[i + 1][j + 1]) {
+                bufferedListModel.set(index++, newElements[j++]);
+                i++;
+            }
+            else if (j < newCount && (i == oldCount || lcs[i][j + 1] >= lcs[i + 1][j])) {
+                bufferedListModel.add(index++, newElements[j++]);
+            }
+            else {
+                bufferedListModel.remove(index);
+                i++;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSameElement(Object oldElement, Object newElement) {
+        return !super.hasValueChanged(oldElement, newElement);
+    }
+
     /**
      * Prepare the backing collection for installation into the buffered list model.  The default
      * implementation of this method simply returns it.  Subclasses can do whatever is needed
@@ -305,15 +401,22 @@ public class BufferedCollectionValueModel extends BufferedValueModel {
 
     private class ListChangeHandler implements ListDataListener {
         public void contentsChanged(ListDataEvent e) {
-            fireListModelChanged();
+            listModelChanged();
         }
 
         public void intervalAdded(ListDataEvent e) {
-            fireListModelChanged();
+            listModelChanged();
         }
 
         public void intervalRemoved(ListDataEvent e) {
-            fireListModelChanged();
+            listModelChanged();
+        }
+
+        private void listModelChanged() {
+            // changes made while updating the buffer are reported once afterwards
+            if (!updatingBufferedListModel) {
+                fireListModelChanged();
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2002-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.binding.value.support;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.binding.value.DerivedValueModel;
+import org.springframework.binding.value.ValueModel;
+import org.springframework.rules.closure.Closure;
+import org.springframework.util.Assert;
+
+/**
+ * A graph of derived value models that are recomputed lazily and without
+ * glitches.
+ * <p>
+ * The {@link AbstractDerivedValueModel} subclasses recompute their value
+ * eagerly every time one of their sources changes, so a value derived from
+ * other derived values is recomputed once for each path a change travels
+ * along, and its listeners may see intermediate values computed from a mix of
+ * old and new source values. The value models created by
+ * {@link #derive(ValueModel[], Closure)} instead form a directed acyclic graph:
+ * a change of a source only marks the values depending on it dirty. Dirty
+ * values are recomputed in topological order, each at most once per change,
+ * and a value whose sources all turned out unchanged isn't recomputed at all.
+ * Reading a value always recomputes what is needed first, so listeners never
+ * see stale values. Change events are only fired once every value in the
+ * graph is up to date, and only for values that differ from what their
+ * listeners saw last.
+ * <p>
+ * Several source changes can be combined into one change with
+ * {@link #beginBatch()} and {@link #endBatch()}, eg. while a new form object
+ * is set.
+ *
+ * <pre>
+ * DerivedValueGraph graph = new DerivedValueGraph();
+ * ValueModel total = graph.derive(new ValueModel[] {price, quantity}, new AbstractClosure() {
+ *     public Object call(Object argument) {
+ *         Object[] values = (Object[]) argument;
+ *         ...
+ *     }
+ * });
+ * </pre>
+ *
+ * The graph isn't thread safe; like all value models it should only be used
+ * from the event dispatch thread.
+ */
+public class DerivedValueGraph {
+
+    private static final int CLEAN = 0;
+
+    private static final int CHECK = 1;
+
+    private static final int DIRTY = 2;
+
+    private static final Comparator RANK_ORDER = new Comparator() {
+        public int compare(Object o1, Object o2) {
+            return ((DerivedValue)o1).rank - ((DerivedValue)o2).rank;
+        }
+    };
+
+    private final Map externalDependents = new HashMap();
+
+    private final List pending = new ArrayList();
+
+    private final PropertyChangeListener sourceChangeHandler = new PropertyChangeListener() {
+        public void propertyChange(PropertyChangeEvent evt) {
+            sourceChanged((ValueModel)evt.getSource());
+        }
+    };
+
+    private int batchDepth;
+
+    private boolean propagating;
+
+    private long computeCount;
+
+    /**
+     * Creates a value model whose value is computed by the given function
+     * from the values of the given sources. The function is called with an
+     * <code>Object[]</code> holding the source values in the given order.
+     * Sources created by this graph become edges of the graph, any other
+     * value model is listened to for changes.
+     */
+    public DerivedValue derive(ValueModel[] sources, Closure function) {
+        Assert.notNull(sources, "sources cannot be null");
+        Assert.notNull(function, "function cannot be null");
+        DerivedValue derivedValue = new DerivedValue((ValueModel[])sources.clone(), function);
+        for (int i = 0; i < sources.length; i++) {
+            Assert.notNull(sources[i], "sources cannot contain null");
+            if (isNode(sources[i])) {
+                DerivedValue source = (DerivedValue)sources[i];
+                if (!source.dependents.contains(derivedValue)) {
+                    source.dependents.add(derivedValue);
+                }
+                derivedValue.rank = Math.max(derivedValue.rank, source.rank + 1);
+            }
+            else {
+                List dependents = (List)externalDependents.get(sources[i]);
+                if (dependents == null) {
+                    dependents = new ArrayList();
+                    externalDependents.put(sources[i], dependents);
+                    sources[i].addValueChangeListener(sourceChangeHandler);
+                }
+                if (!dependents.contains(derivedValue)) {
+                    dependents.add(derivedValue);
+                }
+            }
+        }
+        derivedValue.initialize();
+        return derivedValue;
+    }
+
+    /**
+     * Convenience method for a value derived from a single source; the
+     * function is called with the source value itself.
+     */
+    public DerivedValue derive(ValueModel source, final Closure function) {
+        Assert.notNull(function, "function cannot be null");
+        return derive(new ValueModel[] {source}, new Closure() {
+            public Object call(Object argument) {
+                return function.call(((Object[])argument)[0]);
+            }
+        });
+    }
+
+    /**
+     * Starts combining source changes. Until the matching {@link #endBatch()}
+     * values are only marked dirty; they are still recomputed when read.
+     * Batches may be nested.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ends combining source changes. When the outermost batch ends the dirty
+     * values are recomputed and their listeners notified.
+     */
+    public void endBatch() {
+        Assert.state(batchDepth > 0, "endBatch called without beginBatch");
+        if (--batchDepth == 0) {
+            propagate();
+        }
+    }
+
+    /**
+     * Returns whether source changes are currently being combined.
+     */
+    public boolean isBatching() {
+        return batchDepth > 0;
+    }
+
+    /**
+     * Returns the number of times a value of this graph has been computed.
+     */
+    public long getComputeCount() {
+        return computeCount;
+    }
+
+    /**
+     * Stops listening to the sources that weren't created by this graph. The
+     * derived values keep their last value.
+     */
+    public void dispose() {
+        for (Iterator i = externalDependents.keySet().iterator(); i.hasNext();) {
+            ((ValueModel)i.next()).removeValueChangeListener(sourceChangeHandler);
+        }
+        externalDependents.clear();
+        pending.clear();
+    }
+
+    private boolean isNode(ValueModel valueModel) {
+        return valueModel instanceof DerivedValue && ((DerivedValue)valueModel).getGraph() == this;
+    }
+
+    private void sourceChanged(ValueModel source) {
+        List dependents = (List)externalDependents.get(source);
+        if (dependents == null) {
+            return;
+        }
+        for (Iterator i = dependents.iterator(); i.hasNext();) {
+            mark((DerivedValue)i.next(), DIRTY);
+        }
+        if (batchDepth == 0) {
+            propagate();
+        }
+    }
+
+    private void mark(DerivedValue derivedValue, int state) {
+        if (derivedValue.state >= state) {
+            return;
+        }
+        boolean wasClean = derivedValue.state == CLEAN;
+        derivedValue.state = state;
+        if (wasClean) {
+            // values that aren't clean are already waiting to be propagated
+            if (!derivedValue.pending) {
+                derivedValue.pending = true;
+                pending.add(derivedValue);
+            }
+            for (Iterator i = derivedValue.dependents.iterator(); i.hasNext();) {
+                mark((DerivedValue)i.next(), CHECK);
+            }
+        }
+    }
+
+    private void propagate() {
+        if (propagating) {
+            // listeners changed a source; the loop below picks it up
+            return;
+        }
+        propagating = true;
+        try {
+            while (!pending.isEmpty()) {
+                DerivedValue[] derivedValues = (DerivedValue[])pending.toArray(new DerivedValue[pending.size()]);
+                pending.clear();
+                for (int i = 0; i < derivedValues.length; i++) {
+                    derivedValues[i].pending = false;
+                }
+                Arrays.sort(derivedValues, RANK_ORDER);
+                for (int i = 0; i < derivedValues.length; i++) {
+                    derivedValues[i].update();
+                }
+                for (int i = 0; i < derivedValues.length; i++) {
+                    derivedValues[i].fireIfChanged();
+                }
+            }
+        }
+        finally {
+            propagating = false;
+        }
+    }
+
+    /**
+     * A read-only value model of a {@link DerivedValueGraph}.
+     */
+    public class DerivedValue extends AbstractValueModel implements DerivedValueModel {
+
+        private final ValueModel[] sources;
+
+        private final Closure function;
+
+        private final List dependents = new ArrayList(2);
+
+        private int rank;
+
+        private int state = CLEAN;
+
+        private boolean pending;
+
+        private Object value;
+
+        private Object notifiedValue;
+
+        private DerivedValue(ValueModel[] sources, Closure function) {
+            this.sources = sources;
+            this.function = function;
+        }
+
+        private void initialize() {
+            value = compute();
+            notifiedValue = value;
+        }
+
+        DerivedValueGraph getGraph() {
+            return DerivedValueGraph.this;
+        }
+
+        /**
+         * Returns the value, recomputing it first if any of its sources has
+         * changed.
+         */
+        public Object getValue() {
+            update();
+            return value;
+        }
+
+        public void setValue(Object newValue) {
+            throw new UnsupportedOperationException("This value model is read only");
+        }
+
+        public ValueModel[] getSourceValueModels() {
+            return (ValueModel[])sources.clone();
+        }
+
+        public boolean isReadOnly() {
+            return true;
+        }
+
+        /**
+         * Returns whether the value needs to be checked or recomputed before
+         * it can be read.
+         */
+        public boolean isDirty() {
+            return state != CLEAN;
+        }
+
+        private void update() {
+            if (state == CHECK) {
+                // a changed source marks this value dirty while updating
+                for (int i = 0; i < sources.length && state == CHECK; i++) {
+                    if (isNode(sources[i])) {
+                        ((DerivedValue)sources[i]).update();
+                    }
+                }
+            }
+            if (state == DIRTY) {
+                Object newValue = compute();
+                if (hasValueChanged(value, newValue)) {
+                    value = newValue;
+                    for (Iterator i = dependents.iterator(); i.hasNext();) {
+                        mark((DerivedValue)i.next(), DIRTY);
+                    }
+                }
+            }
+            state = CLEAN;
+        }
+
+        private Object compute() {
+            Object[] sourceValues = new Object[sources.length];
+            for (int i = 0; i < sources.length; i++) {
+                sourceValues[i] = sources[i].getValue();
+            }
+            computeCount++;
+            return function.call(sourceValues);
+        }
+
+        private void fireIfChanged() {
+            Object oldValue = notifiedValue;
+            notifiedValue = value;
+            fireValueChange(oldValue, value);
+        }
+
+        public String toString() {
+            return "DerivedValue[rank=" + rank + ", value=" + value + (isDirty() ? ", dirty" : "") + "]";
+        }
+    }
+}
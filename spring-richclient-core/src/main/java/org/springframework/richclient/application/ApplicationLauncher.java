@@ -56,6 +56,24 @@ import java.lang.reflect.InvocationTargetException;
  * for displaying a splash screen.
  * </p>
  * 
+ * <p>
+ * When the system property {@value StartupProfiler#PROFILE_PROPERTY} is set,
+ * the launcher records the duration of each startup phase and bean with a
+ * {@link StartupProfiler} and writes a report once the application has been
+ * started.
+ * </p>
+ * 
+ * <p>
+ * When the startup context defines a {@link StartupTasks} bean under the name
+ * {@link #STARTUP_TASKS_BEAN_ID}, its tasks run on background threads while
+ * the main application context is loaded, and the application is only started
+ * once they have completed. Warming the application services it lists can
+ * only start after the main application context has been loaded. When there
+ * are startup tasks, the splash screen is displayed without waiting for the
+ * event dispatch thread, so loading the main application context starts right
+ * away.
+ * </p>
+ * 
  * @author Keith Donald
  * @see Application
  */
@@ -74,6 +92,13 @@ public class ApplicationLauncher {
 	 */
 	public static final String APPLICATION_BEAN_ID = "application";
 
+	/**
+	 * The name of the bean in the startup context that defines the
+	 * {@link StartupTasks} to run while the application is loaded.
+	 * {@value}
+	 */
+	public static final String STARTUP_TASKS_BEAN_ID = "startupTasks";
+
 	private final Log logger = LogFactory.getLog(getClass());
 
 	private ApplicationContext startupContext;
@@ -82,6 +107,10 @@ public class ApplicationLauncher {
 
 	private ApplicationContext rootApplicationContext;
 
+	private StartupTasks startupTasks;
+
+	private final StartupProfiler profiler = StartupProfiler.createIfEnabled();
+
 	/**
 	 * Launches the application defined by the Spring application context file
 	 * at the provided classpath-relative location.
@@ -153,6 +182,7 @@ public class ApplicationLauncher {
         
 		this.startupContext = loadStartupContext(startupContextPath);
 		if (startupContext != null) {
+			startStartupTasks(startupContext);
 			displaySplashScreen(startupContext);
 		}
 		try {
@@ -161,6 +191,7 @@ public class ApplicationLauncher {
 		}
 		finally {
 			destroySplashScreen();
+			finishProfiling();
 		}
 	}
 
@@ -192,6 +223,7 @@ public class ApplicationLauncher {
 	public ApplicationLauncher(String startupContextPath, ApplicationContext rootApplicationContext) {
 		this.startupContext = loadStartupContext(startupContextPath);
 		if (startupContext != null) {
+			startStartupTasks(startupContext);
 			displaySplashScreen(startupContext);
 		}
 		try {
@@ -200,6 +232,7 @@ public class ApplicationLauncher {
 		}
 		finally {
 			destroySplashScreen();
+			finishProfiling();
 		}
 	}
 
@@ -220,7 +253,13 @@ public class ApplicationLauncher {
         logger.info("Loading startup context from classpath resource ("
                     + startupContextPath
                     + ")");
-        return new ClassPathXmlApplicationContext(startupContextPath);
+        phaseStarted("startupContext");
+        try {
+            return new ClassPathXmlApplicationContext(startupContextPath);
+        }
+        finally {
+            phaseEnded("startupContext");
+        }
     }
 
     /**
@@ -251,7 +290,17 @@ public class ApplicationLauncher {
 
         }
 
-        applicationContext.refresh();
+        if (profiler != null) {
+            applicationContext.addBeanFactoryPostProcessor(new StartupProfilingBeanFactoryPostProcessor(profiler));
+        }
+
+        phaseStarted("rootContext");
+        try {
+            applicationContext.refresh();
+        }
+        finally {
+            phaseEnded("rootContext");
+        }
 
         return applicationContext;
     }
@@ -276,6 +325,12 @@ public class ApplicationLauncher {
             displaySplashScreen(rootApplicationContext);
         }
 
+        // not during the refresh: services created on another thread while the context
+        // creates its singletons could deadlock
+        if (startupTasks != null && ApplicationServicesLocator.isLoaded()) {
+            startupTasks.startWarmingServices(ApplicationServicesLocator.services());
+        }
+
         final Application application;
         
         try {
@@ -292,9 +347,10 @@ public class ApplicationLauncher {
         }
         
         try {
+            awaitStartupTasks();
             // To avoid deadlocks when events fire during initialization of some swing components
             // Possible to do: in theory not a single Swing component should be created (=modified) in the launcher thread...
-            SwingUtilities.invokeAndWait(new Runnable() {
+            invokeAndWait("application.start", new Runnable() {
                 public void run() {
                     application.start();
                 }
@@ -328,9 +384,13 @@ public class ApplicationLauncher {
         if (beanFactory.containsBean(SPLASH_SCREEN_BEAN_ID)) {
             this.splashScreen = (SplashScreen) beanFactory.getBean(SPLASH_SCREEN_BEAN_ID, SplashScreen.class);
             logger.debug("Displaying application splash screen...");
+            if (startupTasks != null) {
+                displaySplashScreenLater();
+                return;
+            }
             try
             {
-                SwingUtilities.invokeAndWait(new Runnable() {
+                invokeAndWait("splash", new Runnable() {
                     public void run() {
                         ApplicationLauncher.this.splashScreen.splash();
                     }
@@ -346,6 +406,78 @@ public class ApplicationLauncher {
         }
     }
 
+    /**
+     * Displays the splash screen without waiting for the event dispatch
+     * thread. The progress monitor is created first, so it is not created
+     * concurrently by the splash screen and the launcher thread.
+     */
+    private void displaySplashScreenLater() {
+        if (splashScreen instanceof MonitoringSplashScreen) {
+            ((MonitoringSplashScreen) splashScreen).getProgressMonitor();
+        }
+        final SplashScreen splash = splashScreen;
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+                splash.splash();
+            }
+        });
+    }
+
+    /**
+     * Starts the {@link StartupTasks} defined in the given startup context, if
+     * any.
+     */
+    private void startStartupTasks(BeanFactory beanFactory) {
+        if (beanFactory.containsBean(STARTUP_TASKS_BEAN_ID)) {
+            this.startupTasks = (StartupTasks) beanFactory.getBean(STARTUP_TASKS_BEAN_ID, StartupTasks.class);
+            logger.debug("Starting startup tasks...");
+            startupTasks.start();
+        }
+    }
+
+    private void awaitStartupTasks() throws InterruptedException {
+        if (startupTasks != null) {
+            phaseStarted("startupTasks");
+            try {
+                startupTasks.awaitCompletion();
+            }
+            finally {
+                phaseEnded("startupTasks");
+            }
+        }
+    }
+
+    private void invokeAndWait(String name, Runnable task) throws InterruptedException, InvocationTargetException {
+        if (profiler != null) {
+            profiler.invokeAndWait(name, task);
+        }
+        else {
+            SwingUtilities.invokeAndWait(task);
+        }
+    }
+
+    private void phaseStarted(String phase) {
+        if (profiler != null) {
+            profiler.phaseStarted(phase);
+        }
+    }
+
+    private void phaseEnded(String phase) {
+        if (profiler != null) {
+            profiler.phaseEnded(phase);
+        }
+    }
+
+    /**
+     * Writes the startup profile if the {@link StartupProfiler} has been
+     * enabled.
+     */
+    private void finishProfiling() {
+        if (profiler != null) {
+            profiler.finish();
+        }
+    }
+
     private void destroySplashScreen() {
         if (splashScreen != null) {
             logger.debug("Closing splash screen...");
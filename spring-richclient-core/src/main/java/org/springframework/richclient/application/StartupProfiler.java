@@ -0,0 +1,408 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Records where the time goes while an application starts: the duration of the
+ * startup phases, the time spent creating each bean, the time the launcher
+ * thread blocks on the event dispatch thread and the number and duration of
+ * message and icon lookups. When startup is {@link #finish() finished} a text
+ * report and a JSON report are written.
+ * <p>
+ * Profiling is opt-in: the {@link ApplicationLauncher} only profiles when the
+ * system property {@value #PROFILE_PROPERTY} is set. Its value is the path,
+ * without extension, of the report files; <code>true</code> writes
+ * <code>startup-profile.txt</code> and <code>startup-profile.json</code> in
+ * the working directory.
+ *
+ * @see StartupProfilingBeanFactoryPostProcessor
+ */
+public class StartupProfiler {
+
+    /**
+     * The system property enabling the startup profiler.
+     */
+    public static final String PROFILE_PROPERTY = "richclient.startup.profile";
+
+    public static final String DEFAULT_REPORT_PATH = "startup-profile";
+
+    /** Sorts report entries by the time spent in the entry itself. */
+    public static final String SORT_BY_SELF_TIME = "self";
+
+    /** Sorts report entries by the total time, including nested entries. */
+    public static final String SORT_BY_TOTAL_TIME = "total";
+
+    /** Sorts report entries by name. */
+    public static final String SORT_BY_NAME = "name";
+
+    private static final Log logger = LogFactory.getLog(StartupProfiler.class);
+
+    private final long startTime = System.nanoTime();
+
+    private long endTime;
+
+    private final Map phases = new LinkedHashMap();
+
+    private final Map beans = new LinkedHashMap();
+
+    private final LinkedList beanStack = new LinkedList();
+
+    private final Map lookups = new LinkedHashMap();
+
+    private final Map edtCalls = new LinkedHashMap();
+
+    private String reportPath;
+
+    private String sortBy = SORT_BY_SELF_TIME;
+
+    /**
+     * Creates a profiler if the {@value #PROFILE_PROPERTY} system property is
+     * set.
+     *
+     * @return the profiler, or <code>null</code> if profiling is disabled
+     */
+    public static StartupProfiler createIfEnabled() {
+        String path = System.getProperty(PROFILE_PROPERTY);
+        if (!StringUtils.hasText(path) || "false".equalsIgnoreCase(path)) {
+            return null;
+        }
+        StartupProfiler profiler = new StartupProfiler();
+        profiler.setReportPath("true".equalsIgnoreCase(path) ? DEFAULT_REPORT_PATH : path);
+        return profiler;
+    }
+
+    /**
+     * Sets the path, without extension, of the report files written by
+     * {@link #finish()}. If <code>null</code> the report is only logged.
+     */
+    public void setReportPath(String reportPath) {
+        this.reportPath = reportPath;
+    }
+
+    public String getReportPath() {
+        return reportPath;
+    }
+
+    /**
+     * Sets the order of the entries in the text report, one of
+     * {@link #SORT_BY_SELF_TIME}, {@link #SORT_BY_TOTAL_TIME} or
+     * {@link #SORT_BY_NAME}.
+     */
+    public void setSortBy(String sortBy) {
+        Assert.isTrue(SORT_BY_SELF_TIME.equals(sortBy) || SORT_BY_TOTAL_TIME.equals(sortBy)
+                || SORT_BY_NAME.equals(sortBy), "Unknown sort order: " + sortBy);
+        this.sortBy = sortBy;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public synchronized void phaseStarted(String phase) {
+        getEntry(phases, phase).start = System.nanoTime();
+    }
+
+    public synchronized void phaseEnded(String phase) {
+        Entry entry = getEntry(phases, phase);
+        entry.add(System.nanoTime() - entry.start, 0);
+    }
+
+    /**
+     * Called when the bean factory starts creating the given bean. Beans
+     * created while creating this bean are subtracted from its self time.
+     */
+    public synchronized void beanStarted(String beanName) {
+        Entry entry = new Entry(beanName);
+        entry.start = System.nanoTime();
+        beanStack.addFirst(entry);
+    }
+
+    /**
+     * Called when the given bean has been created and initialized. Ignored if
+     * {@link #beanStarted(String)} has not been called for it.
+     */
+    public synchronized void beanEnded(String beanName) {
+        int index = -1;
+        for (int i = 0; i < beanStack.size(); i++) {
+            if (((Entry)beanStack.get(i)).name.equals(beanName)) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        Entry entry = null;
+        for (int i = 0; i <= index; i++) {
+            // beans above the finished one failed or were not initialized
+            entry = (Entry)beanStack.removeFirst();
+        }
+        long total = now - entry.start;
+        long self = total - entry.nested;
+        if (!beanStack.isEmpty()) {
+            ((Entry)beanStack.getFirst()).nested += total;
+        }
+        getEntry(beans, beanName).add(total, total - self);
+    }
+
+    /**
+     * Records a message or icon lookup. Ignored once profiling has finished.
+     *
+     * @param kind the kind of lookup, for example "message" or "icon"
+     * @param nanos the duration of the lookup
+     */
+    public synchronized void lookupPerformed(String kind, long nanos) {
+        if (endTime != 0) {
+            return;
+        }
+        getEntry(lookups, kind).add(nanos, 0);
+    }
+
+    /**
+     * Runs the given task on the event dispatch thread and waits for it,
+     * recording both the time the task ran and the time the calling thread
+     * was blocked.
+     */
+    public void invokeAndWait(String name, final Runnable task) throws InterruptedException,
+            InvocationTargetException {
+        final long[] runTime = new long[1];
+        long start = System.nanoTime();
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                long runStart = System.nanoTime();
+                try {
+                    task.run();
+                }
+                finally {
+                    runTime[0] = System.nanoTime() - runStart;
+                }
+            }
+        });
+        long blocked = System.nanoTime() - start;
+        synchronized (this) {
+            // self time is the time spent waiting for the event dispatch thread
+            getEntry(edtCalls, name).add(blocked, runTime[0]);
+        }
+    }
+
+    /**
+     * Ends profiling, logs the report and writes the report files.
+     */
+    public void finish() {
+        synchronized (this) {
+            endTime = System.nanoTime();
+        }
+        String report = createReport();
+        logger.info(report);
+        if (reportPath != null) {
+            writeFile(reportPath + ".txt", report);
+            writeFile(reportPath + ".json", createJsonReport());
+        }
+    }
+
+    public synchronized long getTotalTime() {
+        return (endTime != 0 ? endTime : System.nanoTime()) - startTime;
+    }
+
+    /**
+     * Returns the total time spent creating the given bean, in nanoseconds, or
+     * -1 if it has not been profiled.
+     */
+    public synchronized long getBeanTime(String beanName) {
+        Entry entry = (Entry)beans.get(beanName);
+        return entry != null ? entry.total : -1;
+    }
+
+    public synchronized int getLookupCount(String kind) {
+        Entry entry = (Entry)lookups.get(kind);
+        return entry != null ? entry.count : 0;
+    }
+
+    public synchronized String createReport() {
+        StringBuffer report = new StringBuffer("Startup profile, total ");
+        report.append(millis(getTotalTime())).append(" ms\n");
+        appendSection(report, "Phases", phases.values(), "total");
+        appendSection(report, "Event dispatch thread calls", edtCalls.values(), "waiting");
+        appendSection(report, "Lookups", lookups.values(), null);
+        appendSection(report, "Beans", beans.values(), "self");
+        return report.toString();
+    }
+
+    private void appendSection(StringBuffer report, String title, Collection entries, String selfLabel) {
+        report.append('\n').append(title).append(":\n");
+        List sorted = new ArrayList(entries);
+        Collections.sort(sorted, getComparator());
+        for (Iterator i = sorted.iterator(); i.hasNext();) {
+            Entry entry = (Entry)i.next();
+            report.append("  ").append(pad(millis(entry.total), 10)).append(" ms");
+            if (selfLabel != null) {
+                report.append(pad(millis(entry.getSelf()), 10)).append(" ms ").append(selfLabel);
+            }
+            if (entry.count > 1 || selfLabel == null) {
+                report.append("  ").append(entry.count).append('x');
+            }
+            report.append("  ").append(entry.name).append('\n');
+        }
+    }
+
+    private Comparator getComparator() {
+        if (SORT_BY_NAME.equals(sortBy)) {
+            return new Comparator() {
+                public int compare(Object o1, Object o2) {
+                    return ((Entry)o1).name.compareTo(((Entry)o2).name);
+                }
+            };
+        }
+        final boolean byTotal = SORT_BY_TOTAL_TIME.equals(sortBy);
+        return new Comparator() {
+            public int compare(Object o1, Object o2) {
+                long t1 = byTotal ? ((Entry)o1).total : ((Entry)o1).getSelf();
+                long t2 = byTotal ? ((Entry)o2).total : ((Entry)o2).getSelf();
+                return t1 < t2 ? 1 : (t1 == t2 ? 0 : -1);
+            }
+        };
+    }
+
+    /**
+     * Returns the recorded data as JSON. Times are in nanoseconds.
+     */
+    public synchronized String createJsonReport() {
+        StringBuffer json = new StringBuffer("{\n  \"totalTime\": ").append(getTotalTime());
+        appendJson(json, "phases", phases.values());
+        appendJson(json, "edtCalls", edtCalls.values());
+        appendJson(json, "lookups", lookups.values());
+        appendJson(json, "beans", beans.values());
+        return json.append("\n}\n").toString();
+    }
+
+    private void appendJson(StringBuffer json, String name, Collection entries) {
+        json.append(",\n  \"").append(name).append("\": [");
+        for (Iterator i = entries.iterator(); i.hasNext();) {
+            Entry entry = (Entry)i.next();
+            json.append("\n    {\"name\": \"").append(escape(entry.name)).append("\", \"count\": ").append(
+                    entry.count).append(", \"totalTime\": ").append(entry.total).append(", \"selfTime\": ").append(
+                    entry.getSelf()).append('}');
+            if (i.hasNext()) {
+                json.append(',');
+            }
+        }
+        json.append(entries.isEmpty() ? "]" : "\n  ]");
+    }
+
+    private static String escape(String s) {
+        StringBuffer escaped = new StringBuffer(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                String hex = Integer.toHexString(c);
+                escaped.append("\\u").append("0000".substring(hex.length())).append(hex);
+            }
+            else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private void writeFile(String path, String content) {
+        try {
+            Writer writer = new FileWriter(path);
+            try {
+                writer.write(content);
+            }
+            finally {
+                writer.close();
+            }
+            logger.info("Startup profile written to " + path);
+        }
+        catch (IOException e) {
+            logger.warn("Unable to write startup profile to " + path, e);
+        }
+    }
+
+    private static String millis(long nanos) {
+        long tenths = nanos / 100000;
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+
+    private static String pad(String s, int width) {
+        StringBuffer padded = new StringBuffer();
+        for (int i = s.length(); i < width; i++) {
+            padded.append(' ');
+        }
+        return padded.append(s).toString();
+    }
+
+    private static Entry getEntry(Map entries, String name) {
+        Entry entry = (Entry)entries.get(name);
+        if (entry == null) {
+            entry = new Entry(name);
+            entries.put(name, entry);
+        }
+        return entry;
+    }
+
+    private static class Entry {
+        private final String name;
+
+        private int count;
+
+        private long total;
+
+        private long nested;
+
+        private long start;
+
+        public Entry(String name) {
+            this.name = name;
+        }
+
+        public void add(long time, long nestedTime) {
+            count++;
+            total += time;
+            nested += nestedTime;
+        }
+
+        public long getSelf() {
+            return total - nested;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.context.MessageSource;
+import org.springframework.richclient.image.IconSource;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@code BeanFactoryPostProcessor} that reports the time spent creating each
+ * bean of a bean factory to a {@link StartupProfiler}. It works like the
+ * {@link ProgressMonitoringBeanFactoryPostProcessor}, but also records when
+ * each bean has been initialized.
+ * <p>
+ * Unless disabled, the {@link MessageSource} and {@link IconSource} beans are
+ * wrapped in a proxy that reports each lookup to the profiler until it is
+ * finished. The proxies only implement the interfaces of the beans, so
+ * lookup profiling must be disabled when these beans are injected by their
+ * class.
+ *
+ * @see StartupProfiler
+ */
+public class StartupProfilingBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    private final StartupProfiler profiler;
+
+    private boolean profileLookups = true;
+
+    public StartupProfilingBeanFactoryPostProcessor(StartupProfiler profiler) {
+        Assert.notNull(profiler, "The StartupProfiler cannot be null");
+        this.profiler = profiler;
+    }
+
+    public boolean isProfileLookups() {
+        return profileLookups;
+    }
+
+    /**
+     * Sets whether message and icon lookups are profiled. Defaults to
+     * <code>true</code>.
+     */
+    public void setProfileLookups(boolean profileLookups) {
+        this.profileLookups = profileLookups;
+    }
+
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        beanFactory.addBeanPostProcessor(new ProfilingBeanPostProcessor());
+    }
+
+    private class ProfilingBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter {
+
+        public Object postProcessBeforeInstantiation(Class beanClass, String beanName) throws BeansException {
+            profiler.beanStarted(beanName);
+            return null;
+        }
+
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            profiler.beanEnded(beanName);
+            if (profileLookups && bean instanceof MessageSource) {
+                return createLookupProxy(bean, "message");
+            }
+            if (profileLookups && bean instanceof IconSource) {
+                return createLookupProxy(bean, "icon");
+            }
+            return bean;
+        }
+
+        private Object createLookupProxy(final Object target, final String kind) {
+            return Proxy.newProxyInstance(target.getClass().getClassLoader(), ClassUtils.getAllInterfaces(target),
+                    new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            long start = System.nanoTime();
+                            try {
+                                return method.invoke(target, args);
+                            }
+                            catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                            finally {
+                                if (method.getName().startsWith("get")) {
+                                    profiler.lookupPerformed(kind, System.nanoTime() - start);
+                                }
+                            }
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.richclient.image.IconSource;
+import org.springframework.util.Assert;
+
+/**
+ * Work that the {@link ApplicationLauncher} performs in parallel with loading
+ * the application, so the application window can be built with its resources
+ * ready. Define it in the startup context under the name
+ * {@link ApplicationLauncher#STARTUP_TASKS_BEAN_ID}.
+ * <p>
+ * Startup happens in two stages:
+ * <ul>
+ * <li>the {@link #setTasks(List) tasks} are started before the root
+ * application context is loaded, and run while it is being refreshed. They
+ * must not depend on the root context; typical tasks preload message bundles
+ * (see {@link org.springframework.richclient.application.support.ResourceBundlePreloader})
+ * or read user settings.</li>
+ * <li>once the root context has been loaded, the
+ * {@link #setServiceTypes(List) application services} are created and the
+ * {@link #setIconKeys(List) icons} decoded.</li>
+ * </ul>
+ * Only the tasks of the first stage overlap loading the root context. The
+ * services are not warmed during the refresh, as creating them from another
+ * thread while the context creates its singletons can deadlock. Services are
+ * created one at a time by
+ * {@link org.springframework.richclient.application.support.DefaultApplicationServices},
+ * so the second stage mostly moves that work off the event dispatch thread
+ * rather than running it in parallel.
+ * The launcher waits for all of them to complete before it starts the
+ * application. A task that fails only gets logged, as the application will
+ * then simply perform the same work when it needs it.
+ *
+ * @see ApplicationLauncher
+ */
+public class StartupTasks {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private List<Runnable> tasks = Collections.emptyList();
+
+    private List<Class> serviceTypes = Collections.emptyList();
+
+    private List<String> iconKeys = Collections.emptyList();
+
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    private long timeout = 60000;
+
+    private ExecutorService executor;
+
+    private final List<Future> futures = new ArrayList<Future>();
+
+    /**
+     * Sets the tasks that run while the root application context is loaded.
+     */
+    public void setTasks(List<Runnable> tasks) {
+        Assert.notNull(tasks, "tasks cannot be null");
+        this.tasks = tasks;
+    }
+
+    public List<Runnable> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Sets the types of the application services to create once the root
+     * application context has been loaded.
+     */
+    public void setServiceTypes(List<Class> serviceTypes) {
+        Assert.notNull(serviceTypes, "serviceTypes cannot be null");
+        this.serviceTypes = serviceTypes;
+    }
+
+    public List<Class> getServiceTypes() {
+        return serviceTypes;
+    }
+
+    /**
+     * Sets the keys of the icons to load from the {@link IconSource} once the
+     * root application context has been loaded.
+     */
+    public void setIconKeys(List<String> iconKeys) {
+        Assert.notNull(iconKeys, "iconKeys cannot be null");
+        this.iconKeys = iconKeys;
+    }
+
+    public List<String> getIconKeys() {
+        return iconKeys;
+    }
+
+    /**
+     * Sets the number of threads running the tasks. Defaults to the number of
+     * available processors.
+     */
+    public void setThreadCount(int threadCount) {
+        Assert.isTrue(threadCount > 0, "threadCount must be positive");
+        this.threadCount = threadCount;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Sets the maximum time in milliseconds the launcher waits for the tasks
+     * to complete. Defaults to 60 seconds.
+     */
+    public void setTimeout(long timeout) {
+        Assert.isTrue(timeout >= 0, "timeout cannot be negative");
+        this.timeout = timeout;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Starts the tasks that do not depend on the root application context.
+     */
+    public synchronized void start() {
+        Assert.state(executor == null, "The startup tasks have already been started");
+        executor = Executors.newFixedThreadPool(threadCount, new StartupThreadFactory());
+        for (Runnable task : tasks) {
+            submit(task);
+        }
+    }
+
+    /**
+     * Starts creating the application services and loading the icons. Must be
+     * called after {@link #start()}, once the application services are
+     * available.
+     */
+    public synchronized void startWarmingServices(final ApplicationServices applicationServices) {
+        Assert.state(executor != null, "The startup tasks have not been started");
+        for (final Class serviceType : serviceTypes) {
+            submit(new Runnable() {
+                public void run() {
+                    applicationServices.getService(serviceType);
+                }
+            });
+        }
+        if (!iconKeys.isEmpty()) {
+            submit(new Runnable() {
+                public void run() {
+                    IconSource iconSource = (IconSource) applicationServices.getService(IconSource.class);
+                    for (String iconKey : iconKeys) {
+                        iconSource.getIcon(iconKey);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits until all submitted work has completed, or the timeout has
+     * elapsed, and releases the threads.
+     */
+    public void awaitCompletion() throws InterruptedException {
+        List<Future> submitted;
+        synchronized (this) {
+            if (executor == null) {
+                return;
+            }
+            executor.shutdown();
+            submitted = new ArrayList<Future>(futures);
+        }
+        long deadline = System.currentTimeMillis() + timeout;
+        for (Future future : submitted) {
+            try {
+                future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+            catch (ExecutionException e) {
+                logger.warn("Startup task failed", e.getCause());
+            }
+            catch (TimeoutException e) {
+                logger.warn("Startup tasks did not complete within " + timeout + " ms; continuing");
+                break;
+            }
+        }
+    }
+
+    private void submit(Runnable task) {
+        futures.add(executor.submit(task));
+    }
+
+    private static class StartupThreadFactory implements ThreadFactory {
+
+        private int count;
+
+        public synchronized Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "startup-task-" + (++count));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
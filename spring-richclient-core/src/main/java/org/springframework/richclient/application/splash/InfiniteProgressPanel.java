@@ -15,12 +15,21 @@
  */
 package org.springframework.richclient.application.splash;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.font.FontRenderContext;
@@ -30,20 +39,38 @@ import java.awt.geom.Area;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import org.springframework.richclient.util.AnimationTimer;
 
 /**
  * Taken from a blog post by <a
  * href="http://jroller.com/page/gfx?entry=wait_with_style_in_swing">Romain Guy</a>.
  * <p>
- * The only change is support for a background image.
+ * Changes are support for a background image, and cheaper rendering: the
+ * animation is driven by the shared {@link AnimationTimer} instead of a thread
+ * of its own, so it slows down when the panel is obscured or displayed
+ * remotely, and the frames of the wheel are rendered once into images that
+ * are reused while it turns. The protected {@link #ticker} and
+ * {@link #animation} fields are kept for subclasses but are no longer used,
+ * and the protected <code>Animator</code> runnable has been removed.
  * 
  * @author Romain Guy
  */
 public class InfiniteProgressPanel extends JComponent implements MouseListener {
+	/**
+	 * @deprecated the wheel is painted from cached frame images, this field is
+	 * no longer computed
+	 */
 	protected Area[] ticker = null;
 
+	/**
+	 * @deprecated the animation is driven by the shared {@link AnimationTimer},
+	 * this field is no longer used
+	 */
 	protected Thread animation = null;
 
 	protected boolean started = false;
@@ -62,8 +89,16 @@ public class InfiniteProgressPanel extends JComponent implements MouseListener {
 
 	private Image background;
 
+	private FrameAnimator animator;
+
 	protected RenderingHints hints = null;
 
+	private BufferedImage[] frames;
+
+	private Rectangle wheelBounds;
+
+	private int frame = 0;
+
 	public InfiniteProgressPanel() {
 		this("");
 	}
@@ -94,6 +129,16 @@ public class InfiniteProgressPanel extends JComponent implements MouseListener {
 		this.hints = new RenderingHints(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
 		this.hints.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 		this.hints.put(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+
+		addHierarchyListener(new HierarchyListener() {
+			public void hierarchyChanged(HierarchyEvent e) {
+				// hidden panels get no frames, so a fade out would never end
+				if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && !isShowing() && animator != null
+						&& !animator.rampUp) {
+					finishFadeOut();
+				}
+			}
+		});
 	}
 
 	public void setText(String text) {
@@ -108,37 +153,73 @@ public class InfiniteProgressPanel extends JComponent implements MouseListener {
 	public void start() {
 		addMouseListener(this);
 		setVisible(true);
-		ticker = buildTicker();
-		animation = new Thread(new Animator(true));
-		animation.start();
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				frame = 0;
+				startAnimation(new FrameAnimator(true));
+			}
+		});
 	}
 
 	public void stop() {
-		if (animation != null) {
-			animation.interrupt();
-			animation = null;
-			animation = new Thread(new Animator(false));
-			animation.start();
-		}
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if (animator != null) {
+					startAnimation(new FrameAnimator(false));
+				}
+			}
+		});
 	}
 
 	public void interrupt() {
-		if (animation != null) {
-			animation.interrupt();
-			animation = null;
+		// queued behind a pending start, so an early interrupt isn't lost
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if (animator != null) {
+					stopAnimation();
+
+					removeMouseListener(InfiniteProgressPanel.this);
+					setVisible(false);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Replaces the running animation. Must be called on the event dispatch
+	 * thread, like all access to the {@link AnimationTimer}.
+	 */
+	private void startAnimation(FrameAnimator newAnimator) {
+		stopAnimation();
+		if (!newAnimator.rampUp && !isShowing()) {
+			// nothing to fade out
+			finishFadeOut();
+			return;
+		}
+		animator = newAnimator;
+		AnimationTimer.getInstance().add(this, fps, newAnimator);
+	}
 
-			removeMouseListener(this);
-			setVisible(false);
+	private void stopAnimation() {
+		if (animator != null) {
+			AnimationTimer.getInstance().remove(animator);
+			animator = null;
 		}
 	}
 
+	private void finishFadeOut() {
+		stopAnimation();
+		started = false;
+		repaint();
+		setVisible(false);
+		removeMouseListener(this);
+	}
+
 	public void paintComponent(Graphics g) {
 		if (started) {
 			int width = getWidth();
 			int height = getHeight();
 
-			double maxY = 0.0;
-
 			Graphics2D g2 = (Graphics2D) g;
 			g2.setRenderingHints(hints);
 
@@ -150,17 +231,21 @@ public class InfiniteProgressPanel extends JComponent implements MouseListener {
 			g2.setColor(new Color(255, 255, 255, (int) (alphaLevel * shield)));
 			g2.fillRect(0, 0, getWidth(), getHeight());
 
-			for (int i = 0; i < ticker.length; i++) {
-				int channel = 224 - 128 / (i + 1);
-				g2.setColor(new Color(channel, channel, channel, alphaLevel));
-				g2.fill(ticker[i]);
-
-				Rectangle2D bounds = ticker[i].getBounds2D();
-				if (bounds.getMaxY() > maxY)
-					maxY = bounds.getMaxY();
+			BufferedImage frameImage = getFrame(frame);
+			int wheelX = width / 2 + wheelBounds.x;
+			int wheelY = height / 2 + wheelBounds.y;
+			if (alphaLevel < 255) {
+				Composite composite = g2.getComposite();
+				g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alphaLevel / 255.0f));
+				g2.drawImage(frameImage, wheelX, wheelY, null);
+				g2.setComposite(composite);
+			}
+			else {
+				g2.drawImage(frameImage, wheelX, wheelY, null);
 			}
 
 			if (text != null && text.length() > 0) {
+				double maxY = wheelY + wheelBounds.height;
 				FontRenderContext context = g2.getFontRenderContext();
 				TextLayout layout = new TextLayout(text, getFont(), context);
 				Rectangle2D bounds = layout.getBounds();
@@ -171,9 +256,51 @@ public class InfiniteProgressPanel extends JComponent implements MouseListener {
 		}
 	}
 
-	private Area[] buildTicker() {
+	/**
+	 * Returns the image of the wheel turned the given number of bars, rendering
+	 * it the first time it's needed.
+	 */
+	private BufferedImage getFrame(int index) {
+		if (frames == null) {
+			frames = new BufferedImage[barsCount];
+			Area[] wheel = buildWheel(0.0, 0.0);
+			Rectangle bounds = new Rectangle();
+			for (int i = 0; i < wheel.length; i++) {
+				bounds.add(wheel[i].getBounds());
+			}
+			// the wheel turns, so leave room for the bars in every position
+			int radius = (int) Math.ceil(Math.max(Math.max(-bounds.getMinX(), bounds.getMaxX()), Math.max(
+					-bounds.getMinY(), bounds.getMaxY()))) + 1;
+			wheelBounds = new Rectangle(-radius, -radius, 2 * radius, 2 * radius);
+		}
+		if (frames[index] == null) {
+			frames[index] = createFrameImage(wheelBounds.width, wheelBounds.height);
+			Graphics2D g2 = frames[index].createGraphics();
+			g2.setRenderingHints(hints);
+			g2.translate(-wheelBounds.x, -wheelBounds.y);
+			g2.rotate(index * 2.0 * Math.PI / barsCount);
+			Area[] wheel = buildWheel(0.0, 0.0);
+			for (int i = 0; i < wheel.length; i++) {
+				int channel = 224 - 128 / (i + 1);
+				g2.setColor(new Color(channel, channel, channel));
+				g2.fill(wheel[i]);
+			}
+			g2.dispose();
+		}
+		return frames[index];
+	}
+
+	private BufferedImage createFrameImage(int width, int height) {
+		GraphicsConfiguration configuration = getGraphicsConfiguration();
+		if (configuration != null) {
+			return configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	private Area[] buildWheel(double centerX, double centerY) {
 		Area[] ticker = new Area[barsCount];
-		Point2D.Double center = new Point2D.Double((double) getWidth() / 2, (double) getHeight() / 2);
+		Point2D.Double center = new Point2D.Double(centerX, centerY);
 		double fixedAngle = 2.0 * Math.PI / ((double) barsCount);
 
 		for (double i = 0.0; i < (double) barsCount; i++) {
@@ -208,65 +335,56 @@ public class InfiniteProgressPanel extends JComponent implements MouseListener {
 		return tick;
 	}
 
-	protected class Animator implements Runnable {
+	/**
+	 * Advances the animation on each frame of the {@link AnimationTimer}.
+	 */
+	private class FrameAnimator implements ActionListener {
 		private boolean rampUp = true;
 
-		protected Animator(boolean rampUp) {
-			this.rampUp = rampUp;
-		}
-
-		public void run() {
-			Point2D.Double center = new Point2D.Double((double) getWidth() / 2, (double) getHeight() / 2);
-			double fixedIncrement = 2.0 * Math.PI / ((double) barsCount);
-			AffineTransform toCircle = AffineTransform.getRotateInstance(fixedIncrement, center.getX(), center.getY());
+		private boolean inRamp;
 
-			long start = System.currentTimeMillis();
-			if (rampDelay == 0)
-				alphaLevel = rampUp ? 255 : 0;
+		private long start = -1;
 
-			started = true;
-			boolean inRamp = rampUp;
+		FrameAnimator(boolean rampUp) {
+			this.rampUp = rampUp;
+			this.inRamp = rampUp;
+		}
 
-			while (!Thread.interrupted()) {
-				if (!inRamp) {
-					for (int i = 0; i < ticker.length; i++)
-						ticker[i].transform(toCircle);
-				}
+		public void actionPerformed(ActionEvent e) {
+			if (start < 0) {
+				start = System.currentTimeMillis();
+				if (rampDelay == 0)
+					alphaLevel = rampUp ? 255 : 0;
+				started = true;
+			}
 
-				repaint();
+			if (!inRamp) {
+				frame = (frame + 1) % barsCount;
+			}
 
-				if (rampUp) {
-					if (alphaLevel < 255) {
-						alphaLevel = (int) (255 * (System.currentTimeMillis() - start) / rampDelay);
-						if (alphaLevel >= 255) {
-							alphaLevel = 255;
-							inRamp = false;
-						}
-					}
-				}
-				else if (alphaLevel > 0) {
-					alphaLevel = (int) (255 - (255 * (System.currentTimeMillis() - start) / rampDelay));
-					if (alphaLevel <= 0) {
-						alphaLevel = 0;
-						break;
+			if (rampUp) {
+				if (alphaLevel < 255) {
+					alphaLevel = (int) (255 * (System.currentTimeMillis() - start) / rampDelay);
+					if (alphaLevel >= 255) {
+						alphaLevel = 255;
+						inRamp = false;
 					}
 				}
-
-				try {
-					Thread.sleep(inRamp ? 10 : (int) (1000 / fps));
+				else {
+					inRamp = false;
 				}
-				catch (InterruptedException ie) {
-					break;
+			}
+			else if (alphaLevel > 0) {
+				alphaLevel = (int) (255 - (255 * (System.currentTimeMillis() - start) / rampDelay));
+				if (alphaLevel < 0) {
+					alphaLevel = 0;
 				}
-				Thread.yield();
 			}
 
-			if (!rampUp) {
-				started = false;
-				repaint();
+			repaint();
 
-				setVisible(false);
-				removeMouseListener(InfiniteProgressPanel.this);
+			if (!rampUp && alphaLevel <= 0) {
+				finishFadeOut();
 			}
 		}
 	}
@@ -289,4 +407,4 @@ public class InfiniteProgressPanel extends JComponent implements MouseListener {
 	public void setBackground(Image background) {
 		this.background = background;
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -21,7 +21,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ApplicationEventMulticaster;
@@ -40,6 +42,7 @@ import org.springframework.richclient.application.ViewDescriptor;
 import org.springframework.richclient.application.ViewDescriptorRegistry;
 import org.springframework.richclient.factory.AbstractControlFactory;
 import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
 import org.springframework.util.Assert;
 
 /**
@@ -49,6 +52,30 @@ import org.springframework.util.Assert;
  */
 public abstract class AbstractApplicationPage extends AbstractControlFactory implements ApplicationPage {
 
+    private static final ListenerInvoker COMPONENT_OPENED = new ListenerInvoker() {
+        public void invoke(Object listener, Object component, Object unused) {
+            ((PageComponentListener) listener).componentOpened((PageComponent) component);
+        }
+    };
+
+    private static final ListenerInvoker COMPONENT_FOCUS_GAINED = new ListenerInvoker() {
+        public void invoke(Object listener, Object component, Object unused) {
+            ((PageComponentListener) listener).componentFocusGained((PageComponent) component);
+        }
+    };
+
+    private static final ListenerInvoker COMPONENT_FOCUS_LOST = new ListenerInvoker() {
+        public void invoke(Object listener, Object component, Object unused) {
+            ((PageComponentListener) listener).componentFocusLost((PageComponent) component);
+        }
+    };
+
+    private static final ListenerInvoker COMPONENT_CLOSED = new ListenerInvoker() {
+        public void invoke(Object listener, Object component, Object unused) {
+            ((PageComponentListener) listener).componentClosed((PageComponent) component);
+        }
+    };
+
     private final EventListenerListHelper pageComponentListeners = new EventListenerListHelper(
             PageComponentListener.class);
 
@@ -70,6 +97,10 @@ public abstract class AbstractApplicationPage extends AbstractControlFactory imp
 
     private ApplicationEventMulticaster applicationEventMulticaster;
 
+    private int viewCacheSize;
+
+    private final Map<String, View> cachedViews = new LinkedHashMap<String, View>(16, 0.75f, true);
+
     private PropertyChangeListener pageComponentUpdater = new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent evt) {
             if (evt.getSource() instanceof PageComponent) {
@@ -124,12 +155,12 @@ public abstract class AbstractApplicationPage extends AbstractControlFactory imp
 
     protected void fireOpened(PageComponent component) {
         component.componentOpened();
-        pageComponentListeners.fire("componentOpened", component);
+        pageComponentListeners.dispatch(COMPONENT_OPENED, component);
     }
 
     protected void fireFocusGained(PageComponent component) {
         component.componentFocusGained();
-        pageComponentListeners.fire("componentFocusGained", component);
+        pageComponentListeners.dispatch(COMPONENT_FOCUS_GAINED, component);
     }
 
     /**
@@ -189,7 +220,7 @@ public abstract class AbstractApplicationPage extends AbstractControlFactory imp
 
     protected void fireFocusLost(PageComponent component) {
         component.componentFocusLost();
-        pageComponentListeners.fire("componentFocusLost", component);
+        pageComponentListeners.dispatch(COMPONENT_FOCUS_LOST, component);
     }
 
     /**
@@ -227,7 +258,7 @@ public abstract class AbstractApplicationPage extends AbstractControlFactory imp
 
     protected void fireClosed(PageComponent component) {
         component.componentClosed();
-        pageComponentListeners.fire("componentClosed", component);
+        pageComponentListeners.dispatch(COMPONENT_CLOSED, component);
     }
 
     public String getId() {
@@ -267,11 +298,11 @@ public abstract class AbstractApplicationPage extends AbstractControlFactory imp
         doRemovePageComponent(pageComponent);
         pageComponents.remove(pageComponent);
         pageComponent.removePropertyChangeListener(pageComponentUpdater);
-        if (pageComponent instanceof ApplicationListener && getApplicationEventMulticaster() != null) {
-            getApplicationEventMulticaster().removeApplicationListener((ApplicationListener) pageComponent);
-        }
+        removeApplicationListener(pageComponent);
 
-        pageComponent.dispose();
+        if (!cacheView(pageComponent)) {
+            pageComponent.dispose();
+        }
         fireClosed(pageComponent);
         if (activeComponent == null) {
             setActiveComponent();
@@ -291,6 +322,7 @@ public abstract class AbstractApplicationPage extends AbstractControlFactory imp
             if (!close(component))
                 return false;
         }
+        disposeCachedViews();
         return true;
     }
 
@@ -311,7 +343,13 @@ public abstract class AbstractApplicationPage extends AbstractControlFactory imp
 
         View view = (View) findPageComponent(viewDescriptor.getId());
         if (view == null) {
-            view = (View) createPageComponent(viewDescriptor);
+            view = cachedViews.remove(viewDescriptor.getId());
+            if (view != null) {
+                addApplicationListener(view);
+            }
+            else {
+                view = (View) createPageComponent(viewDescriptor);
+            }
 
             if (setInput) {
                 // trigger control creation before input is set to avoid npe
@@ -365,11 +403,98 @@ public abstract class AbstractApplicationPage extends AbstractControlFactory imp
     protected PageComponent createPageComponent(PageComponentDescriptor descriptor) {
         PageComponent pageComponent = descriptor.createPageComponent();
         pageComponent.setContext(new DefaultViewContext(this, createPageComponentPane(pageComponent)));
+        addApplicationListener(pageComponent);
+
+        return pageComponent;
+    }
+
+    private void addApplicationListener(PageComponent pageComponent) {
         if (pageComponent instanceof ApplicationListener && getApplicationEventMulticaster() != null) {
             getApplicationEventMulticaster().addApplicationListener((ApplicationListener) pageComponent);
         }
+    }
 
-        return pageComponent;
+    private void removeApplicationListener(PageComponent pageComponent) {
+        if (pageComponent instanceof ApplicationListener && getApplicationEventMulticaster() != null) {
+            getApplicationEventMulticaster().removeApplicationListener((ApplicationListener) pageComponent);
+        }
+    }
+
+    /**
+     * Creates the view with the given id and builds its control, so it opens
+     * quickly when it is shown later on. The view is kept in the view cache
+     * until then, so this only has an effect when the view cache is enabled.
+     * 
+     * @param id
+     *            the id of the view
+     * @return <code>true</code> if the view has been created,
+     *         <code>false</code> if it was already open or cached or there is
+     *         no view cache
+     * @see #setViewCacheSize(int)
+     */
+    public boolean prewarmView(String id) {
+        Assert.hasText(id, "id cannot be empty");
+        if (viewCacheSize == 0 || findPageComponent(id) != null || cachedViews.containsKey(id)) {
+            return false;
+        }
+        View view = (View) createPageComponent(getViewDescriptor(id));
+        removeApplicationListener(view);
+        view.getContext().getPane().getControl();
+        cacheView(view);
+        return true;
+    }
+
+    /**
+     * Returns whether a closed or prewarmed view with the given id is waiting
+     * in the view cache.
+     */
+    public boolean isViewCached(String id) {
+        return cachedViews.containsKey(id);
+    }
+
+    /**
+     * Sets the maximum number of closed views that are kept, with their
+     * controls, to be reopened without creating them again. When more views
+     * are closed the least recently used cached view is disposed. Defaults to
+     * 0, which disposes views as soon as they are closed.
+     * <p>
+     * Only use this for views that can be shown again after having been
+     * closed, a cached view is not disposed until it is evicted or the page is
+     * closed.
+     */
+    public void setViewCacheSize(int viewCacheSize) {
+        Assert.isTrue(viewCacheSize >= 0, "viewCacheSize cannot be negative");
+        this.viewCacheSize = viewCacheSize;
+        evictCachedViews();
+    }
+
+    public int getViewCacheSize() {
+        return viewCacheSize;
+    }
+
+    private boolean cacheView(PageComponent pageComponent) {
+        if (viewCacheSize == 0 || !(pageComponent instanceof View)) {
+            return false;
+        }
+        cachedViews.put(pageComponent.getId(), (View) pageComponent);
+        evictCachedViews();
+        return true;
+    }
+
+    private void evictCachedViews() {
+        for (Iterator<View> iter = cachedViews.values().iterator(); cachedViews.size() > viewCacheSize
+                && iter.hasNext();) {
+            View view = iter.next();
+            iter.remove();
+            view.dispose();
+        }
+    }
+
+    private void disposeCachedViews() {
+        for (View view : cachedViews.values()) {
+            view.dispose();
+        }
+        cachedViews.clear();
     }
 
     public List<PageComponent> getPageComponents() {
@@ -45,6 +45,7 @@ import org.springframework.richclient.application.statusbar.StatusBar;
 import org.springframework.richclient.command.CommandGroup;
 import org.springframework.richclient.command.CommandManager;
 import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
 import org.springframework.richclient.util.WindowUtils;
 import org.springframework.util.Assert;
 
@@ -52,6 +53,18 @@ import org.springframework.util.Assert;
  * Abstract helper implementation for <code>ApplicationWindow</code>.
  */
 public abstract class AbstractApplicationWindow implements ApplicationWindow, WindowFocusListener {
+    private static final ListenerInvoker PAGE_OPENED = new ListenerInvoker() {
+        public void invoke( Object listener, Object page, Object unused ) {
+            ((PageListener) listener).pageOpened( (ApplicationPage) page );
+        }
+    };
+
+    private static final ListenerInvoker PAGE_CLOSED = new ListenerInvoker() {
+        public void invoke( Object listener, Object page, Object unused ) {
+            ((PageListener) listener).pageClosed( (ApplicationPage) page );
+        }
+    };
+
     protected Log logger = LogFactory.getLog( getClass() );
 
     private final EventListenerListHelper pageListeners = new EventListenerListHelper( PageListener.class );
@@ -197,12 +210,12 @@ public abstract class AbstractApplicationWindow implements ApplicationWindow, Wi
                 final ApplicationPage oldPage = this.currentPage;
                 this.currentPage = page;
                 setActivePage( page );
-                pageListeners.fire( "pageClosed", oldPage );
+                pageListeners.dispatch( PAGE_CLOSED, oldPage );
             } else {
                 // asking for the same page, so ignore
             }
         }
-        pageListeners.fire( "pageOpened", this.currentPage );
+        pageListeners.dispatch( PAGE_OPENED, this.currentPage );
     }
 
     protected final ApplicationPage createPage( ApplicationWindow window, String pageDescriptorId ) {
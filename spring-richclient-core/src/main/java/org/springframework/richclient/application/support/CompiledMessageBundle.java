@@ -0,0 +1,257 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application.support;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The messages of one locale in the binary format written by the
+ * {@link MessageBundleCompiler} and read by the {@link CompiledMessageSource}.
+ * <p>
+ * The messages are indexed by a perfect hash: the key is first hashed to a
+ * bucket, and the seed stored for that bucket is used to hash the key to its
+ * slot, which no other key maps to. Looking up a message therefore takes two
+ * hashes and a single key comparison. The format is:
+ *
+ * <pre>
+ * int      magic, version, message count, bucket count, slot count
+ * int[]    the seed of each bucket
+ * int[4][] key offset, key length, message offset and message length of each
+ *          slot; the key offset is -1 for an empty slot
+ * char[]   the keys and messages
+ * </pre>
+ *
+ * Offsets and lengths are counted in characters from the start of the
+ * characters. The buffer is only read with absolute methods, so a bundle can
+ * be used by several threads at the same time.
+ */
+final class CompiledMessageBundle {
+
+    static final int MAGIC = 0x52434D42;
+
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 20;
+
+    private static final int SLOT_SIZE = 16;
+
+    private static final int MAX_SEED = 1 << 20;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private final int bucketCount;
+
+    private final int slotCount;
+
+    private final int slotsStart;
+
+    private final int charsStart;
+
+    public CompiledMessageBundle(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled message bundle");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported compiled message bundle version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.bucketCount = buffer.getInt(12);
+        this.slotCount = buffer.getInt(16);
+        this.slotsStart = HEADER_SIZE + 4 * bucketCount;
+        this.charsStart = slotsStart + SLOT_SIZE * slotCount;
+    }
+
+    /**
+     * Returns the number of messages in this bundle.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the message for the given key, or <code>null</code> if this
+     * bundle does not contain it.
+     */
+    public String getMessage(String key) {
+        if (size == 0) {
+            return null;
+        }
+        int seed = buffer.getInt(HEADER_SIZE + 4 * (hash(key, 0) % bucketCount));
+        int slot = slotsStart + SLOT_SIZE * (hash(key, seed) % slotCount);
+        int keyOffset = buffer.getInt(slot);
+        if (keyOffset < 0 || buffer.getInt(slot + 4) != key.length()) {
+            return null;
+        }
+        int position = charsStart + 2 * keyOffset;
+        for (int i = 0, n = key.length(); i < n; i++, position += 2) {
+            if (buffer.getChar(position) != key.charAt(i)) {
+                return null;
+            }
+        }
+        return readString(buffer.getInt(slot + 8), buffer.getInt(slot + 12));
+    }
+
+    private String readString(int offset, int length) {
+        char[] chars = new char[length];
+        int position = charsStart + 2 * offset;
+        for (int i = 0; i < length; i++, position += 2) {
+            chars[i] = buffer.getChar(position);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Hashes the given key with the given seed. The result is never negative.
+     */
+    static int hash(String key, int seed) {
+        int h = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+        for (int i = 0, n = key.length(); i < n; i++) {
+            h ^= key.charAt(i);
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & 0x7FFFFFFF;
+    }
+
+    /**
+     * Writes the given messages in the compiled format.
+     *
+     * @param messages the messages by key, both strings
+     * @param out the stream to write to, which is not closed
+     */
+    static void write(Map messages, OutputStream out) throws IOException {
+        String[] keys = (String[]) messages.keySet().toArray(new String[messages.size()]);
+        int bucketCount = Math.max(1, (keys.length + 3) / 4);
+        int slotCount = Math.max(1, keys.length);
+        int[] seeds;
+        int[] slots;
+        while (true) {
+            seeds = new int[bucketCount];
+            slots = new int[slotCount];
+            if (place(keys, seeds, slots)) {
+                break;
+            }
+            slotCount += slotCount / 10 + 1;
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(keys.length);
+        data.writeInt(bucketCount);
+        data.writeInt(slotCount);
+        for (int i = 0; i < seeds.length; i++) {
+            data.writeInt(seeds[i]);
+        }
+        StringBuffer chars = new StringBuffer();
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == 0) {
+                data.writeInt(-1);
+                data.writeInt(0);
+                data.writeInt(0);
+                data.writeInt(0);
+                continue;
+            }
+            String key = keys[slots[i] - 1];
+            String message = (String) messages.get(key);
+            data.writeInt(chars.length());
+            data.writeInt(key.length());
+            chars.append(key);
+            data.writeInt(chars.length());
+            data.writeInt(message.length());
+            chars.append(message);
+        }
+        data.writeChars(chars.toString());
+        data.flush();
+    }
+
+    /**
+     * Finds a seed for each bucket so all keys hash to different slots,
+     * starting with the largest buckets. Slots hold the index of their key
+     * plus one, or 0 when empty.
+     */
+    private static boolean place(String[] keys, int[] seeds, int[] slots) {
+        List[] buckets = new List[seeds.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayList();
+        }
+        for (int i = 0; i < keys.length; i++) {
+            buckets[hash(keys[i], 0) % seeds.length].add(new Integer(i));
+        }
+        Integer[] order = new Integer[buckets.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = new Integer(i);
+        }
+        final List[] sizes = buckets;
+        Arrays.sort(order, new Comparator() {
+            public int compare(Object o1, Object o2) {
+                return sizes[((Integer) o2).intValue()].size() - sizes[((Integer) o1).intValue()].size();
+            }
+        });
+
+        for (int b = 0; b < order.length; b++) {
+            int bucket = order[b].intValue();
+            List members = buckets[bucket];
+            if (members.isEmpty()) {
+                break;
+            }
+            int[] candidate = new int[members.size()];
+            boolean placed = false;
+            for (int seed = 1; seed < MAX_SEED && !placed; seed++) {
+                placed = true;
+                for (int i = 0; i < candidate.length && placed; i++) {
+                    int key = ((Integer) members.get(i)).intValue();
+                    candidate[i] = hash(keys[key], seed) % slots.length;
+                    placed = slots[candidate[i]] == 0 && !contains(candidate, i, candidate[i]);
+                }
+                if (placed) {
+                    seeds[bucket] = seed;
+                    for (int i = 0; i < candidate.length; i++) {
+                        slots[candidate[i]] = ((Integer) members.get(i)).intValue() + 1;
+                    }
+                }
+            }
+            if (!placed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
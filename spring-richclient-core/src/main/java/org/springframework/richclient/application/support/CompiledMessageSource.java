@@ -0,0 +1,212 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application.support;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.support.AbstractMessageSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * A <code>MessageSource</code> reading the binary bundles written by the
+ * {@link MessageBundleCompiler}, as a faster replacement of a
+ * <code>ResourceBundleMessageSource</code> with the same basenames.
+ * <p>
+ * Nothing needs to be parsed when a bundle is opened: bundles on the file
+ * system are memory mapped, others are copied into a direct buffer, so the
+ * messages are kept outside the heap. Looking up a message hashes the code to
+ * its slot and compares a single key. The locale fallback has been resolved
+ * when the bundles were compiled, so only one bundle is searched per locale:
+ * the most specific one available, falling back to the bundle of the system
+ * locale (unless disabled) and finally to the root bundle.
+ * <p>
+ * Like <code>ResourceBundleMessageSource</code>, the messages are parsed as
+ * <code>MessageFormat</code> patterns when they are used with arguments.
+ *
+ * @see MessageBundleCompiler
+ */
+public class CompiledMessageSource extends AbstractMessageSource implements ResourceLoaderAware {
+
+    private static final Object NO_BUNDLE = new Object();
+
+    private String basename;
+
+    private boolean fallbackToSystemLocale = true;
+
+    private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    private final Map bundles = new ConcurrentHashMap();
+
+    private final Map cachedMessageFormats = new HashMap();
+
+    /**
+     * Sets the location of the compiled bundles, without locale suffix and
+     * extension, eg.
+     * <code>classpath:org/springframework/richclient/application/messages</code>.
+     */
+    public void setBasename(String basename) {
+        Assert.hasText(basename, "basename must not be empty");
+        this.basename = basename;
+        clearCache();
+    }
+
+    public String getBasename() {
+        return basename;
+    }
+
+    /**
+     * Sets whether the bundle of the system locale is used when there is no
+     * bundle for the requested locale. Defaults to <code>true</code>.
+     */
+    public void setFallbackToSystemLocale(boolean fallbackToSystemLocale) {
+        this.fallbackToSystemLocale = fallbackToSystemLocale;
+    }
+
+    public boolean isFallbackToSystemLocale() {
+        return fallbackToSystemLocale;
+    }
+
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader != null ? resourceLoader : new DefaultResourceLoader();
+        clearCache();
+    }
+
+    /**
+     * Forgets the opened bundles, so they are opened again when needed.
+     */
+    public void clearCache() {
+        bundles.clear();
+        synchronized (cachedMessageFormats) {
+            cachedMessageFormats.clear();
+        }
+    }
+
+    protected String resolveCodeWithoutArguments(String code, Locale locale) {
+        CompiledMessageBundle bundle = getBundle(locale);
+        return bundle != null ? bundle.getMessage(code) : null;
+    }
+
+    protected MessageFormat resolveCode(String code, Locale locale) {
+        synchronized (cachedMessageFormats) {
+            Map localeMap = (Map) cachedMessageFormats.get(code);
+            if (localeMap == null) {
+                localeMap = new HashMap(4);
+                cachedMessageFormats.put(code, localeMap);
+            }
+            if (localeMap.containsKey(locale)) {
+                return (MessageFormat) localeMap.get(locale);
+            }
+            String message = resolveCodeWithoutArguments(code, locale);
+            MessageFormat messageFormat = message != null ? createMessageFormat(message, locale) : null;
+            localeMap.put(locale, messageFormat);
+            return messageFormat;
+        }
+    }
+
+    /**
+     * Returns the bundle used for the given locale, or <code>null</code> if
+     * there is none.
+     */
+    private CompiledMessageBundle getBundle(Locale locale) {
+        Object bundle = bundles.get(locale);
+        if (bundle == null) {
+            bundle = findBundle(locale);
+            if (bundle == null && fallbackToSystemLocale && !locale.equals(Locale.getDefault())) {
+                bundle = findBundle(Locale.getDefault());
+            }
+            if (bundle == null) {
+                bundle = openBundle("");
+            }
+            if (bundle == null) {
+                bundle = NO_BUNDLE;
+            }
+            bundles.put(locale, bundle);
+        }
+        return bundle != NO_BUNDLE ? (CompiledMessageBundle) bundle : null;
+    }
+
+    private CompiledMessageBundle findBundle(Locale locale) {
+        List suffixes = MessageBundleCompiler.getSuffixes(locale);
+        // the root bundle is the last resort for every locale
+        for (int i = 0; i < suffixes.size() - 1; i++) {
+            CompiledMessageBundle bundle = openBundle((String) suffixes.get(i));
+            if (bundle != null) {
+                return bundle;
+            }
+        }
+        return null;
+    }
+
+    private CompiledMessageBundle openBundle(String suffix) {
+        Assert.state(basename != null, "The basename has not been set");
+        Resource resource = resourceLoader.getResource(basename + suffix + MessageBundleCompiler.EXTENSION);
+        if (!resource.exists()) {
+            return null;
+        }
+        try {
+            return new CompiledMessageBundle(read(resource));
+        }
+        catch (IOException e) {
+            logger.warn("Unable to read compiled message bundle " + resource, e);
+            return null;
+        }
+    }
+
+    private ByteBuffer read(Resource resource) throws IOException {
+        File file = null;
+        try {
+            file = resource.getFile();
+        }
+        catch (IOException e) {
+            // not on the file system, eg. inside a jar
+        }
+        if (file != null) {
+            FileInputStream in = new FileInputStream(file);
+            try {
+                FileChannel channel = in.getChannel();
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            finally {
+                in.close();
+            }
+        }
+        InputStream in = resource.getInputStream();
+        byte[] bytes = FileCopyUtils.copyToByteArray(in);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    public String toString() {
+        return getClass().getName() + ": basename=[" + basename + "]";
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application.support;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compiles <code>.properties</code> message bundles into the binary bundles
+ * read by the {@link CompiledMessageSource}. Meant to run at build time, eg.
+ * with the <code>compile-messages</code> profile of the core module or from
+ * the command line:
+ *
+ * <pre>
+ * java org.springframework.richclient.application.support.MessageBundleCompiler
+ *     &lt;outputDirectory&gt; &lt;name&gt; &lt;locales&gt; &lt;basename&gt;...
+ * </pre>
+ *
+ * The basenames use the notation of <code>ResourceBundleMessageSource</code>
+ * and are loaded from the classpath. For each locale in the comma separated
+ * list, and for the root locale, one bundle is written to
+ * <code>&lt;outputDirectory&gt;/&lt;name&gt;_&lt;locale&gt;.cmb</code>. Its
+ * messages are resolved the way <code>ResourceBundleMessageSource</code>
+ * resolves them: a message of an earlier basename wins over one of a later
+ * basename, and within a basename the most specific locale wins. The
+ * <code>name</code> may contain slashes to write the bundles into a
+ * subdirectory.
+ */
+public class MessageBundleCompiler {
+
+    /**
+     * The file extension of compiled message bundles. {@value}
+     */
+    public static final String EXTENSION = ".cmb";
+
+    private String[] basenames = new String[0];
+
+    private ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: MessageBundleCompiler <outputDirectory> <name> <locales> <basename>...");
+            System.exit(1);
+        }
+        MessageBundleCompiler compiler = new MessageBundleCompiler();
+        String[] basenames = new String[args.length - 3];
+        System.arraycopy(args, 3, basenames, 0, basenames.length);
+        compiler.setBasenames(basenames);
+        String[] localeNames = StringUtils.commaDelimitedListToStringArray(args[2]);
+        Locale[] locales = new Locale[localeNames.length];
+        for (int i = 0; i < locales.length; i++) {
+            locales[i] = StringUtils.parseLocaleString(localeNames[i].trim());
+        }
+        compiler.compile(new File(args[0]), args[1], locales);
+    }
+
+    /**
+     * Sets the basenames of the bundles to compile, in order of precedence.
+     */
+    public void setBasenames(String[] basenames) {
+        Assert.notNull(basenames, "basenames cannot be null");
+        this.basenames = basenames;
+    }
+
+    public String[] getBasenames() {
+        return basenames;
+    }
+
+    /**
+     * Sets the class loader from which the bundles are loaded.
+     */
+    public void setClassLoader(ClassLoader classLoader) {
+        Assert.notNull(classLoader, "classLoader cannot be null");
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Writes a compiled bundle for each of the given locales and for the root
+     * locale.
+     */
+    public void compile(File outputDirectory, String name, Locale[] locales) throws IOException {
+        compileBundle(outputDirectory, name, null);
+        for (int i = 0; i < locales.length; i++) {
+            compileBundle(outputDirectory, name, locales[i]);
+        }
+    }
+
+    private void compileBundle(File outputDirectory, String name, Locale locale) throws IOException {
+        String suffix = locale == null || locale.toString().length() == 0 ? "" : "_" + locale;
+        File file = new File(outputDirectory, name + suffix + EXTENSION);
+        file.getParentFile().mkdirs();
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            CompiledMessageBundle.write(resolveMessages(locale), out);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Returns all messages for the given locale, with the locale fallback
+     * resolved.
+     *
+     * @param locale the locale, or <code>null</code> for the root locale
+     */
+    public Map resolveMessages(Locale locale) throws IOException {
+        Map messages = new HashMap();
+        for (int i = basenames.length - 1; i >= 0; i--) {
+            List suffixes = getSuffixes(locale);
+            for (int j = suffixes.size() - 1; j >= 0; j--) {
+                messages.putAll(load(basenames[i], (String) suffixes.get(j)));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Returns the bundle suffixes for the given locale, most specific first.
+     */
+    static List getSuffixes(Locale locale) {
+        List suffixes = new ArrayList(4);
+        if (locale != null) {
+            String language = locale.getLanguage();
+            String country = locale.getCountry();
+            String variant = locale.getVariant();
+            if (variant.length() > 0) {
+                suffixes.add("_" + language + "_" + country + "_" + variant);
+            }
+            if (country.length() > 0) {
+                suffixes.add("_" + language + "_" + country);
+            }
+            if (language.length() > 0) {
+                suffixes.add("_" + language);
+            }
+        }
+        suffixes.add("");
+        return suffixes;
+    }
+
+    private Properties load(String basename, String suffix) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = classLoader.getResourceAsStream(basename.replace('.', '/') + suffix + ".properties");
+        if (in != null) {
+            try {
+                properties.load(in);
+            }
+            finally {
+                in.close();
+            }
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application.support;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Loads resource bundles so they are parsed before the message source of the
+ * application needs them. The bundles end up in the cache of
+ * {@link ResourceBundle}, which is shared with the
+ * <code>ResourceBundleMessageSource</code> when both use the same class
+ * loader, which is the default.
+ * <p>
+ * Typically used as one of the
+ * {@link org.springframework.richclient.application.StartupTasks startup tasks}
+ * with the same basenames as the message source.
+ */
+public class ResourceBundlePreloader implements Runnable {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private String[] basenames = new String[0];
+
+    private Locale locale;
+
+    private ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+    /**
+     * Sets the basenames of the bundles to load, using the same notation as
+     * <code>ResourceBundleMessageSource</code>.
+     */
+    public void setBasenames(String[] basenames) {
+        Assert.notNull(basenames, "basenames cannot be null");
+        this.basenames = basenames;
+    }
+
+    public String[] getBasenames() {
+        return basenames;
+    }
+
+    /**
+     * Sets the locale of the bundles to load. Defaults to the default locale
+     * at the time the bundles are loaded.
+     */
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Sets the class loader used to load the bundles. Must be the class loader
+     * of the message source for the loaded bundles to be reused.
+     */
+    public void setClassLoader(ClassLoader classLoader) {
+        Assert.notNull(classLoader, "classLoader cannot be null");
+        this.classLoader = classLoader;
+    }
+
+    public void run() {
+        Locale bundleLocale = locale != null ? locale : Locale.getDefault();
+        for (int i = 0; i < basenames.length; i++) {
+            try {
+                ResourceBundle.getBundle(basenames[i], bundleLocale, classLoader);
+            }
+            catch (MissingResourceException e) {
+                logger.warn("Resource bundle [" + basenames[i] + "] not found for locale " + bundleLocale);
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application.support;
+
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+import javax.swing.Timer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.richclient.application.ApplicationPage;
+import org.springframework.richclient.application.ApplicationWindow;
+import org.springframework.richclient.application.PageComponent;
+import org.springframework.richclient.application.PageComponentListener;
+import org.springframework.richclient.application.PageListener;
+import org.springframework.richclient.application.View;
+import org.springframework.util.Assert;
+
+/**
+ * Creates views and builds their controls while the application is idle, so
+ * they open quickly the first time they are shown. Typically
+ * {@link #prewarm(ApplicationPage)} is called from
+ * <code>ApplicationLifecycleAdvisor.onPostStartup()</code>.
+ * <p>
+ * The views to prewarm are the configured {@link #setViewIds(List) view ids},
+ * followed by the most frequently opened views when usage statistics are kept
+ * in a {@link #setUsageStatistics(Preferences) preferences node}. One view is
+ * created per timer event, and only when no other events are waiting, so the
+ * user interface stays responsive. When the application stays busy for
+ * {@link #setMaxRetries(int) too many} timer events, the remaining views are
+ * not prewarmed.
+ * <p>
+ * Prewarmed views are kept in the view cache of the page, which must be
+ * enabled. No more views are prewarmed than the cache holds, as they would
+ * evict each other.
+ * <p>
+ * The prewarmer stops listening to a page when it is closed in its window, or
+ * when {@link #stop(ApplicationPage)} is called. All methods must be called on
+ * the event dispatch thread.
+ *
+ * @see AbstractApplicationPage#setViewCacheSize(int)
+ * @see AbstractApplicationPage#prewarmView(String)
+ */
+public class ViewPrewarmer implements PageComponentListener {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private List<String> viewIds = Collections.emptyList();
+
+    private Preferences usageStatistics;
+
+    private int maxRecentViews = 3;
+
+    private int delay = 200;
+
+    private int maxRetries = 25;
+
+    private final Map<ApplicationPage, Prewarming> prewarmings = new HashMap<ApplicationPage, Prewarming>();
+
+    /**
+     * Sets the ids of the views that are always prewarmed, in order.
+     */
+    public void setViewIds(List<String> viewIds) {
+        Assert.notNull(viewIds, "viewIds cannot be null");
+        this.viewIds = viewIds;
+    }
+
+    public List<String> getViewIds() {
+        return viewIds;
+    }
+
+    /**
+     * Sets the preferences node in which the number of times each view has
+     * been opened is kept. The most frequently used views are prewarmed as
+     * well.
+     */
+    public void setUsageStatistics(Preferences usageStatistics) {
+        this.usageStatistics = usageStatistics;
+    }
+
+    public Preferences getUsageStatistics() {
+        return usageStatistics;
+    }
+
+    /**
+     * Sets the maximum number of frequently used views that are prewarmed in
+     * addition to the configured view ids. Defaults to 3.
+     */
+    public void setMaxRecentViews(int maxRecentViews) {
+        this.maxRecentViews = maxRecentViews;
+    }
+
+    public int getMaxRecentViews() {
+        return maxRecentViews;
+    }
+
+    /**
+     * Sets the delay in milliseconds between prewarming two views. Defaults
+     * to 200.
+     */
+    public void setDelay(int delay) {
+        Assert.isTrue(delay >= 0, "delay cannot be negative");
+        this.delay = delay;
+    }
+
+    public int getDelay() {
+        return delay;
+    }
+
+    /**
+     * Sets the number of consecutive timer events on which the application
+     * may be busy before prewarming is given up. Defaults to 25.
+     */
+    public void setMaxRetries(int maxRetries) {
+        Assert.isTrue(maxRetries >= 0, "maxRetries cannot be negative");
+        this.maxRetries = maxRetries;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Starts prewarming views on the given page, and keeps track of the views
+     * opened on it from now on when usage statistics are kept.
+     */
+    public void prewarm(ApplicationPage page) {
+        Assert.isInstanceOf(AbstractApplicationPage.class, page);
+        AbstractApplicationPage applicationPage = (AbstractApplicationPage) page;
+        stop(page);
+
+        List<String> ids = getViewsToPrewarm();
+        if (ids.size() > applicationPage.getViewCacheSize()) {
+            ids = ids.subList(0, applicationPage.getViewCacheSize());
+        }
+        if (ids.isEmpty() && usageStatistics == null) {
+            return;
+        }
+        Prewarming prewarming = new Prewarming(applicationPage, ids);
+        prewarmings.put(page, prewarming);
+        if (usageStatistics != null) {
+            page.addPageComponentListener(this);
+        }
+        if (prewarming.window != null) {
+            prewarming.window.addPageListener(prewarming);
+        }
+        if (!ids.isEmpty()) {
+            prewarming.timer.start();
+        }
+    }
+
+    /**
+     * Stops prewarming views on the given page and keeping track of the views
+     * opened on it.
+     */
+    public void stop(ApplicationPage page) {
+        Prewarming prewarming = prewarmings.remove(page);
+        if (prewarming != null) {
+            prewarming.timer.stop();
+            page.removePageComponentListener(this);
+            if (prewarming.window != null) {
+                prewarming.window.removePageListener(prewarming);
+            }
+        }
+    }
+
+    /**
+     * Returns whether views are still waiting to be prewarmed on the given
+     * page.
+     */
+    public boolean isPrewarming(ApplicationPage page) {
+        Prewarming prewarming = prewarmings.get(page);
+        return prewarming != null && prewarming.timer.isRunning();
+    }
+
+    /**
+     * Returns whether the application is idle, which it is when no events are
+     * waiting to be dispatched.
+     */
+    protected boolean isIdle() {
+        return Toolkit.getDefaultToolkit().getSystemEventQueue().peekEvent() == null;
+    }
+
+    /**
+     * Returns the ids of the views to prewarm: the configured ids followed by
+     * the most frequently used ones.
+     */
+    protected List<String> getViewsToPrewarm() {
+        List<String> ids = new ArrayList<String>(viewIds);
+        for (String id : getMostUsedViews()) {
+            if (!ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private List<String> getMostUsedViews() {
+        if (usageStatistics == null || maxRecentViews <= 0) {
+            return Collections.emptyList();
+        }
+        List<String> ids;
+        try {
+            ids = new ArrayList<String>(Arrays.asList(usageStatistics.keys()));
+        }
+        catch (BackingStoreException e) {
+            logger.warn("Unable to read view usage statistics", e);
+            return Collections.emptyList();
+        }
+        Collections.sort(ids, new Comparator<String>() {
+            public int compare(String id1, String id2) {
+                return usageStatistics.getInt(id2, 0) - usageStatistics.getInt(id1, 0);
+            }
+        });
+        return ids.size() > maxRecentViews ? ids.subList(0, maxRecentViews) : ids;
+    }
+
+    public void componentOpened(PageComponent component) {
+        if (usageStatistics != null && component instanceof View) {
+            String id = component.getId();
+            usageStatistics.putInt(id, usageStatistics.getInt(id, 0) + 1);
+        }
+    }
+
+    public void componentFocusGained(PageComponent component) {
+    }
+
+    public void componentFocusLost(PageComponent component) {
+    }
+
+    public void componentClosed(PageComponent component) {
+    }
+
+    /**
+     * Prewarms the queued views of a page, one per timer event.
+     */
+    private class Prewarming implements ActionListener, PageListener {
+
+        private final AbstractApplicationPage page;
+
+        private final ApplicationWindow window;
+
+        private final LinkedList<String> queue;
+
+        private final Timer timer;
+
+        private int retries;
+
+        Prewarming(AbstractApplicationPage page, List<String> ids) {
+            this.page = page;
+            this.window = page.getWindow();
+            this.queue = new LinkedList<String>(ids);
+            this.timer = new Timer(delay, this);
+        }
+
+        public void actionPerformed(ActionEvent e) {
+            if (!isIdle()) {
+                if (++retries > maxRetries) {
+                    logger.debug("Application stays busy, not prewarming " + queue);
+                    finish();
+                }
+                return;
+            }
+            retries = 0;
+            String id = queue.removeFirst();
+            try {
+                page.prewarmView(id);
+            }
+            catch (RuntimeException ex) {
+                logger.warn("Unable to prewarm view '" + id + "'", ex);
+            }
+            if (queue.isEmpty()) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            timer.stop();
+            if (usageStatistics == null) {
+                stop(page);
+            }
+        }
+
+        public void pageOpened(ApplicationPage page) {
+        }
+
+        public void pageClosed(ApplicationPage page) {
+            if (page == this.page) {
+                stop(page);
+            }
+        }
+    }
+}
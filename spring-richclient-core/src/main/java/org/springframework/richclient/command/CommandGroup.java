@@ -28,6 +28,7 @@ import org.springframework.richclient.command.support.SimpleGroupContainerPopula
 import org.springframework.richclient.command.support.ToggleButtonPopupListener;
 import org.springframework.richclient.core.UIConstants;
 import org.springframework.richclient.factory.ButtonFactory;
+import org.springframework.richclient.factory.LazyMenuFactory;
 import org.springframework.richclient.factory.MenuFactory;
 import org.springframework.richclient.util.GuiStandardUtils;
 import org.springframework.util.Assert;
@@ -465,7 +466,12 @@ public class CommandGroup extends AbstractCommand {
 		AbstractButton button = buttonFactory.createToggleButton();
 		attach(button, buttonConfigurer);
 		JPopupMenu popup = menuFactory.createPopupMenu();
-		bindMembers(button, popup, menuFactory, getMenuItemButtonConfigurer());
+		if (menuFactory instanceof LazyMenuFactory) {
+			LazyMenuMaterializer.bind(this, button, popup, (LazyMenuFactory) menuFactory, getMenuItemButtonConfigurer());
+		}
+		else {
+			bindMembers(button, popup, menuFactory, getMenuItemButtonConfigurer());
+		}
 		ToggleButtonPopupListener.bind(button, popup);
 		return button;
 	}
@@ -478,7 +484,12 @@ public class CommandGroup extends AbstractCommand {
 			CommandButtonConfigurer buttonConfigurer) {
 		JMenu menu = factory.createMenu();
 		attach(menu);
-		bindMembers(menu, menu, factory, buttonConfigurer);
+		if (factory instanceof LazyMenuFactory) {
+			LazyMenuMaterializer.bind(this, menu, (LazyMenuFactory) factory, buttonConfigurer);
+		}
+		else {
+			bindMembers(menu, menu, factory, buttonConfigurer);
+		}
 		return menu;
 	}
 
@@ -488,7 +499,12 @@ public class CommandGroup extends AbstractCommand {
 
 	public JPopupMenu createPopupMenu(MenuFactory factory) {
 		JPopupMenu popup = factory.createPopupMenu();
-		bindMembers(popup, popup, factory, getMenuItemButtonConfigurer());
+		if (factory instanceof LazyMenuFactory) {
+			LazyMenuMaterializer.bind(this, popup, popup, (LazyMenuFactory) factory, getMenuItemButtonConfigurer());
+		}
+		else {
+			bindMembers(popup, popup, factory, getMenuItemButtonConfigurer());
+		}
 		return popup;
 	}
 
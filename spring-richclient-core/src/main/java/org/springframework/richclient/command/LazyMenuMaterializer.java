@@ -0,0 +1,188 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.command;
+
+import java.awt.Container;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.lang.ref.WeakReference;
+import java.util.LinkedList;
+
+import javax.swing.JMenu;
+import javax.swing.JPopupMenu;
+import javax.swing.Timer;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+
+import org.springframework.richclient.command.config.CommandButtonConfigurer;
+import org.springframework.richclient.command.support.SimpleGroupContainerPopulator;
+import org.springframework.richclient.factory.LazyMenuFactory;
+
+/**
+ * Binds the members of a command group to a menu or popup menu the first time
+ * it is opened, or earlier when the {@link LazyMenuFactory} prebuilds menus
+ * when idle. Until then the menu is empty and the group keeps no container
+ * manager for it, so member changes are simply picked up when the menu is
+ * filled.
+ * <p>
+ * Menus waiting to be prebuilt are queued through weak references, so menus
+ * of disposed windows are not kept alive by the queue. A menu is only
+ * prebuilt on a timer event when no other events are waiting to be
+ * dispatched, unless that has not been the case for
+ * {@link #MAX_BUSY_TICKS} timer events in a row: the menu is filled anyway,
+ * so its accelerators don't stay unavailable while the application is busy.
+ *
+ * @see LazyMenuFactory
+ */
+class LazyMenuMaterializer implements MenuListener, PopupMenuListener {
+
+    /**
+     * The number of consecutive timer events on which prebuilding waits for
+     * the application to become idle.
+     */
+    static final int MAX_BUSY_TICKS = 10;
+
+    private static final LinkedList prebuildQueue = new LinkedList();
+
+    private static Timer prebuildTimer;
+
+    private static int busyTicks;
+
+    private final CommandGroup group;
+
+    private final Object owner;
+
+    private final Container memberContainer;
+
+    private final LazyMenuFactory factory;
+
+    private final CommandButtonConfigurer configurer;
+
+    private boolean materialized;
+
+    public static void bind(CommandGroup group, JMenu menu, LazyMenuFactory factory,
+            CommandButtonConfigurer configurer) {
+        LazyMenuMaterializer materializer = new LazyMenuMaterializer(group, menu, menu, factory, configurer);
+        menu.addMenuListener(materializer);
+        materializer.schedulePrebuild();
+    }
+
+    public static void bind(CommandGroup group, Object owner, JPopupMenu popup, LazyMenuFactory factory,
+            CommandButtonConfigurer configurer) {
+        LazyMenuMaterializer materializer = new LazyMenuMaterializer(group, owner, popup, factory, configurer);
+        popup.addPopupMenuListener(materializer);
+        materializer.schedulePrebuild();
+    }
+
+    private LazyMenuMaterializer(CommandGroup group, Object owner, Container memberContainer,
+            LazyMenuFactory factory, CommandButtonConfigurer configurer) {
+        this.group = group;
+        this.owner = owner;
+        this.memberContainer = memberContainer;
+        this.factory = factory;
+        this.configurer = configurer;
+    }
+
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    /**
+     * Creates the controls of the group members, if that has not been done
+     * yet.
+     */
+    public void materialize() {
+        if (materialized) {
+            return;
+        }
+        materialized = true;
+        if (memberContainer instanceof JMenu) {
+            ((JMenu)memberContainer).removeMenuListener(this);
+        }
+        else {
+            ((JPopupMenu)memberContainer).removePopupMenuListener(this);
+        }
+        group.getMemberList().bindMembers(owner, new SimpleGroupContainerPopulator(memberContainer), factory,
+                configurer);
+    }
+
+    public void menuSelected(MenuEvent e) {
+        materialize();
+    }
+
+    public void menuDeselected(MenuEvent e) {
+    }
+
+    public void menuCanceled(MenuEvent e) {
+    }
+
+    public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+        materialize();
+    }
+
+    public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+    }
+
+    public void popupMenuCanceled(PopupMenuEvent e) {
+    }
+
+    private void schedulePrebuild() {
+        if (!factory.isPrebuildWhenIdle()) {
+            return;
+        }
+        synchronized (prebuildQueue) {
+            prebuildQueue.addLast(new WeakReference(this));
+            if (prebuildTimer == null) {
+                prebuildTimer = new Timer(factory.getPrebuildDelay(), new ActionListener() {
+                    public void actionPerformed(ActionEvent e) {
+                        prebuildNext();
+                    }
+                });
+                prebuildTimer.start();
+            }
+        }
+    }
+
+    /**
+     * Fills the next queued menu that is still around and empty. Only one menu
+     * is filled per timer event so other events get processed in between.
+     */
+    private static void prebuildNext() {
+        if (Toolkit.getDefaultToolkit().getSystemEventQueue().peekEvent() != null && ++busyTicks < MAX_BUSY_TICKS) {
+            return;
+        }
+        busyTicks = 0;
+        LazyMenuMaterializer next = null;
+        synchronized (prebuildQueue) {
+            while (next == null && !prebuildQueue.isEmpty()) {
+                next = (LazyMenuMaterializer)((WeakReference)prebuildQueue.removeFirst()).get();
+                if (next != null && next.isMaterialized()) {
+                    next = null;
+                }
+            }
+            if (prebuildQueue.isEmpty() && prebuildTimer != null) {
+                prebuildTimer.stop();
+                prebuildTimer = null;
+            }
+        }
+        if (next != null) {
+            next.materialize();
+        }
+    }
+}
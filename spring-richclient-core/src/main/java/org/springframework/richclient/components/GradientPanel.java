@@ -20,7 +20,9 @@ import java.awt.Dimension;
 import java.awt.GradientPaint;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
@@ -36,6 +38,12 @@ public class GradientPanel extends JPanel {
 
     private Color lowerRightColor;
 
+    private transient BufferedImage gradientImage;
+
+    private Color imageUpperLeftColor;
+
+    private Color imageLowerRightColor;
+
     public GradientPanel(Color lowerRightColor, Color upperLeftColor) {
         this.lowerRightColor = lowerRightColor;
         this.upperLeftColor = upperLeftColor;
@@ -61,12 +69,37 @@ public class GradientPanel extends JPanel {
         g2.fill(rect1);
     }
 
+    /**
+     * Paints the gradient from an image that is only rendered again when the
+     * size or colors of the panel change.
+     */
     public void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D)g;
         Dimension d = getSize();
+        if (d.width <= 0 || d.height <= 0) {
+            return;
+        }
+        if (lowerRightColor == null)
+            lowerRightColor = getBackground();
+        Assert.notNull(upperLeftColor, "The OuterColor cannot be null");
+        if (gradientImage == null || gradientImage.getWidth() != d.width || gradientImage.getHeight() != d.height
+                || !upperLeftColor.equals(imageUpperLeftColor) || !lowerRightColor.equals(imageLowerRightColor)) {
+            gradientImage = createGradientImage(d.width, d.height);
+            imageUpperLeftColor = upperLeftColor;
+            imageLowerRightColor = lowerRightColor;
+        }
+        g.drawImage(gradientImage, 0, 0, null);
+    }
+
+    private BufferedImage createGradientImage(int w, int h) {
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        BufferedImage image = configuration != null ? configuration.createCompatibleImage(w, h)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
         g2.setBackground(lowerRightColor);
-        g2.clearRect(0, 0, d.width, d.height);
-        paintGradientComponent(d.width, d.height, g2);
+        g2.clearRect(0, 0, w, h);
+        paintGradientComponent(w, h, g2);
+        g2.dispose();
+        return image;
     }
 
     public Color getLowerRightColor() {
@@ -75,6 +108,7 @@ public class GradientPanel extends JPanel {
 
     public void setLowerRightColor(Color lowerRightColor) {
         this.lowerRightColor = lowerRightColor;
+        repaint();
     }
 
     public Color getUpperLeftColor() {
@@ -83,5 +117,6 @@ public class GradientPanel extends JPanel {
 
     public void setUpperLeftColor(Color upperLeftColor) {
         this.upperLeftColor = upperLeftColor;
+        repaint();
     }
 }
\ No newline at end of file
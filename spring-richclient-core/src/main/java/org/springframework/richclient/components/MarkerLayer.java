@@ -0,0 +1,321 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.components;
+
+import java.awt.Container;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.swing.Icon;
+import javax.swing.JComponent;
+import javax.swing.JLayeredPane;
+import javax.swing.JRootPane;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.ToolTipManager;
+
+import org.springframework.util.Assert;
+
+/**
+ * A transparent component covering a {@link JLayeredPane} that paints small
+ * marker icons (validation severity, dirty indication, ...) on top of the
+ * components in that layered pane.
+ * <p>
+ * Unlike {@link org.springframework.richclient.util.OverlayHelper}, which adds
+ * a separate overlay component (and a set of layout listeners) for every
+ * decorated component, there is only one marker layer per window. The marker
+ * positions are computed when painting, so moving or resizing the decorated
+ * components needs no bookkeeping, and changing a marker only repaints the
+ * area of the old and new icon.
+ * <p>
+ * Markers are kept per target component and key, so several kinds of markers
+ * can be shown on the same component. Targets are referenced weakly.
+ *
+ * @see #getMarkerLayer(JComponent)
+ */
+public class MarkerLayer extends JComponent {
+
+    /**
+     * The layer of the layered pane the marker layer is added to.
+     */
+    public static final Integer MARKER_LAYER = JLayeredPane.PALETTE_LAYER;
+
+    private static final String MARKER_LAYER_PROPERTY = MarkerLayer.class.getName();
+
+    private final Map markers = new WeakHashMap();
+
+    /**
+     * Returns the marker layer of the layered pane the given component is
+     * displayed in, installing one if needed.
+     *
+     * @return the marker layer, or <code>null</code> if the component has not
+     * been added to a root pane yet
+     */
+    public static MarkerLayer getMarkerLayer(JComponent component) {
+        JRootPane rootPane = SwingUtilities.getRootPane(component);
+        if (rootPane == null) {
+            return null;
+        }
+        JLayeredPane layeredPane = rootPane.getLayeredPane();
+        MarkerLayer markerLayer = (MarkerLayer)layeredPane.getClientProperty(MARKER_LAYER_PROPERTY);
+        if (markerLayer == null) {
+            markerLayer = new MarkerLayer();
+            markerLayer.install(layeredPane);
+        }
+        return markerLayer;
+    }
+
+    protected MarkerLayer() {
+        setOpaque(false);
+        setFocusable(false);
+        ToolTipManager.sharedInstance().registerComponent(this);
+    }
+
+    private void install(final JLayeredPane layeredPane) {
+        layeredPane.putClientProperty(MARKER_LAYER_PROPERTY, this);
+        layeredPane.add(this, MARKER_LAYER);
+        setBounds(0, 0, layeredPane.getWidth(), layeredPane.getHeight());
+        layeredPane.addComponentListener(new ComponentAdapter() {
+            public void componentResized(ComponentEvent e) {
+                setBounds(0, 0, layeredPane.getWidth(), layeredPane.getHeight());
+            }
+        });
+    }
+
+    /**
+     * Shows a marker on the target component, replacing the marker with the
+     * same key. The icon is centered on the given corner or side of the target
+     * (one of the <code>SwingConstants</code> compass directions or
+     * <code>CENTER</code>), moved by the given offsets.
+     *
+     * @param target the component to mark
+     * @param key identifies the marker on the target
+     * @param icon the icon to paint, <code>null</code> removes the marker
+     * @param toolTipText tooltip shown over the icon, may be <code>null</code>
+     */
+    public void setMarker(JComponent target, Object key, Icon icon, String toolTipText, int center, int xOffset,
+            int yOffset) {
+        Assert.notNull(target, "target must not be null");
+        Assert.notNull(key, "key must not be null");
+        Map targetMarkers = (Map)markers.get(target);
+        Marker oldMarker = targetMarkers != null ? (Marker)targetMarkers.get(key) : null;
+        Marker newMarker = icon != null ? new Marker(icon, toolTipText, center, xOffset, yOffset) : null;
+        if (oldMarker == null && newMarker == null) {
+            return;
+        }
+        if (newMarker != null) {
+            if (targetMarkers == null) {
+                targetMarkers = new HashMap(4);
+                markers.put(target, targetMarkers);
+            }
+            targetMarkers.put(key, newMarker);
+        }
+        else {
+            targetMarkers.remove(key);
+            if (targetMarkers.isEmpty()) {
+                markers.remove(target);
+            }
+        }
+        repaintMarker(target, oldMarker);
+        repaintMarker(target, newMarker);
+    }
+
+    /**
+     * Removes the marker with the given key from the target component.
+     */
+    public void removeMarker(JComponent target, Object key) {
+        setMarker(target, key, null, null, SwingConstants.CENTER, 0, 0);
+    }
+
+    /**
+     * Removes all markers from the target component.
+     */
+    public void removeMarkers(JComponent target) {
+        Map targetMarkers = (Map)markers.remove(target);
+        if (targetMarkers != null) {
+            for (Iterator i = targetMarkers.values().iterator(); i.hasNext();) {
+                repaintMarker(target, (Marker)i.next());
+            }
+        }
+    }
+
+    /**
+     * Returns whether the target component has a marker with the given key.
+     */
+    public boolean hasMarker(JComponent target, Object key) {
+        Map targetMarkers = (Map)markers.get(target);
+        return targetMarkers != null && targetMarkers.containsKey(key);
+    }
+
+    /**
+     * Returns the number of components that currently have markers.
+     */
+    public int getMarkedComponentCount() {
+        return markers.size();
+    }
+
+    private void repaintMarker(JComponent target, Marker marker) {
+        if (marker != null && isShowing()) {
+            Rectangle bounds = getMarkerBounds(target, marker);
+            if (bounds != null) {
+                bounds = getVisibleBounds(target, bounds);
+                if (!bounds.isEmpty()) {
+                    repaint(bounds);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the bounds of the marker icon in the coordinates of this layer,
+     * or <code>null</code> if the target is not visible in this layer.
+     */
+    private Rectangle getMarkerBounds(JComponent target, Marker marker) {
+        if (!target.isShowing() || getParent() == null
+                || SwingUtilities.getAncestorOfClass(JLayeredPane.class, target) != getParent()
+                || target.getVisibleRect().isEmpty()) {
+            return null;
+        }
+        Point anchor = getAnchor(target, marker.center);
+        anchor = SwingUtilities.convertPoint(target, anchor, this);
+        int width = marker.icon.getIconWidth();
+        int height = marker.icon.getIconHeight();
+        return new Rectangle(anchor.x + marker.xOffset - width / 2, anchor.y + marker.yOffset - height / 2, width,
+                height);
+    }
+
+    /**
+     * Returns the part of the marker bounds that is visible, in the coordinates
+     * of this layer. Markers may stick out of their target, but not out of the
+     * visible area of the target's parent, so a marker on a field that is
+     * partially scrolled out of a viewport doesn't paint over the components
+     * around the viewport.
+     */
+    private Rectangle getVisibleBounds(JComponent target, Rectangle markerBounds) {
+        Container parent = target.getParent();
+        Rectangle visibleRect = parent instanceof JComponent ? ((JComponent)parent).getVisibleRect() : new Rectangle(
+                0, 0, parent.getWidth(), parent.getHeight());
+        return markerBounds.intersection(SwingUtilities.convertRectangle(parent, visibleRect, this));
+    }
+
+    private Point getAnchor(JComponent target, int center) {
+        int width = target.getWidth();
+        int height = target.getHeight();
+        switch (center) {
+        case SwingConstants.NORTH_WEST:
+            return new Point(0, 0);
+        case SwingConstants.NORTH:
+            return new Point(width / 2, 0);
+        case SwingConstants.NORTH_EAST:
+            return new Point(width, 0);
+        case SwingConstants.WEST:
+            return new Point(0, height / 2);
+        case SwingConstants.EAST:
+            return new Point(width, height / 2);
+        case SwingConstants.SOUTH_WEST:
+            return new Point(0, height);
+        case SwingConstants.SOUTH:
+            return new Point(width / 2, height);
+        case SwingConstants.SOUTH_EAST:
+            return new Point(width, height);
+        default:
+            return new Point(width / 2, height / 2);
+        }
+    }
+
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        for (Iterator i = markers.entrySet().iterator(); i.hasNext();) {
+            Map.Entry entry = (Map.Entry)i.next();
+            JComponent target = (JComponent)entry.getKey();
+            for (Iterator j = ((Map)entry.getValue()).values().iterator(); j.hasNext();) {
+                Marker marker = (Marker)j.next();
+                Rectangle bounds = getMarkerBounds(target, marker);
+                if (bounds == null) {
+                    continue;
+                }
+                Rectangle visibleBounds = getVisibleBounds(target, bounds);
+                if (!visibleBounds.isEmpty() && (clip == null || clip.intersects(visibleBounds))) {
+                    Graphics markerGraphics = g.create();
+                    try {
+                        markerGraphics.clipRect(visibleBounds.x, visibleBounds.y, visibleBounds.width,
+                                visibleBounds.height);
+                        marker.icon.paintIcon(this, markerGraphics, bounds.x, bounds.y);
+                    }
+                    finally {
+                        markerGraphics.dispose();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Only the marker icons are part of this component, so mouse events
+     * elsewhere reach the components below.
+     */
+    public boolean contains(int x, int y) {
+        return getMarkerAt(x, y) != null;
+    }
+
+    public String getToolTipText(MouseEvent event) {
+        Marker marker = getMarkerAt(event.getX(), event.getY());
+        return marker != null ? marker.toolTipText : null;
+    }
+
+    private Marker getMarkerAt(int x, int y) {
+        for (Iterator i = markers.entrySet().iterator(); i.hasNext();) {
+            Map.Entry entry = (Map.Entry)i.next();
+            JComponent target = (JComponent)entry.getKey();
+            for (Iterator j = ((Map)entry.getValue()).values().iterator(); j.hasNext();) {
+                Marker marker = (Marker)j.next();
+                Rectangle bounds = getMarkerBounds(target, marker);
+                if (bounds != null && getVisibleBounds(target, bounds).contains(x, y)) {
+                    return marker;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class Marker {
+        private final Icon icon;
+
+        private final String toolTipText;
+
+        private final int center;
+
+        private final int xOffset;
+
+        private final int yOffset;
+
+        public Marker(Icon icon, String toolTipText, int center, int xOffset, int yOffset) {
+            this.icon = icon;
+            this.toolTipText = toolTipText;
+            this.center = center;
+            this.xOffset = xOffset;
+            this.yOffset = yOffset;
+        }
+    }
+}
@@ -41,18 +41,19 @@ public class ShadowBorder extends AbstractBorder {
 
     private static final Insets INSETS = new Insets(1, 1, 3, 3);
 
+    private Color shadow;
+
+    private Color lightShadow;
+
+    private Color lighterShadow;
+
     public Insets getBorderInsets(Component c) {
         return INSETS;
     }
 
     public void paintBorder(Component c, Graphics g, int x, int y, int w, int h) {
 
-        Color shadow = UIManager.getColor("controlShadow");
-        if (shadow == null) {
-            shadow = Color.GRAY;
-        }
-        Color lightShadow = new Color(shadow.getRed(), shadow.getGreen(), shadow.getBlue(), 170);
-        Color lighterShadow = new Color(shadow.getRed(), shadow.getGreen(), shadow.getBlue(), 70);
+        updateColors();
         g.translate(x, y);
 
         g.setColor(shadow);
@@ -75,4 +76,20 @@ public class ShadowBorder extends AbstractBorder {
         g.fillRect(1, h - 1, w - 2, 1);
         g.translate(-x, -y);
     }
+
+    /**
+     * Derives the translucent shadow colors only when the look and feel's
+     * shadow color changed, instead of on each repaint.
+     */
+    private void updateColors() {
+        Color controlShadow = UIManager.getColor("controlShadow");
+        if (controlShadow == null) {
+            controlShadow = Color.GRAY;
+        }
+        if (!controlShadow.equals(shadow)) {
+            shadow = controlShadow;
+            lightShadow = new Color(shadow.getRed(), shadow.getGreen(), shadow.getBlue(), 170);
+            lighterShadow = new Color(shadow.getRed(), shadow.getGreen(), shadow.getBlue(), 70);
+        }
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@
 package org.springframework.richclient.components;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
@@ -13,9 +14,10 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
@@ -28,8 +30,14 @@ import javax.swing.JScrollPane;
 import javax.swing.ListCellRenderer;
 import javax.swing.ListModel;
 import javax.swing.ListSelectionModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
+import org.springframework.richclient.list.SelectionFilteredListModel;
+import org.springframework.rules.constraint.Constraint;
+
 /**
  * Custom panel that presents a "shuttle" list pair. One list is the "source"
  * and the second list holds the "chosen" values from the source list. Buttons
@@ -45,6 +53,16 @@ import javax.swing.event.ListSelectionListener;
  * <p>
  * Normal selection model listeners are used to report changes to interested
  * objects.
+ * <p>
+ * The selection model is the only state: the source and chosen lists are
+ * views on the model that show the unselected and the selected elements (see
+ * {@link SelectionFilteredListModel}), so testing whether an element is chosen
+ * takes constant time and both views can be filtered with a constraint.
+ * Moving elements changes the selection in one step, so the selection
+ * listeners and the views are notified once per move, however many elements
+ * are moved. Together with the fixed cell size that is used for large models
+ * (see {@link #setPrototypeCellValue(Object)}), this keeps the component
+ * responsive with tens of thousands of elements.
  * 
  * @author lstreepy
  * @author Benoit Xhenseval (Small modifications for text + icons config)
@@ -90,6 +108,44 @@ public class ShuttleList extends JPanel {
 
     private JButton allRightToLeft;
 
+    private SelectionFilteredListModel sourceModel;
+
+    private SelectionFilteredListModel chosenModel;
+
+    private Constraint sourceFilter;
+
+    private Constraint chosenFilter;
+
+    private Object prototypeCellValue;
+
+    private Map indexByElement;
+
+    /**
+     * Models with more elements than this get a fixed cell size, so the lists
+     * don't need to measure every element.
+     */
+    private static final int LARGE_MODEL_SIZE = 1000;
+
+    /**
+     * Number of elements measured to determine the fixed cell size of large
+     * models.
+     */
+    private static final int MEASURED_ELEMENT_COUNT = 100;
+
+    private final ListDataListener dataModelListener = new ListDataListener() {
+        public void contentsChanged(ListDataEvent e) {
+            dataModelChanged();
+        }
+
+        public void intervalAdded(ListDataEvent e) {
+            dataModelChanged();
+        }
+
+        public void intervalRemoved(ListDataEvent e) {
+            dataModelChanged();
+        }
+    };
+
     /**
      * Simple constructor.
      */
@@ -102,6 +158,13 @@ public class ShuttleList extends JPanel {
         this.showEditButton = showEditButton;
         this.panelsShowing = !showEditButton;
         buildComponent();
+        helperList.addListSelectionListener(new ListSelectionListener() {
+            public void valueChanged(ListSelectionEvent e) {
+                if (!e.getValueIsAdjusting()) {
+                    update();
+                }
+            }
+        });
     }
 
     /**
@@ -130,6 +193,56 @@ public class ShuttleList extends JPanel {
         sourceList.setCellRenderer(cellRenderer);
         chosenList.setCellRenderer(cellRenderer);
         helperList.setCellRenderer(cellRenderer);
+        updateCellSize();
+    }
+
+    /**
+     * Sets the value used to compute the width and height of the list cells,
+     * so the lists don't need to measure each element. When no prototype is
+     * set, models with more than 1000 elements get the size of the largest of
+     * their first 100 elements.
+     * 
+     * @param prototypeCellValue the value to compute the cell size with, or
+     *        <code>null</code> to use the default
+     */
+    public void setPrototypeCellValue(Object prototypeCellValue) {
+        this.prototypeCellValue = prototypeCellValue;
+        updateCellSize();
+    }
+
+    /**
+     * Sets the constraint the elements shown in the source list must pass.
+     * 
+     * @param sourceFilter the constraint, or <code>null</code> to show all
+     *        elements that aren't chosen
+     */
+    public void setSourceFilter(Constraint sourceFilter) {
+        this.sourceFilter = sourceFilter;
+        if (sourceModel != null) {
+            sourceModel.setConstraint(sourceFilter);
+            sourceList.clearSelection();
+        }
+    }
+
+    /**
+     * Sets the constraint the elements shown in the chosen list must pass.
+     * 
+     * @param chosenFilter the constraint, or <code>null</code> to show all
+     *        chosen elements
+     */
+    public void setChosenFilter(Constraint chosenFilter) {
+        this.chosenFilter = chosenFilter;
+        if (chosenModel != null) {
+            chosenModel.setConstraint(chosenFilter);
+            chosenList.clearSelection();
+        }
+    }
+
+    /**
+     * Returns whether the element at the given index of the model is chosen.
+     */
+    public boolean isChosen(int index) {
+        return helperList.isSelectedIndex(index);
     }
 
     /**
@@ -152,9 +265,21 @@ public class ShuttleList extends JPanel {
      *            <code>null</code>
      */
     public void setModel(ListModel model) {
+        if (dataModel != null) {
+            dataModel.removeListDataListener(dataModelListener);
+        }
         helperList.setModel(model);
 
         dataModel = model;
+        indexByElement = null;
+        model.addListDataListener(dataModelListener);
+        sourceModel = new SelectionFilteredListModel(model, helperList.getSelectionModel(), false);
+        sourceModel.setConstraint(sourceFilter);
+        chosenModel = new SelectionFilteredListModel(model, helperList.getSelectionModel(), true);
+        chosenModel.setConstraint(chosenFilter);
+        sourceList.setModel(sourceModel);
+        chosenList.setModel(chosenModel);
+        updateCellSize();
         clearSelection();
 
         // Once we have a model, we can properly size the two display lists
@@ -193,6 +318,7 @@ public class ShuttleList extends JPanel {
      */
     public void setComparator(Comparator comparator) {
         this.comparator = comparator;
+        indexByElement = null;
     }
 
     /**
@@ -421,34 +547,15 @@ public class ShuttleList extends JPanel {
      * the items to our selection model.
      */
     protected void moveLeftToRight() {
-        // Loop over the selected items and locate them in the data model, Add
-        // these to the selection.
-        Object[] sourceSelected = sourceList.getSelectedValues();
-        int nSourceSelected = sourceSelected.length;
-        int[] currentSelection = helperList.getSelectedIndices();
-        int[] newSelection = new int[currentSelection.length + nSourceSelected];
-        System.arraycopy(currentSelection, 0, newSelection, 0, currentSelection.length);
-        int destPos = currentSelection.length;
-
-        for (int i = 0; i < sourceSelected.length; i++) {
-            newSelection[destPos++] = indexOf(sourceSelected[i]);
-        }
-
-        helperList.setSelectedIndices(newSelection);
-        update();
+        changeSelection(toModelIndices(sourceModel, sourceList.getSelectedIndices()), true);
     }
 
     /**
-     * Move all the source items to the chosen side. I.e., select all the items.
+     * Move all the source items to the chosen side. I.e., select all the items
+     * shown in the source list.
      */
     protected void moveAllLeftToRight() {
-        int sz = dataModel.getSize();
-        int[] selected = new int[sz];
-        for (int i = 0; i < sz; i++) {
-            selected[i] = i;
-        }
-        helperList.setSelectedIndices(selected);
-        update();
+        changeSelection(toModelIndices(sourceModel, null), true);
     }
 
     /**
@@ -456,69 +563,97 @@ public class ShuttleList extends JPanel {
      * remove them from our selection model.
      */
     protected void moveRightToLeft() {
-        Object[] chosenSelectedValues = chosenList.getSelectedValues();
-        int nChosenSelected = chosenSelectedValues.length;
-        int[] chosenSelected = new int[nChosenSelected];
+        changeSelection(toModelIndices(chosenModel, chosenList.getSelectedIndices()), false);
+    }
 
-        if (nChosenSelected == 0) {
-            return; // Nothing to move
+    /**
+     * Move all the chosen items back to the source side. I.e., deselect all the
+     * items shown in the chosen list.
+     */
+    protected void moveAllRightToLeft() {
+        if (chosenFilter == null) {
+            clearSelection();
         }
-
-        // Get our current selection
-        int[] currentSelected = helperList.getSelectedIndices();
-        int nCurrentSelected = currentSelected.length;
-
-        // Fill the chosenSelected array with the indices of the selected chosen
-        // items
-        for (int i = 0; i < nChosenSelected; i++) {
-            chosenSelected[i] = indexOf(chosenSelectedValues[i]);
+        else {
+            changeSelection(toModelIndices(chosenModel, null), false);
         }
+    }
 
-        // Construct the new selected indices. Loop through the current list
-        // and compare to the head of the chosen list. If not equal, then add
-        // to the new list. If equal, skip it and bump the head pointer on the
-        // chosen list.
-
-        int newSelection[] = new int[nCurrentSelected - nChosenSelected];
-        int newSelPos = 0;
-        int chosenPos = 0;
-
-        for (int i = 0; i < nCurrentSelected; i++) {
-            int currentIdx = currentSelected[i];
-            if (chosenPos < nChosenSelected && currentIdx == chosenSelected[chosenPos]) {
-                chosenPos += 1;
-            } else {
-                newSelection[newSelPos++] = currentIdx;
-            }
+    /**
+     * Translates indices of one of the displayed lists to indices of the data
+     * model.
+     * 
+     * @param viewModel the model of the displayed list
+     * @param viewIndices the indices to translate, or <code>null</code> for
+     *        all the indices of the displayed list
+     * @return the model indices in increasing order
+     */
+    private int[] toModelIndices(SelectionFilteredListModel viewModel, int[] viewIndices) {
+        if (viewModel == null) {
+            return new int[0];
         }
-
-        // Install the new selection
-        helperList.setSelectedIndices(newSelection);
-        update();
+        int size = viewIndices == null ? viewModel.getSize() : viewIndices.length;
+        int[] modelIndices = new int[size];
+        for (int i = 0; i < size; i++) {
+            modelIndices[i] = viewModel.getElementIndex(viewIndices == null ? i : viewIndices[i]);
+        }
+        Arrays.sort(modelIndices);
+        return modelIndices;
     }
 
     /**
-     * Move all the chosen items back to the source side. This simply sets our
-     * selection back to empty.
+     * Adds the given indices to the selection or removes them from it. Runs of
+     * adjacent indices are changed as one interval and the selection listeners
+     * are notified once.
+     * 
+     * @param indices the model indices in increasing order
+     * @param select <code>true</code> to select the indices
      */
-    protected void moveAllRightToLeft() {
-        clearSelection();
+    private void changeSelection(int[] indices, boolean select) {
+        changeSelection(indices, select, false);
+    }
+
+    private void changeSelection(int[] indices, boolean select, boolean clearFirst) {
+        ListSelectionModel selectionModel = helperList.getSelectionModel();
+        selectionModel.setValueIsAdjusting(true);
+        try {
+            if (clearFirst) {
+                selectionModel.clearSelection();
+            }
+            int runStart = 0;
+            for (int i = 1; i <= indices.length; i++) {
+                if (i == indices.length || indices[i] != indices[i - 1] + 1) {
+                    if (select) {
+                        selectionModel.addSelectionInterval(indices[runStart], indices[i - 1]);
+                    }
+                    else {
+                        selectionModel.removeSelectionInterval(indices[runStart], indices[i - 1]);
+                    }
+                    runStart = i;
+                }
+            }
+        }
+        finally {
+            selectionModel.setValueIsAdjusting(false);
+        }
     }
 
     /**
-     * Get the index of a given object in the underlying data model.
+     * Get the index of a given object in the underlying data model. Without a
+     * comparator, the index is looked up in a map that is built on the first
+     * call after the model changed.
      * 
      * @param o Object to locate
      * @return index of object in model, -1 if not found
      */
     protected int indexOf(final Object o) {
+        if (comparator == null) {
+            Integer index = (Integer) getIndexByElement().get(o);
+            return index == null ? -1 : index.intValue();
+        }
         final int size = dataModel.getSize();
         for (int i = 0; i < size; i++) {
-            if (comparator == null) {
-                if (o.equals(dataModel.getElementAt(i))) {
-                    return i;
-                }
-            } else if (comparator.compare(o, dataModel.getElementAt(i)) == 0) {
+            if (comparator.compare(o, dataModel.getElementAt(i)) == 0) {
                 return i;
             }
         }
@@ -526,30 +661,69 @@ public class ShuttleList extends JPanel {
         return -1;
     }
 
+    private Map getIndexByElement() {
+        if (indexByElement == null) {
+            final int size = dataModel.getSize();
+            indexByElement = new HashMap(size * 4 / 3 + 1);
+            // iterate backwards so the first occurrence of duplicates wins
+            for (int i = size - 1; i >= 0; i--) {
+                indexByElement.put(dataModel.getElementAt(i), new Integer(i));
+            }
+        }
+        return indexByElement;
+    }
+
     /**
      * Update the two lists based on the current selection indices.
      */
     protected void update() {
-        int sz = dataModel.getSize();
-        int[] selected = helperList.getSelectedIndices();
-        ArrayList sourceItems = new ArrayList(sz);
-        ArrayList chosenItems = new ArrayList(selected.length);
-
-        // Start with the source items filled from our data model
-        for (int i = 0; i < sz; i++) {
-            sourceItems.add(dataModel.getElementAt(i));
-        }
-
-        // Now move the selected items to the chosen list
-        for (int i = selected.length - 1; i >= 0; i--) {
-            chosenItems.add(sourceItems.remove(selected[i]));
+        if (sourceModel == null) {
+            return;
         }
+        sourceList.clearSelection();
+        chosenList.clearSelection();
+        sourceModel.refresh();
+        chosenModel.refresh();
+    }
 
-        Collections.reverse(chosenItems); // We built it backwards
+    private void dataModelChanged() {
+        indexByElement = null;
+        updateCellSize();
+        update();
+    }
 
-        // Now install the two new lists
-        sourceList.setListData(sourceItems.toArray());
-        chosenList.setListData(chosenItems.toArray());
+    /**
+     * Gives the lists a fixed cell size if a prototype value is set or the
+     * model is large.
+     */
+    private void updateCellSize() {
+        JList[] lists = new JList[] { helperList, sourceList, chosenList };
+        if (prototypeCellValue != null) {
+            for (int i = 0; i < lists.length; i++) {
+                lists[i].setPrototypeCellValue(prototypeCellValue);
+            }
+        }
+        else if (dataModel != null && dataModel.getSize() > LARGE_MODEL_SIZE) {
+            Dimension cellSize = new Dimension();
+            ListCellRenderer renderer = helperList.getCellRenderer();
+            for (int i = 0; i < MEASURED_ELEMENT_COUNT; i++) {
+                Component c = renderer.getListCellRendererComponent(helperList, dataModel.getElementAt(i), i, false,
+                        false);
+                Dimension size = c.getPreferredSize();
+                cellSize.width = Math.max(cellSize.width, size.width);
+                cellSize.height = Math.max(cellSize.height, size.height);
+            }
+            for (int i = 0; i < lists.length; i++) {
+                lists[i].setFixedCellWidth(cellSize.width);
+                lists[i].setFixedCellHeight(cellSize.height);
+            }
+        }
+        else {
+            for (int i = 0; i < lists.length; i++) {
+                lists[i].setFixedCellWidth(-1);
+                lists[i].setFixedCellHeight(-1);
+            }
+        }
     }
 
     // ========================
@@ -601,8 +775,18 @@ public class ShuttleList extends JPanel {
      * @param indices an array of the indices of the cells to select
      */
     public void setSelectedIndices(int[] indices) {
-        helperList.setSelectedIndices(indices);
-        update();
+        int size = dataModel == null ? 0 : dataModel.getSize();
+        int[] validIndices = new int[indices.length];
+        int count = 0;
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] >= 0 && indices[i] < size) {
+                validIndices[count++] = indices[i];
+            }
+        }
+        int[] sorted = new int[count];
+        System.arraycopy(validIndices, 0, sorted, 0, count);
+        Arrays.sort(sorted);
+        changeSelection(sorted, true, true);
     }
 
     /**
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.core;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.swing.SwingUtilities;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Coalesces the evaluation of guards. Instead of updating the enabled state of
+ * their {@link Guarded} objects on every state change, guards schedule their
+ * evaluation here: it is marked dirty and performed once on the event dispatch
+ * thread, after the events that are currently being handled. A guard that is
+ * scheduled again before it has been evaluated is only evaluated once, so
+ * bulk updates of a form model don't make the guarded objects flip many times.
+ * <p>
+ * The scheduler counts the scheduled and performed evaluations, so the number
+ * of evaluations saved can be monitored.
+ *
+ * @see org.springframework.richclient.form.FormGuard#setScheduler(GuardScheduler)
+ */
+public class GuardScheduler {
+
+    private static final Log logger = LogFactory.getLog(GuardScheduler.class);
+
+    private static final GuardScheduler INSTANCE = new GuardScheduler();
+
+    private final Set dirtyEvaluations = new LinkedHashSet();
+
+    private boolean flushPending;
+
+    private long scheduledCount;
+
+    private long evaluationCount;
+
+    private final Runnable flusher = new Runnable() {
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * Returns the scheduler shared by the guards of the application.
+     */
+    public static GuardScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Marks the given evaluation dirty. It will be run on the event dispatch
+     * thread once the current events have been handled.
+     */
+    public void schedule(Runnable evaluation) {
+        Assert.notNull(evaluation, "evaluation cannot be null");
+        boolean postFlush;
+        synchronized (dirtyEvaluations) {
+            scheduledCount++;
+            dirtyEvaluations.add(evaluation);
+            postFlush = !flushPending;
+            flushPending = true;
+        }
+        if (postFlush) {
+            requestFlush(flusher);
+        }
+    }
+
+    /**
+     * Arranges for the given flusher to be run once the current events have
+     * been handled. The default implementation posts it to the event queue.
+     */
+    protected void requestFlush(Runnable flusher) {
+        SwingUtilities.invokeLater(flusher);
+    }
+
+    /**
+     * Removes the given evaluation if it has not been run yet.
+     */
+    public void cancel(Runnable evaluation) {
+        synchronized (dirtyEvaluations) {
+            dirtyEvaluations.remove(evaluation);
+        }
+    }
+
+    /**
+     * Returns whether the given evaluation is waiting to be run.
+     */
+    public boolean isScheduled(Runnable evaluation) {
+        synchronized (dirtyEvaluations) {
+            return dirtyEvaluations.contains(evaluation);
+        }
+    }
+
+    /**
+     * Runs all dirty evaluations right away. Evaluations scheduled while they
+     * run are left for the next flush.
+     */
+    public void flush() {
+        Runnable[] evaluations;
+        synchronized (dirtyEvaluations) {
+            evaluations = (Runnable[]) dirtyEvaluations.toArray(new Runnable[dirtyEvaluations.size()]);
+            dirtyEvaluations.clear();
+            flushPending = false;
+            evaluationCount += evaluations.length;
+        }
+        for (int i = 0; i < evaluations.length; i++) {
+            try {
+                evaluations[i].run();
+            }
+            catch (RuntimeException e) {
+                logger.error("Guard evaluation failed", e);
+            }
+        }
+        if (logger.isDebugEnabled() && evaluations.length > 0) {
+            logger.debug("Evaluated " + evaluations.length + " guards; " + getSavedEvaluationCount()
+                    + " evaluations saved so far");
+        }
+    }
+
+    /**
+     * Returns the number of times an evaluation has been scheduled.
+     */
+    public long getScheduledCount() {
+        synchronized (dirtyEvaluations) {
+            return scheduledCount;
+        }
+    }
+
+    /**
+     * Returns the number of evaluations that have been run.
+     */
+    public long getEvaluationCount() {
+        synchronized (dirtyEvaluations) {
+            return evaluationCount;
+        }
+    }
+
+    /**
+     * Returns the number of evaluations that were saved by coalescing, not
+     * counting those still waiting to be run.
+     */
+    public long getSavedEvaluationCount() {
+        synchronized (dirtyEvaluations) {
+            return scheduledCount - evaluationCount - dirtyEvaluations.size();
+        }
+    }
+
+    /**
+     * Resets the evaluation counters. Evaluations that are still waiting are
+     * counted as scheduled.
+     */
+    public void resetStatistics() {
+        synchronized (dirtyEvaluations) {
+            scheduledCount = dirtyEvaluations.size();
+            evaluationCount = 0;
+        }
+    }
+
+    public String toString() {
+        synchronized (dirtyEvaluations) {
+            return getClass().getName() + "[scheduled=" + scheduledCount + ", evaluated=" + evaluationCount
+                    + ", dirty=" + dirtyEvaluations.size() + "]";
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.springframework.richclient.core.DefaultMessage;
 import org.springframework.richclient.core.Message;
 import org.springframework.richclient.core.Severity;
 import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
 import org.springframework.util.ObjectUtils;
 
 /**
@@ -40,6 +41,12 @@ public class DefaultMessageAreaModel implements Messagable {
 
     private Message message = DefaultMessage.EMPTY_MESSAGE;
 
+    private static final ListenerInvoker PROPERTY_CHANGE = new ListenerInvoker() {
+        public void invoke(Object listener, Object event, Object unused) {
+            ((PropertyChangeListener) listener).propertyChange((PropertyChangeEvent) event);
+        }
+    };
+
     private EventListenerListHelper listenerList = new EventListenerListHelper(PropertyChangeListener.class);
 
     public DefaultMessageAreaModel() {
@@ -90,7 +97,9 @@ public class DefaultMessageAreaModel implements Messagable {
     }
     
     protected void fireMessageUpdated(Message oldMsg, Message newMsg) {
-        listenerList.fire("propertyChange", new PropertyChangeEvent(delegate, MESSAGE_PROPERTY, oldMsg, newMsg));
+        if (listenerList.hasListeners()) {
+            listenerList.dispatch(PROPERTY_CHANGE, new PropertyChangeEvent(delegate, MESSAGE_PROPERTY, oldMsg, newMsg));
+        }
     }
 
     public void addPropertyChangeListener(PropertyChangeListener listener) {
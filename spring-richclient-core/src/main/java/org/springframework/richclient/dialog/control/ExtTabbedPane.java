@@ -27,6 +27,7 @@ import javax.swing.event.ChangeListener;
 
 import org.springframework.richclient.factory.ControlFactory;
 import org.springframework.richclient.util.EventListenerListHelper;
+import org.springframework.richclient.util.ListenerInvoker;
 
 /**
  * Wrapper around <code>JTabbedPane</code>. When a <code>Tab</code> is made invisible, the tab is hidden from the
@@ -74,6 +75,12 @@ public class ExtTabbedPane implements ControlFactory {
         }
     };
 
+    private static final ListenerInvoker STATE_CHANGED = new ListenerInvoker() {
+        public void invoke(Object listener, Object event, Object unused) {
+            ((ChangeListener) listener).stateChanged((ChangeEvent) event);
+        }
+    };
+
     private EventListenerListHelper changeListeners = new EventListenerListHelper(ChangeListener.class);
 
     public ExtTabbedPane(JTabbedPane tabbedPane) {
@@ -81,7 +88,7 @@ public class ExtTabbedPane implements ControlFactory {
         tabbedPane.addChangeListener(new ChangeListener() {
             public void stateChanged(ChangeEvent e) {
                 // delegate change events to registered listeners
-                changeListeners.fire("stateChanged", e);
+                changeListeners.dispatch(STATE_CHANGED, e);
             }
         });
     }
@@ -180,6 +187,6 @@ public class ExtTabbedPane implements ControlFactory {
         // because insert and remove don't change the selected tab index, we
         // trigger one manually
         ChangeEvent event = new ChangeEvent(tabbedPane);
-        changeListeners.fire("stateChanged", event);
+        changeListeners.dispatch(STATE_CHANGED, event);
     }
 }
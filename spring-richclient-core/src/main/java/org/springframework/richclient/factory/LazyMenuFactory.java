@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.factory;
+
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.JRadioButtonMenuItem;
+
+import org.springframework.util.Assert;
+
+/**
+ * Menu factory that makes command groups fill their submenus and popup menus
+ * on demand: the items of a menu are only created when the menu is selected or
+ * the popup becomes visible for the first time. Use it as the application's
+ * <code>MenuFactory</code> service to speed up creating large menu bars and
+ * context menus.
+ * <p>
+ * Keyboard accelerators of menu items only work once their menu has been
+ * filled, so when accelerators are used {@link #setPrebuildWhenIdle(boolean)}
+ * should be enabled. Menus are then filled one at a time on the event
+ * dispatch thread after they have been created, when no other events are
+ * waiting.
+ * <p>
+ * The actual components are created by a target menu factory, which defaults
+ * to a {@link DefaultMenuFactory}.
+ *
+ * @see org.springframework.richclient.command.CommandGroup#createMenuBar(MenuFactory)
+ */
+public class LazyMenuFactory implements MenuFactory {
+
+    private MenuFactory targetMenuFactory = new DefaultMenuFactory();
+
+    private boolean prebuildWhenIdle;
+
+    private int prebuildDelay = 100;
+
+    public MenuFactory getTargetMenuFactory() {
+        return targetMenuFactory;
+    }
+
+    /**
+     * Sets the factory creating the actual menu components.
+     */
+    public void setTargetMenuFactory(MenuFactory targetMenuFactory) {
+        Assert.notNull(targetMenuFactory, "targetMenuFactory must not be null");
+        this.targetMenuFactory = targetMenuFactory;
+    }
+
+    public boolean isPrebuildWhenIdle() {
+        return prebuildWhenIdle;
+    }
+
+    /**
+     * Sets whether menus that have not been opened yet are filled in the
+     * background. Defaults to <code>false</code>.
+     */
+    public void setPrebuildWhenIdle(boolean prebuildWhenIdle) {
+        this.prebuildWhenIdle = prebuildWhenIdle;
+    }
+
+    public int getPrebuildDelay() {
+        return prebuildDelay;
+    }
+
+    /**
+     * Sets the delay in milliseconds between filling two menus in the
+     * background. Defaults to 100.
+     */
+    public void setPrebuildDelay(int prebuildDelay) {
+        Assert.isTrue(prebuildDelay >= 0, "prebuildDelay must not be negative");
+        this.prebuildDelay = prebuildDelay;
+    }
+
+    public JMenu createMenu() {
+        return targetMenuFactory.createMenu();
+    }
+
+    public JMenuItem createMenuItem() {
+        return targetMenuFactory.createMenuItem();
+    }
+
+    public JCheckBoxMenuItem createCheckBoxMenuItem() {
+        return targetMenuFactory.createCheckBoxMenuItem();
+    }
+
+    public JRadioButtonMenuItem createRadioButtonMenuItem() {
+        return targetMenuFactory.createRadioButtonMenuItem();
+    }
+
+    public JPopupMenu createPopupMenu() {
+        return targetMenuFactory.createPopupMenu();
+    }
+
+    public JMenuBar createMenuBar() {
+        return targetMenuFactory.createMenuBar();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.springframework.richclient.form;
 
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
@@ -31,11 +33,13 @@ import org.springframework.binding.form.CommitListener;
 import org.springframework.binding.form.FormModel;
 import org.springframework.binding.form.HierarchicalFormModel;
 import org.springframework.binding.form.ValidatingFormModel;
+import org.springframework.binding.form.support.DefaultFormModel;
 import org.springframework.binding.validation.ValidationListener;
 import org.springframework.binding.value.IndexAdapter;
 import org.springframework.binding.value.ValueModel;
 import org.springframework.binding.value.support.ObservableList;
 import org.springframework.richclient.command.ActionCommand;
+import org.springframework.richclient.core.GuardScheduler;
 import org.springframework.richclient.core.Guarded;
 import org.springframework.richclient.dialog.Messagable;
 import org.springframework.richclient.factory.AbstractControlFactory;
@@ -76,6 +80,8 @@ public abstract class AbstractForm extends AbstractControlFactory implements For
 
 	private FormGuard formGuard;
 
+	private GuardScheduler guardScheduler;
+
 	private JButton lastDefaultButton;
 
 	private PropertyChangeListener formEnabledChangeHandler;
@@ -102,6 +108,8 @@ public abstract class AbstractForm extends AbstractControlFactory implements For
 
 	private List validationResultsReporters = new ArrayList();
 
+	private boolean validationDeferredWhileHidden = false;
+
 	/**
 	 * Default constructor will use the uncapitalized simplename of the class to
 	 * construct its id.
@@ -243,8 +251,12 @@ public abstract class AbstractForm extends AbstractControlFactory implements For
 		if (this.formModel != null) {
 			this.formModel.removeCommitListener(this);
 		}
+		if (this.formGuard != null) {
+			this.formGuard.dispose();
+		}
 		this.formModel = formModel;
 		this.formGuard = new FormGuard(formModel);
+		this.formGuard.setScheduler(guardScheduler);
 		this.formModel.addCommitListener(this);
 		setFormModelDefaultEnabledState();
 	}
@@ -386,6 +398,45 @@ public abstract class AbstractForm extends AbstractControlFactory implements For
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if validation of the form model is deferred
+	 * while the form control isn't showing.
+	 */
+	public boolean isValidationDeferredWhileHidden() {
+		return validationDeferredWhileHidden;
+	}
+
+	/**
+	 * Set whether validation of the form model should be deferred while the
+	 * form control isn't showing. This avoids validating every form object
+	 * set on a hidden detail form; the form object is validated once the form
+	 * becomes visible. Only applies to a {@link DefaultFormModel} and must be
+	 * set before the control is created.
+	 */
+	public void setValidationDeferredWhileHidden(boolean validationDeferredWhileHidden) {
+		this.validationDeferredWhileHidden = validationDeferredWhileHidden;
+	}
+
+	/**
+	 * Returns the scheduler coalescing the updates of the guarded form
+	 * commands, or <code>null</code> if they are updated right away.
+	 */
+	public GuardScheduler getGuardScheduler() {
+		return guardScheduler;
+	}
+
+	/**
+	 * Set the scheduler coalescing the updates of the form commands and other
+	 * objects guarded by this form, eg. {@link GuardScheduler#getInstance()}.
+	 * By default they are updated on every state change of the form model.
+	 */
+	public void setGuardScheduler(GuardScheduler guardScheduler) {
+		this.guardScheduler = guardScheduler;
+		if (formGuard != null) {
+			formGuard.setScheduler(guardScheduler);
+		}
+	}
+
 	protected final JComponent createControl() {
 		Assert
 				.state(getFormModel() != null,
@@ -398,9 +449,28 @@ public abstract class AbstractForm extends AbstractControlFactory implements For
 		if (getCommitCommand() != null) {
 			getFormModel().addCommitListener(this);
 		}
+		if (validationDeferredWhileHidden && getFormModel() instanceof DefaultFormModel) {
+			formControl.addHierarchyListener(new ValidationDeferringHierarchyListener(formControl));
+			((DefaultFormModel) getFormModel()).setValidationDeferred(!formControl.isShowing());
+		}
 		return formControl;
 	}
 
+	private class ValidationDeferringHierarchyListener implements HierarchyListener {
+
+		private final JComponent formControl;
+
+		public ValidationDeferringHierarchyListener(JComponent formControl) {
+			this.formControl = formControl;
+		}
+
+		public void hierarchyChanged(HierarchyEvent e) {
+			if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && getFormModel() instanceof DefaultFormModel) {
+				((DefaultFormModel) getFormModel()).setValidationDeferred(!formControl.isShowing());
+			}
+		}
+	}
+
 	private void initStandardLocalFormCommands() {
 		getNewFormObjectCommand();
 		getCommitCommand();
@@ -25,6 +25,7 @@ import java.util.Map;
 import org.springframework.binding.form.FormModel;
 import org.springframework.binding.form.ValidatingFormModel;
 import org.springframework.binding.validation.ValidationResultsModel;
+import org.springframework.richclient.core.GuardScheduler;
 import org.springframework.richclient.core.Guarded;
 
 /**
@@ -33,6 +34,10 @@ import org.springframework.richclient.core.Guarded;
  * 
  * One instance of this FormGuard supports multiple guarded objects on one formModel. Each guarded object can
  * specify upon which state of the formModel it wants to be enabled:
+ * 
+ * By default the guarded objects are updated on every state change of the formModel. When a
+ * {@link GuardScheduler} is set, the update is scheduled instead, so several state changes during one
+ * event cycle only update the guarded objects once.
  */
 public class FormGuard implements PropertyChangeListener {
 
@@ -73,6 +78,14 @@ public class FormGuard implements PropertyChangeListener {
     
     private final Map guardedEntries = Collections.synchronizedMap(new HashMap());
 
+    private GuardScheduler scheduler;
+
+    private final Runnable guardEvaluation = new Runnable() {
+        public void run() {
+            updateAllGuarded();
+        }
+    };
+
     /**
      * Creates the FormGuard monitoring the passed formModel.
      * 
@@ -117,6 +130,42 @@ public class FormGuard implements PropertyChangeListener {
         addGuarded(guarded, mask);
     }
 
+    /**
+     * Sets the scheduler that coalesces the updates of the guarded objects, or <code>null</code> to update
+     * them right away on every state change of the formModel, which is the default. An update that is still
+     * scheduled with the previous scheduler is performed right away.
+     * 
+     * @param scheduler
+     *            the scheduler, may be <code>null</code>
+     */
+    public void setScheduler(GuardScheduler scheduler) {
+        boolean updatePending = false;
+        if (this.scheduler != null && this.scheduler != scheduler) {
+            updatePending = this.scheduler.isScheduled(guardEvaluation);
+            this.scheduler.cancel(guardEvaluation);
+        }
+        this.scheduler = scheduler;
+        if (updatePending) {
+            updateAllGuarded();
+        }
+    }
+
+    public GuardScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Stops monitoring the formModel. An update of the guarded objects that is still scheduled is cancelled.
+     */
+    public void dispose() {
+        formModel.removePropertyChangeListener(FormModel.ENABLED_PROPERTY, this);
+        formModel.removePropertyChangeListener(ValidationResultsModel.HAS_ERRORS_PROPERTY, this);
+        formModel.removePropertyChangeListener(FormModel.DIRTY_PROPERTY, this);
+        if (scheduler != null) {
+            scheduler.cancel(guardEvaluation);
+        }
+    }
+
     private void updateAllGuarded() {
         int formState = getFormModelState();
 
@@ -149,7 +198,12 @@ public class FormGuard implements PropertyChangeListener {
      * @see PropertyChangeListener#propertyChange(java.beans.PropertyChangeEvent)  
      */
     public void propertyChange(PropertyChangeEvent e) {
-        updateAllGuarded();
+        if (scheduler != null) {
+            scheduler.schedule(guardEvaluation);
+        }
+        else {
+            updateAllGuarded();
+        }
     }
 
     /**
@@ -53,6 +53,12 @@ public abstract class AbstractBinderSelectionStrategy implements BinderSelection
     private final Map propertyNameBinders = new HashMap();
     
     private List bindersForPropertyNames = new ArrayList();
+
+    /**
+     * Binders selected before, keyed by <code>ResolvedBinderKey</code>. Cleared
+     * whenever a binder is registered.
+     */
+    private final Map resolvedBinders = new HashMap();
     
     private ApplicationContext applicationContext;
 
@@ -61,7 +67,24 @@ public abstract class AbstractBinderSelectionStrategy implements BinderSelection
         registerDefaultBinders();
     }
 
+    /**
+     * Selects the binder for the given property. The binder only depends on
+     * the class of the form object, the property name and the property type
+     * the form model reports for it, so the selected binder is remembered and
+     * returned for all later forms with the same form object class and
+     * property type.
+     */
     public Binder selectBinder(FormModel formModel, String propertyName) {
+        ResolvedBinderKey key = createResolvedBinderKey(null, formModel, propertyName);
+        Binder binder = getResolvedBinder(key);
+        if (binder == null) {
+            binder = resolveBinder(formModel, propertyName);
+            putResolvedBinder(key, binder);
+        }
+        return binder;
+    }
+
+    private Binder resolveBinder(FormModel formModel, String propertyName) {
         // first try and find a binder for the specific property name
         Binder binder = findBinderByPropertyName(formModel.getFormObject().getClass(), propertyName);
         if (binder == null) {
@@ -80,6 +103,16 @@ public abstract class AbstractBinderSelectionStrategy implements BinderSelection
     }
 
     public Binder selectBinder(Class controlType, FormModel formModel, String propertyName) {
+        ResolvedBinderKey key = createResolvedBinderKey(controlType, formModel, propertyName);
+        Binder binder = getResolvedBinder(key);
+        if (binder == null) {
+            binder = resolveBinder(controlType, formModel, propertyName);
+            putResolvedBinder(key, binder);
+        }
+        return binder;
+    }
+
+    private Binder resolveBinder(Class controlType, FormModel formModel, String propertyName) {
         Binder binder = findBinderByControlType(controlType);
         if (binder == null) {
             binder = selectBinder(formModel, propertyName);
@@ -91,6 +124,38 @@ public abstract class AbstractBinderSelectionStrategy implements BinderSelection
                 + "] property [" + propertyName + "]");
     }
 
+    /**
+     * The property type comes from the field metadata of the form model, which
+     * may differ between forms for the same form object class, e.g. for
+     * properties added with custom metadata.
+     */
+    private ResolvedBinderKey createResolvedBinderKey(Class controlType, FormModel formModel, String propertyName) {
+        return new ResolvedBinderKey(controlType, formModel.getFormObject().getClass(), propertyName,
+                getPropertyType(formModel, propertyName));
+    }
+
+    private Binder getResolvedBinder(ResolvedBinderKey key) {
+        synchronized (resolvedBinders) {
+            return (Binder)resolvedBinders.get(key);
+        }
+    }
+
+    private void putResolvedBinder(ResolvedBinderKey key, Binder binder) {
+        synchronized (resolvedBinders) {
+            resolvedBinders.put(key, binder);
+        }
+    }
+
+    /**
+     * Forgets all previously selected binders; called whenever a binder is
+     * registered.
+     */
+    protected void clearResolvedBinders() {
+        synchronized (resolvedBinders) {
+            resolvedBinders.clear();
+        }
+    }
+
     /**
      * Register the default set of binders. This method is called on construction.
      * 
@@ -145,6 +210,7 @@ public abstract class AbstractBinderSelectionStrategy implements BinderSelection
 
     protected void registerBinderForPropertyName(Class parentObjectType, String propertyName, Binder binder) {
         propertyNameBinders.put(new PropertyNameKey(parentObjectType, propertyName), binder);
+        clearResolvedBinders();
     }
     
     /**
@@ -237,6 +303,7 @@ public abstract class AbstractBinderSelectionStrategy implements BinderSelection
 
     protected void registerBinderForPropertyType(Class propertyType, Binder binder) {
         propertyTypeBinders.put(propertyType, binder);
+        clearResolvedBinders();
     }
 
     /**
@@ -258,6 +325,7 @@ public abstract class AbstractBinderSelectionStrategy implements BinderSelection
 
     protected void registerBinderForControlType(Class controlType, Binder binder) {
         controlTypeBinders.put(controlType, binder);
+        clearResolvedBinders();
     }
 
     /**
@@ -322,6 +390,42 @@ public abstract class AbstractBinderSelectionStrategy implements BinderSelection
         }
     }
 
+    private static class ResolvedBinderKey {
+        private final Class controlType;
+
+        private final Class formObjectType;
+
+        private final String propertyName;
+
+        private final Class propertyType;
+
+        public ResolvedBinderKey(Class controlType, Class formObjectType, String propertyName, Class propertyType) {
+            Assert.notNull(propertyName, "propertyName must not be null.");
+            this.controlType = controlType;
+            this.formObjectType = formObjectType;
+            this.propertyName = propertyName;
+            this.propertyType = propertyType;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResolvedBinderKey)) {
+                return false;
+            }
+            final ResolvedBinderKey key = (ResolvedBinderKey)o;
+            return controlType == key.controlType && formObjectType == key.formObjectType
+                    && propertyName.equals(key.propertyName) && propertyType == key.propertyType;
+        }
+
+        public int hashCode() {
+            return ((propertyName.hashCode() * 29 + formObjectType.hashCode()) * 29
+                    + (controlType == null ? 0 : controlType.hashCode())) * 29
+                    + (propertyType == null ? 0 : propertyType.hashCode());
+        }
+    }
+
     public void setApplicationContext(ApplicationContext applicationContext)
     {
         this.applicationContext = applicationContext;
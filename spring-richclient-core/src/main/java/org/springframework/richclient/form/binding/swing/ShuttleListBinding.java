@@ -8,7 +8,9 @@ import java.beans.PropertyChangeListener;
 import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 import javax.swing.Icon;
 import javax.swing.JComponent;
@@ -222,7 +224,9 @@ public class ShuttleListBinding extends AbstractBinding {
 
 	/**
 	 * Return an array of indices in the selectableItems for each element in the
-	 * provided set. The set can be either a Collection or an Array.
+	 * provided set. The set can be either a Collection or an Array. Without a
+	 * comparator the indices are looked up in a map of the selectable items,
+	 * so large sets don't need a scan of the selectable items per element.
 	 * 
 	 * @param itemSet Either an array or a Collection of items
 	 * @return array of indices of the elements in itemSet within the
@@ -233,10 +237,11 @@ public class ShuttleListBinding extends AbstractBinding {
 
 		if (itemSet instanceof Collection) {
 			Collection collection = (Collection) itemSet;
+			Map indexByItem = collection.size() > 1 ? createIndexByItem() : null;
 			ret = new int[collection.size()];
 			int i = 0;
 			for (Iterator iter = collection.iterator(); iter.hasNext(); i++) {
-				ret[i] = indexOf(iter.next());
+				ret[i] = indexOf(iter.next(), indexByItem);
 			}
 		}
 		else if (itemSet == null) {
@@ -244,9 +249,10 @@ public class ShuttleListBinding extends AbstractBinding {
 		}
 		else if (itemSet.getClass().isArray()) {
 			Object[] items = (Object[]) itemSet;
+			Map indexByItem = items.length > 1 ? createIndexByItem() : null;
 			ret = new int[items.length];
 			for (int i = 0; i < items.length; i++) {
-				ret[i] = indexOf(items[i]);
+				ret[i] = indexOf(items[i], indexByItem);
 			}
 		}
 		else {
@@ -268,6 +274,32 @@ public class ShuttleListBinding extends AbstractBinding {
 		return -1;
 	}
 
+	private int indexOf(final Object o, final Map indexByItem) {
+		if (indexByItem == null) {
+			return indexOf(o);
+		}
+		Integer index = (Integer) indexByItem.get(o);
+		return index == null ? -1 : index.intValue();
+	}
+
+	/**
+	 * Returns a map of the selectable items to their index, or
+	 * <code>null</code> if the items are compared by a comparator.
+	 */
+	private Map createIndexByItem() {
+		if (comparator != null) {
+			return null;
+		}
+		final ListModel listModel = list.getModel();
+		final int size = listModel.getSize();
+		final Map indexByItem = new HashMap(size * 4 / 3 + 1);
+		// iterate backwards so the first occurrence of duplicates wins
+		for (int i = size - 1; i >= 0; i--) {
+			indexByItem.put(listModel.getElementAt(i), new Integer(i));
+		}
+		return indexByItem;
+	}
+
 	private ListModel createModel() {
 		if (model != null)
 			return model;
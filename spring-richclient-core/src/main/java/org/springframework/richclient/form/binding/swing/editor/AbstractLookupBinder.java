@@ -21,6 +21,9 @@ public abstract class AbstractLookupBinder implements Binder
     private Object filter;
     private boolean enableViewCommand;
     private boolean loadDetailedObject = false;
+    private boolean asynchronousLookup = false;
+    private int lookupDelay = 300;
+    private int lookupCacheSize = 100;
 
 
     public boolean isLoadDetailedObject()
@@ -34,6 +37,45 @@ public abstract class AbstractLookupBinder implements Binder
         this.loadDetailedObject = loadDetailedObject;
     }
 
+    public boolean isAsynchronousLookup()
+    {
+        return asynchronousLookup;
+    }
+
+    /**
+     * @see AbstractLookupBinding#setAsynchronousLookup(boolean)
+     */
+    public void setAsynchronousLookup(boolean asynchronousLookup)
+    {
+        this.asynchronousLookup = asynchronousLookup;
+    }
+
+    public int getLookupDelay()
+    {
+        return lookupDelay;
+    }
+
+    /**
+     * @see AbstractLookupBinding#setLookupDelay(int)
+     */
+    public void setLookupDelay(int lookupDelay)
+    {
+        this.lookupDelay = lookupDelay;
+    }
+
+    public int getLookupCacheSize()
+    {
+        return lookupCacheSize;
+    }
+
+    /**
+     * @see AbstractLookupBinding#setLookupCacheSize(int)
+     */
+    public void setLookupCacheSize(int lookupCacheSize)
+    {
+        this.lookupCacheSize = lookupCacheSize;
+    }
+
     public AbstractLookupBinder(String dataEditorId)
     {
         this.dataEditorId = dataEditorId;
@@ -71,6 +113,9 @@ public abstract class AbstractLookupBinder implements Binder
         referableBinding.setEnableViewCommand(enableViewCommand);
         referableBinding.setFilter(filter);
         referableBinding.setLoadDetailedObject(loadDetailedObject);
+        referableBinding.setAsynchronousLookup(asynchronousLookup);
+        referableBinding.setLookupDelay(lookupDelay);
+        referableBinding.setLookupCacheSize(lookupCacheSize);
         return referableBinding;
     }
 
@@ -2,6 +2,7 @@ package org.springframework.richclient.form.binding.swing.editor;
 
 import com.jgoodies.forms.factories.FormFactory;
 import com.jgoodies.forms.layout.*;
+import org.jdesktop.swingworker.SwingWorker;
 import org.springframework.binding.form.FormModel;
 import org.springframework.richclient.command.ActionCommand;
 import org.springframework.richclient.command.support.DataEditorWidgetViewCommand;
@@ -14,8 +15,13 @@ import org.springframework.richclient.util.Assert;
 import org.springframework.richclient.util.RcpSupport;
 import org.springframework.richclient.widget.editor.AbstractDataEditorWidget;
 import org.springframework.richclient.widget.editor.DefaultDataEditorWidget;
+import org.springframework.richclient.widget.editor.provider.DataProvider;
+import org.springframework.richclient.widget.editor.provider.MaximumRowsExceededException;
 
 import javax.swing.*;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.text.JTextComponent;
 import java.awt.*;
 import java.awt.event.*;
@@ -23,10 +29,24 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyVetoException;
 import java.beans.VetoableChangeListener;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Binding that lets the user type a key (commonly the label of the referenced object) and resolves it to an
+ * object of the {@link DataProvider} of a {@link DefaultDataEditorWidget}, or select an object in the dataEditor
+ * shown in a dialog.
+ * <p>
+ * By default the typed key is resolved on the event dispatch thread when tab is pressed. With
+ * {@link #setAsynchronousLookup(boolean) asynchronous lookup} the key is resolved in the background while the
+ * user types (after a {@link #setLookupDelay(int) delay} without keystrokes) and when tab is pressed. Unique
+ * matches are kept in a {@link LookupResultCache} shared by the bindings that use the same dataProvider, and the
+ * dialog is only opened once the background lookup returns no or multiple matches.
+ */
 public abstract class AbstractLookupBinding extends CustomBinding
 {
 
@@ -107,6 +127,24 @@ public abstract class AbstractLookupBinding extends CustomBinding
 
     private Object filter;
 
+    /** Resolve the typed key in the background instead of on the event dispatch thread? */
+    private boolean asynchronousLookup = false;
+
+    /** Milliseconds without keystrokes after which the typed key is resolved in the background. */
+    private int lookupDelay = 300;
+
+    /** Maximum number of resolved keys cached per dataProvider. */
+    private int lookupCacheSize = 100;
+
+    /** Timer that starts a background lookup when the user stops typing. */
+    private Timer lookupTimer;
+
+    /** The background lookup in progress, if any. */
+    private LookupWorker lookupWorker;
+
+    /** Set while the key component shows the label of the value, which shouldn't trigger a lookup. */
+    private boolean updatingKeyComponentText = false;
+
     public AbstractLookupBinding(DefaultDataEditorWidget dataEditor, FormModel formModel, String formPropertyPath)
     {
         super(formModel, formPropertyPath, null);
@@ -333,6 +371,7 @@ public abstract class AbstractLookupBinding extends CustomBinding
         textField.addKeyListener(createKeyListener());
         textField.addFocusListener(new SelectAllFocusListener(textField));
         textField.addFocusListener(createFocusListener());
+        textField.getDocument().addDocumentListener(createLookupDocumentListener());
         return textField;
     }
 
@@ -354,7 +393,17 @@ public abstract class AbstractLookupBinding extends CustomBinding
     protected void setKeyComponentText(String text)
     {
         if (getKeyComponent() instanceof JTextComponent)
-            ((JTextComponent) getKeyComponent()).setText(text);
+        {
+            updatingKeyComponentText = true;
+            try
+            {
+                ((JTextComponent) getKeyComponent()).setText(text);
+            }
+            finally
+            {
+                updatingKeyComponentText = false;
+            }
+        }
     }
 
     /**
@@ -375,36 +424,11 @@ public abstract class AbstractLookupBinding extends CustomBinding
                 // if something was filled in and it doesn't match the internal value
                 if (!empty && ((ref == null) || !textFieldValue.equals(getObjectLabel(ref))))
                 {
-                    // call the dataEditor to fire the search
-                    Object result = initializeDataEditor();
-
-                    //no match
-                    if(result == null)
-                    {
-                        if (!revertValueOnFocusLost())
-                            getValueModel().setValue(createFilterFromString(textFieldValue));
-                        if ((getAutoPopupDialog() & AUTOPOPUPDIALOG_NO_MATCH) == AUTOPOPUPDIALOG_NO_MATCH)
-                            getDataEditorCommand().execute(parameters);
-                    }
-                    // multiple matches
-                    else if ((result instanceof java.util.List) && (((java.util.List<?>) result).size() > 1))
-                    {
-                        if (!revertValueOnFocusLost())
-                            getValueModel().setValue(createFilterFromString(textFieldValue));
-                        if ((getAutoPopupDialog() & AUTOPOPUPDIALOG_MULTIPLE_MATCH) == AUTOPOPUPDIALOG_MULTIPLE_MATCH)
-                            getDataEditorCommand().execute(parameters);
-                    }
-                    // exact match
+                    if (isAsynchronousLookup())
+                        lookup(textFieldValue, true);
                     else
-                    {
-                        // in dit geval krijg je een object uit de lijst terug, dit is niet gedetaileerd,
-                        // daarom moet het eventueel gedetaileerd geladen worden.
-                        setValue(result, true);
-                        if ((getAutoPopupDialog() & AUTOPOPUPDIALOG_UNIQUE_MATCH) == AUTOPOPUPDIALOG_UNIQUE_MATCH)
-                            getDataEditorCommand().execute(parameters);
-                    }
-
-
+                        // call the dataEditor to fire the search
+                        handleLookupResult(textFieldValue, initializeDataEditor(), false);
                 }
                 // nothing filled in, underlying value isn't empty and we should not revert, set null
                 else if (!revertValueOnFocusLost() && empty && ref != null)
@@ -416,6 +440,297 @@ public abstract class AbstractLookupBinding extends CustomBinding
         };
     }
 
+    /**
+     * Handle the result of resolving the typed key: set the value on a unique match and pop-up the dialog as
+     * defined in the {@link #getAutoPopupDialog()} mask.
+     *
+     * @param textFieldValue
+     *            the typed key.
+     * @param result
+     *            a single object on a unique match, a list if multiple matches occurred or <code>null</code> if
+     *            nothing was found.
+     * @param asynchronous
+     *            <code>true</code> if the result was looked up in the background. A unique match is then already
+     *            loaded as the value and the dataEditor still needs to be initialized before it's shown.
+     */
+    protected void handleLookupResult(String textFieldValue, Object result, boolean asynchronous)
+    {
+        //no match
+        if(result == null)
+        {
+            if (!revertValueOnFocusLost())
+                getValueModel().setValue(createFilterFromString(textFieldValue));
+            if ((getAutoPopupDialog() & AUTOPOPUPDIALOG_NO_MATCH) == AUTOPOPUPDIALOG_NO_MATCH)
+                showDataEditorDialog(asynchronous);
+        }
+        // multiple matches
+        else if ((result instanceof java.util.List) && (((java.util.List<?>) result).size() > 1))
+        {
+            if (!revertValueOnFocusLost())
+                getValueModel().setValue(createFilterFromString(textFieldValue));
+            if ((getAutoPopupDialog() & AUTOPOPUPDIALOG_MULTIPLE_MATCH) == AUTOPOPUPDIALOG_MULTIPLE_MATCH)
+                showDataEditorDialog(asynchronous);
+        }
+        // exact match
+        else
+        {
+            if (asynchronous)
+                getValueModel().setValue(result);
+            else
+                // in dit geval krijg je een object uit de lijst terug, dit is niet gedetaileerd,
+                // daarom moet het eventueel gedetaileerd geladen worden.
+                setValue(result, true);
+            if ((getAutoPopupDialog() & AUTOPOPUPDIALOG_UNIQUE_MATCH) == AUTOPOPUPDIALOG_UNIQUE_MATCH)
+                showDataEditorDialog(asynchronous);
+        }
+    }
+
+    private void showDataEditorDialog(boolean initializeDataEditor)
+    {
+        if (initializeDataEditor)
+            initializeDataEditor();
+        getDataEditorCommand().execute(parameters);
+    }
+
+    /**
+     * Create a document listener that starts a background lookup of the typed key when the user stops typing
+     * for {@link #getLookupDelay()} milliseconds. Only active with {@link #isAsynchronousLookup() asynchronous
+     * lookup}.
+     */
+    protected DocumentListener createLookupDocumentListener()
+    {
+        return new DocumentListener()
+        {
+
+            public void insertUpdate(DocumentEvent e)
+            {
+                keyTyped();
+            }
+
+            public void removeUpdate(DocumentEvent e)
+            {
+                keyTyped();
+            }
+
+            public void changedUpdate(DocumentEvent e)
+            {
+            }
+
+            private void keyTyped()
+            {
+                if (!isAsynchronousLookup() || updatingKeyComponentText)
+                    return;
+
+                if (lookupTimer == null)
+                {
+                    lookupTimer = new Timer(lookupDelay, new ActionListener()
+                    {
+
+                        public void actionPerformed(ActionEvent e)
+                        {
+                            String textFieldValue = getKeyComponentText();
+                            Object ref = AbstractLookupBinding.this.getValue();
+                            if (!"".equals(textFieldValue.trim())
+                                    && ((ref == null) || !textFieldValue.equals(getObjectLabel(ref))))
+                                lookup(textFieldValue, false);
+                        }
+                    });
+                    lookupTimer.setRepeats(false);
+                }
+                lookupTimer.setInitialDelay(lookupDelay);
+                lookupTimer.restart();
+            }
+        };
+    }
+
+    /**
+     * Resolve the given key in the background, unless it is cached or already being resolved.
+     *
+     * @param key
+     *            the typed key.
+     * @param applyResult
+     *            <code>true</code> to handle the result with {@link #handleLookupResult(String, Object, boolean)}
+     *            if the key is still shown when the lookup is done, <code>false</code> to only cache it.
+     */
+    protected void lookup(String key, boolean applyResult)
+    {
+        if (lookupTimer != null)
+            lookupTimer.stop();
+
+        LookupResultCache cache = getLookupResultCache();
+        Object baseCriteria = getDataEditor().getDataProviderBaseCriteria();
+        Object cacheKey = createLookupCacheKey(key, baseCriteria);
+        Object cached = cache.get(cacheKey);
+        if (cached != null)
+        {
+            if (applyResult)
+                handleLookupResult(key, cached, true);
+            return;
+        }
+
+        if (lookupWorker != null)
+        {
+            if (lookupWorker.key.equals(key))
+            {
+                lookupWorker.applyResult |= applyResult;
+                return;
+            }
+            lookupWorker.cancel(false);
+        }
+        lookupWorker = new LookupWorker(key, createFilterFromString(key), baseCriteria, cache, cacheKey,
+                applyResult);
+        lookupWorker.execute();
+    }
+
+    /**
+     * Returns <code>true</code> if the key shown in the key component is being resolved in the background and the
+     * result will be applied when it's done.
+     */
+    protected boolean isLookupPending()
+    {
+        return (lookupWorker != null) && lookupWorker.applyResult && lookupWorker.key.equals(getKeyComponentText());
+    }
+
+    /**
+     * Returns the cache of resolved keys shared by the bindings using the same dataProvider. Bindings with
+     * another dataProvider never see each other's resolutions, so the dataProvider is not part of the
+     * {@link #createLookupCacheKey(String, Object) cache key}.
+     */
+    protected LookupResultCache getLookupResultCache()
+    {
+        return LookupResultCache.getInstance(getDataEditor().getDataProvider(), lookupCacheSize);
+    }
+
+    /**
+     * Create the key used to cache the object the given typed key resolves to. Bindings with another type, base
+     * criteria or detail setting may resolve the same key differently, so these are part of the cache key. Base
+     * criteria that don't implement <code>equals</code> only match themselves. Subclasses that resolve keys using
+     * other state should add it to the key.
+     *
+     * @param key
+     *            the typed key.
+     * @param baseCriteria
+     *            the base criteria of the dataEditor the key is resolved with.
+     */
+    protected Object createLookupCacheKey(String key, Object baseCriteria)
+    {
+        return Arrays.asList(getClass(), baseCriteria, loadDetailedObject, key);
+    }
+
+    /**
+     * Handle an exception thrown while resolving the given key in the background. By default the exception is
+     * passed to the exception handler of the application, as it would have been when resolving the key on the
+     * event dispatch thread.
+     *
+     * @param key
+     *            the typed key.
+     * @param exception
+     *            the exception thrown by the dataProvider.
+     */
+    protected void handleLookupException(String key, Throwable exception)
+    {
+        RcpSupport.handleException(exception);
+    }
+
+    /**
+     * Resolves a typed key in the background, and caches and handles the result on the event dispatch thread.
+     */
+    private class LookupWorker extends SwingWorker<Object, Object>
+    {
+
+        private final String key;
+
+        private final Object criteria;
+
+        private final Object baseCriteria;
+
+        private final DataProvider dataProvider;
+
+        private final LookupResultCache cache;
+
+        private final Object cacheKey;
+
+        private final long generation;
+
+        private boolean applyResult;
+
+        public LookupWorker(String key, Object criteria, Object baseCriteria, LookupResultCache cache,
+                Object cacheKey, boolean applyResult)
+        {
+            this.key = key;
+            this.criteria = criteria;
+            this.baseCriteria = baseCriteria;
+            this.dataProvider = getDataEditor().getDataProvider();
+            this.cache = cache;
+            this.cacheKey = cacheKey;
+            this.generation = cache.getGeneration();
+            this.applyResult = applyResult;
+        }
+
+        /**
+         * Returns the value to use on a unique match, the list of matches if there are several or
+         * <code>null</code> if nothing was found.
+         */
+        @Override
+        protected Object doInBackground() throws Exception
+        {
+            List<?> matches;
+            try
+            {
+                // the dataProvider may be shared, keep its base criteria ours until the query is done
+                synchronized (dataProvider)
+                {
+                    if (dataProvider.supportsBaseCriteria())
+                        dataProvider.setBaseCriteria(baseCriteria);
+                    matches = dataProvider.getList(criteria);
+                }
+            }
+            catch (MaximumRowsExceededException e)
+            {
+                return null;
+            }
+            if ((matches == null) || matches.isEmpty())
+                return null;
+            if (matches.size() == 1)
+                return resolveValue(dataProvider, matches.get(0), true);
+            return matches;
+        }
+
+        @Override
+        protected void done()
+        {
+            if (lookupWorker == this)
+                lookupWorker = null;
+            if (isCancelled())
+                return;
+
+            Object result;
+            try
+            {
+                result = get();
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            catch (ExecutionException e)
+            {
+                handleLookupException(key, e.getCause());
+                return;
+            }
+            if ((result != null) && !(result instanceof List))
+                cache.put(cacheKey, result, generation);
+
+            if (applyResult && key.equals(getKeyComponentText()))
+            {
+                handleLookupResult(key, result, true);
+                // focus was lost while looking up, revert as the focus listener would have done
+                if (revertValueOnFocusLost() && !getKeyComponent().isFocusOwner())
+                    valueModelChanged(AbstractLookupBinding.super.getValue());
+            }
+        }
+    }
+
     /**
      * Create a focus listener to attach to the textComponent and dataEditorButton that will decide what
      * happens with the changed value. Here a revert can be done if no value is selected or a new value can be
@@ -435,6 +750,10 @@ public abstract class AbstractLookupBinding extends CustomBinding
                 boolean empty = "".equals(textFieldValue.trim());
                 Object ref = AbstractLookupBinding.this.getValue();
 
+                // the lookup handles the value when it's done
+                if (isLookupPending())
+                    return;
+
                 if (evaluateFocusLost(e))
                 {
                     // Revert if value isn't empty
@@ -612,17 +931,24 @@ public abstract class AbstractLookupBinding extends CustomBinding
     }
 
     private void setValue(Object value, boolean doLoadDetailedObject)
+    {
+        getValueModel().setValue(resolveValue(getDataEditor().getDataProvider(), value, doLoadDetailedObject));
+    }
+
+    /**
+     * Load the simple or detailed object to use as value for the given selected object.
+     */
+    private Object resolveValue(DataProvider dataProvider, Object value, boolean doLoadDetailedObject)
     {
         if (value != null && !loadDetailedObject)
         {
-            value = getDataEditor().getDataProvider().getSimpleObject(value);
+            value = dataProvider.getSimpleObject(value);
         }
         else if (value != null && doLoadDetailedObject)
         {
-            value = getDataEditor().getDataProvider().getDetailObject(value, false);
+            value = dataProvider.getDetailObject(value, false);
         }
-
-        getValueModel().setValue(value);
+        return value;
     }
 
     private static class PropertyChangeMonitor extends JComponent
@@ -718,6 +1044,48 @@ public abstract class AbstractLookupBinding extends CustomBinding
         this.filter = filter;
     }
 
+    /**
+     * Set to <code>true</code> to resolve typed keys in the background instead of on the event dispatch thread.
+     * Default value is <code>false</code>.
+     */
+    public void setAsynchronousLookup(boolean asynchronousLookup)
+    {
+        this.asynchronousLookup = asynchronousLookup;
+    }
+
+    public boolean isAsynchronousLookup()
+    {
+        return asynchronousLookup;
+    }
+
+    /**
+     * Set the number of milliseconds without keystrokes after which the typed key is resolved in the background.
+     * Default value is 300.
+     */
+    public void setLookupDelay(int lookupDelay)
+    {
+        this.lookupDelay = lookupDelay;
+    }
+
+    public int getLookupDelay()
+    {
+        return lookupDelay;
+    }
+
+    /**
+     * Set the maximum number of resolved keys that are cached for the dataProvider of this binding. Default
+     * value is 100.
+     */
+    public void setLookupCacheSize(int lookupCacheSize)
+    {
+        this.lookupCacheSize = lookupCacheSize;
+    }
+
+    public int getLookupCacheSize()
+    {
+        return lookupCacheSize;
+    }
+
     public Object getFilter()
     {
         return filter;
@@ -0,0 +1,141 @@
+package org.springframework.richclient.form.binding.swing.editor;
+
+import org.springframework.richclient.widget.editor.provider.DataProvider;
+import org.springframework.richclient.widget.editor.provider.DataProviderListener;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Observable;
+import java.util.WeakHashMap;
+
+/**
+ * Bounded cache of the objects that typed keys resolved to in lookup bindings, shared by all bindings that use
+ * the same {@link DataProvider}. The least recently used resolution is dropped first when the cache is full.
+ * <p>
+ * The cache listens to its {@link DataProvider} and is cleared when an object is created, updated or deleted,
+ * as the resolutions may no longer be valid. Resolutions that were looked up while the cache was cleared are not
+ * stored, see {@link #getGeneration()}.
+ *
+ * @see AbstractLookupBinding#setAsynchronousLookup(boolean)
+ */
+public class LookupResultCache implements DataProviderListener
+{
+
+    /** Caches by dataProvider, weakly referenced so the providers can be collected. */
+    private static final Map<DataProvider, LookupResultCache> caches = new WeakHashMap<DataProvider, LookupResultCache>();
+
+    private int maxSize;
+
+    private final Map<Object, Object> resolutions = new LinkedHashMap<Object, Object>(16, 0.75f, true)
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest)
+        {
+            return size() > maxSize;
+        }
+    };
+
+    private long generation;
+
+    /**
+     * Returns the cache shared by the bindings using the given dataProvider, creating it if necessary. The
+     * maximum size of an existing cache is raised if the given size is larger.
+     *
+     * @param dataProvider
+     *            the dataProvider that resolves the keys.
+     * @param maxSize
+     *            the maximum number of resolutions to keep.
+     */
+    public static LookupResultCache getInstance(DataProvider dataProvider, int maxSize)
+    {
+        Assert.notNull(dataProvider, "dataProvider cannot be null");
+        synchronized (caches)
+        {
+            LookupResultCache cache = caches.get(dataProvider);
+            if (cache == null)
+            {
+                cache = new LookupResultCache(maxSize);
+                dataProvider.addDataProviderListener(cache);
+                caches.put(dataProvider, cache);
+            }
+            else if (cache.getMaxSize() < maxSize)
+            {
+                cache.setMaxSize(maxSize);
+            }
+            return cache;
+        }
+    }
+
+    public LookupResultCache(int maxSize)
+    {
+        setMaxSize(maxSize);
+    }
+
+    public synchronized void setMaxSize(int maxSize)
+    {
+        Assert.isTrue(maxSize > 0, "maxSize must be positive");
+        this.maxSize = maxSize;
+    }
+
+    public synchronized int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Returns the object the given key resolved to, or <code>null</code> if it isn't cached.
+     */
+    public synchronized Object get(Object key)
+    {
+        return resolutions.get(key);
+    }
+
+    /**
+     * Stores the object the given key resolved to, unless the cache was cleared since the given generation.
+     *
+     * @param key
+     *            the key as typed by the user.
+     * @param resolvedObject
+     *            the object the key resolved to.
+     * @param lookupGeneration
+     *            the {@link #getGeneration() generation} when the lookup started.
+     */
+    public synchronized void put(Object key, Object resolvedObject, long lookupGeneration)
+    {
+        if (lookupGeneration == generation && resolvedObject != null)
+        {
+            resolutions.put(key, resolvedObject);
+        }
+    }
+
+    /**
+     * Returns a number that changes each time the cache is cleared.
+     */
+    public synchronized long getGeneration()
+    {
+        return generation;
+    }
+
+    public synchronized int size()
+    {
+        return resolutions.size();
+    }
+
+    public synchronized void clear()
+    {
+        generation++;
+        resolutions.clear();
+    }
+
+    /**
+     * Clears the cache when the dataProvider reports a change.
+     */
+    public void update(Observable o, Object arg)
+    {
+        clear();
+    }
+}
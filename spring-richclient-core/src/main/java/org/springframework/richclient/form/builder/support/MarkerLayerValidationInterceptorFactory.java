@@ -0,0 +1,252 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.form.builder.support;
+
+import java.awt.Container;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import javax.swing.Icon;
+import javax.swing.JComponent;
+import javax.swing.JRootPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.JViewport;
+import javax.swing.SwingConstants;
+
+import org.springframework.binding.form.FieldMetadata;
+import org.springframework.binding.form.FormModel;
+import org.springframework.richclient.application.ApplicationServicesLocator;
+import org.springframework.richclient.components.MarkerLayer;
+import org.springframework.richclient.components.MessagableTabbedPane;
+import org.springframework.richclient.core.Message;
+import org.springframework.richclient.core.Severity;
+import org.springframework.richclient.dialog.DefaultMessageAreaModel;
+import org.springframework.richclient.dialog.Messagable;
+import org.springframework.richclient.form.HasValidationComponent;
+import org.springframework.richclient.form.builder.FormComponentInterceptor;
+import org.springframework.richclient.form.builder.FormComponentInterceptorFactory;
+import org.springframework.richclient.image.IconSource;
+
+/**
+ * Alternative for the {@link OverlayValidationInterceptorFactory} that paints
+ * the validation markers of all fields on the single {@link MarkerLayer} of
+ * the window instead of adding an overlay component per field. Optionally
+ * dirty fields are marked as well, replacing the
+ * {@link DirtyIndicatorInterceptorFactory} overlays.
+ * <p>
+ * Markers are driven by the per property listeners of the
+ * {@link org.springframework.binding.validation.ValidationResultsModel}, so a
+ * validation only repaints the markers of the properties whose messages
+ * changed.
+ */
+public class MarkerLayerValidationInterceptorFactory implements FormComponentInterceptorFactory {
+
+    private static final String DIRTY_ICON_KEY = "dirty.overlay";
+
+    private static final Object VALIDATION_MARKER = "validation";
+
+    private static final Object DIRTY_MARKER = "dirty";
+
+    private static int lineHeight = -1;
+
+    private boolean showDirtyMarkers;
+
+    public boolean isShowDirtyMarkers() {
+        return showDirtyMarkers;
+    }
+
+    /**
+     * Sets whether fields that have been changed are marked as well. Defaults
+     * to <code>false</code>.
+     */
+    public void setShowDirtyMarkers(boolean showDirtyMarkers) {
+        this.showDirtyMarkers = showDirtyMarkers;
+    }
+
+    public FormComponentInterceptor getInterceptor(FormModel formModel) {
+        return new MarkerLayerValidationInterceptor(formModel, showDirtyMarkers);
+    }
+
+    /**
+     * The height of a single line text field, validation markers are centered
+     * on the bottom left corner of the first line of a field.
+     */
+    private static int getLineHeight() {
+        if (lineHeight < 0) {
+            lineHeight = new JTextField().getPreferredSize().height;
+        }
+        return lineHeight;
+    }
+
+    private static Icon getIcon(String key) {
+        IconSource iconSource = (IconSource)ApplicationServicesLocator.services().getService(IconSource.class);
+        return iconSource.getIcon(key);
+    }
+
+    public static class MarkerLayerValidationInterceptor extends ValidationInterceptor {
+
+        private final boolean showDirtyMarkers;
+
+        public MarkerLayerValidationInterceptor(FormModel formModel, boolean showDirtyMarkers) {
+            super(formModel);
+            this.showDirtyMarkers = showDirtyMarkers;
+        }
+
+        public void processComponent(String propertyName, JComponent component) {
+            FieldMarkers fieldMarkers = new FieldMarkers(component);
+            component.addHierarchyListener(fieldMarkers);
+            registerMessageReceiver(propertyName, fieldMarkers);
+            if (showDirtyMarkers) {
+                FieldMetadata fieldMetadata = getFormModel().getFieldMetadata(propertyName);
+                fieldMetadata.addPropertyChangeListener(FieldMetadata.DIRTY_PROPERTY, fieldMarkers);
+                fieldMarkers.setDirty(fieldMetadata.isDirty());
+            }
+        }
+    }
+
+    /**
+     * Keeps the markers of one field and shows them on the marker layer of the
+     * window the field is displayed in.
+     */
+    private static class FieldMarkers implements Messagable, HierarchyListener, PropertyChangeListener {
+
+        private final DefaultMessageAreaModel messageBuffer = new DefaultMessageAreaModel(this);
+
+        private final JComponent component;
+
+        private MarkerLayer markerLayer;
+
+        private JComponent target;
+
+        private MessagableTabbedPane tabbedPane;
+
+        private int tabIndex;
+
+        private boolean dirty;
+
+        public FieldMarkers(JComponent component) {
+            this.component = component;
+        }
+
+        public void setMessage(Message message) {
+            messageBuffer.setMessage(message);
+            if (tabbedPane != null) {
+                tabbedPane.setMessage(this, messageBuffer.getMessage(), tabIndex);
+            }
+            updateValidationMarker();
+        }
+
+        public void setDirty(boolean dirty) {
+            this.dirty = dirty;
+            updateDirtyMarker();
+        }
+
+        public void propertyChange(PropertyChangeEvent evt) {
+            setDirty(((Boolean)evt.getNewValue()).booleanValue());
+        }
+
+        public void hierarchyChanged(HierarchyEvent e) {
+            if ((e.getChangeFlags() & (HierarchyEvent.PARENT_CHANGED | HierarchyEvent.DISPLAYABILITY_CHANGED)) == 0) {
+                return;
+            }
+            MarkerLayer newMarkerLayer = MarkerLayer.getMarkerLayer(component);
+            JComponent newTarget = getMarkerTarget();
+            if (newMarkerLayer != markerLayer || newTarget != target) {
+                if (markerLayer != null) {
+                    markerLayer.removeMarkers(target);
+                }
+                markerLayer = newMarkerLayer;
+                target = newTarget;
+                updateValidationMarker();
+                updateDirtyMarker();
+            }
+            updateTabbedPane();
+        }
+
+        private JComponent getMarkerTarget() {
+            if (component instanceof HasValidationComponent) {
+                return ((HasValidationComponent)component).getValidationComponent();
+            }
+            if (component.getParent() instanceof JViewport && component.getParent().getParent() instanceof JScrollPane) {
+                return (JScrollPane)component.getParent().getParent();
+            }
+            return component;
+        }
+
+        private void updateTabbedPane() {
+            MessagableTabbedPane newTabbedPane = null;
+            int newTabIndex = 0;
+            Container child = component;
+            for (Container parent = component.getParent(); parent != null && !(parent instanceof JRootPane); parent = parent
+                    .getParent()) {
+                if (parent instanceof MessagableTabbedPane) {
+                    newTabbedPane = (MessagableTabbedPane)parent;
+                    newTabIndex = newTabbedPane.indexOfComponent(child);
+                }
+                child = parent;
+            }
+            if (newTabbedPane != tabbedPane || newTabIndex != tabIndex) {
+                if (tabbedPane != null && tabIndex < tabbedPane.getTabCount()) {
+                    tabbedPane.setMessage(this, null, tabIndex);
+                }
+                tabbedPane = newTabbedPane;
+                tabIndex = newTabIndex;
+                if (tabbedPane != null) {
+                    tabbedPane.setMessage(this, messageBuffer.getMessage(), tabIndex);
+                }
+            }
+        }
+
+        private void updateValidationMarker() {
+            if (markerLayer == null) {
+                return;
+            }
+            Message message = messageBuffer.getMessage();
+            Severity severity = message.getSeverity();
+            Icon icon = severity != null ? getIcon("severity." + severity.getLabel() + ".overlay") : null;
+            int yOffset = Math.min(target.getPreferredSize().height, getLineHeight());
+            markerLayer.setMarker(target, VALIDATION_MARKER, icon, message.getMessage(), SwingConstants.NORTH_WEST, 0,
+                    yOffset);
+        }
+
+        private void updateDirtyMarker() {
+            if (markerLayer == null) {
+                return;
+            }
+            Icon icon = dirty ? getIcon(DIRTY_ICON_KEY) : null;
+            markerLayer.setMarker(target, DIRTY_MARKER, icon, null, SwingConstants.NORTH_WEST, 5, 0);
+        }
+
+        public void addPropertyChangeListener(PropertyChangeListener listener) {
+            messageBuffer.addPropertyChangeListener(listener);
+        }
+
+        public void addPropertyChangeListener(String propertyName, PropertyChangeListener listener) {
+            messageBuffer.addPropertyChangeListener(propertyName, listener);
+        }
+
+        public void removePropertyChangeListener(PropertyChangeListener listener) {
+            messageBuffer.removePropertyChangeListener(listener);
+        }
+
+        public void removePropertyChangeListener(String propertyName, PropertyChangeListener listener) {
+            messageBuffer.removePropertyChangeListener(propertyName, listener);
+        }
+    }
+}
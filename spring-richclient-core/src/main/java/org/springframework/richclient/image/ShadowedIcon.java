@@ -17,12 +17,21 @@ package org.springframework.richclient.image;
 
 import java.awt.Component;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
 import javax.swing.GrayFilter;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
 
 /**
+ * Icon that paints a grayed copy of the given icon as its shadow. The shadow and
+ * the icon are rendered once into an image, so painting the icon in toolbars
+ * and menus is a single image copy.
+ * <p>
  * Code taken from
  * http://www.jroller.com/santhosh/entry/beautify_swing_applications_toolbar_with
  * 
@@ -35,6 +44,8 @@ public class ShadowedIcon implements Icon {
 
 	private Icon icon, shadow;
 
+	private BufferedImage image;
+
 	public ShadowedIcon(Icon icon) {
 		this.icon = icon;
 		shadow = new ImageIcon(GrayFilter.createDisabledImage(((ImageIcon) icon).getImage()));
@@ -47,15 +58,38 @@ public class ShadowedIcon implements Icon {
 	}
 
 	public int getIconHeight() {
-		return icon.getIconWidth() + shadowWidth;
+		return icon.getIconHeight() + shadowHeight;
 	}
 
 	public int getIconWidth() {
-		return icon.getIconHeight() + shadowHeight;
+		return icon.getIconWidth() + shadowWidth;
 	}
 
 	public void paintIcon(Component c, Graphics g, int x, int y) {
-		shadow.paintIcon(c, g, x + shadowWidth, y + shadowHeight);
-		icon.paintIcon(c, g, x, y);
+		if (image == null) {
+			image = createImage(c);
+		}
+		g.drawImage(image, x, y, null);
+	}
+
+	private BufferedImage createImage(Component c) {
+		GraphicsConfiguration configuration = c == null ? null : c.getGraphicsConfiguration();
+		if (configuration == null && !GraphicsEnvironment.isHeadless()) {
+			configuration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+					.getDefaultConfiguration();
+		}
+		int width = Math.max(1, getIconWidth());
+		int height = Math.max(1, getIconHeight());
+		BufferedImage result = configuration == null ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+				: configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		Graphics2D g2 = result.createGraphics();
+		try {
+			shadow.paintIcon(c, g2, shadowWidth, shadowHeight);
+			icon.paintIcon(c, g2, 0, 0);
+		}
+		finally {
+			g2.dispose();
+		}
+		return result;
 	}
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.list;
+
+import javax.swing.AbstractListModel;
+import javax.swing.ListModel;
+import javax.swing.ListSelectionModel;
+
+import org.springframework.rules.constraint.Constraint;
+import org.springframework.util.Assert;
+
+/**
+ * View on an existing {@link ListModel} that shows the elements whose index is
+ * (or, for the complement, is not) selected in a {@link ListSelectionModel}.
+ * The selection model serves as an index set over the list model:
+ * {@link javax.swing.DefaultListSelectionModel} keeps its selection in a
+ * <code>BitSet</code>, so testing whether an element belongs to the view
+ * doesn't depend on the number of elements. A {@link Constraint} can further
+ * filter the shown elements.
+ * <p>
+ * The view doesn't listen to the list model or the selection model. Its owner
+ * calls {@link #refresh()} after a change, which rebuilds the view in a single
+ * pass and fires at most two events, however many elements changed. This is what
+ * makes moving thousands of elements at once cheap, see
+ * {@link org.springframework.richclient.components.ShuttleList}.
+ */
+public class SelectionFilteredListModel extends AbstractListModel {
+
+    private final ListModel listModel;
+
+    private final ListSelectionModel selectionModel;
+
+    private final boolean selected;
+
+    private Constraint constraint;
+
+    private int[] indexes = new int[0];
+
+    private int size;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param listModel
+     *            the list model to show the elements of
+     * @param selectionModel
+     *            the selection model holding the indexes of the elements
+     * @param selected
+     *            <code>true</code> to show the selected elements,
+     *            <code>false</code> to show the elements that aren't selected
+     */
+    public SelectionFilteredListModel(ListModel listModel, ListSelectionModel selectionModel, boolean selected) {
+        Assert.notNull(listModel, "listModel cannot be null");
+        Assert.notNull(selectionModel, "selectionModel cannot be null");
+        this.listModel = listModel;
+        this.selectionModel = selectionModel;
+        this.selected = selected;
+        refresh();
+    }
+
+    /**
+     * Sets the constraint the shown elements must pass, or <code>null</code>
+     * to show all elements with the right selection state.
+     */
+    public void setConstraint(Constraint constraint) {
+        this.constraint = constraint;
+        refresh();
+    }
+
+    public Constraint getConstraint() {
+        return constraint;
+    }
+
+    /**
+     * Rebuilds the view after the list model, the selection model or the
+     * constraint changed. The listeners are notified with at most two events,
+     * however many elements changed: one for the added or removed rows at the
+     * end of the view, and one for the rows the old and new view share.
+     */
+    public void refresh() {
+        int oldSize = size;
+        int modelSize = listModel.getSize();
+        if (indexes.length < modelSize) {
+            indexes = new int[modelSize];
+        }
+        size = 0;
+        for (int i = 0; i < modelSize; i++) {
+            if (selectionModel.isSelectedIndex(i) == selected
+                    && (constraint == null || constraint.test(listModel.getElementAt(i)))) {
+                indexes[size++] = i;
+            }
+        }
+        if (size > oldSize) {
+            fireIntervalAdded(this, oldSize, size - 1);
+        }
+        else if (size < oldSize) {
+            fireIntervalRemoved(this, size, oldSize - 1);
+        }
+        int shared = Math.min(oldSize, size);
+        if (shared > 0) {
+            fireContentsChanged(this, 0, shared - 1);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Object getElementAt(int index) {
+        return listModel.getElementAt(getElementIndex(index));
+    }
+
+    /**
+     * Returns the index in the list model of the element at the given index of
+     * this view.
+     */
+    public int getElementIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return indexes[index];
+    }
+}
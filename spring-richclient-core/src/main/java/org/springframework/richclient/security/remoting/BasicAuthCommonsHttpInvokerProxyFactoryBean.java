@@ -1,5 +1,7 @@
 package org.springframework.richclient.security.remoting;
 
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.UsernamePasswordCredentials;
 import org.apache.commons.httpclient.auth.AuthScope;
@@ -40,6 +42,14 @@ import org.springframework.security.Authentication;
  */
 public class BasicAuthCommonsHttpInvokerProxyFactoryBean extends HttpInvokerProxyFactoryBean implements AuthenticationAware {
 
+    private RemoteMethodResultCache methodResultCache;
+
+    private final MethodInterceptor remoteInvoker = new MethodInterceptor() {
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return BasicAuthCommonsHttpInvokerProxyFactoryBean.super.invoke(invocation);
+        }
+    };
+
     /**
      * Constructor. Install the default executor.
      */
@@ -47,6 +57,30 @@ public class BasicAuthCommonsHttpInvokerProxyFactoryBean extends HttpInvokerProx
         setHttpInvokerRequestExecutor(new CommonsHttpInvokerRequestExecutor());
     }
 
+    /**
+     * Sets the cache for the results of remote invocations. By default no
+     * results are cached.
+     * @see RemoteMethodResultCache
+     */
+    public void setMethodResultCache(RemoteMethodResultCache methodResultCache) {
+        this.methodResultCache = methodResultCache;
+    }
+
+    public RemoteMethodResultCache getMethodResultCache() {
+        return methodResultCache;
+    }
+
+    /**
+     * Answers the invocation from the method result cache, if one is set and
+     * holds the result.
+     */
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (methodResultCache == null) {
+            return super.invoke(invocation);
+        }
+        return methodResultCache.invoke(invocation, remoteInvoker);
+    }
+
 
     /**
      * Handle a change in the current authentication token.
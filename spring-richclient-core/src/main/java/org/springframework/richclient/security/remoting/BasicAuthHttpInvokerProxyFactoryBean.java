@@ -15,6 +15,8 @@
  */
 package org.springframework.richclient.security.remoting;
 
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
 import org.springframework.remoting.httpinvoker.HttpInvokerProxyFactoryBean;
 import org.springframework.remoting.httpinvoker.HttpInvokerRequestExecutor;
 import org.springframework.richclient.security.AuthenticationAware;
@@ -44,6 +46,14 @@ import org.springframework.security.Authentication;
  */
 public class BasicAuthHttpInvokerProxyFactoryBean extends HttpInvokerProxyFactoryBean implements AuthenticationAware {
 
+    private RemoteMethodResultCache methodResultCache;
+
+    private final MethodInterceptor remoteInvoker = new MethodInterceptor() {
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return BasicAuthHttpInvokerProxyFactoryBean.super.invoke(invocation);
+        }
+    };
+
     /**
      * Constructor. Install the default executor.
      */
@@ -51,6 +61,30 @@ public class BasicAuthHttpInvokerProxyFactoryBean extends HttpInvokerProxyFactor
         setHttpInvokerRequestExecutor( new BasicAuthHttpInvokerRequestExecutor() );
     }
 
+    /**
+     * Sets the cache for the results of remote invocations. By default no
+     * results are cached.
+     * @see RemoteMethodResultCache
+     */
+    public void setMethodResultCache(RemoteMethodResultCache methodResultCache) {
+        this.methodResultCache = methodResultCache;
+    }
+
+    public RemoteMethodResultCache getMethodResultCache() {
+        return methodResultCache;
+    }
+
+    /**
+     * Answers the invocation from the method result cache, if one is set and
+     * holds the result.
+     */
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (methodResultCache == null) {
+            return super.invoke(invocation);
+        }
+        return methodResultCache.invoke(invocation, remoteInvoker);
+    }
+
     //
     // === AuthenticationAware implementation ===
     //
@@ -67,11 +101,11 @@ public class BasicAuthHttpInvokerProxyFactoryBean extends HttpInvokerProxyFactor
         }
 
         final HttpInvokerRequestExecutor hire = getHttpInvokerRequestExecutor();
-        if( hire instanceof BasicAuthHttpInvokerRequestExecutor ) {
+        if( hire instanceof AuthenticationAware ) {
             if( logger.isDebugEnabled() ) {
                 logger.debug( "Pass it along to executor" );
             }
-            ((BasicAuthHttpInvokerRequestExecutor) hire).setAuthenticationToken( authentication );
+            ((AuthenticationAware) hire).setAuthenticationToken( authentication );
         }
     }
 }
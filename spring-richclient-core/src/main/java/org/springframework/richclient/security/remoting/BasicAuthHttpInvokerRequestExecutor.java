@@ -15,11 +15,15 @@
  */
 package org.springframework.richclient.security.remoting;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.codec.binary.Base64;
+import org.springframework.remoting.httpinvoker.HttpInvokerClientConfiguration;
 import org.springframework.remoting.httpinvoker.SimpleHttpInvokerRequestExecutor;
+import org.springframework.remoting.support.RemoteInvocationResult;
 import org.springframework.richclient.security.AuthenticationAware;
 import org.springframework.security.Authentication;
 
@@ -59,6 +63,8 @@ public class BasicAuthHttpInvokerRequestExecutor extends SimpleHttpInvokerReques
 
     private Authentication authentication;
 
+    private int compressionThreshold = -1;
+
     /**
      * Constructor.
      */
@@ -80,6 +86,21 @@ public class BasicAuthHttpInvokerRequestExecutor extends SimpleHttpInvokerReques
         return authentication;
     }
 
+    /**
+     * Set the size in bytes from which request bodies are sent gzip compressed.
+     * Defaults to -1, never compressing requests. The server must be able to read
+     * compressed requests, as the {@link BatchingHttpInvokerServiceExporter} can.
+     * Compressed responses are always accepted, see
+     * {@link #setAcceptGzipEncoding(boolean)}.
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
     //
     // === SimpleHttpInvokerRequestExecutor methods ===
     //
@@ -136,4 +157,42 @@ public class BasicAuthHttpInvokerRequestExecutor extends SimpleHttpInvokerReques
         doPrepareConnection( con, contentLength );
     }
 
+    /**
+     * Compresses the request body if it reaches the compression threshold.
+     */
+    protected RemoteInvocationResult doExecuteRequest(HttpInvokerClientConfiguration config, ByteArrayOutputStream baos)
+            throws IOException, ClassNotFoundException {
+        if( compressionThreshold >= 0 && baos.size() >= compressionThreshold ) {
+            GzippedByteArrayOutputStream compressed = new GzippedByteArrayOutputStream( baos.size() / 2 );
+            GZIPOutputStream gzip = new GZIPOutputStream( compressed );
+            baos.writeTo( gzip );
+            gzip.close();
+            if( logger.isDebugEnabled() ) {
+                logger.debug( "Compressed request body from " + baos.size() + " to " + compressed.size() + " bytes" );
+            }
+            baos = compressed;
+        }
+        return super.doExecuteRequest( config, baos );
+    }
+
+    /**
+     * Marks the request as compressed if the body was compressed.
+     */
+    protected void writeRequestBody(HttpInvokerClientConfiguration config, HttpURLConnection con,
+            ByteArrayOutputStream baos) throws IOException {
+        if( baos instanceof GzippedByteArrayOutputStream ) {
+            con.setRequestProperty( HTTP_HEADER_CONTENT_ENCODING, ENCODING_GZIP );
+        }
+        super.writeRequestBody( config, con, baos );
+    }
+
+    /**
+     * Holds a compressed request body.
+     */
+    private static class GzippedByteArrayOutputStream extends ByteArrayOutputStream {
+        GzippedByteArrayOutputStream(int size) {
+            super( size );
+        }
+    }
+
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2002-2005 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.remoting.httpinvoker.HttpInvokerClientConfiguration;
+import org.springframework.remoting.httpinvoker.HttpInvokerRequestExecutor;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.richclient.security.AuthenticationAware;
+import org.springframework.security.Authentication;
+import org.springframework.util.Assert;
+
+/**
+ * <code>HttpInvokerRequestExecutor</code> that groups invocations of the same
+ * service into a single HTTP request. While a request to a service is on its
+ * way, invocations of that service made by other threads are queued; once the
+ * request has returned, all queued invocations are sent together as a
+ * {@link RemoteInvocationBatch}. A {@link #setBatchWindow(long) batch window}
+ * can be set to wait a little before sending, so more invocations can join
+ * the batch. A single invocation is sent as is.
+ * <p>
+ * The server must export the service with a
+ * {@link BatchingHttpInvokerServiceExporter}. The HTTP requests themselves are
+ * performed by the {@link #setDelegate(HttpInvokerRequestExecutor) delegate},
+ * by default a {@link BasicAuthHttpInvokerRequestExecutor}. Authentication
+ * token changes are passed on to the delegate, so this executor can be set on
+ * a {@link BasicAuthHttpInvokerProxyFactoryBean}:
+ *
+ * <pre>
+ *   &lt;bean id=&quot;referenceDataService&quot;
+ *         class=&quot;org.springframework.richclient.security.remoting.BasicAuthHttpInvokerProxyFactoryBean&quot;&gt;
+ *       ...
+ *       &lt;property name=&quot;httpInvokerRequestExecutor&quot;&gt;
+ *           &lt;bean class=&quot;org.springframework.richclient.security.remoting.BatchingHttpInvokerRequestExecutor&quot;/&gt;
+ *       &lt;/property&gt;
+ *   &lt;/bean&gt;
+ * </pre>
+ *
+ * As the service proxies are synchronous, only invocations made concurrently,
+ * eg. by background loaders, can share a request.
+ */
+public class BatchingHttpInvokerRequestExecutor implements HttpInvokerRequestExecutor, AuthenticationAware {
+
+    private static final Log logger = LogFactory.getLog(BatchingHttpInvokerRequestExecutor.class);
+
+    private HttpInvokerRequestExecutor delegate = new BasicAuthHttpInvokerRequestExecutor();
+
+    private long batchWindow;
+
+    private int maxBatchSize = 50;
+
+    private final Map batchers = new HashMap();
+
+    /**
+     * Sets the executor performing the HTTP requests.
+     */
+    public void setDelegate(HttpInvokerRequestExecutor delegate) {
+        Assert.notNull(delegate, "delegate cannot be null");
+        this.delegate = delegate;
+    }
+
+    public HttpInvokerRequestExecutor getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Sets the number of milliseconds to wait before sending a batch, so more
+     * invocations can join it. Defaults to 0: only invocations made while a
+     * request is on its way are batched, so no latency is added.
+     */
+    public void setBatchWindow(long batchWindow) {
+        Assert.isTrue(batchWindow >= 0, "batchWindow cannot be negative");
+        this.batchWindow = batchWindow;
+    }
+
+    public long getBatchWindow() {
+        return batchWindow;
+    }
+
+    /**
+     * Sets the maximum number of invocations sent in one request. Defaults to
+     * 50.
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Passes the authentication token on to the delegate, if it is
+     * {@link AuthenticationAware}.
+     */
+    public void setAuthenticationToken(Authentication authentication) {
+        if (delegate instanceof AuthenticationAware) {
+            ((AuthenticationAware) delegate).setAuthenticationToken(authentication);
+        }
+    }
+
+    public RemoteInvocationResult executeRequest(HttpInvokerClientConfiguration config, RemoteInvocation invocation)
+            throws Exception {
+        Batcher batcher = getBatcher(config.getServiceUrl());
+        PendingInvocation pending = new PendingInvocation(invocation);
+        synchronized (batcher) {
+            batcher.queue.add(pending);
+        }
+        try {
+            while (true) {
+                synchronized (batcher) {
+                    while (!pending.done && batcher.sending) {
+                        batcher.wait();
+                    }
+                    if (pending.done) {
+                        return pending.getResult();
+                    }
+                    batcher.sending = true;
+                }
+                try {
+                    if (batchWindow > 0) {
+                        Thread.sleep(batchWindow);
+                    }
+                    PendingInvocation[] batch;
+                    synchronized (batcher) {
+                        int size = Math.min(batcher.queue.size(), maxBatchSize);
+                        List head = batcher.queue.subList(0, size);
+                        batch = (PendingInvocation[]) head.toArray(new PendingInvocation[size]);
+                        head.clear();
+                    }
+                    send(config, batch);
+                }
+                finally {
+                    synchronized (batcher) {
+                        batcher.sending = false;
+                        batcher.notifyAll();
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            // don't leave the invocation behind for another thread to send
+            synchronized (batcher) {
+                if (!pending.done) {
+                    batcher.queue.remove(pending);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private Batcher getBatcher(String serviceUrl) {
+        synchronized (batchers) {
+            Batcher batcher = (Batcher) batchers.get(serviceUrl);
+            if (batcher == null) {
+                batcher = new Batcher();
+                batchers.put(serviceUrl, batcher);
+            }
+            return batcher;
+        }
+    }
+
+    private void send(HttpInvokerClientConfiguration config, PendingInvocation[] batch) {
+        try {
+            if (batch.length == 1) {
+                batch[0].complete(delegate.executeRequest(config, batch[0].invocation));
+                return;
+            }
+            RemoteInvocation[] invocations = new RemoteInvocation[batch.length];
+            for (int i = 0; i < batch.length; i++) {
+                invocations[i] = batch[i].invocation;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Sending " + batch.length + " invocations to " + config.getServiceUrl());
+            }
+            RemoteInvocationResult result = delegate.executeRequest(config, new RemoteInvocationBatch(invocations));
+            if (result instanceof RemoteInvocationBatchResult) {
+                RemoteInvocationResult[] results = ((RemoteInvocationBatchResult) result).getResults();
+                Assert.state(results.length == batch.length, "Expected " + batch.length + " results but got "
+                        + results.length);
+                for (int i = 0; i < batch.length; i++) {
+                    batch[i].complete(results[i]);
+                }
+            }
+            else if (result.hasException()) {
+                for (int i = 0; i < batch.length; i++) {
+                    batch[i].complete(result);
+                }
+            }
+            else {
+                throw new IllegalStateException("The service at " + config.getServiceUrl()
+                        + " doesn't support batches; export it with a BatchingHttpInvokerServiceExporter");
+            }
+        }
+        catch (Throwable t) {
+            for (int i = 0; i < batch.length; i++) {
+                batch[i].fail(t);
+            }
+        }
+    }
+
+    /**
+     * The queue of invocations waiting for a service.
+     */
+    private static class Batcher {
+
+        private final List queue = new ArrayList();
+
+        private boolean sending;
+    }
+
+    private static class PendingInvocation {
+
+        private final RemoteInvocation invocation;
+
+        private RemoteInvocationResult result;
+
+        private Throwable failure;
+
+        private boolean done;
+
+        PendingInvocation(RemoteInvocation invocation) {
+            this.invocation = invocation;
+        }
+
+        // written by the sending thread before it releases the batcher lock,
+        // read by the waiting thread once it holds that lock
+        void complete(RemoteInvocationResult result) {
+            this.result = result;
+            this.done = true;
+        }
+
+        void fail(Throwable failure) {
+            this.failure = failure;
+            this.done = true;
+        }
+
+        RemoteInvocationResult getResult() throws Exception {
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            }
+            if (failure != null) {
+                throw (Error) failure;
+            }
+            return result;
+        }
+    }
+}
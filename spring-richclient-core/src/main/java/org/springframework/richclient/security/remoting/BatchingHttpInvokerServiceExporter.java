@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2005 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.remoting.httpinvoker.HttpInvokerServiceExporter;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+
+/**
+ * Server side counterpart of the {@link BatchingHttpInvokerRequestExecutor} and
+ * of the request compression of the {@link BasicAuthHttpInvokerRequestExecutor}.
+ * It is used like a plain <code>HttpInvokerServiceExporter</code>, and in
+ * addition:
+ * <ul>
+ * <li>executes the invocations of a {@link RemoteInvocationBatch} in order, and
+ * answers with a {@link RemoteInvocationBatchResult}</li>
+ * <li>reads gzip compressed requests</li>
+ * <li>compresses responses that reach the
+ * {@link #setCompressionThreshold(int) compression threshold}, if the client
+ * accepts gzip encoding</li>
+ * </ul>
+ */
+public class BatchingHttpInvokerServiceExporter extends HttpInvokerServiceExporter {
+
+    private static final String HTTP_HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+
+    private static final String HTTP_HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String ENCODING_GZIP = "gzip";
+
+    private int compressionThreshold = 1024;
+
+    /**
+     * Sets the size in bytes from which responses are compressed. Defaults to
+     * 1024; -1 never compresses responses.
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Executes each invocation of a batch; other invocations are executed as
+     * usual.
+     */
+    protected RemoteInvocationResult invokeAndCreateResult(RemoteInvocation invocation, Object targetObject) {
+        if (!(invocation instanceof RemoteInvocationBatch)) {
+            return super.invokeAndCreateResult(invocation, targetObject);
+        }
+        RemoteInvocation[] invocations = ((RemoteInvocationBatch) invocation).getInvocations();
+        RemoteInvocationResult[] results = new RemoteInvocationResult[invocations.length];
+        for (int i = 0; i < invocations.length; i++) {
+            results[i] = super.invokeAndCreateResult(invocations[i], targetObject);
+        }
+        return new RemoteInvocationBatchResult(results);
+    }
+
+    protected InputStream decorateInputStream(HttpServletRequest request, InputStream is) throws IOException {
+        String encoding = request.getHeader(HTTP_HEADER_CONTENT_ENCODING);
+        if (encoding != null && encoding.toLowerCase().indexOf(ENCODING_GZIP) != -1) {
+            return new GZIPInputStream(is);
+        }
+        return is;
+    }
+
+    /**
+     * Serializes the result into a buffer first, so it can be compressed when
+     * it's large enough.
+     */
+    protected void writeRemoteInvocationResult(HttpServletRequest request, HttpServletResponse response,
+            RemoteInvocationResult result) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+        writeRemoteInvocationResult(request, response, result, baos);
+
+        response.setContentType(getContentType());
+        if (compressionThreshold >= 0 && baos.size() >= compressionThreshold && acceptsGzip(request)) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(baos.size() / 2);
+            OutputStream gzip = new GZIPOutputStream(compressed);
+            baos.writeTo(gzip);
+            gzip.close();
+            response.setHeader(HTTP_HEADER_CONTENT_ENCODING, ENCODING_GZIP);
+            baos = compressed;
+        }
+        response.setContentLength(baos.size());
+        baos.writeTo(response.getOutputStream());
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HTTP_HEADER_ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().indexOf(ENCODING_GZIP) != -1;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2002-2005 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.util.Assert;
+
+/**
+ * A number of remote invocations sent to the server in one request by the
+ * {@link BatchingHttpInvokerRequestExecutor}. It extends
+ * <code>RemoteInvocation</code> so it travels through the standard HTTP
+ * invoker infrastructure; the {@link BatchingHttpInvokerServiceExporter}
+ * executes the contained invocations in order and answers with a
+ * {@link RemoteInvocationBatchResult}.
+ */
+public class RemoteInvocationBatch extends RemoteInvocation {
+
+    private static final long serialVersionUID = 1L;
+
+    private RemoteInvocation[] invocations;
+
+    /**
+     * Creates a batch of the given invocations.
+     */
+    public RemoteInvocationBatch(RemoteInvocation[] invocations) {
+        Assert.notEmpty(invocations, "invocations cannot be empty");
+        this.invocations = invocations;
+    }
+
+    public RemoteInvocation[] getInvocations() {
+        return invocations;
+    }
+
+    public String toString() {
+        return "RemoteInvocationBatch: " + invocations.length + " invocations";
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2002-2005 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import org.springframework.remoting.support.RemoteInvocationResult;
+
+/**
+ * The results of a {@link RemoteInvocationBatch}, in the order of its
+ * invocations. Each result holds either the value or the exception of its
+ * invocation.
+ */
+public class RemoteInvocationBatchResult extends RemoteInvocationResult {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a batch result holding the given results.
+     */
+    public RemoteInvocationBatchResult(RemoteInvocationResult[] results) {
+        super(results);
+    }
+
+    public RemoteInvocationResult[] getResults() {
+        return (RemoteInvocationResult[]) getValue();
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.richclient.security.LoginAware;
+import org.springframework.security.Authentication;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Caches the results of remote method invocations on the client, so looking up
+ * reference data (countries, codes, ...) doesn't need an HTTP round trip each
+ * time. Install it on a {@link BasicAuthHttpInvokerProxyFactoryBean} or
+ * {@link BasicAuthCommonsHttpInvokerProxyFactoryBean}:
+ *
+ * <pre>
+ *   &lt;bean id=&quot;referenceDataCache&quot;
+ *         class=&quot;org.springframework.richclient.security.remoting.RemoteMethodResultCache&quot;&gt;
+ *       &lt;property name=&quot;cachedMethods&quot;&gt;
+ *           &lt;props&gt;
+ *               &lt;prop key=&quot;getCountries&quot;&gt;3600000&lt;/prop&gt;
+ *               &lt;prop key=&quot;find*Codes&quot;&gt;600000&lt;/prop&gt;
+ *           &lt;/props&gt;
+ *       &lt;/property&gt;
+ *   &lt;/bean&gt;
+ *
+ *   &lt;bean id=&quot;referenceDataService&quot;
+ *         class=&quot;org.springframework.richclient.security.remoting.BasicAuthHttpInvokerProxyFactoryBean&quot;&gt;
+ *       ...
+ *       &lt;property name=&quot;methodResultCache&quot; ref=&quot;referenceDataCache&quot;/&gt;
+ *   &lt;/bean&gt;
+ * </pre>
+ *
+ * Only the methods whose name matches one of the configured patterns are
+ * cached, for the number of milliseconds mapped to the pattern. Results are
+ * keyed by method and arguments, so the arguments must implement
+ * <code>equals</code> and <code>hashCode</code>. Exceptions are never cached.
+ * The number of cached results is bounded by {@link #setMaxSize(int)}; the
+ * least recently used result is dropped first.
+ * <p>
+ * Results are partitioned per user: {@link LoginAware} is implemented so the
+ * results of a user are dropped when the user logs out and are never served to
+ * another user. See {@link org.springframework.richclient.security.SecurityAwareConfigurer}
+ * for how to get the login notifications. Use {@link #invalidate(String)} or
+ * {@link #invalidateAll()} when the cached data is known to have changed, eg.
+ * after saving reference data.
+ * <p>
+ * Cached results are shared by all callers, so they shouldn't be modified.
+ */
+public class RemoteMethodResultCache implements LoginAware {
+
+    private static final Log logger = LogFactory.getLog(RemoteMethodResultCache.class);
+
+    private static final Long NOT_CACHED = new Long(-1);
+
+    private Properties cachedMethods = new Properties();
+
+    private int maxSize = 1000;
+
+    private final Map timeToLiveByMethod = new HashMap();
+
+    private final Map entries = new LinkedHashMap(16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    private String currentUser;
+
+    private long generation;
+
+    private long hitCount;
+
+    private long missCount;
+
+    /**
+     * Sets the methods to cache. Each key is a method name, possibly using
+     * <code>*</code> wildcards, each value the time in milliseconds the
+     * results of the matching methods stay valid.
+     */
+    public void setCachedMethods(Properties cachedMethods) {
+        Assert.notNull(cachedMethods, "cachedMethods cannot be null");
+        synchronized (entries) {
+            this.cachedMethods = cachedMethods;
+            timeToLiveByMethod.clear();
+            invalidateAll();
+        }
+    }
+
+    public Properties getCachedMethods() {
+        return cachedMethods;
+    }
+
+    /**
+     * Sets the maximum number of cached results. Defaults to 1000.
+     */
+    public void setMaxSize(int maxSize) {
+        Assert.isTrue(maxSize > 0, "maxSize must be positive");
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the cached result of the invocation if there is one, otherwise
+     * lets the given interceptor perform the remote invocation and caches its
+     * result.
+     *
+     * @param invocation the invocation on the service proxy
+     * @param remoteInvoker performs the actual remote invocation
+     */
+    public Object invoke(MethodInvocation invocation, MethodInterceptor remoteInvoker) throws Throwable {
+        long timeToLive = getTimeToLive(invocation.getMethod());
+        if (timeToLive < 0) {
+            return remoteInvoker.invoke(invocation);
+        }
+
+        long startGeneration;
+        CacheKey key;
+        synchronized (entries) {
+            key = new CacheKey(currentUser, invocation.getMethod(), invocation.getArguments());
+            CacheEntry entry = (CacheEntry)entries.get(key);
+            if (entry != null && entry.expiryTime > System.currentTimeMillis()) {
+                hitCount++;
+                return entry.result;
+            }
+            missCount++;
+            startGeneration = generation;
+        }
+
+        Object result = remoteInvoker.invoke(invocation);
+        synchronized (entries) {
+            // don't store results obtained while the user changed or the cache was invalidated
+            if (startGeneration == generation) {
+                entries.put(key, new CacheEntry(result, System.currentTimeMillis() + timeToLive));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the time to live of the results of the given method, or -1 if
+     * they aren't cached. A pattern equal to the method name wins, otherwise
+     * the longest matching pattern is used, so <code>getUser*</code> takes
+     * precedence over <code>get*</code>.
+     */
+    protected long getTimeToLive(Method method) {
+        synchronized (entries) {
+            Long timeToLive = (Long)timeToLiveByMethod.get(method);
+            if (timeToLive == null) {
+                String bestPattern = null;
+                for (Iterator i = cachedMethods.keySet().iterator(); i.hasNext();) {
+                    String pattern = (String)i.next();
+                    if (pattern.equals(method.getName())) {
+                        bestPattern = pattern;
+                        break;
+                    }
+                    if (PatternMatchUtils.simpleMatch(pattern, method.getName())
+                            && isMoreSpecific(pattern, bestPattern)) {
+                        bestPattern = pattern;
+                    }
+                }
+                timeToLive = bestPattern == null ? NOT_CACHED
+                        : Long.valueOf(cachedMethods.getProperty(bestPattern).trim());
+                timeToLiveByMethod.put(method, timeToLive);
+            }
+            return timeToLive.longValue();
+        }
+    }
+
+    private boolean isMoreSpecific(String pattern, String otherPattern) {
+        if (otherPattern == null || pattern.length() != otherPattern.length()) {
+            return otherPattern == null || pattern.length() > otherPattern.length();
+        }
+        // same length: fewer wildcards is more specific, then the natural order to stay deterministic
+        int wildcards = StringUtils.countOccurrencesOf(pattern, "*");
+        int otherWildcards = StringUtils.countOccurrencesOf(otherPattern, "*");
+        return wildcards != otherWildcards ? wildcards < otherWildcards : pattern.compareTo(otherPattern) < 0;
+    }
+
+    /**
+     * Drops the cached results of the methods matching the given method name
+     * pattern, for all users.
+     */
+    public void invalidate(String methodNamePattern) {
+        synchronized (entries) {
+            generation++;
+            for (Iterator i = entries.keySet().iterator(); i.hasNext();) {
+                if (PatternMatchUtils.simpleMatch(methodNamePattern, ((CacheKey)i.next()).method.getName())) {
+                    i.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached results.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the number of invocations answered from the cache.
+     */
+    public long getHitCount() {
+        synchronized (entries) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Returns the number of cacheable invocations that needed a remote call.
+     */
+    public long getMissCount() {
+        synchronized (entries) {
+            return missCount;
+        }
+    }
+
+    //
+    // === LoginAware implementation ===
+    //
+
+    /**
+     * Starts caching into the partition of the user that logged in.
+     */
+    public void userLogin(Authentication authentication) {
+        synchronized (entries) {
+            generation++;
+            currentUser = authentication == null ? null : authentication.getName();
+        }
+    }
+
+    /**
+     * Drops the cached results of the user that logged out.
+     */
+    public void userLogout(Authentication authentication) {
+        synchronized (entries) {
+            generation++;
+            String user = authentication == null ? currentUser : authentication.getName();
+            for (Iterator i = entries.keySet().iterator(); i.hasNext();) {
+                if (ObjectUtils.nullSafeEquals(user, ((CacheKey)i.next()).user)) {
+                    i.remove();
+                }
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Dropped cached results of user " + user);
+            }
+            currentUser = null;
+        }
+    }
+
+    private static final class CacheKey {
+
+        private final String user;
+
+        private final Method method;
+
+        private final Object[] arguments;
+
+        private final int hashCode;
+
+        CacheKey(String user, Method method, Object[] arguments) {
+            this.user = user;
+            this.method = method;
+            this.arguments = arguments == null ? new Object[0] : (Object[])arguments.clone();
+            this.hashCode = ObjectUtils.nullSafeHashCode(user) * 31 * 31 + method.hashCode() * 31
+                    + Arrays.deepHashCode(this.arguments);
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey)o;
+            return hashCode == other.hashCode && ObjectUtils.nullSafeEquals(user, other.user)
+                    && method.equals(other.method) && Arrays.deepEquals(arguments, other.arguments);
+        }
+
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final Object result;
+
+        private final long expiryTime;
+
+        CacheEntry(Object result, long expiryTime) {
+            this.result = result;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -19,9 +19,14 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -56,6 +61,13 @@ import org.springframework.util.StringUtils;
  * <code>setVisible(boolean)</code> method then it is called with the authorized value.
  * Thus, if the object is not authorized, it will have <code>setVisible(false)</code>
  * called on it.
+ * <p>
+ * The access decision is made once per secured object and config attribute definition
+ * and reused until the authentication token changes. When the authentication token
+ * changes, the controlled objects are updated on the event dispatch thread; callers on
+ * other threads don't wait for the update, and a pass that is superseded by a newer one
+ * before it ran is skipped. Objects that are added are configured right away on the
+ * calling thread.
  * 
  * @author Larry Streepy
  * @see #getSecuredObject()
@@ -81,6 +93,22 @@ public abstract class AbstractSecurityController implements SecurityController,
     /** Comma-separated list of post-processor actions to run. */
     private String postProcessorActionsToRun = "";
 
+    /** The post-processor actions to run, parsed from postProcessorActionsToRun. */
+    private String[] postProcessorActions = new String[0];
+
+    /** The setVisible methods of the controlled object classes, or NO_METHOD. */
+    private final Map visibilityMethods = new HashMap();
+
+    private static final Object NO_METHOD = new Object();
+
+    /** Decisions made for lastDecisionAuthentication, keyed by secured object and config. */
+    private final Map decisions = new HashMap();
+
+    private Authentication lastDecisionAuthentication;
+
+    /** Number of the last authorization pass, used to skip superseded passes. */
+    private int authorizationPass;
+
     public static final String VISIBLE_TRACKS_AUTHORIZED_ACTION = "visibleTracksAuthorized";
 
     /**
@@ -113,6 +141,7 @@ public abstract class AbstractSecurityController implements SecurityController,
      */
     public void setPostProcessorActionsToRun(String actions) {
         postProcessorActionsToRun = actions;
+        postProcessorActions = StringUtils.commaDelimitedListToStringArray( actions );
     }
 
     /**
@@ -152,7 +181,7 @@ public abstract class AbstractSecurityController implements SecurityController,
     protected void runAuthorization() {
         boolean authorize = shouldAuthorize( getLastAuthentication() );
 
-        // Install the decision
+        List liveObjects = new ArrayList( controlledObjects.size() );
         for( Iterator iter = controlledObjects.iterator(); iter.hasNext(); ) {
             WeakReference ref = (WeakReference) iter.next();
 
@@ -161,9 +190,63 @@ public abstract class AbstractSecurityController implements SecurityController,
                 // Has been GCed, remove from our list
                 iter.remove();
             } else {
-                updateControlledObject( controlledObject, authorize );
+                liveObjects.add( controlledObject );
             }
         }
+
+        // Install the decision, replacing any pass that hasn't run yet
+        scheduleUpdate( liveObjects, authorize, nextAuthorizationPass() );
+    }
+
+    private synchronized int nextAuthorizationPass() {
+        return ++authorizationPass;
+    }
+
+    private synchronized boolean isSuperseded(int pass) {
+        return pass != authorizationPass;
+    }
+
+    /**
+     * Hand the update of the given objects to the event dispatch thread. When called on
+     * another thread the update is queued and this method returns right away.
+     * @param pass the authorization pass the update belongs to
+     */
+    private void scheduleUpdate(final List objects, final boolean authorized, final int pass) {
+        if( objects.isEmpty() ) {
+            return;
+        }
+        Runnable update = new Runnable() {
+            public void run() {
+                if( isSuperseded( pass ) ) {
+                    if( logger.isDebugEnabled() ) {
+                        logger.debug( "Skipping superseded authorization pass " + pass );
+                    }
+                    return;
+                }
+                updateControlledObjects( objects, authorized );
+            }
+        };
+        if( SwingUtilities.isEventDispatchThread() ) {
+            update.run();
+        } else {
+            SwingUtilities.invokeLater( update );
+        }
+    }
+
+    /**
+     * Update a batch of controlled objects based on the given authorization state. The
+     * decision has been made once for the whole batch. For an authorization pass this
+     * method is called on the event dispatch thread.
+     * @param objects List of {@link Authorizable} objects being controlled
+     * @param authorized state to install on the objects
+     */
+    protected void updateControlledObjects(List objects, boolean authorized) {
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "setAuthorized( " + authorized + ") on " + objects.size() + " controlled objects" );
+        }
+        for( Iterator iter = objects.iterator(); iter.hasNext(); ) {
+            updateControlledObject( (Authorizable) iter.next(), authorized );
+        }
     }
 
     /**
@@ -185,12 +268,11 @@ public abstract class AbstractSecurityController implements SecurityController,
      * @param authorized state that has been installed on controlledObject
      */
     protected void runPostProcessorActions(Object controlledObject, boolean authorized) {
-        String actions = getPostProcessorActionsToRun();
+        String[] actionIds = postProcessorActions;
         if( logger.isDebugEnabled() ) {
-            logger.debug( "Run post-processors actions: " + actions );
+            logger.debug( "Run post-processors actions: " + getPostProcessorActionsToRun() );
         }
 
-        String[] actionIds = StringUtils.commaDelimitedListToStringArray( actions );
         for( int i = 0; i < actionIds.length; i++ ) {
             doPostProcessorAction( actionIds[i], controlledObject, authorized );
         }
@@ -216,12 +298,16 @@ public abstract class AbstractSecurityController implements SecurityController,
      * authorization.
      */
     private void setVisibilityOnControlledObject(Object controlledObject, boolean authorized) {
-        try {
-            Method method = controlledObject.getClass().getMethod( "setVisible", new Class[] { boolean.class } );
-            method.invoke( controlledObject, new Object[] { new Boolean( authorized ) } );
-        } catch( NoSuchMethodException ignored ) {
-            System.out.println( "NO setVisible method on object: " + controlledObject );
+        Method method = getVisibilityMethod( controlledObject.getClass() );
+        if( method == null ) {
+            if( logger.isDebugEnabled() ) {
+                logger.debug( "NO setVisible method on object: " + controlledObject );
+            }
             // No method to call, so nothing to do
+            return;
+        }
+        try {
+            method.invoke( controlledObject, new Object[] { Boolean.valueOf( authorized ) } );
         } catch( IllegalAccessException ignored ) {
             logger.error( "Could not call setVisible", ignored );
         } catch( InvocationTargetException ignored ) {
@@ -229,34 +315,85 @@ public abstract class AbstractSecurityController implements SecurityController,
         }
     }
 
+    /**
+     * Get the (cached) <code>setVisible(boolean)</code> method of the given class.
+     * @return the method, or null if the class has none
+     */
+    private Method getVisibilityMethod(Class controlledClass) {
+        synchronized( visibilityMethods ) {
+            Object method = visibilityMethods.get( controlledClass );
+            if( method == null ) {
+                try {
+                    method = controlledClass.getMethod( "setVisible", new Class[] { boolean.class } );
+                } catch( NoSuchMethodException e ) {
+                    method = NO_METHOD;
+                }
+                visibilityMethods.put( controlledClass, method );
+            }
+            return method == NO_METHOD ? null : (Method) method;
+        }
+    }
+
     /**
      * Determine if our controlled objects should be authorized based on the provided
-     * authentication token.
+     * authentication token. The decision is remembered per secured object and config
+     * attribute definition until another authentication token is passed in.
      * @param authentication token
      * @return true if should authorize
      */
     protected boolean shouldAuthorize(Authentication authentication) {
         Assert.state( getAccessDecisionManager() != null, "The AccessDecisionManager can not be null!" );
+        if( authentication == null ) {
+            return false;
+        }
+        Object securedObject = getSecuredObject();
+        ConfigAttributeDefinition cad = getConfigAttributeDefinition( securedObject );
+        List key = Arrays.asList( new Object[] { securedObject, cad } );
+        synchronized( decisions ) {
+            if( authentication != lastDecisionAuthentication ) {
+                decisions.clear();
+                lastDecisionAuthentication = authentication;
+            }
+            Boolean decision = (Boolean) decisions.get( key );
+            if( decision != null ) {
+                return decision.booleanValue();
+            }
+        }
+
         boolean authorize = false;
         try {
-            if( authentication != null ) {
-                Object securedObject = getSecuredObject();
-                ConfigAttributeDefinition cad = getConfigAttributeDefinition( securedObject );
-                getAccessDecisionManager().decide( authentication, getSecuredObject(), cad );
-                authorize = true;
-            }
+            getAccessDecisionManager().decide( authentication, securedObject, cad );
+            authorize = true;
         } catch( AccessDeniedException e ) {
             // This means the secured objects should not be authorized
         }
+        synchronized( decisions ) {
+            if( authentication == lastDecisionAuthentication ) {
+                decisions.put( key, Boolean.valueOf( authorize ) );
+            }
+        }
         return authorize;
     }
 
+    /**
+     * Forget all access decisions made so far, so they are made again on the next
+     * authorization. Call this when decisions can change without a new authentication
+     * token.
+     */
+    protected void clearDecisions() {
+        synchronized( decisions ) {
+            decisions.clear();
+            lastDecisionAuthentication = null;
+        }
+    }
+
     /**
      * Set the access decision manager to use
      * @param accessDecisionManager
      */
     public void setAccessDecisionManager(AccessDecisionManager accessDecisionManager) {
         this.accessDecisionManager = accessDecisionManager;
+        clearDecisions();
     }
 
     /**
@@ -274,7 +411,7 @@ public abstract class AbstractSecurityController implements SecurityController,
     public void setControlledObjects(List secured) {
         controlledObjects = new ArrayList( secured.size() );
 
-        // Convert to weak references and validate the object types
+        // Validate the object types
         for( Iterator iter = secured.iterator(); iter.hasNext(); ) {
             Object o = iter.next();
 
@@ -283,8 +420,13 @@ public abstract class AbstractSecurityController implements SecurityController,
                 throw new IllegalArgumentException( "Controlled object must implement Authorizable, got "
                         + o.getClass() );
             }
-            addAndPrepareControlledObject( (Authorizable) o );
         }
+
+        // Convert to weak references and install a single decision on all of them
+        for( Iterator iter = secured.iterator(); iter.hasNext(); ) {
+            controlledObjects.add( new WeakReference( iter.next() ) );
+        }
+        updateControlledObjects( secured, shouldAuthorize( getLastAuthentication() ) );
     }
 
     /**
@@ -346,7 +488,7 @@ public abstract class AbstractSecurityController implements SecurityController,
      */
     public void afterPropertiesSet() throws Exception {
         // Ensure that all post-processors requested are registered
-        String[] actions = StringUtils.commaDelimitedListToStringArray( getPostProcessorActionsToRun() );
+        String[] actions = postProcessorActions;
         for( int i = 0; i < actions.length; i++ ) {
             if( !postProcessorActionIds.contains( actions[i] ) ) {
                 throw new IllegalArgumentException( "Requested post-processor action '" + actions[i]
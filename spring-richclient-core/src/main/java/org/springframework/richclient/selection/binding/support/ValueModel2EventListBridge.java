@@ -17,12 +17,16 @@ package org.springframework.richclient.selection.binding.support;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import org.springframework.binding.value.ValueModel;
 import org.springframework.util.Assert;
 
 import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.GlazedLists;
 
 /**
  * Creates a bridge between a <code>ValueModel</code> and an <code>EventList</code>. This means that when the
@@ -83,18 +87,36 @@ public class ValueModel2EventListBridge {
     /**
      * Synchronizes the EventList with the ValueModel. The values of the collection in the ValueModel are copied to the
      * EventList. If the value in the ValueModel is <code>null</code>, the EventList will be emptied.
+     * <p>
+     * Only the differences are applied to the EventList, within a single write lock: elements that are in both the
+     * EventList and the collection are kept (and updated to the instances of the collection), so sorted and filtered
+     * views of large lists don't have to process the whole list on every change.
      */
     public void synchronize() {
-        System.out.println(Thread.currentThread().getName());
-        eventList.clear();
-
         // call ValueModel.getValue() only once, as it's possible that getValue is expensive (as can be the case with a
         // RefreshableValueHolder
         Object value = valueModel.getValue();
 
-        if (value != null) {
+        List values;
+        if (value == null) {
+            values = Collections.EMPTY_LIST;
+        }
+        else {
             Assert.isInstanceOf(Collection.class, value, "The value in the ValueModel is not a Collection");
-            eventList.addAll((Collection) value);
+            values = value instanceof List ? (List) value : new ArrayList((Collection) value);
+        }
+
+        eventList.getReadWriteLock().writeLock().lock();
+        try {
+            if (values.isEmpty()) {
+                eventList.clear();
+            }
+            else {
+                GlazedLists.replaceAll(eventList, values, true);
+            }
+        }
+        finally {
+            eventList.getReadWriteLock().writeLock().unlock();
         }
     }
 
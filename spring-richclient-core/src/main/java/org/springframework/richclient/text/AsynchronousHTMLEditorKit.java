@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.text;
+
+import javax.swing.text.Document;
+import javax.swing.text.html.HTMLDocument;
+import javax.swing.text.html.HTMLEditorKit;
+
+import org.springframework.util.Assert;
+
+/**
+ * A HTMLEditorKit that loads HTML and images asynchronously. Images are
+ * obtained through a shared, bounded {@link HtmlImageCache} so they are only
+ * fetched once for all documents created by kits sharing that cache. This is
+ * the counterpart of {@link SynchronousHTMLEditorKit} for when the event
+ * dispatch thread should never wait for a document or its images.
+ *
+ * @see HtmlDocumentLoader
+ */
+public class AsynchronousHTMLEditorKit extends HTMLEditorKit {
+
+    private HtmlImageCache imageCache = HtmlImageCache.getSharedInstance();
+
+    public HtmlImageCache getImageCache() {
+        return imageCache;
+    }
+
+    /**
+     * Sets the image cache installed on the documents created by this kit.
+     * Defaults to the {@link HtmlImageCache#getSharedInstance() shared} cache.
+     */
+    public void setImageCache(HtmlImageCache imageCache) {
+        Assert.notNull(imageCache, "imageCache must not be null");
+        this.imageCache = imageCache;
+    }
+
+    public Document createDefaultDocument() {
+        HTMLDocument doc = (HTMLDocument)super.createDefaultDocument();
+        doc.setAsynchronousLoadPriority(Thread.MIN_PRIORITY);
+        doc.putProperty(HtmlImageCache.IMAGE_CACHE_PROPERTY, imageCache);
+        return doc;
+    }
+
+    public Object clone() {
+        AsynchronousHTMLEditorKit clone = (AsynchronousHTMLEditorKit)super.clone();
+        clone.imageCache = imageCache;
+        return clone;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.text.Document;
+import javax.swing.text.html.HTMLDocument;
+
+import org.springframework.util.Assert;
+
+/**
+ * A least recently used cache of parsed {@link HTMLDocument}s, keyed by the
+ * resource they were read from. Revisiting a cached page only requires
+ * installing the document in the text component instead of parsing it again.
+ * <p>
+ * Cached documents are shared, so they should only be displayed in
+ * non-editable components, and components should install a new document
+ * before changing their text when {@link #isShared(Document)} is true.
+ *
+ * @see HtmlDocumentLoader
+ */
+public class HtmlDocumentCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 20;
+
+    private static final String SHARED_PROPERTY = HtmlDocumentCache.class.getName() + ".shared";
+
+    private final Map documents = new LinkedHashMap(16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry eldest) {
+            return size() > maximumSize;
+        }
+    };
+
+    private int maximumSize;
+
+    public HtmlDocumentCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public HtmlDocumentCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    public synchronized int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of documents kept in this cache.
+     */
+    public synchronized void setMaximumSize(int maximumSize) {
+        Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the cached document for the given key, or <code>null</code> if
+     * there is none.
+     */
+    public synchronized HTMLDocument get(Object key) {
+        return (HTMLDocument)documents.get(key);
+    }
+
+    public synchronized void put(Object key, HTMLDocument document) {
+        Assert.notNull(key, "key must not be null");
+        Assert.notNull(document, "document must not be null");
+        document.putProperty(SHARED_PROPERTY, Boolean.TRUE);
+        documents.put(key, document);
+    }
+
+    public synchronized void remove(Object key) {
+        documents.remove(key);
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+    }
+
+    /**
+     * Returns whether the given document has been put in a document cache,
+     * and may therefore be displayed by other components as well.
+     */
+    public static boolean isShared(Document document) {
+        return document != null && Boolean.TRUE.equals(document.getProperty(SHARED_PROPERTY));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.text;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.JEditorPane;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.html.HTMLDocument;
+import javax.swing.text.html.HTMLEditorKit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jdesktop.swingworker.SwingWorker;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * Reads HTML resources into {@link HTMLDocument}s, optionally keeping the
+ * parsed documents in a {@link HtmlDocumentCache}.
+ * <p>
+ * Documents can either be loaded on the calling thread using
+ * {@link #loadDocument(Resource)} or parsed on a background thread and then
+ * installed in an editor pane on the event dispatch thread using
+ * {@link #loadDocument(Resource, JEditorPane)}. Code that replaces the
+ * content of such a pane by other means should call
+ * {@link #cancelLoading(JEditorPane)} so a pending load doesn't overwrite it.
+ *
+ * @see AsynchronousHTMLEditorKit
+ */
+public class HtmlDocumentLoader {
+
+    private static final String LOADING_RESOURCE_PROPERTY = HtmlDocumentLoader.class.getName() + ".loadingResource";
+
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    private final HTMLEditorKit editorKit;
+
+    private final HtmlDocumentCache documentCache;
+
+    /**
+     * Creates a loader that doesn't cache the documents it reads.
+     */
+    public HtmlDocumentLoader(HTMLEditorKit editorKit) {
+        this(editorKit, null);
+    }
+
+    /**
+     * Creates a loader that keeps the documents it reads in the given cache.
+     *
+     * @param editorKit the kit used to create and read the documents
+     * @param documentCache the document cache, may be <code>null</code>
+     */
+    public HtmlDocumentLoader(HTMLEditorKit editorKit, HtmlDocumentCache documentCache) {
+        Assert.notNull(editorKit, "editorKit must not be null");
+        this.editorKit = editorKit;
+        this.documentCache = documentCache;
+    }
+
+    public HTMLEditorKit getEditorKit() {
+        return editorKit;
+    }
+
+    public HtmlDocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
+    /**
+     * Returns the cached document for the given resource, or <code>null</code>
+     * if it has not been loaded yet.
+     */
+    public HTMLDocument getCachedDocument(Resource resource) {
+        return documentCache != null ? documentCache.get(resource) : null;
+    }
+
+    /**
+     * Returns the document for the given resource, reading it on the calling
+     * thread if it is not cached.
+     */
+    public HTMLDocument loadDocument(Resource resource) throws IOException {
+        Assert.notNull(resource, "resource must not be null");
+        HTMLDocument document = getCachedDocument(resource);
+        if (document == null) {
+            document = readDocument(resource);
+            if (documentCache != null) {
+                documentCache.put(resource, document);
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Installs the document for the given resource in the editor pane. A
+     * cached document is installed immediately, otherwise the resource is read
+     * on a background thread and the document is installed on the event
+     * dispatch thread once it has been parsed completely. When several
+     * resources are requested for the same pane only the last one is
+     * installed.
+     */
+    public void loadDocument(final Resource resource, final JEditorPane target) {
+        Assert.notNull(resource, "resource must not be null");
+        Assert.notNull(target, "target must not be null");
+        target.putClientProperty(LOADING_RESOURCE_PROPERTY, resource);
+        HTMLDocument document = getCachedDocument(resource);
+        if (document != null) {
+            installDocument(resource, document, target);
+            return;
+        }
+        new SwingWorker<HTMLDocument, Object>() {
+            protected HTMLDocument doInBackground() throws Exception {
+                return loadDocument(resource);
+            }
+
+            protected void done() {
+                try {
+                    installDocument(resource, get(), target);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                catch (ExecutionException e) {
+                    logger.warn("Error reading resource: " + resource, e.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Cancels the loading of the last resource requested for the editor pane,
+     * so its document isn't installed when it has been parsed. Call this when
+     * the content of the pane is replaced without the loader, e.g. by
+     * <code>setText</code>.
+     */
+    public static void cancelLoading(JEditorPane target) {
+        target.putClientProperty(LOADING_RESOURCE_PROPERTY, null);
+    }
+
+    private void installDocument(Resource resource, HTMLDocument document, JEditorPane target) {
+        if (target.getClientProperty(LOADING_RESOURCE_PROPERTY) == resource) {
+            target.putClientProperty(LOADING_RESOURCE_PROPERTY, null);
+            target.setDocument(document);
+        }
+    }
+
+    /**
+     * Creates the empty document the resource will be read into.
+     */
+    protected HTMLDocument createDocument() {
+        return (HTMLDocument)editorKit.createDefaultDocument();
+    }
+
+    protected HTMLDocument readDocument(Resource resource) throws IOException {
+        HTMLDocument document = createDocument();
+        try {
+            document.setBase(resource.getURL());
+        }
+        catch (IOException e) {
+            // resource can't be resolved as URL, relative references won't work
+        }
+        Reader reader = new BufferedReader(new InputStreamReader(resource.getInputStream()));
+        try {
+            editorKit.read(reader, document, 0);
+        }
+        catch (BadLocationException e) {
+            throw new IllegalStateException("Unable to read " + resource + ": " + e.getMessage());
+        }
+        finally {
+            reader.close();
+        }
+        return document;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.text;
+
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * A bounded, least recently used cache of the images referenced by HTML
+ * documents.
+ * <p>
+ * Swing's <code>ImageView</code> looks up its image in the dictionary stored
+ * under the document property <code>"imageCache"</code> before loading it
+ * itself. When this cache is installed as that property, images are created
+ * through {@link Toolkit#createImage(URL)} on first request (which does not
+ * block, the pixels are fetched by the AWT image loading threads) and are
+ * shared between all documents using the same cache.
+ * <p>
+ * Evicted images are only dropped from the cache, not flushed: documents that
+ * are still showing them keep their own reference, and the pixels are
+ * reclaimed once no document uses the image anymore.
+ *
+ * @see AsynchronousHTMLEditorKit
+ */
+public class HtmlImageCache extends Dictionary {
+
+    /**
+     * Name of the document property <code>ImageView</code> uses to find its
+     * image cache.
+     */
+    public static final String IMAGE_CACHE_PROPERTY = "imageCache";
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 100;
+
+    private static final HtmlImageCache sharedInstance = new HtmlImageCache();
+
+    private final Map images = new LinkedHashMap(16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry eldest) {
+            return size() > maximumSize;
+        }
+    };
+
+    private int maximumSize;
+
+    /**
+     * Returns the image cache shared by all HTML components that don't
+     * configure their own.
+     */
+    public static HtmlImageCache getSharedInstance() {
+        return sharedInstance;
+    }
+
+    public HtmlImageCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public HtmlImageCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    public synchronized int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of images kept in this cache. When more images
+     * are added the least recently used ones are discarded.
+     */
+    public synchronized void setMaximumSize(int maximumSize) {
+        Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the image for the given <code>URL</code>, creating it if it is
+     * not yet cached.
+     */
+    public synchronized Object get(Object key) {
+        Object image = images.get(key);
+        if (image == null && key instanceof URL) {
+            image = createImage((URL)key);
+            if (image != null) {
+                images.put(key, image);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Creates the image for the given url. The default implementation uses
+     * {@link Toolkit#createImage(URL)} which, unlike
+     * <code>Toolkit.getImage</code>, does not keep the image in the (unbounded)
+     * toolkit cache.
+     */
+    protected Image createImage(URL url) {
+        return Toolkit.getDefaultToolkit().createImage(url);
+    }
+
+    public synchronized Object put(Object key, Object value) {
+        Assert.isInstanceOf(Image.class, value);
+        return images.put(key, value);
+    }
+
+    public synchronized Object remove(Object key) {
+        return images.remove(key);
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return images.isEmpty();
+    }
+
+    public synchronized Enumeration keys() {
+        return Collections.enumeration(new ArrayList(images.keySet()));
+    }
+
+    public synchronized Enumeration elements() {
+        return Collections.enumeration(new ArrayList(images.values()));
+    }
+
+    /**
+     * Removes all cached images.
+     */
+    public synchronized void clear() {
+        images.clear();
+    }
+}
@@ -31,14 +31,31 @@ import javax.swing.event.HyperlinkListener;
 import javax.swing.text.Caret;
 import javax.swing.text.DefaultCaret;
 import javax.swing.text.html.HTMLDocument;
+import javax.swing.text.html.HTMLEditorKit;
+
+import org.springframework.core.io.Resource;
 
 /**
  * An extension of JTextPane for displaying HTML with the system LaF. 
+ * <p>
+ * By default documents and images are loaded synchronously. An asynchronous
+ * pane parses the resources passed to {@link #setPage(Resource)} on a
+ * background thread, loads images through the shared {@link HtmlImageCache}
+ * and keeps the parsed documents in a {@link HtmlDocumentCache} so revisiting
+ * a page doesn't require parsing it again.
  * 
  * @author Oliver Hutchison
  */
 public class HtmlPane extends JTextPane {
 
+    private static final HtmlDocumentCache sharedDocumentCache = new HtmlDocumentCache();
+
+    private final boolean asynchronous;
+
+    private HtmlDocumentCache documentCache = sharedDocumentCache;
+
+    private HtmlDocumentLoader documentLoader;
+
     private boolean antiAlias;
 
     private Caret caret;
@@ -60,7 +77,21 @@ public class HtmlPane extends JTextPane {
      *            whether to install a default hyperlink activation handler.
      */
     public HtmlPane(boolean installHyperlinkActivationHandler) {
-        setEditorKit(new SynchronousHTMLEditorKit());
+        this(installHyperlinkActivationHandler, false);
+    }
+
+    /**
+     * Creates a new HtmlPane.
+     * 
+     * @param installHyperlinkActivationHandler
+     *            whether to install a default hyperlink activation handler.
+     * @param asynchronous
+     *            whether documents and images should be loaded off the event
+     *            dispatch thread.
+     */
+    public HtmlPane(boolean installHyperlinkActivationHandler, boolean asynchronous) {
+        this.asynchronous = asynchronous;
+        setEditorKit(asynchronous ? (HTMLEditorKit)new AsynchronousHTMLEditorKit() : new SynchronousHTMLEditorKit());
         setEditable(false);
         installLaFStyleSheet();
         HyperlinkEnterExitBugFixer bugFixer = new HyperlinkEnterExitBugFixer();
@@ -72,6 +103,69 @@ public class HtmlPane extends JTextPane {
         }
     }
 
+    /**
+     * Are documents and images loaded asynchronously.
+     */
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    public HtmlDocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
+    /**
+     * Sets the cache for the documents loaded through
+     * {@link #setPage(Resource)}. Defaults to a cache shared by all HtmlPanes;
+     * <code>null</code> disables caching.
+     */
+    public void setDocumentCache(HtmlDocumentCache documentCache) {
+        this.documentCache = documentCache;
+        this.documentLoader = null;
+    }
+
+    /**
+     * Displays the HTML read from the given resource. For an asynchronous pane
+     * the resource is parsed on a background thread and the current document
+     * remains visible until the new one is ready, unless it is already cached.
+     */
+    public void setPage(Resource page) throws IOException {
+        if (asynchronous) {
+            getDocumentLoader().loadDocument(page, this);
+        }
+        else {
+            setDocument(getDocumentLoader().loadDocument(page));
+        }
+    }
+
+    /**
+     * Sets the text of this pane, replacing the current document first when it
+     * is shared through a document cache. A page that is still being loaded
+     * asynchronously is discarded.
+     */
+    public void setText(String t) {
+        HtmlDocumentLoader.cancelLoading(this);
+        if (HtmlDocumentCache.isShared(getDocument())) {
+            HTMLDocument document = (HTMLDocument)getEditorKit().createDefaultDocument();
+            installLaFStyleSheet(document);
+            setDocument(document);
+        }
+        super.setText(t);
+    }
+
+    protected HtmlDocumentLoader getDocumentLoader() {
+        if (documentLoader == null) {
+            documentLoader = new HtmlDocumentLoader((HTMLEditorKit)getEditorKit(), documentCache) {
+                protected HTMLDocument createDocument() {
+                    HTMLDocument document = super.createDocument();
+                    installLaFStyleSheet(document);
+                    return document;
+                }
+            };
+        }
+        return documentLoader;
+    }
+
     /**
      * Is the HTML rendered with anti-aliasing.
      */
@@ -132,12 +226,19 @@ public class HtmlPane extends JTextPane {
      * Applies the current LaF font setting to the document.
      */
     protected void installLaFStyleSheet() {
+        installLaFStyleSheet((HTMLDocument)getDocument());
+    }
+
+    /**
+     * Applies the current LaF font setting to the given document.
+     */
+    protected void installLaFStyleSheet(HTMLDocument document) {
         Font defaultFont = UIManager.getFont("Button.font");
         String stylesheet = "body {  font-family: " + defaultFont.getName() + "; font-size: " + defaultFont.getSize()
                 + "pt;  }" + "a, p, li { font-family: " + defaultFont.getName() + "; font-size: "
                 + defaultFont.getSize() + "pt;  }";
         try {
-            ((HTMLDocument)getDocument()).getStyleSheet().loadRules(new StringReader(stylesheet), null);
+            document.getStyleSheet().loadRules(new StringReader(stylesheet), null);
         }
         catch (IOException e) {
         }
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.util;
+
+import java.awt.Component;
+import java.awt.Frame;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Drives the animations of components with a single shared
+ * <code>javax.swing.Timer</code>, so animated components don't need a thread
+ * of their own and their frames are produced on the event dispatch thread.
+ * <p>
+ * Each animation asks for a frame rate, which is lowered automatically when
+ * the frames would be wasted or expensive:
+ * <ul>
+ * <li>no frames are produced while the component isn't showing or its frame
+ * is iconified, and the timer stops while none of the components is
+ * showing</li>
+ * <li>the frame rate is divided by the obscured slowdown while the component
+ * is scrolled out of view</li>
+ * <li>the frame rate is divided by the remote slowdown when the application
+ * runs in a remote session (remote X display or terminal services), where
+ * every repaint has to travel over the network</li>
+ * </ul>
+ * Animations of components that are no longer displayable, because they were
+ * removed from their window or the window was disposed, are removed so they
+ * don't keep the component reachable.
+ */
+public class AnimationTimer {
+
+	private static final AnimationTimer INSTANCE = new AnimationTimer();
+
+	private final List animations = new ArrayList();
+
+	private final Timer timer;
+
+	private int obscuredSlowdown = 4;
+
+	private int remoteSlowdown = 3;
+
+	private boolean remoteSession = detectRemoteSession();
+
+	/**
+	 * Returns the timer shared by the animations of the application.
+	 */
+	public static AnimationTimer getInstance() {
+		return INSTANCE;
+	}
+
+	public AnimationTimer() {
+		timer = new Timer(1000, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				tick(System.currentTimeMillis());
+			}
+		});
+		timer.setCoalesce(true);
+	}
+
+	/**
+	 * Starts calling the given listener with the given frame rate, as long as
+	 * the component is showing. Must be called on the event dispatch thread.
+	 *
+	 * @param component the animated component
+	 * @param fps the number of frames per second
+	 * @param frameListener called for each frame
+	 */
+	public void add(JComponent component, float fps, ActionListener frameListener) {
+		Assert.required(component, "component");
+		Assert.required(frameListener, "frameListener");
+		if (fps <= 0) {
+			throw new IllegalArgumentException("fps must be positive");
+		}
+		remove(frameListener);
+		Animation animation = new Animation(component, (long) (1000 / fps), frameListener);
+		component.addHierarchyListener(animation);
+		animations.add(animation);
+		updateTimer();
+	}
+
+	/**
+	 * Stops calling the given listener. Must be called on the event dispatch
+	 * thread.
+	 */
+	public void remove(ActionListener frameListener) {
+		for (Iterator i = animations.iterator(); i.hasNext();) {
+			Animation animation = (Animation) i.next();
+			if (animation.frameListener == frameListener) {
+				i.remove();
+				animation.component.removeHierarchyListener(animation);
+			}
+		}
+		updateTimer();
+	}
+
+	/**
+	 * Returns whether the given listener is being called.
+	 */
+	public boolean isRunning(ActionListener frameListener) {
+		for (Iterator i = animations.iterator(); i.hasNext();) {
+			if (((Animation) i.next()).frameListener == frameListener) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sets the factor by which the frame rate of obscured components is
+	 * lowered. Defaults to 4.
+	 */
+	public void setObscuredSlowdown(int obscuredSlowdown) {
+		if (obscuredSlowdown < 1) {
+			throw new IllegalArgumentException("obscuredSlowdown must be at least 1");
+		}
+		this.obscuredSlowdown = obscuredSlowdown;
+	}
+
+	/**
+	 * Sets the factor by which the frame rate is lowered in a remote session.
+	 * Defaults to 3.
+	 */
+	public void setRemoteSlowdown(int remoteSlowdown) {
+		if (remoteSlowdown < 1) {
+			throw new IllegalArgumentException("remoteSlowdown must be at least 1");
+		}
+		this.remoteSlowdown = remoteSlowdown;
+	}
+
+	/**
+	 * Overrides the detection of remote sessions.
+	 */
+	public void setRemoteSession(boolean remoteSession) {
+		this.remoteSession = remoteSession;
+	}
+
+	public boolean isRemoteSession() {
+		return remoteSession;
+	}
+
+	/**
+	 * Returns whether the application seems to be displayed remotely: on
+	 * Windows in a terminal services session, elsewhere on an X display of
+	 * another host.
+	 */
+	public static boolean detectRemoteSession() {
+		try {
+			String sessionName = System.getenv("SESSIONNAME");
+			if (sessionName != null && sessionName.toUpperCase().startsWith("RDP")) {
+				return true;
+			}
+			String display = System.getenv("DISPLAY");
+			return display != null && display.indexOf(':') > 0 && !display.startsWith("unix:");
+		}
+		catch (SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Produces the frames that are due at the given time.
+	 */
+	protected void tick(long now) {
+		Animation[] due = (Animation[]) animations.toArray(new Animation[animations.size()]);
+		for (int i = 0; i < due.length; i++) {
+			Animation animation = due[i];
+			if (!animation.component.isDisplayable()) {
+				remove(animation.frameListener);
+				continue;
+			}
+			long interval = getFrameInterval(animation);
+			if (interval > 0 && now - animation.lastFrame >= interval) {
+				animation.lastFrame = now;
+				animation.frameListener.actionPerformed(new ActionEvent(animation.component,
+						ActionEvent.ACTION_PERFORMED, "frame"));
+			}
+		}
+		updateTimer();
+	}
+
+	/**
+	 * Returns whether the timer is running. It only runs while at least one of
+	 * the animated components is showing.
+	 */
+	public boolean isTimerRunning() {
+		return timer.isRunning();
+	}
+
+	/**
+	 * Returns the current number of milliseconds between two frames of the
+	 * given animation, or 0 if no frames should be produced.
+	 */
+	private long getFrameInterval(Animation animation) {
+		JComponent component = animation.component;
+		if (!component.isShowing() || isIconified(component)) {
+			return 0;
+		}
+		long interval = animation.interval;
+		if (component.getVisibleRect().isEmpty()) {
+			interval *= obscuredSlowdown;
+		}
+		if (remoteSession) {
+			interval *= remoteSlowdown;
+		}
+		return interval;
+	}
+
+	private boolean isIconified(Component component) {
+		Window window = SwingUtilities.getWindowAncestor(component);
+		return window instanceof Frame && (((Frame) window).getExtendedState() & Frame.ICONIFIED) != 0;
+	}
+
+	private void updateTimer() {
+		long shortest = Long.MAX_VALUE;
+		for (Iterator i = animations.iterator(); i.hasNext();) {
+			Animation animation = (Animation) i.next();
+			if (animation.component.isShowing()) {
+				shortest = Math.min(shortest, animation.interval);
+			}
+		}
+		if (shortest == Long.MAX_VALUE) {
+			// restarted by the hierarchy listener of the animation when its component shows again
+			timer.stop();
+			return;
+		}
+		timer.setDelay((int) Math.max(1, shortest));
+		if (!timer.isRunning()) {
+			timer.start();
+		}
+	}
+
+	private class Animation implements HierarchyListener {
+
+		private final JComponent component;
+
+		private final long interval;
+
+		private final ActionListener frameListener;
+
+		private long lastFrame;
+
+		Animation(JComponent component, long interval, ActionListener frameListener) {
+			this.component = component;
+			this.interval = interval;
+			this.frameListener = frameListener;
+		}
+
+		public void hierarchyChanged(HierarchyEvent e) {
+			if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0 && !component.isDisplayable()) {
+				// the timer stops with the last showing component, so tick() wouldn't get to remove it
+				remove(frameListener);
+			}
+			else if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+				updateTimer();
+			}
+		}
+	}
+}
@@ -55,6 +55,11 @@ import org.springframework.util.CachingMapDecorator;
  * 	fooListeners.fire(&quot;fooYYY&quot;);
  * }
  * </pre>
+ * <p>
+ * The <code>fire</code> methods taking a method name look up the listener
+ * method and invoke it by reflection. Frequently fired events should rather use
+ * the <code>dispatch</code> methods taking a {@link ListenerInvoker}, which
+ * call the listeners directly without allocating anything.
  *
  * @author Oliver Hutchison
  * @author Keith Donald
@@ -269,6 +274,53 @@ public class EventListenerListHelper implements Serializable {
 		}
 	}
 
+	/**
+	 * Calls the given invoker for each of the listeners registered with this
+	 * list, for events without arguments.
+	 *
+	 * @param invoker the invoker calling the event method.
+	 */
+	public void dispatch(ListenerInvoker invoker) {
+		dispatch(invoker, null, null);
+	}
+
+	/**
+	 * Calls the given invoker for each of the listeners registered with this
+	 * list, for events with a single argument.
+	 *
+	 * @param invoker the invoker calling the event method.
+	 * @param arg the argument to pass to each invocation.
+	 */
+	public void dispatch(ListenerInvoker invoker, Object arg) {
+		dispatch(invoker, arg, null);
+	}
+
+	/**
+	 * Calls the given invoker for each of the listeners registered with this
+	 * list. The listeners are notified in the order they were added; listeners
+	 * added or removed while firing are not taken into account until the next
+	 * event. Like with the <code>fire</code> methods, exceptions thrown by a
+	 * listener are wrapped in an {@link EventBroadcastException}.
+	 *
+	 * @param invoker the invoker calling the event method.
+	 * @param arg1 the first argument to pass to each invocation.
+	 * @param arg2 the second argument to pass to each invocation.
+	 */
+	public void dispatch(ListenerInvoker invoker, Object arg1, Object arg2) {
+		Object[] listenersCopy = listeners;
+		for (int i = 0; i < listenersCopy.length; i++) {
+			try {
+				invoker.invoke(listenersCopy[i], arg1, arg2);
+			}
+			catch (RuntimeException e) {
+				throw new EventBroadcastException("Exception thrown by listener", e);
+			}
+			catch (Error e) {
+				throw new EventBroadcastException("Exception thrown by listener", e);
+			}
+		}
+	}
+
 	/**
 	 * Adds <code>listener</code> to the list of registered listeners. If
 	 * listener is already registered this method will do nothing.
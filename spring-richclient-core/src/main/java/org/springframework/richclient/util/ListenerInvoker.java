@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.util;
+
+/**
+ * Calls one event method on a listener, used to fire events through an
+ * {@link EventListenerListHelper} without reflection.
+ * <p>
+ * Invokers are stateless and are usually kept in a constant:
+ *
+ * <pre>
+ * private static final ListenerInvoker FOO_XXX = new ListenerInvoker() {
+ * 	public void invoke(Object listener, Object event, Object unused) {
+ * 		((FooListener) listener).fooXXX((FooEvent) event);
+ * 	}
+ * };
+ *
+ * protected void fireFooXXX() {
+ * 	fooListeners.dispatch(FOO_XXX, new FooEvent());
+ * }
+ * </pre>
+ *
+ * @see EventListenerListHelper#dispatch(ListenerInvoker, Object, Object)
+ */
+public interface ListenerInvoker {
+
+	/**
+	 * Invokes the event method on the given listener.
+	 *
+	 * @param listener the listener, an instance of the listener class of the
+	 * list the event is fired on.
+	 * @param arg1 the first event argument, <code>null</code> if the event
+	 * method has no arguments.
+	 * @param arg2 the second event argument, <code>null</code> if the event
+	 * method has less than two arguments.
+	 */
+	void invoke(Object listener, Object arg1, Object arg2);
+}
@@ -1,6 +1,9 @@
 package org.springframework.richclient.widget;
 
 import org.springframework.core.io.Resource;
+import org.springframework.richclient.text.AsynchronousHTMLEditorKit;
+import org.springframework.richclient.text.HtmlDocumentCache;
+import org.springframework.richclient.text.HtmlDocumentLoader;
 import org.springframework.util.FileCopyUtils;
 
 import javax.swing.*;
@@ -13,6 +16,12 @@ import java.io.InputStreamReader;
 /**
  * HTMLViewingWidget generates a component to view HTML data
  *
+ * <p>
+ * An asynchronous widget reads resources on a background thread, loads images
+ * through a shared image cache and, when read-only, keeps the parsed documents
+ * in a cache shared by all asynchronous widgets.
+ * </p>
+ *
  * {@inheritDoc}
  *
  * @see #setContent(org.springframework.core.io.Resource)
@@ -20,6 +29,8 @@ import java.io.InputStreamReader;
  */
 public class HTMLViewWidget extends AbstractWidget
 {
+    private static final HtmlDocumentCache sharedDocumentCache = new HtmlDocumentCache();
+
     /** Pane in which the HTML will be shown. */
     private JTextPane textPane;
 
@@ -28,15 +39,33 @@ public class HTMLViewWidget extends AbstractWidget
 
     private boolean hasContent;
 
+    /** Loads resources off the EDT, <code>null</code> when loading synchronously. */
+    private HtmlDocumentLoader documentLoader;
+
     public HTMLViewWidget()
     {
         this(false);
     }
 
     public HTMLViewWidget(boolean readOnly)
+    {
+        this(readOnly, false);
+    }
+
+    public HTMLViewWidget(boolean readOnly, boolean asynchronous)
     {
         this.textPane = new JTextPane();
-        this.textPane.setEditorKit(new HTMLEditorKit());
+        if (asynchronous)
+        {
+            AsynchronousHTMLEditorKit editorKit = new AsynchronousHTMLEditorKit();
+            this.textPane.setEditorKit(editorKit);
+            // shared documents may not be edited
+            this.documentLoader = new HtmlDocumentLoader(editorKit, readOnly ? sharedDocumentCache : null);
+        }
+        else
+        {
+            this.textPane.setEditorKit(new HTMLEditorKit());
+        }
         this.textPane.setEditable(!readOnly);
 
         JScrollPane scrollPane = new JScrollPane(this.textPane);
@@ -62,6 +91,12 @@ public class HTMLViewWidget extends AbstractWidget
         setContent(resource);
     }
 
+    public HTMLViewWidget(Resource resource, boolean readOnly, boolean asynchronous)
+    {
+        this(readOnly, asynchronous);
+        setContent(resource);
+    }
+
     public HTMLViewWidget(String htmlText)
     {
         this();
@@ -74,8 +109,26 @@ public class HTMLViewWidget extends AbstractWidget
         setContent(htmlText);
     }
 
+    public boolean isAsynchronous()
+    {
+        return this.documentLoader != null;
+    }
+
     public void setContent(Resource resource)
     {
+        if (isAsynchronous())
+        {
+            this.hasContent = (resource != null && resource.exists());
+            if (this.hasContent)
+            {
+                this.documentLoader.loadDocument(resource, this.textPane);
+            }
+            else
+            {
+                setContent((String) null);
+            }
+            return;
+        }
 
         String text = null;
         try
@@ -99,6 +152,12 @@ public class HTMLViewWidget extends AbstractWidget
 
     public void setContent(String htmlText)
     {
+        // a resource still loading in the background would overwrite the text
+        HtmlDocumentLoader.cancelLoading(this.textPane);
+        if (HtmlDocumentCache.isShared(this.textPane.getDocument()))
+        {
+            this.textPane.setDocument(this.textPane.getEditorKit().createDefaultDocument());
+        }
         this.textPane.setText(htmlText);
         this.hasContent = (htmlText != null && htmlText.length() > 0);
     }
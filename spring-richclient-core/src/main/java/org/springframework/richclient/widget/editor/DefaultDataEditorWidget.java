@@ -10,6 +10,8 @@ import org.springframework.richclient.application.session.ApplicationSession;
 import org.springframework.richclient.application.statusbar.StatusBar;
 import org.springframework.richclient.application.statusbar.support.StatusBarProgressMonitor;
 import org.springframework.richclient.command.AbstractCommand;
+import org.springframework.richclient.command.ActionCommand;
+import org.springframework.richclient.command.support.ActionCommandInterceptorAdapter;
 import org.springframework.richclient.core.DefaultMessage;
 import org.springframework.richclient.core.Severity;
 import org.springframework.richclient.form.AbstractForm;
@@ -17,6 +19,7 @@ import org.springframework.richclient.form.FilterForm;
 import org.springframework.richclient.util.RcpSupport;
 import org.springframework.richclient.widget.AbstractWidget;
 import org.springframework.richclient.widget.Widget;
+import org.springframework.richclient.widget.editor.provider.CachingDataProvider;
 import org.springframework.richclient.widget.editor.provider.DataProvider;
 import org.springframework.richclient.widget.editor.provider.DataProviderEvent;
 import org.springframework.richclient.widget.editor.provider.DataProviderListener;
@@ -424,6 +427,29 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget
         return dataProvider;
     }
 
+    /**
+     * The refresh command fetches the list anew, so a {@link CachingDataProvider} is cleared before it executes.
+     */
+    @Override
+    protected ActionCommand createRefreshCommand()
+    {
+        ActionCommand refreshCommand = super.createRefreshCommand();
+        refreshCommand.addCommandInterceptor(new ActionCommandInterceptorAdapter()
+        {
+
+            @Override
+            public boolean preExecution(ActionCommand command)
+            {
+                if (dataProvider instanceof CachingDataProvider)
+                {
+                    ((CachingDataProvider) dataProvider).clear();
+                }
+                return true;
+            }
+        });
+        return refreshCommand;
+    }
+
     @Override
     protected boolean isUpdateRowSupported()
     {
@@ -563,6 +589,17 @@ public class DefaultDataEditorWidget extends AbstractDataEditorWidget
         return null;
     }
 
+    /**
+     * Returns the base criteria this editor sets on its dataProvider before querying it, for code that
+     * queries the dataProvider on the editor's behalf. Call this on the EDT.
+     *
+     * @see #getBaseCriteria()
+     */
+    public final Object getDataProviderBaseCriteria()
+    {
+        return getBaseCriteria();
+    }
+
     @Override
     protected Object loadEntityDetails(Object baseObject, boolean forceLoad)
     {
@@ -0,0 +1,687 @@
+package org.springframework.richclient.widget.editor.provider;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.richclient.security.LoginAware;
+import org.springframework.security.Authentication;
+import org.springframework.util.Assert;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+
+/**
+ * <p>
+ * Decorates a {@link DataProvider} and caches the results of {@link #getList(Object)} by criteria and of
+ * {@link #getDetailObject(Object, boolean)} by selected object. Define it as the dataProvider of all editors and
+ * lookups that show the same data, so they share the cached results:
+ * </p>
+ *
+ * <pre>
+ *   &lt;bean id=&quot;supplierDataProvider&quot;
+ *         class=&quot;org.springframework.richclient.widget.editor.provider.CachingDataProvider&quot;&gt;
+ *       &lt;constructor-arg&gt;&lt;bean class=&quot;...SupplierDataProvider&quot;/&gt;&lt;/constructor-arg&gt;
+ *   &lt;/bean&gt;
+ * </pre>
+ *
+ * <p>
+ * The cache is kept up to date with the {@link DataProviderEvent}s of the decorated dataProvider, whether the
+ * change went through this decorator or not, before the events are passed on to the listeners of the decorator:
+ * </p>
+ * <ul>
+ * <li>an updated entity is replaced in the cached lists that contain it and a deleted entity is removed from
+ * them, their detail objects are dropped</li>
+ * <li>a new entity is added to the cached lists whose criteria it matches, see
+ * {@link #matchesCriteria(Object, Object)}. By default this can't be decided, so the lists are dropped.</li>
+ * </ul>
+ * <p>
+ * Memory is bounded by the total number of cached rows ({@link #setMaxCachedRows(int)}) and detail objects
+ * ({@link #setMaxCachedDetails(int)}), the least recently used results are dropped first. Criteria are usually
+ * form objects that are modified afterwards, so they are copied by serialization to be used as key. Criteria
+ * that can't be serialized are not cached. Cached lists are copied on each call, so callers can't corrupt the
+ * cache, but the row objects are shared.
+ * </p>
+ * <p>
+ * Everything is dropped on user login and logout when the cache is notified by a
+ * {@link org.springframework.richclient.security.SecurityAwareConfigurer}, as the data may be user specific.
+ * The number of hits and misses is available to monitor how well the cache performs.
+ * </p>
+ * <p>
+ * Changes made by other clients only show up once the cached list is dropped. Lists of a dataProvider with
+ * {@link RefreshPolicy#ALLWAYS} are therefore never cached, cached lists expire after
+ * {@link #setTimeToLive(long) their time to live} and the refresh command of a
+ * {@link org.springframework.richclient.widget.editor.DefaultDataEditorWidget} drops the cache with
+ * {@link #clear()}.
+ * </p>
+ */
+public class CachingDataProvider extends Observable implements DataProvider, DataProviderListener, LoginAware
+{
+
+    private static final Log log = LogFactory.getLog(CachingDataProvider.class);
+
+    private final DataProvider dataProvider;
+
+    private int maxCachedRows = 10000;
+
+    private int maxCachedDetails = 1000;
+
+    private long timeToLive = 0;
+
+    private Object baseCriteria;
+
+    /** Cached lists by criteria key, least recently used first. */
+    private final LinkedHashMap<Object, ListEntry> lists = new LinkedHashMap<Object, ListEntry>(16, 0.75f, true);
+
+    private int cachedRows = 0;
+
+    /** Cached detail objects by selected object, least recently used first. */
+    private final LinkedHashMap<Object, Object> details = new LinkedHashMap<Object, Object>(16, 0.75f, true)
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest)
+        {
+            return size() > maxCachedDetails;
+        }
+    };
+
+    /** Incremented on each change, results fetched while it changed aren't cached. */
+    private long generation = 0;
+
+    private long listHits = 0;
+
+    private long listMisses = 0;
+
+    private long detailHits = 0;
+
+    private long detailMisses = 0;
+
+    public CachingDataProvider(DataProvider dataProvider)
+    {
+        Assert.notNull(dataProvider, "dataProvider cannot be null");
+        this.dataProvider = dataProvider;
+        dataProvider.addDataProviderListener(this);
+    }
+
+    /**
+     * Returns the decorated dataProvider.
+     */
+    public DataProvider getDataProvider()
+    {
+        return dataProvider;
+    }
+
+    /**
+     * Set the maximum total number of rows in the cached lists. Lists with more rows aren't cached. Default
+     * value is 10000.
+     */
+    public synchronized void setMaxCachedRows(int maxCachedRows)
+    {
+        Assert.isTrue(maxCachedRows >= 0, "maxCachedRows cannot be negative");
+        this.maxCachedRows = maxCachedRows;
+        evictLists();
+    }
+
+    public synchronized int getMaxCachedRows()
+    {
+        return maxCachedRows;
+    }
+
+    /**
+     * Set the maximum number of cached detail objects. Default value is 1000.
+     */
+    public synchronized void setMaxCachedDetails(int maxCachedDetails)
+    {
+        Assert.isTrue(maxCachedDetails >= 0, "maxCachedDetails cannot be negative");
+        this.maxCachedDetails = maxCachedDetails;
+        details.clear();
+    }
+
+    public synchronized int getMaxCachedDetails()
+    {
+        return maxCachedDetails;
+    }
+
+    /**
+     * Set the time in milliseconds a cached list is used before it's fetched again, or 0 to keep it until it's
+     * dropped otherwise. Default value is 0.
+     */
+    public synchronized void setTimeToLive(long timeToLive)
+    {
+        Assert.isTrue(timeToLive >= 0, "timeToLive cannot be negative");
+        this.timeToLive = timeToLive;
+    }
+
+    public synchronized long getTimeToLive()
+    {
+        return timeToLive;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Returns a copy of the cached list if the same criteria (and base criteria) were used before, unless the
+     * list has expired or the decorated dataProvider has to be refreshed {@link RefreshPolicy#ALLWAYS always}.
+     */
+    public List getList(Object criteria)
+    {
+        if (dataProvider.getRefreshPolicy() == RefreshPolicy.ALLWAYS)
+        {
+            synchronized (this)
+            {
+                listMisses++;
+            }
+            return dataProvider.getList(criteria);
+        }
+
+        Object key;
+        long startGeneration;
+        synchronized (this)
+        {
+            key = createCacheKey(baseCriteria, criteria);
+            if (key != null)
+            {
+                ListEntry entry = lists.get(key);
+                if ((entry != null) && isExpired(entry))
+                {
+                    lists.remove(key);
+                    cachedRows -= entry.rows.size();
+                    entry = null;
+                }
+                if (entry != null)
+                {
+                    listHits++;
+                    return new ArrayList<Object>(entry.rows);
+                }
+            }
+            listMisses++;
+            startGeneration = generation;
+        }
+
+        List result = dataProvider.getList(criteria);
+        if ((key != null) && (result != null) && (result.size() <= maxCachedRows))
+        {
+            synchronized (this)
+            {
+                if (startGeneration == generation)
+                {
+                    ListEntry entry = new ListEntry(snapshot(criteria), new ArrayList<Object>(result),
+                            currentTimeMillis());
+                    ListEntry previous = lists.put(key, entry);
+                    if (previous != null)
+                        cachedRows -= previous.rows.size();
+                    cachedRows += entry.rows.size();
+                    evictLists();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Returns the cached detail object unless <code>forceLoad</code> is <code>true</code>.
+     */
+    public Object getDetailObject(Object selectedObject, boolean forceLoad)
+    {
+        long startGeneration;
+        synchronized (this)
+        {
+            if (!forceLoad && (selectedObject != null))
+            {
+                Object detail = details.get(selectedObject);
+                if (detail != null)
+                {
+                    detailHits++;
+                    return detail;
+                }
+            }
+            detailMisses++;
+            startGeneration = generation;
+        }
+
+        Object detail = dataProvider.getDetailObject(selectedObject, forceLoad);
+        if ((selectedObject != null) && (detail != null))
+        {
+            synchronized (this)
+            {
+                if (startGeneration == generation)
+                    details.put(selectedObject, detail);
+            }
+        }
+        return detail;
+    }
+
+    /**
+     * Decide whether a new entity belongs in the list fetched with the given criteria. Override this to keep
+     * cached lists when entities are created.
+     *
+     * @param criteria
+     *            a copy of the criteria the list was fetched with.
+     * @param entity
+     *            the new entity.
+     * @return {@link Boolean#TRUE} to add the entity to the list, {@link Boolean#FALSE} to keep the list as is or
+     *         <code>null</code> if it can't be decided and the list must be dropped.
+     */
+    protected Boolean matchesCriteria(Object criteria, Object entity)
+    {
+        return null;
+    }
+
+    /**
+     * Create the key to cache the list for the given criteria, or <code>null</code> if it can't be cached. This
+     * implementation uses immutable criteria as they are and serializes the others.
+     */
+    protected Object createCacheKey(Object baseCriteria, Object criteria)
+    {
+        Object baseKey = createCriteriaKey(baseCriteria);
+        Object criteriaKey = createCriteriaKey(criteria);
+        if ((baseKey == null && baseCriteria != null) || (criteriaKey == null && criteria != null))
+            return null;
+        return Arrays.asList(baseKey, criteriaKey);
+    }
+
+    private Object createCriteriaKey(Object criteria)
+    {
+        if ((criteria == null) || isImmutable(criteria))
+            return criteria;
+        byte[] bytes = serialize(criteria);
+        return bytes == null ? null : new SerializedKey(bytes);
+    }
+
+    private boolean isImmutable(Object criteria)
+    {
+        return (criteria instanceof String) || (criteria instanceof Number) || (criteria instanceof Boolean)
+                || (criteria instanceof Character) || (criteria instanceof Enum);
+    }
+
+    private byte[] serialize(Object object)
+    {
+        if (!(object instanceof Serializable))
+            return null;
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(object);
+            out.close();
+            return bytes.toByteArray();
+        }
+        catch (IOException e)
+        {
+            log.debug("Criteria " + object + " cannot be serialized, the result isn't cached", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a copy of the criteria that isn't affected by later changes, or the criteria themselves if they
+     * can't be copied.
+     */
+    private Object snapshot(Object criteria)
+    {
+        if ((criteria == null) || isImmutable(criteria))
+            return criteria;
+        byte[] bytes = serialize(criteria);
+        if (bytes == null)
+            return criteria;
+        try
+        {
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))
+            {
+                @Override
+                protected Class<?> resolveClass(java.io.ObjectStreamClass desc) throws IOException,
+                        ClassNotFoundException
+                {
+                    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+                    if (classLoader != null)
+                    {
+                        try
+                        {
+                            return Class.forName(desc.getName(), false, classLoader);
+                        }
+                        catch (ClassNotFoundException e)
+                        {
+                            // fall back to the default resolution
+                        }
+                    }
+                    return super.resolveClass(desc);
+                }
+            };
+            return in.readObject();
+        }
+        catch (Exception e)
+        {
+            return criteria;
+        }
+    }
+
+    private boolean isExpired(ListEntry entry)
+    {
+        return (timeToLive > 0) && (currentTimeMillis() - entry.created >= timeToLive);
+    }
+
+    /**
+     * Returns the current time used to expire cached lists.
+     */
+    protected long currentTimeMillis()
+    {
+        return System.currentTimeMillis();
+    }
+
+    private void evictLists()
+    {
+        Iterator<ListEntry> entries = lists.values().iterator();
+        while ((cachedRows > maxCachedRows) && entries.hasNext())
+        {
+            cachedRows -= entries.next().rows.size();
+            entries.remove();
+        }
+    }
+
+    /**
+     * Drop all cached results.
+     */
+    public synchronized void clear()
+    {
+        generation++;
+        lists.clear();
+        cachedRows = 0;
+        details.clear();
+    }
+
+    /**
+     * Keeps the cache in line with the change and passes the event on to the listeners of this dataProvider.
+     */
+    public void update(Observable o, Object arg)
+    {
+        if (arg instanceof DataProviderEvent)
+            entityChanged((DataProviderEvent) arg);
+        else
+            clear();
+        setChanged();
+        notifyObservers(arg);
+    }
+
+    private synchronized void entityChanged(DataProviderEvent event)
+    {
+        generation++;
+        Object oldEntity = event.getOldEntity();
+        Object newEntity = event.getNewEntity();
+        if (oldEntity != null)
+            details.remove(oldEntity);
+        if (newEntity != null)
+            details.remove(newEntity);
+
+        for (Iterator<ListEntry> entries = lists.values().iterator(); entries.hasNext();)
+        {
+            ListEntry entry = entries.next();
+            int oldSize = entry.rows.size();
+            boolean keep = true;
+            switch (event.getEventType())
+            {
+                case DataProviderEvent.EVENT_TYPE_NEW:
+                    keep = addIfMatching(entry, newEntity);
+                    break;
+                case DataProviderEvent.EVENT_TYPE_UPDATE:
+                    int index = entry.rows.indexOf(oldEntity);
+                    if (index < 0)
+                        keep = addIfMatching(entry, newEntity);
+                    else if (Boolean.FALSE.equals(matchesCriteria(entry.criteria, newEntity)))
+                        entry.rows.remove(index);
+                    else
+                        entry.rows.set(index, newEntity);
+                    break;
+                case DataProviderEvent.EVENT_TYPE_DELETE:
+                    entry.rows.remove(oldEntity);
+                    break;
+                default:
+                    keep = false;
+            }
+            if (keep)
+            {
+                cachedRows += entry.rows.size() - oldSize;
+            }
+            else
+            {
+                cachedRows -= oldSize;
+                entries.remove();
+            }
+        }
+        evictLists();
+    }
+
+    /**
+     * Returns <code>false</code> if the list must be dropped as it can't be decided whether the entity belongs
+     * in it.
+     */
+    private boolean addIfMatching(ListEntry entry, Object entity)
+    {
+        Boolean matches = matchesCriteria(entry.criteria, entity);
+        if (matches == null)
+            return false;
+        if (matches.booleanValue())
+            entry.rows.add(entity);
+        return true;
+    }
+
+    /**
+     * Returns the number of {@link #getList(Object)} calls answered from the cache.
+     */
+    public synchronized long getListHitCount()
+    {
+        return listHits;
+    }
+
+    /**
+     * Returns the number of {@link #getList(Object)} calls passed on to the decorated dataProvider.
+     */
+    public synchronized long getListMissCount()
+    {
+        return listMisses;
+    }
+
+    /**
+     * Returns the number of {@link #getDetailObject(Object, boolean)} calls answered from the cache.
+     */
+    public synchronized long getDetailHitCount()
+    {
+        return detailHits;
+    }
+
+    /**
+     * Returns the number of {@link #getDetailObject(Object, boolean)} calls passed on to the decorated
+     * dataProvider.
+     */
+    public synchronized long getDetailMissCount()
+    {
+        return detailMisses;
+    }
+
+    /**
+     * Returns the fraction of the list and detail calls answered from the cache, or 0 if there were no calls.
+     */
+    public synchronized double getHitRatio()
+    {
+        long hits = listHits + detailHits;
+        long calls = hits + listMisses + detailMisses;
+        return calls == 0 ? 0.0 : (double) hits / calls;
+    }
+
+    /**
+     * Returns the number of cached lists.
+     */
+    public synchronized int getCachedListCount()
+    {
+        return lists.size();
+    }
+
+    /**
+     * Returns the total number of rows in the cached lists.
+     */
+    public synchronized int getCachedRowCount()
+    {
+        return cachedRows;
+    }
+
+    public void userLogin(Authentication authentication)
+    {
+        clear();
+    }
+
+    public void userLogout(Authentication authentication)
+    {
+        clear();
+    }
+
+    public void addDataProviderListener(DataProviderListener dataProviderListener)
+    {
+        addObserver(dataProviderListener);
+    }
+
+    public void removeDataProviderListener(DataProviderListener dataProviderListener)
+    {
+        deleteObserver(dataProviderListener);
+    }
+
+    public Object getSimpleObject(Object selectedObject)
+    {
+        return dataProvider.getSimpleObject(selectedObject);
+    }
+
+    public boolean supportsFiltering()
+    {
+        return dataProvider.supportsFiltering();
+    }
+
+    public boolean supportsUpdate()
+    {
+        return dataProvider.supportsUpdate();
+    }
+
+    public Object update(Object updatedData)
+    {
+        return dataProvider.update(updatedData);
+    }
+
+    public boolean supportsCreate()
+    {
+        return dataProvider.supportsCreate();
+    }
+
+    public Object create(Object newData)
+    {
+        return dataProvider.create(newData);
+    }
+
+    public Object newInstance(Object criteria)
+    {
+        return dataProvider.newInstance(criteria);
+    }
+
+    public boolean supportsClone()
+    {
+        return dataProvider.supportsClone();
+    }
+
+    public Object clone(Object sampleData)
+    {
+        return dataProvider.clone(sampleData);
+    }
+
+    public boolean supportsDelete()
+    {
+        return dataProvider.supportsDelete();
+    }
+
+    public void delete(Object dataToRemove)
+    {
+        dataProvider.delete(dataToRemove);
+    }
+
+    public boolean supportsBaseCriteria()
+    {
+        return dataProvider.supportsBaseCriteria();
+    }
+
+    /**
+     * Sets the base criteria on the decorated dataProvider. When they differ from the previous ones, lists that
+     * are being fetched aren't cached, as they may have been fetched with either.
+     */
+    public synchronized void setBaseCriteria(Object criteria)
+    {
+        Object previousKey = createCriteriaKey(baseCriteria);
+        boolean unchanged = (baseCriteria == null) ? criteria == null
+                : (previousKey != null) && previousKey.equals(createCriteriaKey(criteria));
+        if (!unchanged)
+            generation++;
+        this.baseCriteria = snapshot(criteria);
+        dataProvider.setBaseCriteria(criteria);
+    }
+
+    public boolean exists(Object data)
+    {
+        return dataProvider.exists(data);
+    }
+
+    public RefreshPolicy getRefreshPolicy()
+    {
+        return dataProvider.getRefreshPolicy();
+    }
+
+    private static final class ListEntry
+    {
+
+        private final Object criteria;
+
+        private final List<Object> rows;
+
+        private final long created;
+
+        ListEntry(Object criteria, List<Object> rows, long created)
+        {
+            this.criteria = criteria;
+            this.rows = rows;
+            this.created = created;
+        }
+    }
+
+    private static final class SerializedKey
+    {
+
+        private final byte[] bytes;
+
+        private final int hashCode;
+
+        SerializedKey(byte[] bytes)
+        {
+            this.bytes = bytes;
+            this.hashCode = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return (o instanceof SerializedKey) && Arrays.equals(bytes, ((SerializedKey) o).bytes);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
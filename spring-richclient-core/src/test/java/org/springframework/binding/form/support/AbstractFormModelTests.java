@@ -766,4 +766,71 @@ public abstract class AbstractFormModelTests extends SpringRichTestCase {
 		parent.removeChild(child);
 		assertTrue(listener.state);
 	}
+
+	/**
+	 * The committable state of nested children is tracked through their
+	 * committable events, without asking the children again.
+	 */
+	public void testParentChildCommittableState() {
+		AbstractFormModel root = getFormModel(new TestBean());
+		AbstractFormModel middle = getFormModel(new TestBean());
+		CommittableFormModel leaf = new CommittableFormModel(new TestBean());
+		BooleanStatelistener listener = new BooleanStatelistener(FormModel.COMMITTABLE_PROPERTY);
+		listener.state = root.isCommittable();
+		root.addPropertyChangeListener(FormModel.COMMITTABLE_PROPERTY, listener);
+		root.addChild(middle);
+		middle.addChild(leaf);
+		assertTrue(listener.state);
+
+		leaf.setCommittable(false);
+		assertFalse(middle.isCommittable());
+		assertFalse(root.isCommittable());
+		assertFalse(listener.state);
+
+		int calls = leaf.committableCalls;
+		for (int i = 0; i < 10; i++) {
+			root.isCommittable();
+			middle.isCommittable();
+		}
+		assertEquals("committable state of the leaf should not be asked again", calls, leaf.committableCalls);
+
+		leaf.setCommittable(true);
+		assertTrue(root.isCommittable());
+		assertTrue(listener.state);
+
+		leaf.setCommittable(false);
+		middle.removeChild(leaf);
+		assertTrue(root.isCommittable());
+		assertTrue(listener.state);
+
+		root.addChild(new CommittableFormModel(new TestBean(), false));
+		assertFalse(root.isCommittable());
+		assertFalse(listener.state);
+	}
+
+	private static class CommittableFormModel extends TestAbstractFormModel {
+
+		private boolean committable = true;
+
+		int committableCalls;
+
+		CommittableFormModel(Object formObject) {
+			super(formObject);
+		}
+
+		CommittableFormModel(Object formObject, boolean committable) {
+			super(formObject);
+			this.committable = committable;
+		}
+
+		void setCommittable(boolean committable) {
+			this.committable = committable;
+			committableUpdated();
+		}
+
+		public boolean isCommittable() {
+			committableCalls++;
+			return committable && super.isCommittable();
+		}
+	}
 }
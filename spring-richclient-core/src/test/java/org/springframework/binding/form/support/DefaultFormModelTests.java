@@ -251,6 +251,120 @@ public class DefaultFormModelTests extends AbstractFormModelTests {
         assertEquals(2, pcl.eventCount());
     }
 
+    public void testSetFormObjectValidatesOnce() {
+        DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        TestValidator v = new TestValidator();
+        fm.setValidator(v);
+        fm.getValueModel("simpleProperty");
+        fm.getValueModel("booleanProperty");
+        fm.getValueModel("listProperty");
+        // starting at 4: setting the validator + creating 3 valueModels
+        int expectedCount = 4;
+        assertEquals(expectedCount++, v.count);
+
+        TestBean newBean = new TestBean();
+        newBean.setSimpleProperty("new");
+        newBean.setBooleanProperty(true);
+        fm.setFormObject(newBean);
+        assertEquals(expectedCount++, v.count);
+        assertEquals("new", fm.getValueModel("simpleProperty").getValue());
+        assertEquals(1, fm.getFormObjectChangeCount());
+        assertTrue(fm.getLastFormObjectChangeTime() > 0);
+    }
+
+    public void testDeferredValidation() {
+        DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        ValidationResultsModel r = fm.getValidationResults();
+        TestValidator v = new TestValidator();
+        fm.setValidator(v);
+        ValueModel vm = fm.getValueModel("simpleProperty");
+        int expectedCount = 2;
+        assertEquals(expectedCount, v.count);
+
+        fm.setValidationDeferred(true);
+        v.results = getValidationResults("message1");
+        vm.setValue("1");
+        fm.setFormObject(new TestBean());
+        assertEquals(expectedCount++, v.count);
+        assertEquals(0, r.getMessageCount());
+
+        fm.setValidationDeferred(false);
+        assertEquals(expectedCount, v.count);
+        assertEquals(1, r.getMessageCount());
+
+        fm.setValidationDeferred(true);
+        fm.setValidationDeferred(false);
+        assertEquals(expectedCount, v.count);
+    }
+
+    public void testBatchUpdate() {
+        DefaultFormModel fm = (DefaultFormModel) getFormModel(new TestBean());
+        ValidationResultsModel r = fm.getValidationResults();
+        TestValidator v = new TestValidator();
+        fm.setValidator(v);
+        ValueModel vm1 = fm.getValueModel("simpleProperty");
+        ValueModel vm2 = fm.getValueModel("booleanProperty");
+        int expectedCount = v.count;
+        TestPropertyChangeListener dirtyPcl = new TestPropertyChangeListener(FormModel.DIRTY_PROPERTY);
+        fm.addPropertyChangeListener(FormModel.DIRTY_PROPERTY, dirtyPcl);
+        TestPropertyChangeListener valuePcl = new TestPropertyChangeListener(ValueModel.VALUE_PROPERTY);
+        vm1.addValueChangeListener(valuePcl);
+
+        fm.beginBatchUpdate();
+        fm.beginBatchUpdate();
+        v.results = getValidationResults("message1");
+        vm1.setValue("1");
+        vm1.setValue("2");
+        vm2.setValue(Boolean.TRUE);
+        fm.endBatchUpdate();
+        assertTrue(fm.isBatchUpdating());
+        assertEquals(expectedCount, v.count);
+        assertEquals(0, dirtyPcl.eventCount());
+        assertEquals(0, valuePcl.eventCount());
+        assertEquals(0, r.getMessageCount());
+
+        fm.endBatchUpdate();
+        assertFalse(fm.isBatchUpdating());
+        assertEquals(expectedCount + 1, v.count);
+        assertEquals(1, dirtyPcl.eventCount());
+        assertEquals(1, valuePcl.eventCount());
+        assertEquals("2", valuePcl.lastEvent().getNewValue());
+        assertEquals(1, r.getMessageCount());
+        assertTrue(fm.isDirty());
+
+        try {
+            fm.endBatchUpdate();
+            fail("Should have thrown an IllegalStateException");
+        }
+        catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    public void testBatchUpdateIncludesChildren() {
+        DefaultFormModel parent = (DefaultFormModel) getFormModel(new TestBean());
+        DefaultFormModel child = (DefaultFormModel) getFormModel(new TestBean());
+        parent.addChild(child);
+        TestValidator v = new TestValidator();
+        child.setValidator(v);
+        int expectedCount = v.count;
+        TestPropertyChangeListener dirtyPcl = new TestPropertyChangeListener(FormModel.DIRTY_PROPERTY);
+        parent.addPropertyChangeListener(FormModel.DIRTY_PROPERTY, dirtyPcl);
+
+        parent.beginBatchUpdate();
+        assertTrue(child.isBatchUpdating());
+        child.getValueModel("simpleProperty").setValue("1");
+        child.getValueModel("simpleProperty").setValue("2");
+        assertEquals(expectedCount, v.count);
+        assertEquals(0, dirtyPcl.eventCount());
+
+        parent.endBatchUpdate();
+        assertFalse(child.isBatchUpdating());
+        assertEquals(expectedCount + 1, v.count);
+        assertEquals(1, dirtyPcl.eventCount());
+        assertTrue(parent.isDirty());
+    }
+
     public void testReadOnlyRevert() {
         FormModel fm = getFormModel(new TestBean());
         fm.getValueModel("readOnly");
@@ -26,6 +26,7 @@ import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.context.support.StaticMessageSource;
 import org.springframework.richclient.image.IconSource;
 import org.springframework.richclient.test.SpringRichTestCase;
+import org.springframework.richclient.test.TestBean;
 import org.springframework.richclient.test.TestIcon;
 
 /**
@@ -64,4 +65,33 @@ public class MessageSourceFieldFaceSourceTests extends SpringRichTestCase {
 		EasyMock.verify(mockIconSource);
 	}
 
+	public void testFieldFacesAreSharedByFormModelsWithSameId() {
+		MessageSourceFieldFaceSource fieldFaceSource = new MessageSourceFieldFaceSource();
+		StaticMessageSource messageSource = new StaticMessageSource();
+		messageSource.addMessage("context.field.label", Locale.getDefault(), "the label");
+		messageSource.addMessage("other.field.label", Locale.getDefault(), "other label");
+		fieldFaceSource.setMessageSourceAccessor(new MessageSourceAccessor(messageSource));
+
+		DefaultFormModel formModel = new DefaultFormModel(new TestBean());
+		formModel.setId(new String("context"));
+		DefaultFormModel sameIdFormModel = new DefaultFormModel(new TestBean());
+		sameIdFormModel.setId("context");
+		DefaultFormModel otherFormModel = new DefaultFormModel(new TestBean());
+		otherFormModel.setId("other");
+
+		FieldFace face = fieldFaceSource.getFieldFace("field", formModel);
+		assertEquals("the label", face.getDisplayName());
+		assertSame(face, fieldFaceSource.getFieldFace("field", sameIdFormModel));
+		assertSame(face, fieldFaceSource.getFieldFace("field", "context"));
+		assertEquals("other label", fieldFaceSource.getFieldFace("field", otherFormModel).getDisplayName());
+
+		// the cache keys are held strongly, so the faces survive the form models
+		formModel = null;
+		sameIdFormModel = null;
+		System.gc();
+		DefaultFormModel newFormModel = new DefaultFormModel(new TestBean());
+		newFormModel.setId(new String("context"));
+		assertSame(face, fieldFaceSource.getFieldFace("field", newFormModel));
+	}
+
 }
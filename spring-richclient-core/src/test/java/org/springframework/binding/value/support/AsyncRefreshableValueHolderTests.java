@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.binding.value.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.springframework.binding.support.TestPropertyChangeListener;
+import org.springframework.binding.value.ValueModel;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.richclient.test.SpringRichTestCase;
+import org.springframework.rules.closure.support.AbstractClosure;
+
+/**
+ * Testcase for <code>AsyncRefreshableValueHolder</code>
+ */
+public class AsyncRefreshableValueHolderTests extends SpringRichTestCase {
+
+    private QueueingTaskExecutor executor;
+
+    private CountingClosure refreshFunction;
+
+    protected void doSetUp() throws Exception {
+        executor = new QueueingTaskExecutor();
+        refreshFunction = new CountingClosure();
+    }
+
+    public void testServesCachedValueAndRefreshesOnce() throws Exception {
+        AsyncRefreshableValueHolder valueHolder = new AsyncRefreshableValueHolder(refreshFunction, true, executor);
+        TestPropertyChangeListener listener = new TestPropertyChangeListener(ValueModel.VALUE_PROPERTY);
+        valueHolder.addValueChangeListener(listener);
+
+        assertNull(valueHolder.getValue());
+        assertNull(valueHolder.getValue());
+        assertTrue(valueHolder.isRefreshing());
+        assertEquals("concurrent refreshes should be combined", 1, executor.tasks.size());
+
+        executor.runAll();
+        flushEventQueue();
+        assertEquals(new Integer(1), valueHolder.getValue());
+        assertEquals(1, refreshFunction.calls);
+        assertEquals(1, listener.eventCount());
+    }
+
+    public void testTimeToLive() throws Exception {
+        AsyncRefreshableValueHolder valueHolder = new AsyncRefreshableValueHolder(refreshFunction, false, executor);
+        valueHolder.setTimeToLive(60000);
+        executor.runAll();
+        flushEventQueue();
+
+        assertFalse(valueHolder.isStale());
+        assertEquals(new Integer(1), valueHolder.getValue());
+        assertEquals(0, executor.tasks.size());
+
+        valueHolder.setTimeToLive(0);
+        assertEquals("stale value should be served while refreshing", new Integer(1), valueHolder.getValue());
+        executor.runAll();
+        flushEventQueue();
+        assertEquals(new Integer(2), valueHolder.getValue());
+    }
+
+    public void testFailedRefreshKeepsValue() throws Exception {
+        AsyncRefreshableValueHolder valueHolder = new AsyncRefreshableValueHolder(refreshFunction, false, executor);
+        executor.runAll();
+        flushEventQueue();
+
+        refreshFunction.fail = true;
+        valueHolder.refresh();
+        executor.runAll();
+        flushEventQueue();
+        assertFalse(valueHolder.isRefreshing());
+        assertEquals(new Integer(1), valueHolder.getValue());
+    }
+
+    public void testRejectedRefreshCanBeRetried() throws Exception {
+        AsyncRefreshableValueHolder valueHolder = new AsyncRefreshableValueHolder(refreshFunction, true, executor);
+        executor.reject = true;
+        try {
+            valueHolder.refresh();
+            fail("Expected TaskRejectedException");
+        }
+        catch (TaskRejectedException e) {
+            // expected
+        }
+        assertFalse(valueHolder.isRefreshing());
+
+        executor.reject = false;
+        valueHolder.refresh();
+        executor.runAll();
+        flushEventQueue();
+        assertEquals(new Integer(1), valueHolder.getValue());
+    }
+
+    public void testDefaultTimeToLive() throws Exception {
+        AsyncRefreshableValueHolder valueHolder = new AsyncRefreshableValueHolder(refreshFunction, false, executor);
+        assertEquals(AsyncRefreshableValueHolder.DEFAULT_TIME_TO_LIVE, valueHolder.getTimeToLive());
+        executor.runAll();
+        flushEventQueue();
+
+        valueHolder.getValue();
+        valueHolder.getValue();
+        assertEquals("fresh value should not be refreshed on read", 0, executor.tasks.size());
+    }
+
+    private void flushEventQueue() throws Exception {
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+    }
+
+    private static class CountingClosure extends AbstractClosure {
+
+        int calls;
+
+        boolean fail;
+
+        public Object call(Object argument) {
+            if (fail) {
+                throw new IllegalStateException("test");
+            }
+            return new Integer(++calls);
+        }
+    }
+
+    private static class QueueingTaskExecutor implements TaskExecutor {
+
+        final List tasks = new ArrayList();
+
+        boolean reject;
+
+        public void execute(Runnable task) {
+            if (reject) {
+                throw new TaskRejectedException("rejected");
+            }
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                ((Runnable) tasks.remove(0)).run();
+            }
+        }
+    }
+}
@@ -27,6 +27,9 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
 import org.springframework.beans.BeanUtils;
 import org.springframework.binding.support.TestPropertyChangeListener;
 import org.springframework.binding.value.CommitTrigger;
@@ -111,6 +114,43 @@ public class BufferedCollectionValueModelTests extends SpringRichTestCase {
         }
     }
 
+    public void testBackingObjectChangeIsAppliedIncrementally() {
+        List backingList = integers(new int[] {1, 2, 3, 4, 5});
+        BufferedCollectionValueModel vm = getBufferedCollectionValueModel(backingList, List.class);
+        ListListModel llm = (ListListModel)vm.getValue();
+        final List events = new ArrayList();
+        llm.addListDataListener(new ListDataListener() {
+            public void contentsChanged(ListDataEvent e) {
+                events.add(e);
+            }
+
+            public void intervalAdded(ListDataEvent e) {
+                events.add(e);
+            }
+
+            public void intervalRemoved(ListDataEvent e) {
+                events.add(e);
+            }
+        });
+
+        vm.getWrappedValueModel().setValue(integers(new int[] {1, 2, 3, 4, 5}));
+        assertEquals("equal collections must not change the buffer", 0, events.size());
+
+        backingList = integers(new int[] {1, 3, 4, 6, 5});
+        vm.getWrappedValueModel().setValue(backingList);
+        assertHasSameStructure(llm, backingList);
+        assertEquals(2, events.size());
+        assertEquals(ListDataEvent.INTERVAL_REMOVED, ((ListDataEvent)events.get(0)).getType());
+        assertEquals(ListDataEvent.INTERVAL_ADDED, ((ListDataEvent)events.get(1)).getType());
+
+        events.clear();
+        backingList = integers(new int[] {1, 3, 7, 6, 5});
+        vm.getWrappedValueModel().setValue(backingList);
+        assertHasSameStructure(llm, backingList);
+        assertEquals(1, events.size());
+        assertEquals(ListDataEvent.CONTENTS_CHANGED, ((ListDataEvent)events.get(0)).getType());
+    }
+
     public void testCreateWithEmptyCollection() {
         BufferedCollectionValueModel vm = new BufferedCollectionValueModel(new ValueHolder(null), Collection.class);
         assertTrue(vm.getValue() instanceof ListListModel);
@@ -340,6 +380,14 @@ public class BufferedCollectionValueModelTests extends SpringRichTestCase {
         }
     }
 
+    private List integers(int[] values) {
+        List list = new ArrayList();
+        for (int i = 0; i < values.length; i++) {
+            list.add(new Integer(values[i]));
+        }
+        return list;
+    }
+
     private Object[] getArray(long randomSeed) {
         Random random = new Random(randomSeed);
         return new Number[] {new Integer(random.nextInt()), new Integer(random.nextInt()),
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.binding.value.support;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import org.springframework.binding.support.TestPropertyChangeListener;
+import org.springframework.binding.value.ValueModel;
+import org.springframework.richclient.test.SpringRichTestCase;
+import org.springframework.rules.closure.Closure;
+import org.springframework.rules.closure.support.AbstractClosure;
+
+/**
+ * Tests for {@link DerivedValueGraph}.
+ */
+public class DerivedValueGraphTests extends SpringRichTestCase {
+
+    private static final Closure SUM = new AbstractClosure() {
+        public Object call(Object argument) {
+            Object[] values = (Object[])argument;
+            int sum = 0;
+            for (int i = 0; i < values.length; i++) {
+                sum += ((Integer)values[i]).intValue();
+            }
+            return new Integer(sum);
+        }
+    };
+
+    private DerivedValueGraph graph;
+
+    private ValueHolder source;
+
+    protected void doSetUp() throws Exception {
+        graph = new DerivedValueGraph();
+        source = new ValueHolder(new Integer(1));
+    }
+
+    public void testDiamondIsComputedOncePerChange() {
+        ValueModel left = graph.derive(new ValueModel[] {source}, SUM);
+        ValueModel right = graph.derive(new ValueModel[] {source}, SUM);
+        final ValueModel bottom = graph.derive(new ValueModel[] {left, right}, SUM);
+        TestPropertyChangeListener listener = new TestPropertyChangeListener(ValueModel.VALUE_PROPERTY);
+        bottom.addValueChangeListener(listener);
+        final Object[] seen = new Object[1];
+        left.addValueChangeListener(new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                seen[0] = bottom.getValue();
+            }
+        });
+        assertEquals(new Integer(2), bottom.getValue());
+        assertEquals(3, graph.getComputeCount());
+
+        source.setValue(new Integer(5));
+        assertEquals(6, graph.getComputeCount());
+        assertEquals("listeners must not see a glitch", new Integer(10), seen[0]);
+        assertEquals(1, listener.eventCount());
+        assertEquals(new Integer(2), listener.lastEvent().getOldValue());
+        assertEquals(new Integer(10), listener.lastEvent().getNewValue());
+    }
+
+    public void testUnchangedIntermediateValueStopsRecomputation() {
+        ValueModel sign = graph.derive(source, new AbstractClosure() {
+            public Object call(Object argument) {
+                return Boolean.valueOf(((Integer)argument).intValue() >= 0);
+            }
+        });
+        ValueModel label = graph.derive(sign, new AbstractClosure() {
+            public Object call(Object argument) {
+                return ((Boolean)argument).booleanValue() ? "positive" : "negative";
+            }
+        });
+        TestPropertyChangeListener listener = new TestPropertyChangeListener(ValueModel.VALUE_PROPERTY);
+        label.addValueChangeListener(listener);
+
+        source.setValue(new Integer(7));
+        assertEquals(3, graph.getComputeCount());
+        assertEquals(0, listener.eventCount());
+
+        source.setValue(new Integer(-1));
+        assertEquals(5, graph.getComputeCount());
+        assertEquals(1, listener.eventCount());
+        assertEquals("negative", label.getValue());
+    }
+
+    public void testBatchFiresOnceWithFinalValue() {
+        ValueHolder other = new ValueHolder(new Integer(1));
+        DerivedValueGraph.DerivedValue sum = graph.derive(new ValueModel[] {source, other}, SUM);
+        TestPropertyChangeListener listener = new TestPropertyChangeListener(ValueModel.VALUE_PROPERTY);
+        sum.addValueChangeListener(listener);
+
+        graph.beginBatch();
+        source.setValue(new Integer(2));
+        other.setValue(new Integer(3));
+        assertTrue(sum.isDirty());
+        assertEquals("values are still computed when read", new Integer(5), sum.getValue());
+        source.setValue(new Integer(4));
+        assertEquals(0, listener.eventCount());
+        graph.endBatch();
+
+        assertEquals(1, listener.eventCount());
+        assertEquals(new Integer(2), listener.lastEvent().getOldValue());
+        assertEquals(new Integer(7), listener.lastEvent().getNewValue());
+    }
+
+    public void testDispose() {
+        ValueModel derived = graph.derive(new ValueModel[] {source}, SUM);
+        graph.dispose();
+        source.setValue(new Integer(3));
+        assertEquals(new Integer(1), derived.getValue());
+    }
+
+    public void testReadOnly() {
+        DerivedValueGraph.DerivedValue derived = graph.derive(new ValueModel[] {source}, SUM);
+        assertTrue(derived.isReadOnly());
+        assertEquals(source, derived.getSourceValueModels()[0]);
+        try {
+            derived.setValue(new Integer(2));
+            fail("Expected UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application;
+
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.util.StringUtils;
+
+/**
+ * Tests for {@link StartupProfiler} and
+ * {@link StartupProfilingBeanFactoryPostProcessor}.
+ */
+public class StartupProfilerTests extends TestCase {
+
+    private StartupProfiler profiler;
+
+    private StaticApplicationContext context;
+
+    protected void setUp() throws Exception {
+        profiler = new StartupProfiler();
+        context = new StaticApplicationContext();
+        context.addBeanFactoryPostProcessor(new StartupProfilingBeanFactoryPostProcessor(profiler));
+    }
+
+    public void testBeansAreProfiled() {
+        MutablePropertyValues properties = new MutablePropertyValues();
+        properties.addPropertyValue("target", new RuntimeBeanReference("inner"));
+        context.registerSingleton("outer", Holder.class, properties);
+        context.registerSingleton("inner", Object.class);
+        context.refresh();
+
+        assertTrue(profiler.getBeanTime("inner") >= 0);
+        assertTrue(profiler.getBeanTime("outer") >= profiler.getBeanTime("inner"));
+        assertEquals(-1, profiler.getBeanTime("unknown"));
+    }
+
+    public void testMessageLookupsAreProfiled() {
+        context.registerSingleton("messageSource", TestMessageSource.class);
+        context.refresh();
+
+        assertEquals("value", context.getMessage("key", null, Locale.getDefault()));
+        assertEquals(1, profiler.getLookupCount("message"));
+
+        profiler.setReportPath(null);
+        profiler.finish();
+        context.getMessage("key", null, Locale.getDefault());
+        assertEquals("lookups after startup are not profiled", 1, profiler.getLookupCount("message"));
+    }
+
+    public void testReports() {
+        profiler.phaseStarted("rootContext");
+        context.registerSingleton("bean", Object.class);
+        context.refresh();
+        profiler.phaseEnded("rootContext");
+
+        String report = profiler.createReport();
+        assertTrue(report.indexOf("rootContext") > 0);
+        assertTrue(report.indexOf("bean") > 0);
+
+        String json = profiler.createJsonReport();
+        assertTrue(json.startsWith("{"));
+        assertTrue(json.indexOf("\"name\": \"rootContext\"") > 0);
+        assertTrue(json.indexOf("\"name\": \"bean\"") > 0);
+        assertEquals(StringUtils.countOccurrencesOf(json, "{"), StringUtils.countOccurrencesOf(json, "}"));
+    }
+
+    public void testSortBy() {
+        profiler.setSortBy(StartupProfiler.SORT_BY_NAME);
+        try {
+            profiler.setSortBy("size");
+            fail("unknown sort order");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public static class TestMessageSource extends StaticMessageSource {
+        public TestMessageSource() {
+            addMessage("key", Locale.getDefault(), "value");
+        }
+    }
+
+    public static class Holder {
+        private Object target;
+
+        public void setTarget(Object target) {
+            this.target = target;
+        }
+
+        public Object getTarget() {
+            return target;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.springframework.richclient.application.support.StaticApplicationServices;
+
+/**
+ * Tests for {@link StartupTasks}.
+ */
+public class StartupTasksTests extends TestCase {
+
+    public void testTasksRunInParallel() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final List<String> done = Collections.synchronizedList(new ArrayList<String>());
+        StartupTasks tasks = new StartupTasks();
+        tasks.setThreadCount(2);
+        tasks.setTasks(Arrays.asList(new Runnable[] { new BarrierTask(barrier, "a", done),
+                new BarrierTask(barrier, "b", done) }));
+
+        tasks.start();
+        tasks.awaitCompletion();
+
+        assertEquals(2, done.size());
+    }
+
+    public void testFailingTaskDoesNotStopOthers() throws Exception {
+        final List<String> done = Collections.synchronizedList(new ArrayList<String>());
+        StartupTasks tasks = new StartupTasks();
+        tasks.setThreadCount(1);
+        tasks.setTasks(Arrays.asList(new Runnable[] { new Runnable() {
+            public void run() {
+                throw new IllegalStateException("test");
+            }
+        }, new Runnable() {
+            public void run() {
+                done.add("ok");
+            }
+        } }));
+
+        tasks.start();
+        tasks.awaitCompletion();
+
+        assertEquals(Collections.singletonList("ok"), done);
+    }
+
+    public void testServicesAreWarmed() throws Exception {
+        final List<Class> requested = Collections.synchronizedList(new ArrayList<Class>());
+        StaticApplicationServices services = new StaticApplicationServices() {
+            public Object getService(Class serviceType) {
+                requested.add(serviceType);
+                return "service";
+            }
+        };
+        StartupTasks tasks = new StartupTasks();
+        tasks.setServiceTypes(Arrays.asList(new Class[] { String.class, Integer.class }));
+
+        tasks.start();
+        tasks.startWarmingServices(services);
+        tasks.awaitCompletion();
+
+        assertEquals(2, requested.size());
+        assertTrue(requested.contains(String.class));
+        assertTrue(requested.contains(Integer.class));
+    }
+
+    public void testAwaitCompletionWithoutStart() throws Exception {
+        new StartupTasks().awaitCompletion();
+    }
+
+    private static class BarrierTask implements Runnable {
+
+        private final CyclicBarrier barrier;
+
+        private final String name;
+
+        private final List<String> done;
+
+        BarrierTask(CyclicBarrier barrier, String name, List<String> done) {
+            this.barrier = barrier;
+            this.name = name;
+            this.done = done;
+        }
+
+        public void run() {
+            try {
+                // only passes when both tasks run at the same time
+                barrier.await(5, TimeUnit.SECONDS);
+                done.add(name);
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.richclient.application.splash;
+
+import java.awt.GraphicsEnvironment;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link InfiniteProgressPanel}.
+ */
+public class InfiniteProgressPanelTests extends TestCase {
+
+	/**
+	 * The shared animation timer must let go of a panel whose window is
+	 * disposed while it ramps up, as it gets no more frames to finish.
+	 */
+	public void testDisposingWindowDuringRampUpRemovesAnimation() throws Exception {
+		if (GraphicsEnvironment.isHeadless()) {
+			return;
+		}
+		final JFrame frame = new JFrame("test");
+		final InfiniteProgressPanel panel = new InfiniteProgressPanel("test", 14, 0.5f, 15.0f, 10000);
+		final int listenerCount = panel.getHierarchyListeners().length;
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				frame.setGlassPane(panel);
+				frame.setSize(200, 200);
+				frame.setVisible(true);
+				panel.start();
+			}
+		});
+		flushEventQueue();
+		assertEquals("animation added", listenerCount + 1, panel.getHierarchyListeners().length);
+
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				frame.dispose();
+			}
+		});
+		assertEquals("animation removed", listenerCount, panel.getHierarchyListeners().length);
+	}
+
+	private void flushEventQueue() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+			}
+		});
+	}
+}
@@ -119,11 +119,49 @@ public abstract class AbstractApplicationPageTestCase extends TestCase {
         assertNull(applicationPage.getView("testView1"));
     }
 
+    public void testClosedViewIsCached() {
+        applicationPage.setViewCacheSize(1);
+
+        TestView view = (TestView) applicationPage.showView("testView1");
+        JComponent control = view.getControl();
+        applicationPage.close(view);
+        assertNull(applicationPage.getView("testView1"));
+        assertTrue(applicationPage.isViewCached("testView1"));
+        assertFalse(view.isDisposed());
+
+        assertSame(view, applicationPage.showView("testView1"));
+        assertSame(control, view.getControl());
+        assertFalse(applicationPage.isViewCached("testView1"));
+
+        applicationPage.close(view);
+        applicationPage.close(applicationPage.showView("testView2"));
+        assertTrue("least recently closed view must be disposed", view.isDisposed());
+        assertTrue(applicationPage.isViewCached("testView2"));
+
+        applicationPage.close();
+        assertTrue(testView2.isDisposed());
+        assertFalse(applicationPage.isViewCached("testView2"));
+    }
+
+    public void testPrewarmView() {
+        assertFalse("prewarming requires a view cache", applicationPage.prewarmView("testView1"));
+
+        applicationPage.setViewCacheSize(2);
+        assertTrue(applicationPage.prewarmView("testView1"));
+        assertTrue(testView1.isControlCreated());
+        assertNull("prewarmed view must not be opened", applicationPage.getView("testView1"));
+        assertFalse(applicationPage.prewarmView("testView1"));
+
+        assertSame(testView1, applicationPage.showView("testView1"));
+        assertFalse(applicationPage.prewarmView("testView1"));
+    }
+
     private static class TestView extends AbstractView {
 
         private String label;
         private Object input;
         private boolean setInputCalled;
+        private boolean disposed;
 
         public TestView(String label) {
             this.label = label;
@@ -148,5 +186,14 @@ public abstract class AbstractApplicationPageTestCase extends TestCase {
             return setInputCalled;
         }
 
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        public void dispose() {
+            disposed = true;
+            super.dispose();
+        }
+
     }
 }
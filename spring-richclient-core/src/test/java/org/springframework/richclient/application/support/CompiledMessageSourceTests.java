@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+/**
+ * Tests for {@link CompiledMessageSource} and {@link MessageBundleCompiler}.
+ */
+public class CompiledMessageSourceTests extends TestCase {
+
+    private static final String[] BASENAMES = new String[] {
+            "org.springframework.richclient.application.support.first-messages",
+            "org.springframework.richclient.application.support.second-messages" };
+
+    private static final Locale DUTCH = new Locale("nl");
+
+    private File outputDirectory;
+
+    private CompiledMessageSource messageSource;
+
+    protected void setUp() throws Exception {
+        outputDirectory = File.createTempFile("messages", "");
+        outputDirectory.delete();
+        MessageBundleCompiler compiler = new MessageBundleCompiler();
+        compiler.setBasenames(BASENAMES);
+        compiler.compile(outputDirectory, "compiled/messages", new Locale[] { DUTCH });
+
+        messageSource = new CompiledMessageSource();
+        messageSource.setBasename(new File(outputDirectory, "compiled/messages").toURI().toString());
+        messageSource.setFallbackToSystemLocale(false);
+    }
+
+    protected void tearDown() throws Exception {
+        messageSource.clearCache();
+        File[] files = new File(outputDirectory, "compiled").listFiles();
+        for (int i = 0; files != null && i < files.length; i++) {
+            files[i].delete();
+        }
+        new File(outputDirectory, "compiled").delete();
+        outputDirectory.delete();
+    }
+
+    public void testResolvesLikeResourceBundleMessageSource() {
+        ResourceBundleMessageSource expected = new ResourceBundleMessageSource();
+        expected.setBasenames(BASENAMES);
+
+        String[] codes = new String[] { "greeting", "farewell", "other", "welcome" };
+        Locale[] locales = new Locale[] { DUTCH, new Locale("nl", "BE") };
+        for (int i = 0; i < locales.length; i++) {
+            for (int j = 0; j < codes.length; j++) {
+                assertEquals(codes[j] + " in " + locales[i], expected.getMessage(codes[j], null, locales[i]),
+                        messageSource.getMessage(codes[j], null, locales[i]));
+            }
+        }
+        assertEquals("Hallo", messageSource.getMessage("greeting", null, DUTCH));
+        assertEquals("Goodbye", messageSource.getMessage("farewell", null, DUTCH));
+        assertEquals("Ander", messageSource.getMessage("other", null, DUTCH));
+        assertEquals("Hello", messageSource.getMessage("greeting", null, Locale.ENGLISH));
+        assertEquals("Other", messageSource.getMessage("other", null, Locale.ENGLISH));
+    }
+
+    public void testMessageWithArguments() {
+        assertEquals("Welcome, Jan!", messageSource.getMessage("welcome", new Object[] { "Jan" }, DUTCH));
+    }
+
+    public void testUnknownCode() {
+        assertEquals("default", messageSource.getMessage("unknown", null, "default", DUTCH));
+        try {
+            messageSource.getMessage("unknown", null, DUTCH);
+            fail("Expected NoSuchMessageException");
+        }
+        catch (NoSuchMessageException e) {
+            // expected
+        }
+    }
+
+    public void testManyKeys() throws Exception {
+        Map messages = new HashMap();
+        for (int i = 0; i < 5000; i++) {
+            messages.put("key." + i + ".label", "message " + i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompiledMessageBundle.write(messages, out);
+        CompiledMessageBundle bundle = new CompiledMessageBundle(ByteBuffer.wrap(out.toByteArray()));
+
+        assertEquals(5000, bundle.size());
+        for (Iterator it = messages.entrySet().iterator(); it.hasNext();) {
+            Map.Entry entry = (Map.Entry) it.next();
+            assertEquals(entry.getValue(), bundle.getMessage((String) entry.getKey()));
+        }
+        for (int i = 5000; i < 6000; i++) {
+            assertNull(bundle.getMessage("key." + i + ".label"));
+        }
+    }
+
+    public void testEmptyBundle() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompiledMessageBundle.write(new HashMap(), out);
+        CompiledMessageBundle bundle = new CompiledMessageBundle(ByteBuffer.wrap(out.toByteArray()));
+
+        assertEquals(0, bundle.size());
+        assertNull(bundle.getMessage("key"));
+    }
+}
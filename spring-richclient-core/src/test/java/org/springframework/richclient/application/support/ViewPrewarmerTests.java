@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2008 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.application.support;
+
+import java.util.Arrays;
+import java.util.prefs.Preferences;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link ViewPrewarmer}.
+ */
+public class ViewPrewarmerTests extends TestCase {
+
+    private DefaultApplicationPage applicationPage;
+
+    private TestView testView1;
+
+    private TestView testView2;
+
+    private TestView testView3;
+
+    private boolean idle = true;
+
+    private ViewPrewarmer prewarmer;
+
+    private Preferences usageStatistics;
+
+    @Override
+    protected void setUp() throws Exception {
+        testView1 = new TestView();
+        testView2 = new TestView();
+        testView3 = new TestView();
+
+        applicationPage = new DefaultApplicationPage();
+        SimpleViewDescriptorRegistry viewDescriptorRegistry = new SimpleViewDescriptorRegistry();
+        viewDescriptorRegistry.addViewDescriptor(new SimpleViewDescriptor("testView1", testView1));
+        viewDescriptorRegistry.addViewDescriptor(new SimpleViewDescriptor("testView2", testView2));
+        viewDescriptorRegistry.addViewDescriptor(new SimpleViewDescriptor("testView3", testView3));
+        applicationPage.setViewDescriptorRegistry(viewDescriptorRegistry);
+        applicationPage.setPageComponentPaneFactory(new SimplePageComponentPaneFactory());
+        applicationPage.setDescriptor(new EmptyPageDescriptor());
+        applicationPage.getControl();
+
+        prewarmer = new ViewPrewarmer() {
+            protected boolean isIdle() {
+                return idle;
+            }
+        };
+        prewarmer.setDelay(1);
+        prewarmer.setViewIds(Arrays.asList("testView1", "testView2", "testView3"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        prewarmer.stop(applicationPage);
+        if (usageStatistics != null) {
+            usageStatistics.removeNode();
+        }
+    }
+
+    public void testPrewarmingIsLimitedToViewCacheSize() throws Exception {
+        applicationPage.setViewCacheSize(2);
+        prewarm();
+
+        assertTrue(applicationPage.isViewCached("testView1"));
+        assertTrue(applicationPage.isViewCached("testView2"));
+        assertFalse(applicationPage.isViewCached("testView3"));
+        assertFalse("prewarmed views must not evict each other", testView1.isDisposed());
+        assertFalse(testView3.isControlCreated());
+    }
+
+    public void testPrewarmingIsGivenUpWhileBusy() throws Exception {
+        applicationPage.setViewCacheSize(3);
+        idle = false;
+        prewarmer.setMaxRetries(3);
+        prewarm();
+
+        assertFalse(prewarmer.isPrewarming(applicationPage));
+        assertFalse(applicationPage.isViewCached("testView1"));
+    }
+
+    public void testStopRemovesListener() throws Exception {
+        usageStatistics = Preferences.userNodeForPackage(getClass()).node("viewPrewarmerTests");
+        prewarmer.setUsageStatistics(usageStatistics);
+        prewarm();
+
+        applicationPage.showView("testView1");
+        assertEquals(1, usageStatistics.getInt("testView1", 0));
+
+        prewarmer.stop(applicationPage);
+        applicationPage.showView("testView2");
+        assertEquals(0, usageStatistics.getInt("testView2", 0));
+    }
+
+    /**
+     * Starts prewarming and waits until it is done.
+     */
+    private void prewarm() throws Exception {
+        final boolean[] prewarming = new boolean[1];
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                prewarmer.prewarm(applicationPage);
+            }
+        });
+        for (int i = 0; i < 500; i++) {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    prewarming[0] = prewarmer.isPrewarming(applicationPage);
+                }
+            });
+            if (!prewarming[0]) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Prewarming did not finish");
+    }
+
+    private static class TestView extends AbstractView {
+
+        private boolean disposed;
+
+        @Override
+        protected JComponent createControl() {
+            return new JLabel(getId());
+        }
+
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        public void dispose() {
+            disposed = true;
+            super.dispose();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.command;
+
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.SwingUtilities;
+
+import org.springframework.richclient.factory.DefaultMenuFactory;
+import org.springframework.richclient.factory.LazyMenuFactory;
+import org.springframework.richclient.test.SpringRichTestCase;
+
+/**
+ * Tests for filling command group menus on demand with a
+ * {@link LazyMenuFactory}.
+ */
+public class LazyMenuMaterializerTests extends SpringRichTestCase {
+
+    private CommandGroup menuBarGroup;
+
+    private CommandGroup fileGroup;
+
+    protected void doSetUp() throws Exception {
+        menuBarGroup = new CommandGroup("menuBar");
+        fileGroup = new CommandGroup("file");
+        fileGroup.add(new TestCommand("open"));
+        menuBarGroup.add(fileGroup);
+    }
+
+    public void testSubmenuIsFilledWhenSelected() {
+        JMenuBar menuBar = menuBarGroup.createMenuBar(new LazyMenuFactory());
+        assertEquals(1, menuBar.getMenuCount());
+        JMenu fileMenu = menuBar.getMenu(0);
+        assertEquals(0, fileMenu.getItemCount());
+
+        fileGroup.add(new TestCommand("close"));
+        assertEquals("members are not bound before the menu is opened", 0, fileMenu.getItemCount());
+
+        fileMenu.setSelected(true);
+        assertEquals(2, fileMenu.getItemCount());
+
+        fileGroup.add(new TestCommand("save"));
+        assertEquals("filled menus follow member changes", 3, fileMenu.getItemCount());
+    }
+
+    public void testMenuItemStateFollowsCommand() {
+        TestCommand saveCommand = new TestCommand("save");
+        fileGroup.add(saveCommand);
+        JMenu fileMenu = menuBarGroup.createMenuBar(new LazyMenuFactory()).getMenu(0);
+
+        saveCommand.setEnabled(false);
+        fileMenu.setSelected(true);
+        assertFalse(fileMenu.getItem(1).isEnabled());
+        saveCommand.setEnabled(true);
+        assertTrue(fileMenu.getItem(1).isEnabled());
+    }
+
+    public void testMenusArePrebuiltWhenIdle() throws Exception {
+        LazyMenuFactory factory = new LazyMenuFactory();
+        factory.setPrebuildWhenIdle(true);
+        factory.setPrebuildDelay(1);
+        final JMenu fileMenu = menuBarGroup.createMenuBar(factory).getMenu(0);
+
+        final int[] itemCount = new int[1];
+        for (int i = 0; i < 500 && itemCount[0] == 0; i++) {
+            Thread.sleep(10);
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    itemCount[0] = fileMenu.getItemCount();
+                }
+            });
+        }
+        assertEquals(1, itemCount[0]);
+    }
+
+    public void testDefaultMenuFactoryFillsEagerly() {
+        JMenuBar menuBar = menuBarGroup.createMenuBar(new DefaultMenuFactory());
+        assertEquals(1, menuBar.getMenu(0).getItemCount());
+    }
+
+    private static class TestCommand extends ActionCommand {
+        public TestCommand(String id) {
+            super(id);
+        }
+
+        protected void doExecuteCommand() {
+        }
+    }
+}
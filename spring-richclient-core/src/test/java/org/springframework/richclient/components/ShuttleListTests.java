@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.components;
+
+import java.awt.Component;
+import java.awt.Container;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+
+import junit.framework.TestCase;
+
+import org.springframework.richclient.list.SelectionFilteredListModel;
+import org.springframework.rules.constraint.Constraint;
+
+/**
+ * Tests for {@link ShuttleList} with a large model.
+ */
+public class ShuttleListTests extends TestCase {
+
+    private static final int SIZE = 30000;
+
+    private ShuttleList shuttleList;
+
+    private DefaultListModel model;
+
+    private int selectionEvents;
+
+    protected void setUp() throws Exception {
+        model = new DefaultListModel();
+        for (int i = 0; i < SIZE; i++) {
+            model.addElement("permission" + i);
+        }
+        shuttleList = new ShuttleList(false);
+        shuttleList.setModel(model);
+        shuttleList.addListSelectionListener(new ListSelectionListener() {
+            public void valueChanged(ListSelectionEvent e) {
+                if (!e.getValueIsAdjusting()) {
+                    selectionEvents++;
+                }
+            }
+        });
+    }
+
+    public void testSetSelectedIndicesNotifiesOnce() {
+        int[] indices = new int[SIZE / 2];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = SIZE - 1 - 2 * i;
+        }
+        shuttleList.setSelectedIndices(indices);
+
+        assertEquals(1, selectionEvents);
+        assertEquals(SIZE / 2, shuttleList.getSelectedValues().length);
+        assertTrue(shuttleList.isChosen(1));
+        assertFalse(shuttleList.isChosen(0));
+        assertEquals("permission1", shuttleList.getSelectedValues()[0]);
+    }
+
+    public void testInvalidIndicesAreIgnored() {
+        shuttleList.setSelectedIndices(new int[] { -1, 3, SIZE });
+        assertEquals(1, shuttleList.getSelectedValues().length);
+        assertTrue(shuttleList.isChosen(3));
+    }
+
+    public void testMoveAllMovesFilteredElements() {
+        shuttleList.setSourceFilter(new Constraint() {
+            public boolean test(Object argument) {
+                return ((String) argument).endsWith("7");
+            }
+        });
+        shuttleList.moveAllLeftToRight();
+        assertEquals(1, selectionEvents);
+        assertEquals(SIZE / 10, shuttleList.getSelectedValues().length);
+        assertTrue(shuttleList.isChosen(17));
+        assertFalse(shuttleList.isChosen(18));
+
+        shuttleList.setChosenFilter(new Constraint() {
+            public boolean test(Object argument) {
+                return ((String) argument).endsWith("77");
+            }
+        });
+        shuttleList.moveAllRightToLeft();
+        assertEquals(2, selectionEvents);
+        assertEquals(SIZE / 10 - SIZE / 100, shuttleList.getSelectedValues().length);
+        assertFalse(shuttleList.isChosen(177));
+        assertTrue(shuttleList.isChosen(17));
+
+        shuttleList.setChosenFilter(null);
+        shuttleList.moveAllRightToLeft();
+        assertEquals(0, shuttleList.getSelectedValues().length);
+    }
+
+    public void testCellSizeFollowsModelSize() {
+        JList sourceList = findSourceList();
+        assertTrue("large models get a fixed cell height", sourceList.getFixedCellHeight() > 0);
+
+        model.removeRange(10, SIZE - 1);
+        assertEquals(-1, sourceList.getFixedCellHeight());
+        assertEquals(10, sourceList.getModel().getSize());
+    }
+
+    private JList findSourceList() {
+        return findList(shuttleList);
+    }
+
+    private static JList findList(Container container) {
+        for (int i = 0; i < container.getComponentCount(); i++) {
+            Component c = container.getComponent(i);
+            if (c instanceof JList && ((JList) c).getModel() instanceof SelectionFilteredListModel) {
+                return (JList) c;
+            }
+            if (c instanceof Container) {
+                JList list = findList((Container) c);
+                if (list != null) {
+                    return list;
+                }
+            }
+        }
+        return null;
+    }
+
+    public void testIndexOf() {
+        assertEquals(12345, shuttleList.indexOf("permission12345"));
+        assertEquals(-1, shuttleList.indexOf("unknown"));
+
+        model.insertElementAt("first", 0);
+        assertEquals("model changes are tracked", 12346, shuttleList.indexOf("permission12345"));
+    }
+}
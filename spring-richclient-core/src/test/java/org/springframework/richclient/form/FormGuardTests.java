@@ -15,12 +15,16 @@
  */
 package org.springframework.richclient.form;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.swing.JComponent;
 import javax.swing.JRootPane;
 import javax.swing.JTextField;
 
 import org.springframework.binding.form.ValidatingFormModel;
 import org.springframework.richclient.application.support.DefaultApplicationServices;
+import org.springframework.richclient.core.GuardScheduler;
 import org.springframework.richclient.core.Guarded;
 import org.springframework.richclient.test.SpringRichTestCase;
 import org.springframework.rules.Rules;
@@ -147,7 +151,67 @@ public class FormGuardTests extends SpringRichTestCase {
         assertTrue("guarded should be enabled", guarded.isEnabled());
     }
     
+
+    public void testScheduledUpdatesAreCoalesced() {
+        final List flushRequests = new ArrayList();
+        GuardScheduler scheduler = new GuardScheduler() {
+            protected void requestFlush(Runnable flusher) {
+                flushRequests.add(flusher);
+            }
+        };
+        FormGuard formGuard = new FormGuard(formModel, guarded);
+        formGuard.setScheduler(scheduler);
+
+        formModel.setEnabled(false);
+        formModel.setEnabled(true);
+        formModel.setEnabled(false);
+        assertTrue("guarded should only be updated when the scheduler runs", guarded.isEnabled());
+
+        assertEquals("only one flush should be requested", 1, flushRequests.size());
+        ((Runnable) flushRequests.get(0)).run();
+        assertFalse("guarded should be disabled", guarded.isEnabled());
+        assertEquals(3, scheduler.getScheduledCount());
+        assertEquals(1, scheduler.getEvaluationCount());
+        assertEquals(2, scheduler.getSavedEvaluationCount());
+    }
     
+    public void testScheduledUpdateIsPerformedWhenSchedulerChanges() {
+        final List flushRequests = new ArrayList();
+        GuardScheduler scheduler = new GuardScheduler() {
+            protected void requestFlush(Runnable flusher) {
+                flushRequests.add(flusher);
+            }
+        };
+        FormGuard formGuard = new FormGuard(formModel, guarded);
+        formGuard.setScheduler(scheduler);
+
+        formModel.setEnabled(false);
+        assertTrue(guarded.isEnabled());
+        formGuard.setScheduler(null);
+        assertFalse("pending update should be performed", guarded.isEnabled());
+        assertEquals(0, scheduler.getEvaluationCount());
+        assertEquals(1, scheduler.getSavedEvaluationCount());
+    }
+
+    public void testDisposeCancelsScheduledUpdate() {
+        final List flushRequests = new ArrayList();
+        GuardScheduler scheduler = new GuardScheduler() {
+            protected void requestFlush(Runnable flusher) {
+                flushRequests.add(flusher);
+            }
+        };
+        FormGuard formGuard = new FormGuard(formModel, guarded);
+        formGuard.setScheduler(scheduler);
+
+        formModel.setEnabled(false);
+        formGuard.dispose();
+        ((Runnable) flushRequests.get(0)).run();
+        assertTrue("disposed guard should not update", guarded.isEnabled());
+
+        formModel.setEnabled(true);
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
     // Tests added based on requirements in RCP-39
     // The form's action commands should get enabled/disabled based on the form's state
     
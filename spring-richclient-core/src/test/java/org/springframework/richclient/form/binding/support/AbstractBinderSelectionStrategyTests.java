@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2007 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.form.binding.support;
+
+import javax.swing.JComponent;
+import javax.swing.JTextField;
+
+import org.easymock.EasyMock;
+import org.springframework.binding.form.FormModel;
+import org.springframework.binding.form.support.DefaultFieldMetadata;
+import org.springframework.binding.form.support.DefaultFormModel;
+import org.springframework.binding.form.support.FormModelMediatingValueModel;
+import org.springframework.binding.value.ValueModel;
+import org.springframework.binding.value.support.ValueHolder;
+import org.springframework.richclient.form.binding.Binder;
+import org.springframework.richclient.test.SpringRichTestCase;
+import org.springframework.richclient.test.TestBean;
+
+/**
+ * Tests for the caching of selected binders in
+ * {@link AbstractBinderSelectionStrategy}.
+ */
+public class AbstractBinderSelectionStrategyTests extends SpringRichTestCase {
+
+    private Binder stringBinder;
+
+    private Binder integerBinder;
+
+    private Binder textFieldBinder;
+
+    private TestBinderSelectionStrategy strategy;
+
+    protected void doSetUp() throws Exception {
+        stringBinder = (Binder) EasyMock.createMock(Binder.class);
+        integerBinder = (Binder) EasyMock.createMock(Binder.class);
+        textFieldBinder = (Binder) EasyMock.createMock(Binder.class);
+        strategy = new TestBinderSelectionStrategy();
+    }
+
+    public void testSelectedBinderIsReused() {
+        FormModel formModel = new DefaultFormModel(new TestBean());
+        assertSame(stringBinder, strategy.selectBinder(formModel, "simpleProperty"));
+        assertSame(textFieldBinder, strategy.selectBinder(JTextField.class, formModel, "simpleProperty"));
+        assertEquals(1, strategy.propertyTypeLookups);
+
+        FormModel otherFormModel = new DefaultFormModel(new TestBean());
+        assertSame(stringBinder, strategy.selectBinder(otherFormModel, "simpleProperty"));
+        assertSame(textFieldBinder, strategy.selectBinder(JTextField.class, otherFormModel, "simpleProperty"));
+        assertEquals(1, strategy.propertyTypeLookups);
+    }
+
+    public void testRegisteringBinderClearsSelectedBinders() {
+        FormModel formModel = new DefaultFormModel(new TestBean());
+        assertSame(stringBinder, strategy.selectBinder(formModel, "simpleProperty"));
+
+        Binder propertyBinder = (Binder) EasyMock.createMock(Binder.class);
+        strategy.registerBinderForPropertyName(TestBean.class, "simpleProperty", propertyBinder);
+        assertSame(propertyBinder, strategy.selectBinder(formModel, "simpleProperty"));
+        assertEquals(1, strategy.propertyTypeLookups);
+    }
+
+    public void testSelectedBinderDependsOnPropertyTypeOfFormModel() {
+        DefaultFormModel formModel = new DefaultFormModel(new TestBean());
+        addProperty(formModel, "customProperty", String.class);
+        DefaultFormModel otherFormModel = new DefaultFormModel(new TestBean());
+        addProperty(otherFormModel, "customProperty", Integer.class);
+
+        assertSame(stringBinder, strategy.selectBinder(formModel, "customProperty"));
+        assertSame(integerBinder, strategy.selectBinder(otherFormModel, "customProperty"));
+        assertSame(stringBinder, strategy.selectBinder(formModel, "customProperty"));
+        assertEquals(2, strategy.propertyTypeLookups);
+    }
+
+    private void addProperty(DefaultFormModel formModel, String propertyName, Class propertyType) {
+        ValueModel valueModel = new ValueHolder();
+        formModel.add(propertyName, valueModel, new DefaultFieldMetadata(formModel,
+                new FormModelMediatingValueModel(valueModel), propertyType, false, null));
+    }
+
+    private class TestBinderSelectionStrategy extends AbstractBinderSelectionStrategy {
+
+        private int propertyTypeLookups;
+
+        public TestBinderSelectionStrategy() {
+            super(JComponent.class);
+        }
+
+        protected void registerDefaultBinders() {
+            registerBinderForPropertyType(String.class, stringBinder);
+            registerBinderForPropertyType(Integer.class, integerBinder);
+            registerBinderForControlType(JTextField.class, textFieldBinder);
+        }
+
+        protected Binder findBinderByPropertyType(Class propertyType) {
+            propertyTypeLookups++;
+            return super.findBinderByPropertyType(propertyType);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.springframework.richclient.form.binding.swing.editor;
+
+import junit.framework.TestCase;
+import org.springframework.richclient.widget.editor.provider.AbstractDataProvider;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link LookupResultCache}.
+ */
+public class LookupResultCacheTests extends TestCase
+{
+
+    private TestDataProvider dataProvider;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        dataProvider = new TestDataProvider();
+    }
+
+    public void testCacheIsSharedPerDataProvider()
+    {
+        LookupResultCache cache = LookupResultCache.getInstance(dataProvider, 10);
+        assertSame(cache, LookupResultCache.getInstance(dataProvider, 5));
+        assertEquals(10, cache.getMaxSize());
+        assertSame(cache, LookupResultCache.getInstance(dataProvider, 20));
+        assertEquals("larger sizes are honoured", 20, cache.getMaxSize());
+        assertNotSame(cache, LookupResultCache.getInstance(new TestDataProvider(), 10));
+    }
+
+    public void testLeastRecentlyUsedResolutionIsDropped()
+    {
+        LookupResultCache cache = new LookupResultCache(2);
+        cache.put("a", "A", cache.getGeneration());
+        cache.put("b", "B", cache.getGeneration());
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C", cache.getGeneration());
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+    }
+
+    public void testDataProviderChangesClearTheCache()
+    {
+        LookupResultCache cache = LookupResultCache.getInstance(dataProvider, 10);
+        long generation = cache.getGeneration();
+        cache.put("a", "A", generation);
+
+        dataProvider.create("B");
+        assertEquals(0, cache.size());
+
+        cache.put("a", "A", generation);
+        assertNull("lookups started before the change are not cached", cache.get("a"));
+    }
+
+    private static class TestDataProvider extends AbstractDataProvider
+    {
+
+        public boolean supportsFiltering()
+        {
+            return false;
+        }
+
+        public List getList(Object criteria)
+        {
+            return Collections.EMPTY_LIST;
+        }
+
+        public boolean supportsUpdate()
+        {
+            return false;
+        }
+
+        public boolean supportsCreate()
+        {
+            return true;
+        }
+
+        @Override
+        public Object doCreate(Object newData)
+        {
+            return newData;
+        }
+
+        public boolean supportsClone()
+        {
+            return false;
+        }
+
+        public boolean supportsDelete()
+        {
+            return false;
+        }
+    }
+}
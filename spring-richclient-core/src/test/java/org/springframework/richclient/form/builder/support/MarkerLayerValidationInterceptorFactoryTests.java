@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.form.builder.support;
+
+import java.awt.image.BufferedImage;
+
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JPanel;
+import javax.swing.JRootPane;
+import javax.swing.JTextField;
+
+import org.springframework.binding.form.ValidatingFormModel;
+import org.springframework.binding.form.support.DefaultFormModel;
+import org.springframework.binding.validation.support.DefaultValidationMessage;
+import org.springframework.binding.validation.support.DefaultValidationResultsModel;
+import org.springframework.richclient.application.support.DefaultApplicationServices;
+import org.springframework.richclient.components.MarkerLayer;
+import org.springframework.richclient.core.Severity;
+import org.springframework.richclient.form.builder.FormComponentInterceptor;
+import org.springframework.richclient.form.builder.TestBean;
+import org.springframework.richclient.image.IconSource;
+import org.springframework.richclient.test.SpringRichTestCase;
+
+/**
+ * Tests for {@link MarkerLayerValidationInterceptorFactory}.
+ */
+public class MarkerLayerValidationInterceptorFactoryTests extends SpringRichTestCase {
+
+    private ValidatingFormModel formModel;
+
+    private JTextField field;
+
+    private JRootPane rootPane;
+
+    protected void doSetUp() throws Exception {
+        formModel = new DefaultFormModel(new TestBean());
+        field = new JTextField();
+        rootPane = new JRootPane();
+    }
+
+    public void testValidationMarker() {
+        MarkerLayerValidationInterceptorFactory factory = new MarkerLayerValidationInterceptorFactory();
+        FormComponentInterceptor interceptor = factory.getInterceptor(formModel);
+        interceptor.processComponent("property", field);
+
+        JPanel panel = new JPanel();
+        panel.add(field);
+        rootPane.getContentPane().add(panel);
+
+        MarkerLayer markerLayer = MarkerLayer.getMarkerLayer(field);
+        assertNotNull(markerLayer);
+        assertSame(rootPane.getLayeredPane(), markerLayer.getParent());
+        assertSame("one layer per layered pane", markerLayer, MarkerLayer.getMarkerLayer(panel));
+        assertFalse(markerLayer.hasMarker(field, "validation"));
+
+        DefaultValidationResultsModel results = (DefaultValidationResultsModel)formModel.getValidationResults();
+        results.addMessage(new DefaultValidationMessage("property", Severity.ERROR, "error"));
+        assertTrue(markerLayer.hasMarker(field, "validation"));
+
+        results.clearAllValidationResults();
+        assertFalse(markerLayer.hasMarker(field, "validation"));
+        assertEquals(0, markerLayer.getMarkedComponentCount());
+    }
+
+    public void testMarkersMoveWithComponent() {
+        MarkerLayerValidationInterceptorFactory factory = new MarkerLayerValidationInterceptorFactory();
+        factory.setShowDirtyMarkers(true);
+        FormComponentInterceptor interceptor = factory.getInterceptor(formModel);
+        interceptor.processComponent("property", field);
+
+        rootPane.getContentPane().add(field);
+        MarkerLayer markerLayer = MarkerLayer.getMarkerLayer(field);
+        formModel.getValueModel("property").setValue("dirty");
+        assertTrue(markerLayer.hasMarker(field, "dirty"));
+
+        rootPane.getContentPane().remove(field);
+        assertEquals(0, markerLayer.getMarkedComponentCount());
+
+        JRootPane otherRootPane = new JRootPane();
+        otherRootPane.getContentPane().add(field);
+        MarkerLayer otherMarkerLayer = MarkerLayer.getMarkerLayer(field);
+        assertNotSame(markerLayer, otherMarkerLayer);
+        assertTrue(otherMarkerLayer.hasMarker(field, "dirty"));
+
+        formModel.revert();
+        assertFalse(otherMarkerLayer.hasMarker(field, "dirty"));
+    }
+
+    protected void registerAdditionalServices(DefaultApplicationServices applicationServices) {
+        final Icon icon = new ImageIcon(new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB));
+        applicationServices.setIconSource(new IconSource() {
+            public Icon getIcon(String key) {
+                return icon;
+            }
+        });
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.list;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.DefaultListModel;
+import javax.swing.DefaultListSelectionModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link SelectionFilteredListModel}.
+ */
+public class SelectionFilteredListModelTests extends TestCase {
+
+    private DefaultListModel listModel;
+
+    private DefaultListSelectionModel selectionModel;
+
+    private SelectionFilteredListModel chosenModel;
+
+    private final List events = new ArrayList();
+
+    protected void setUp() throws Exception {
+        listModel = new DefaultListModel();
+        for (int i = 0; i < 10; i++) {
+            listModel.addElement("element" + i);
+        }
+        selectionModel = new DefaultListSelectionModel();
+        chosenModel = new SelectionFilteredListModel(listModel, selectionModel, true);
+        chosenModel.addListDataListener(new ListDataListener() {
+            public void intervalAdded(ListDataEvent e) {
+                events.add(e);
+            }
+
+            public void intervalRemoved(ListDataEvent e) {
+                events.add(e);
+            }
+
+            public void contentsChanged(ListDataEvent e) {
+                events.add(e);
+            }
+        });
+    }
+
+    public void testGrowingViewFiresIntervalAdded() {
+        selectionModel.setSelectionInterval(2, 3);
+        chosenModel.refresh();
+        assertEquals(2, chosenModel.getSize());
+        assertEquals(1, events.size());
+        assertEvent(ListDataEvent.INTERVAL_ADDED, 0, 1, 0);
+
+        selectionModel.addSelectionInterval(7, 9);
+        chosenModel.refresh();
+        assertEquals(5, chosenModel.getSize());
+        assertEquals("element9", chosenModel.getElementAt(4));
+        assertEquals(3, events.size());
+        assertEvent(ListDataEvent.INTERVAL_ADDED, 2, 4, 1);
+        assertEvent(ListDataEvent.CONTENTS_CHANGED, 0, 1, 2);
+    }
+
+    public void testShrinkingViewFiresIntervalRemoved() {
+        selectionModel.setSelectionInterval(0, 4);
+        chosenModel.refresh();
+        events.clear();
+
+        selectionModel.removeSelectionInterval(1, 3);
+        chosenModel.refresh();
+        assertEquals(2, chosenModel.getSize());
+        assertEquals(2, events.size());
+        assertEvent(ListDataEvent.INTERVAL_REMOVED, 2, 4, 0);
+        assertEvent(ListDataEvent.CONTENTS_CHANGED, 0, 1, 1);
+
+        events.clear();
+        selectionModel.clearSelection();
+        chosenModel.refresh();
+        assertEquals(1, events.size());
+        assertEvent(ListDataEvent.INTERVAL_REMOVED, 0, 1, 0);
+    }
+
+    public void testSameSizeFiresContentsChanged() {
+        selectionModel.setSelectionInterval(0, 0);
+        chosenModel.refresh();
+        events.clear();
+
+        selectionModel.setSelectionInterval(5, 5);
+        chosenModel.refresh();
+        assertEquals("element5", chosenModel.getElementAt(0));
+        assertEquals(1, events.size());
+        assertEvent(ListDataEvent.CONTENTS_CHANGED, 0, 0, 0);
+    }
+
+    private void assertEvent(int type, int index0, int index1, int position) {
+        ListDataEvent event = (ListDataEvent) events.get(position);
+        assertEquals(type, event.getType());
+        assertEquals(index0, event.getIndex0());
+        assertEquals(index1, event.getIndex1());
+    }
+}
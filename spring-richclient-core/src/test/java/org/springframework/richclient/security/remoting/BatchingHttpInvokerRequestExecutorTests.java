@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2002-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.TestCase;
+
+import org.springframework.remoting.httpinvoker.HttpInvokerClientConfiguration;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+
+/**
+ * Tests of {@link BatchingHttpInvokerRequestExecutor},
+ * {@link BatchingHttpInvokerServiceExporter} and the request compression of
+ * {@link BasicAuthHttpInvokerRequestExecutor}. The delegate of the batching
+ * executor passes its requests straight to the exporter instead of sending
+ * them over the network.
+ */
+public class BatchingHttpInvokerRequestExecutorTests extends TestCase {
+
+    private BatchingHttpInvokerServiceExporter exporter;
+
+    private final List requestEncodings = Collections.synchronizedList(new ArrayList());
+
+    private final List responseEncodings = Collections.synchronizedList(new ArrayList());
+
+    private final List echoed = Collections.synchronizedList(new ArrayList());
+
+    private LoopbackRequestExecutor delegate;
+
+    private BatchingHttpInvokerRequestExecutor executor;
+
+    private BasicAuthHttpInvokerProxyFactoryBean factoryBean;
+
+    private EchoService service;
+
+    protected void setUp() throws Exception {
+        exporter = new BatchingHttpInvokerServiceExporter();
+        exporter.setService(new EchoServiceImpl());
+        exporter.setServiceInterface(EchoService.class);
+        exporter.afterPropertiesSet();
+
+        delegate = new LoopbackRequestExecutor();
+        executor = new BatchingHttpInvokerRequestExecutor();
+        executor.setDelegate(delegate);
+        factoryBean = new BasicAuthHttpInvokerProxyFactoryBean();
+        factoryBean.setServiceUrl("http://localhost/echo");
+        factoryBean.setServiceInterface(EchoService.class);
+        factoryBean.setHttpInvokerRequestExecutor(executor);
+        factoryBean.afterPropertiesSet();
+        service = (EchoService) factoryBean.getObject();
+    }
+
+    public void testSingleInvocation() {
+        assertEquals("hello", service.echo("hello"));
+        assertEquals(1, requestEncodings.size());
+        try {
+            service.fail("expected");
+            fail("Expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("expected", e.getMessage());
+        }
+    }
+
+    public void testConcurrentInvocationsShareOneRequest() throws Exception {
+        final int threadCount = 5;
+        delegate.blockNextRequest();
+        final Object[] results = new Object[threadCount];
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        results[index] = index == 1 ? (Object) service.fail("failure") : service.echo("call " + index);
+                    }
+                    catch (Exception e) {
+                        results[index] = e;
+                    }
+                }
+            };
+        }
+
+        // the first invocation is sent alone, the others queue up meanwhile
+        threads[0].start();
+        delegate.awaitBlockedRequest();
+        for (int i = 1; i < threadCount; i++) {
+            threads[i].start();
+            awaitWaiting(threads[i]);
+        }
+        delegate.releaseBlockedRequest();
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].join(10000);
+        }
+
+        assertEquals("queued invocations should be sent in one request", 2, requestEncodings.size());
+        assertEquals("call 0", results[0]);
+        assertTrue(results[1] instanceof IllegalArgumentException);
+        for (int i = 2; i < threadCount; i++) {
+            assertEquals("call " + i, results[i]);
+        }
+    }
+
+    public void testInterruptedInvocationIsNotSent() throws Exception {
+        delegate.blockNextRequest();
+        Thread sender = new Thread() {
+            public void run() {
+                service.echo("first");
+            }
+        };
+        final Object[] result = new Object[1];
+        Thread interrupted = new Thread() {
+            public void run() {
+                try {
+                    result[0] = executor.executeRequest((HttpInvokerClientConfiguration) factoryBean,
+                            new RemoteInvocation("echo", new Class[] { String.class }, new Object[] { "orphan" }));
+                }
+                catch (Exception e) {
+                    result[0] = e;
+                }
+            }
+        };
+        sender.start();
+        delegate.awaitBlockedRequest();
+        interrupted.start();
+        awaitWaiting(interrupted);
+        interrupted.interrupt();
+        interrupted.join(10000);
+        assertTrue(result[0] instanceof InterruptedException);
+
+        delegate.releaseBlockedRequest();
+        sender.join(10000);
+        assertEquals("next", service.echo("next"));
+        assertEquals(2, requestEncodings.size());
+        assertEquals("the interrupted invocation should not be sent", 2, echoed.size());
+        assertFalse(echoed.contains("orphan"));
+    }
+
+    public void testCompression() {
+        delegate.setCompressionThreshold(512);
+        StringBuffer large = new StringBuffer();
+        for (int i = 0; i < 1000; i++) {
+            large.append("reference data ");
+        }
+
+        assertEquals("small", service.echo("small"));
+        assertEquals(large.toString(), service.echo(large.toString()));
+
+        assertEquals(null, requestEncodings.get(0));
+        assertEquals(null, responseEncodings.get(0));
+        assertEquals("gzip", requestEncodings.get(1));
+        assertEquals("gzip", responseEncodings.get(1));
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            if (!thread.isAlive()) {
+                fail(thread + " ended instead of waiting");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    public interface EchoService {
+
+        String echo(String message);
+
+        String fail(String message);
+    }
+
+    public class EchoServiceImpl implements EchoService {
+
+        public String echo(String message) {
+            echoed.add(message);
+            return message;
+        }
+
+        public String fail(String message) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Request executor whose connections pass the requests to the exporter.
+     * The next request can be blocked until the test releases it.
+     */
+    private class LoopbackRequestExecutor extends BasicAuthHttpInvokerRequestExecutor {
+
+        private CountDownLatch blocked;
+
+        private CountDownLatch release;
+
+        void blockNextRequest() {
+            blocked = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        void awaitBlockedRequest() throws InterruptedException {
+            blocked.await();
+        }
+
+        void releaseBlockedRequest() {
+            release.countDown();
+        }
+
+        protected RemoteInvocationResult doExecuteRequest(HttpInvokerClientConfiguration config,
+                ByteArrayOutputStream baos) throws IOException, ClassNotFoundException {
+            if (blocked != null && blocked.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    throw new IllegalStateException("Interrupted while blocked");
+                }
+            }
+            return super.doExecuteRequest(config, baos);
+        }
+
+        protected HttpURLConnection openConnection(HttpInvokerClientConfiguration config) throws IOException {
+            return new LoopbackConnection(new URL(config.getServiceUrl()));
+        }
+    }
+
+    /**
+     * Connection that hands the request body to the exporter once the response
+     * is read.
+     */
+    private class LoopbackConnection extends HttpURLConnection {
+
+        private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+
+        private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+
+        private final Map responseHeaders = new HashMap();
+
+        private boolean handled;
+
+        LoopbackConnection(URL url) {
+            super(url);
+        }
+
+        public void connect() {
+        }
+
+        public void disconnect() {
+        }
+
+        public boolean usingProxy() {
+            return false;
+        }
+
+        public OutputStream getOutputStream() {
+            return requestBody;
+        }
+
+        public int getResponseCode() throws IOException {
+            handle();
+            return HTTP_OK;
+        }
+
+        public String getHeaderField(String name) {
+            return (String) responseHeaders.get(name);
+        }
+
+        public InputStream getInputStream() throws IOException {
+            handle();
+            return new ByteArrayInputStream(responseBody.toByteArray());
+        }
+
+        private void handle() throws IOException {
+            if (handled) {
+                return;
+            }
+            handled = true;
+            requestEncodings.add(getRequestProperty("Content-Encoding"));
+            final InputStream body = new ByteArrayInputStream(requestBody.toByteArray());
+            HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class[] { HttpServletRequest.class }, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            if ("getHeader".equals(method.getName())) {
+                                return getRequestProperty((String) args[0]);
+                            }
+                            if ("getInputStream".equals(method.getName())) {
+                                return new ServletInputStream() {
+                                    public int read() throws IOException {
+                                        return body.read();
+                                    }
+                                };
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+            HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class[] { HttpServletResponse.class }, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            if ("setHeader".equals(method.getName())) {
+                                responseHeaders.put(args[0], args[1]);
+                            }
+                            else if ("getOutputStream".equals(method.getName())) {
+                                return new ServletOutputStream() {
+                                    public void write(int b) {
+                                        responseBody.write(b);
+                                    }
+                                };
+                            }
+                            else if (!"setContentType".equals(method.getName())
+                                    && !"setContentLength".equals(method.getName())) {
+                                throw new UnsupportedOperationException(method.getName());
+                            }
+                            return null;
+                        }
+                    });
+            try {
+                exporter.handleRequest(request, response);
+            }
+            catch (Exception e) {
+                throw new IOException(e.toString());
+            }
+            responseEncodings.add(responseHeaders.get("Content-Encoding"));
+        }
+    }
+}
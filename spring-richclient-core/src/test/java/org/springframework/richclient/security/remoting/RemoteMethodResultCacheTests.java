@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.security.remoting;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+import org.springframework.remoting.httpinvoker.HttpInvokerClientConfiguration;
+import org.springframework.remoting.httpinvoker.HttpInvokerRequestExecutor;
+import org.springframework.remoting.support.RemoteInvocation;
+import org.springframework.remoting.support.RemoteInvocationResult;
+import org.springframework.richclient.security.TestAuthenticationManager;
+
+/**
+ * Tests for {@link RemoteMethodResultCache}, using an in-process request
+ * executor instead of an HTTP connection.
+ */
+public class RemoteMethodResultCacheTests extends TestCase {
+
+    private LocalRequestExecutor executor;
+
+    private RemoteMethodResultCache cache;
+
+    private ReferenceDataService service;
+
+    protected void setUp() throws Exception {
+        executor = new LocalRequestExecutor(new ReferenceDataServiceImpl());
+        cache = new RemoteMethodResultCache();
+        Properties cachedMethods = new Properties();
+        cachedMethods.setProperty("get*", "60000");
+        cachedMethods.setProperty("expire*", "0");
+        cache.setCachedMethods(cachedMethods);
+
+        BasicAuthHttpInvokerProxyFactoryBean factoryBean = new BasicAuthHttpInvokerProxyFactoryBean();
+        factoryBean.setServiceUrl("http://localhost/referenceData");
+        factoryBean.setServiceInterface(ReferenceDataService.class);
+        factoryBean.setHttpInvokerRequestExecutor(executor);
+        factoryBean.setMethodResultCache(cache);
+        factoryBean.afterPropertiesSet();
+        service = (ReferenceDataService)factoryBean.getObject();
+    }
+
+    public void testResultsAreCachedByArguments() {
+        assertEquals("NL", service.getCode("nl"));
+        assertEquals("NL", service.getCode("nl"));
+        assertEquals("BE", service.getCode("be"));
+        assertEquals(2, executor.requestCount);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    public void testUncachedMethods() {
+        service.update("Netherlands");
+        service.update("Netherlands");
+        assertEquals(2, executor.requestCount);
+        assertEquals(0, cache.size());
+    }
+
+    public void testTimeToLive() {
+        service.expireCode("Netherlands");
+        service.expireCode("Netherlands");
+        assertEquals(2, executor.requestCount);
+    }
+
+    public void testMostSpecificPatternWins() {
+        Properties cachedMethods = new Properties();
+        cachedMethods.setProperty("*", "60000");
+        cachedMethods.setProperty("get*", "60000");
+        cachedMethods.setProperty("getCo*", "0");
+        cachedMethods.setProperty("*Code", "60000");
+        cachedMethods.setProperty("expire*", "60000");
+        cachedMethods.setProperty("expireCode", "0");
+        cachedMethods.setProperty("expireCod*", "60000");
+        cache.setCachedMethods(cachedMethods);
+
+        service.getCode("Netherlands");
+        service.getCode("Netherlands");
+        assertEquals("longest pattern wins", 2, executor.requestCount);
+
+        service.expireCode("Netherlands");
+        service.expireCode("Netherlands");
+        assertEquals("exact method name wins", 4, executor.requestCount);
+    }
+
+    public void testExceptionsAreNotCached() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                service.getCode(null);
+                fail("Expected IllegalArgumentException");
+            }
+            catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        assertEquals(2, executor.requestCount);
+    }
+
+    public void testInvalidate() {
+        service.getCode("Netherlands");
+        cache.invalidate("getCo*");
+        service.getCode("Netherlands");
+        cache.invalidateAll();
+        service.getCode("Netherlands");
+        assertEquals(3, executor.requestCount);
+    }
+
+    public void testMaxSize() {
+        cache.setMaxSize(2);
+        service.getCode("a");
+        service.getCode("b");
+        service.getCode("a");
+        service.getCode("c");
+        assertEquals(2, cache.size());
+        service.getCode("a");
+        assertEquals("least recently used result is dropped", 3, executor.requestCount);
+        service.getCode("b");
+        assertEquals(4, executor.requestCount);
+    }
+
+    public void testResultsArePartitionedPerUser() {
+        cache.userLogin(TestAuthenticationManager.VALID_USER1);
+        service.getCode("Netherlands");
+        service.getCode("Netherlands");
+        assertEquals(1, executor.requestCount);
+
+        cache.userLogout(TestAuthenticationManager.VALID_USER1);
+        assertEquals(0, cache.size());
+
+        cache.userLogin(TestAuthenticationManager.VALID_USER2);
+        service.getCode("Netherlands");
+        assertEquals("other users never get cached results", 2, executor.requestCount);
+    }
+
+    public interface ReferenceDataService {
+
+        String getCode(String name);
+
+        String expireCode(String name);
+
+        void update(String name);
+    }
+
+    public static class ReferenceDataServiceImpl implements ReferenceDataService {
+
+        public String getCode(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("name cannot be null");
+            }
+            return name.toUpperCase();
+        }
+
+        public String expireCode(String name) {
+            return getCode(name);
+        }
+
+        public void update(String name) {
+        }
+    }
+
+    private static class LocalRequestExecutor implements HttpInvokerRequestExecutor {
+
+        private final Object target;
+
+        int requestCount;
+
+        LocalRequestExecutor(Object target) {
+            this.target = target;
+        }
+
+        public RemoteInvocationResult executeRequest(HttpInvokerClientConfiguration config,
+                RemoteInvocation invocation) throws Exception {
+            requestCount++;
+            try {
+                return new RemoteInvocationResult(invocation.invoke(target));
+            }
+            catch (InvocationTargetException e) {
+                return new RemoteInvocationResult(e);
+            }
+        }
+    }
+}
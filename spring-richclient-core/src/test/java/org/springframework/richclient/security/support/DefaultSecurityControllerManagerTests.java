@@ -3,6 +3,8 @@
  */
 package org.springframework.richclient.security.support;
 
+import javax.swing.SwingUtilities;
+
 import junit.framework.TestCase;
 
 import org.springframework.context.support.ClassPathXmlApplicationContext;
@@ -84,7 +86,7 @@ public class DefaultSecurityControllerManagerTests extends TestCase {
     /**
      * Test the processing of beans referenced in the app context.
      */
-    public void testApplicationContext() {
+    public void testApplicationContext() throws Exception {
         ApplicationSecurityManager securityManager = (ApplicationSecurityManager)ApplicationServicesLocator.services().getService(ApplicationSecurityManager.class);
 
         int authorizeCount = 1;
@@ -104,6 +106,7 @@ public class DefaultSecurityControllerManagerTests extends TestCase {
         // Now login with ROLE_WRITE
         Authentication auth = TestAuthenticationManager.makeAuthentication( "test", "test", "ROLE_WRITE" );
         securityManager.doLogin( auth );
+        flushEventQueue();
 
         assertTrue( "Object should be authorized", cmdWrite.isAuthorized() );
         assertFalse( "Object should not be authorized", cmdAdmin.isAuthorized() );
@@ -114,6 +117,7 @@ public class DefaultSecurityControllerManagerTests extends TestCase {
         // Now login with ROLE_ADMIN
         auth = TestAuthenticationManager.makeAuthentication( "test", "test", "ROLE_ADMIN" );
         securityManager.doLogin( auth );
+        flushEventQueue();
 
         assertTrue( "Object should be authorized", cmdWrite.isAuthorized() );
         assertTrue( "Object should be authorized", cmdAdmin.isAuthorized() );
@@ -125,7 +129,7 @@ public class DefaultSecurityControllerManagerTests extends TestCase {
     /**
      * Test that the authorized state overrides the enabled state
      */
-    public void testAuthorizedOverridesEnabled() {
+    public void testAuthorizedOverridesEnabled() throws Exception {
         ApplicationSecurityManager securityManager = (ApplicationSecurityManager)ApplicationServicesLocator.services().getService(ApplicationSecurityManager.class);
         CommandManager cmgr = Application.instance().getActiveWindow().getCommandManager();
         ActionCommand cmdWrite = cmgr.getActionCommand( "cmdWrite" );
@@ -141,6 +145,7 @@ public class DefaultSecurityControllerManagerTests extends TestCase {
         // Now authorize it
         Authentication auth = TestAuthenticationManager.makeAuthentication( "test", "test", "ROLE_WRITE" );
         securityManager.doLogin( auth );
+        flushEventQueue();
 
         assertTrue( "Object should be authorized", cmdWrite.isAuthorized() );
         assertTrue( "Object should be enabled", cmdWrite.isEnabled() );
@@ -156,16 +161,28 @@ public class DefaultSecurityControllerManagerTests extends TestCase {
         cmdWrite.setEnabled( false );
         assertFalse( "Object should not be enabled", cmdWrite.isEnabled() );
         securityManager.doLogout();
+        flushEventQueue();
 
         assertFalse( "Object should not be authorized", cmdWrite.isAuthorized() );
         assertFalse( "Object should not be enabled", cmdWrite.isEnabled() );
 
         securityManager.doLogin( auth );
+        flushEventQueue();
 
         assertTrue( "Object should be authorized", cmdWrite.isAuthorized() );
         assertFalse( "Object should not be enabled", cmdWrite.isEnabled() );
     }
 
+    /**
+     * Waits until the authorization passes queued on the event dispatch thread have run.
+     */
+    private void flushEventQueue() throws Exception {
+        SwingUtilities.invokeAndWait( new Runnable() {
+            public void run() {
+            }
+        } );
+    }
+
     public static class TestApplicationWindowFactory implements ApplicationWindowFactory {
         public ApplicationWindow createApplicationWindow() {
             return new TestApplicationWindow();
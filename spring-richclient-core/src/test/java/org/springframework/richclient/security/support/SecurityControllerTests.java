@@ -4,6 +4,9 @@
 package org.springframework.richclient.security.support;
 
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import javax.swing.SwingUtilities;
 
 import junit.framework.TestCase;
 
@@ -36,7 +39,7 @@ public class SecurityControllerTests extends TestCase {
     /**
      * Test that setting the authentication token updates all controlled objects.
      */
-    public void testSetAuthenticationToken() {
+    public void testSetAuthenticationToken() throws Exception {
 
         // Validate that the controller updates the controlled objects whenever the
         // Authentication token is updated
@@ -55,12 +58,14 @@ public class SecurityControllerTests extends TestCase {
 
         // Now install a token, a should be updated
         controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO") );
+        flushEventQueue();
         assertTrue( "Object should be authorized", a1.isAuthorized() );
         assertEquals( "Object should be updated", a1.getAuthCount(), 1 );
         assertTrue( "Object should be authorized", a2.isAuthorized() );
         assertEquals( "Object should be updated", a2.getAuthCount(), 1 );
 
         controller.setAuthenticationToken( null );
+        flushEventQueue();
         assertFalse( "Object should not be authorized", a1.isAuthorized() );
         assertEquals( "Object should be updated", a1.getAuthCount(), 2 );
         assertFalse( "Object should not be authorized", a2.isAuthorized() );
@@ -71,6 +76,7 @@ public class SecurityControllerTests extends TestCase {
 
         // Now install a token, a should be updated
         controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO") );
+        flushEventQueue();
         assertFalse( "Object should not be authorized", a1.isAuthorized() );
         assertEquals( "Object should be updated", a1.getAuthCount(), 3 );
         assertFalse( "Object should not be authorized", a2.isAuthorized() );
@@ -102,24 +108,104 @@ public class SecurityControllerTests extends TestCase {
         assertTrue( "Object should be updated", a2.getAuthCount() == 1 );
     }
 
+    public void testSetControlledObjectsDecidesOnce() throws Exception {
+        accessDecisionManager.setDecisionValue( true );
+        controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO") );
+        flushEventQueue();
+        int decideCount = accessDecisionManager.getDecideCount();
+
+        ArrayList objects = new ArrayList();
+        for( int i = 0; i < 10; i++ ) {
+            objects.add( new TestAuthorizable( false ) );
+        }
+        controller.setControlledObjects( objects );
+        assertEquals( "Decision should be reused for the same authentication", decideCount,
+                accessDecisionManager.getDecideCount() );
+        for( int i = 0; i < objects.size(); i++ ) {
+            assertTrue( "Object should be authorized", ((TestAuthorizable) objects.get( i )).isAuthorized() );
+        }
+
+        accessDecisionManager.setDecisionValue( false );
+        controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO") );
+        flushEventQueue();
+        assertEquals( "Decision should be made again for a new authentication", decideCount + 1,
+                accessDecisionManager.getDecideCount() );
+        for( int i = 0; i < objects.size(); i++ ) {
+            assertFalse( "Object should not be authorized", ((TestAuthorizable) objects.get( i )).isAuthorized() );
+        }
+    }
+
     /**
-     * Test that added objects are initially configured.
+     * Test that a batch of objects is updated on the event dispatch thread.
      */
-    public void testAddControlledObject() {
+    public void testControlledObjectsUpdatedOnEventDispatchThread() throws Exception {
+        final boolean[] onEventDispatchThread = new boolean[1];
+        TestAuthorizable a = new TestAuthorizable( false ) {
+            public void setAuthorized(boolean authorized) {
+                super.setAuthorized( authorized );
+                onEventDispatchThread[0] = SwingUtilities.isEventDispatchThread();
+            }
+        };
+        controller.addControlledObject( a );
+        accessDecisionManager.setDecisionValue( true );
 
-        // Install an authentication token
         controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO") );
+        flushEventQueue();
+        assertTrue( "Object should be authorized", a.isAuthorized() );
+        assertTrue( "Object should be updated on the event dispatch thread", onEventDispatchThread[0] );
+    }
+
+    /**
+     * Test that authorization passes superseded before they ran are skipped.
+     */
+    public void testSupersededPassesAreSkipped() throws Exception {
+        TestAuthorizable a = new TestAuthorizable( false );
+        controller.addControlledObject( a );
+        a.resetAuthCount();
+        accessDecisionManager.setDecisionValue( true );
+
+        // Keep the event dispatch thread busy while the tokens change
+        final CountDownLatch release = new CountDownLatch( 1 );
+        SwingUtilities.invokeLater( new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } );
+        controller.setAuthenticationToken( new TestingAuthenticationToken( "USER1", "FOO") );
+        controller.setAuthenticationToken( null );
+        controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO") );
+        release.countDown();
+        flushEventQueue();
+
+        assertTrue( "Object should be authorized", a.isAuthorized() );
+        assertEquals( "Only the last pass should update the object", 1, a.getAuthCount() );
+    }
+
+    /**
+     * Test that added objects are initially configured.
+     */
+    public void testAddControlledObject() throws Exception {
 
         // Set the decision manager to authorize
         accessDecisionManager.setDecisionValue( true );
 
+        // Install an authentication token
+        controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO") );
+        flushEventQueue();
+
         TestAuthorizable a1 = new TestAuthorizable( false );
         controller.addControlledObject( a1 );
         assertTrue( "Object should be authorized", a1.isAuthorized() );
         assertTrue( "Object should be updated", a1.getAuthCount() == 1 );
 
-        // Set the decision manager to NOT authorize
+        // Set the decision manager to NOT authorize, decisions are made again for a new token
         accessDecisionManager.setDecisionValue( false );
+        controller.setAuthenticationToken( new TestingAuthenticationToken( "USER3", "FOO") );
+        flushEventQueue();
 
         TestAuthorizable a2 = new TestAuthorizable( true );
         controller.addControlledObject( a2 );
@@ -130,7 +216,7 @@ public class SecurityControllerTests extends TestCase {
     /**
      * Test that once removed an object is no longer updated.
      */
-    public void testRemoveControlledObject() {
+    public void testRemoveControlledObject() throws Exception {
         TestAuthorizable a = new TestAuthorizable( true );
         controller.addControlledObject( a );
         assertFalse( "Object should not be authorized", a.isAuthorized() );
@@ -142,11 +228,22 @@ public class SecurityControllerTests extends TestCase {
         // Set the decision manager to authorize
         accessDecisionManager.setDecisionValue( true );
         controller.setAuthenticationToken( new TestingAuthenticationToken( "USER2", "FOO" ) );
+        flushEventQueue();
 
         assertFalse( "Object should not be authorized", a.isAuthorized() );
         assertTrue( "Object should not be updated", a.getAuthCount() == 0 );
     }
 
+    /**
+     * Waits until the authorization passes queued on the event dispatch thread have run.
+     */
+    private void flushEventQueue() throws Exception {
+        SwingUtilities.invokeAndWait( new Runnable() {
+            public void run() {
+            }
+        } );
+    }
+
     /**
      * Concrete implementation under test.
      */
@@ -171,12 +268,19 @@ public class SecurityControllerTests extends TestCase {
 
         private boolean decisionValue;
 
+        private int decideCount;
+
         public void setDecisionValue(boolean decisionValue) {
             this.decisionValue = decisionValue;
         }
 
+        public int getDecideCount() {
+            return decideCount;
+        }
+
         public void decide(Authentication authentication, Object object, ConfigAttributeDefinition config)
                 throws AccessDeniedException {
+            decideCount++;
             if( !decisionValue) {
                 throw new AccessDeniedException( "access denied" );
             }
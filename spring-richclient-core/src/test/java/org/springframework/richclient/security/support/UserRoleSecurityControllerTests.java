@@ -5,6 +5,8 @@ package org.springframework.richclient.security.support;
 
 import java.util.Iterator;
 
+import javax.swing.SwingUtilities;
+
 import junit.framework.TestCase;
 
 import org.springframework.security.Authentication;
@@ -51,7 +53,7 @@ public class UserRoleSecurityControllerTests extends TestCase {
      * Test that objects are properly authorized when the user holds any of the indicated
      * roles.
      */
-    public void testAuthorization() {
+    public void testAuthorization() throws Exception {
         controller.setAuthorizingRoles( "ROLE_1,ROLE_2" );
 
         TestAuthorizable a1 = new TestAuthorizable( false );
@@ -63,6 +65,7 @@ public class UserRoleSecurityControllerTests extends TestCase {
         Authentication auth = new TestingAuthenticationToken( "USER1", "FOO",
             new GrantedAuthority[] { new GrantedAuthorityImpl( "ROLE_1" ) } );
         controller.setAuthenticationToken( auth );
+        flushEventQueue();
 
         assertTrue( "Object should be authorized", a1.isAuthorized() );
         assertEquals( "Object should be updated", a1.getAuthCount(), 2 );
@@ -71,17 +74,29 @@ public class UserRoleSecurityControllerTests extends TestCase {
         auth = new TestingAuthenticationToken( "USER1", "FOO", new GrantedAuthority[] { new GrantedAuthorityImpl(
             "ROLE_NOTFOUND" ) } );
         controller.setAuthenticationToken( auth );
+        flushEventQueue();
 
         assertFalse( "Object should not be authorized", a1.isAuthorized() );
         assertEquals( "Object should be updated", a1.getAuthCount(), 3 );
 
         // Now to a null
         controller.setAuthenticationToken( null );
+        flushEventQueue();
 
         assertFalse( "Object should not be authorized", a1.isAuthorized() );
         assertEquals( "Object should be updated", a1.getAuthCount(), 4 );
     }
 
+    /**
+     * Waits until the authorization passes queued on the event dispatch thread have run.
+     */
+    private void flushEventQueue() throws Exception {
+        SwingUtilities.invokeAndWait( new Runnable() {
+            public void run() {
+            }
+        } );
+    }
+
     /**
      * More accessible implementation.
      */
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.richclient.text;
+
+import javax.swing.text.html.HTMLDocument;
+
+import junit.framework.TestCase;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Tests for {@link HtmlDocumentLoader} and {@link HtmlDocumentCache}.
+ */
+public class HtmlDocumentLoaderTests extends TestCase {
+
+    private HtmlDocumentCache cache;
+
+    private HtmlDocumentLoader loader;
+
+    protected void setUp() throws Exception {
+        cache = new HtmlDocumentCache(2);
+        loader = new HtmlDocumentLoader(new AsynchronousHTMLEditorKit(), cache);
+    }
+
+    public void testLoadDocument() throws Exception {
+        HTMLDocument document = loader.loadDocument(page("first"));
+        assertEquals("first", document.getText(0, document.getLength()).trim());
+        assertSame(HtmlImageCache.getSharedInstance(), document.getProperty(HtmlImageCache.IMAGE_CACHE_PROPERTY));
+        assertTrue(HtmlDocumentCache.isShared(document));
+    }
+
+    public void testCachedDocumentIsReused() throws Exception {
+        HTMLDocument document = loader.loadDocument(page("first"));
+        assertSame(document, loader.getCachedDocument(page("first")));
+        assertSame(document, loader.loadDocument(page("first")));
+    }
+
+    public void testLeastRecentlyUsedDocumentIsEvicted() throws Exception {
+        HTMLDocument first = loader.loadDocument(page("first"));
+        loader.loadDocument(page("second"));
+        loader.loadDocument(page("first"));
+        loader.loadDocument(page("third"));
+        assertEquals(2, cache.size());
+        assertSame(first, cache.get(page("first")));
+        assertNull(cache.get(page("second")));
+    }
+
+    public void testWithoutCache() throws Exception {
+        loader = new HtmlDocumentLoader(new SynchronousHTMLEditorKit());
+        HTMLDocument document = loader.loadDocument(page("first"));
+        assertNotSame(document, loader.loadDocument(page("first")));
+        assertFalse(HtmlDocumentCache.isShared(document));
+        assertEquals(-1, document.getAsynchronousLoadPriority());
+    }
+
+    private Resource page(String body) {
+        return new ByteArrayResource(("<html><body>" + body + "</body></html>").getBytes());
+    }
+}
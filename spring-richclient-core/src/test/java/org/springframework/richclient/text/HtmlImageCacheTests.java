@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.richclient.text;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.net.URL;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link HtmlImageCache}.
+ */
+public class HtmlImageCacheTests extends TestCase {
+
+    public void testEvictionDoesNotFlushImages() throws Exception {
+        HtmlImageCache cache = new HtmlImageCache(1) {
+            protected Image createImage(URL url) {
+                return new FlushCountingImage();
+            }
+        };
+        FlushCountingImage first = (FlushCountingImage) cache.get(new URL("http://localhost/first.png"));
+        assertSame(first, cache.get(new URL("http://localhost/first.png")));
+
+        FlushCountingImage second = (FlushCountingImage) cache.get(new URL("http://localhost/second.png"));
+        assertEquals(1, cache.size());
+        assertEquals("evicted images may still be shown by other documents", 0, first.flushCount);
+
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        assertEquals(0, second.flushCount);
+    }
+
+    private static class FlushCountingImage extends BufferedImage {
+
+        private int flushCount;
+
+        public FlushCountingImage() {
+            super(1, 1, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        public void flush() {
+            flushCount++;
+            super.flush();
+        }
+    }
+}
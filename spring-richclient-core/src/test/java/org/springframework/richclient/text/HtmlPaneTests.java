@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.richclient.text;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+import javax.swing.text.Document;
+
+import junit.framework.TestCase;
+
+import org.springframework.core.io.ByteArrayResource;
+
+/**
+ * Tests for the asynchronous loading of {@link HtmlPane}.
+ */
+public class HtmlPaneTests extends TestCase {
+
+    public void testSetTextDiscardsPendingPage() throws Exception {
+        final HtmlPane pane = new HtmlPane(false, true);
+        pane.setDocumentCache(null);
+        final BlockingResource page = new BlockingResource("first");
+
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                try {
+                    pane.setPage(page);
+                }
+                catch (IOException e) {
+                    throw new IllegalStateException(e.getMessage());
+                }
+                pane.setText("<html><body>second</body></html>");
+            }
+        });
+        final Document document = pane.getDocument();
+        page.release.countDown();
+        assertTrue(page.read.await(5, TimeUnit.SECONDS));
+
+        // give the loader the chance to (wrongly) install the page
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(20);
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                }
+            });
+        }
+        assertSame(document, pane.getDocument());
+        assertEquals("second", document.getText(0, document.getLength()).trim());
+    }
+
+    /**
+     * A page that can only be read once it is released.
+     */
+    private static class BlockingResource extends ByteArrayResource {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final CountDownLatch read = new CountDownLatch(1);
+
+        public BlockingResource(String body) {
+            super(("<html><body>" + body + "</body></html>").getBytes());
+        }
+
+        public InputStream getInputStream() throws IOException {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                throw new IOException("interrupted");
+            }
+            read.countDown();
+            return super.getInputStream();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2007 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.util;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link AnimationTimer}. Frames are produced by calling
+ * {@link AnimationTimer#tick(long)} directly instead of waiting for the timer.
+ */
+public class AnimationTimerTests extends TestCase {
+
+	private AnimationTimer timer;
+
+	private ShowingPanel component;
+
+	private FrameCounter frames;
+
+	protected void setUp() throws Exception {
+		timer = new AnimationTimer();
+		timer.setRemoteSession(false);
+		component = new ShowingPanel();
+		component.setSize(100, 100);
+		frames = new FrameCounter();
+	}
+
+	protected void tearDown() throws Exception {
+		timer.remove(frames);
+	}
+
+	public void testFrameRate() {
+		timer.add(component, 10, frames);
+		assertTrue(timer.isRunning(frames));
+
+		timer.tick(1000);
+		timer.tick(1050);
+		timer.tick(1100);
+		timer.tick(1150);
+		assertEquals(2, frames.count);
+
+		timer.remove(frames);
+		assertFalse(timer.isRunning(frames));
+		timer.tick(2000);
+		assertEquals(2, frames.count);
+	}
+
+	public void testNoFramesWhenNotShowing() {
+		component.showing = false;
+		timer.add(component, 10, frames);
+		timer.tick(1000);
+		timer.tick(2000);
+		assertEquals(0, frames.count);
+	}
+
+	public void testTimerStopsWhileNotShowing() {
+		timer.add(component, 10, frames);
+		assertTrue(timer.isTimerRunning());
+
+		component.showing = false;
+		timer.tick(1000);
+		assertFalse("no component showing", timer.isTimerRunning());
+		assertTrue(timer.isRunning(frames));
+
+		component.showing = true;
+		component.fireShowingChanged();
+		assertTrue(timer.isTimerRunning());
+	}
+
+	public void testAnimationsOfUndisplayableComponentsAreRemoved() {
+		timer.add(component, 10, frames);
+		component.displayable = false;
+		timer.tick(1000);
+		assertFalse(timer.isRunning(frames));
+		assertFalse(timer.isTimerRunning());
+		assertEquals(0, component.getHierarchyListeners().length);
+	}
+
+	public void testAnimationsAreRemovedWhenTheWindowIsDisposed() {
+		timer.add(component, 10, frames);
+		component.showing = false;
+		component.displayable = false;
+		component.fireHierarchyChanged(HierarchyEvent.DISPLAYABILITY_CHANGED | HierarchyEvent.SHOWING_CHANGED);
+		assertFalse(timer.isRunning(frames));
+		assertFalse(timer.isTimerRunning());
+		assertEquals(0, component.getHierarchyListeners().length);
+	}
+
+	public void testObscuredAndRemoteSlowdown() {
+		component.setSize(0, 0);
+		timer.add(component, 10, frames);
+		timer.tick(1000);
+		timer.tick(1300);
+		assertEquals("obscured components animate 4 times slower", 1, frames.count);
+		timer.tick(1400);
+		assertEquals(2, frames.count);
+
+		component.setSize(100, 100);
+		timer.setRemoteSession(true);
+		timer.tick(1600);
+		assertEquals("remote sessions animate 3 times slower", 2, frames.count);
+		timer.tick(1700);
+		assertEquals(3, frames.count);
+	}
+
+	public void testInvalidArguments() {
+		try {
+			timer.add(component, 0, frames);
+			fail("Expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			timer.setObscuredSlowdown(0);
+			fail("Expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static class ShowingPanel extends JPanel {
+
+		private boolean showing = true;
+
+		private boolean displayable = true;
+
+		public boolean isShowing() {
+			return showing;
+		}
+
+		public boolean isDisplayable() {
+			return displayable;
+		}
+
+		void fireShowingChanged() {
+			fireHierarchyChanged(HierarchyEvent.SHOWING_CHANGED);
+		}
+
+		void fireHierarchyChanged(long changeFlags) {
+			processEvent(new HierarchyEvent(this, HierarchyEvent.HIERARCHY_CHANGED, this, getParent(), changeFlags));
+		}
+	}
+
+	private static class FrameCounter implements ActionListener {
+
+		private int count;
+
+		public void actionPerformed(ActionEvent e) {
+			assertTrue(e.getSource() instanceof JComponent);
+			count++;
+		}
+	}
+}
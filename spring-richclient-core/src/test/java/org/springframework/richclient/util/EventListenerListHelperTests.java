@@ -344,6 +344,91 @@ public class EventListenerListHelperTests extends TestCase {
 
 	}
 
+	/**
+	 * Test method for
+	 * {@link EventListenerListHelper#dispatch(ListenerInvoker, Object, Object)}.
+	 */
+	public void testDispatch() {
+
+		EventListenerListHelper listHelper = new EventListenerListHelper(DummyEventListener.class);
+		ListenerInvoker onEvent1 = new ListenerInvoker() {
+			public void invoke(Object listener, Object arg1, Object arg2) {
+				((DummyEventListener) listener).onEvent1();
+			}
+		};
+		ListenerInvoker onEvent3 = new ListenerInvoker() {
+			public void invoke(Object listener, Object arg1, Object arg2) {
+				((DummyEventListener) listener).onEvent3(arg1, arg2);
+			}
+		};
+		String arg1 = "arg1";
+		String arg2 = "arg2";
+
+		listHelper.dispatch(onEvent1);
+
+		DummyEventListener listener1 = (DummyEventListener) EasyMock.createMock(DummyEventListener.class);
+		DummyEventListener listener2 = (DummyEventListener) EasyMock.createMock(DummyEventListener.class);
+		listener1.onEvent1();
+		listener1.onEvent3(arg1, null);
+		listener1.onEvent3(arg1, arg2);
+		listener2.onEvent1();
+		listener2.onEvent3(arg1, null);
+		listener2.onEvent3(arg1, arg2);
+		EasyMock.replay(listener1);
+		EasyMock.replay(listener2);
+
+		listHelper.add(listener1);
+		listHelper.add(listener1);
+		listHelper.add(listener2);
+
+		listHelper.dispatch(onEvent1);
+		listHelper.dispatch(onEvent3, arg1);
+		listHelper.dispatch(onEvent3, arg1, arg2);
+
+		EasyMock.verify(listener1);
+		EasyMock.verify(listener2);
+
+	}
+
+	/**
+	 * Confirms that listeners removed while an event is dispatched still
+	 * receive that event, and that listener exceptions are wrapped like they
+	 * are by the <code>fire</code> methods.
+	 */
+	public void testDispatchWhileModifyingListeners() {
+
+		final EventListenerListHelper listHelper = new EventListenerListHelper(Object.class);
+		final StringBuffer notified = new StringBuffer();
+		final Object listener1 = "1";
+		final Object listener2 = "2";
+		ListenerInvoker invoker = new ListenerInvoker() {
+			public void invoke(Object listener, Object arg1, Object arg2) {
+				notified.append(listener);
+				listHelper.remove(listener2);
+			}
+		};
+		listHelper.add(listener1);
+		listHelper.add(listener2);
+
+		listHelper.dispatch(invoker);
+		Assert.assertEquals("12", notified.toString());
+		Assert.assertEquals(1, listHelper.getListenerCount());
+
+		final IllegalStateException exception = new IllegalStateException();
+		try {
+			listHelper.dispatch(new ListenerInvoker() {
+				public void invoke(Object listener, Object arg1, Object arg2) {
+					throw exception;
+				}
+			});
+			Assert.fail("Should have thrown an EventBroadcastException");
+		}
+		catch (EventListenerListHelper.EventBroadcastException e) {
+			Assert.assertSame(exception, e.getCause());
+		}
+
+	}
+
 	/**
 	 * Test method for {@link EventListenerListHelper#add(java.lang.Object)}.
 	 */
@@ -0,0 +1,348 @@
+package org.springframework.richclient.widget.editor.provider;
+
+import junit.framework.TestCase;
+import org.springframework.richclient.widget.editor.provider.DataProvider.RefreshPolicy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Observable;
+
+/**
+ * Tests for {@link CachingDataProvider}.
+ */
+public class CachingDataProviderTests extends TestCase
+{
+
+    private ItemDataProvider itemDataProvider;
+
+    private CachingDataProvider dataProvider;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        itemDataProvider = new ItemDataProvider("apple", "avocado", "banana");
+        dataProvider = new CachingDataProvider(itemDataProvider);
+    }
+
+    public void testListsAreCachedByCriteria()
+    {
+        Criteria criteria = new Criteria("a");
+        assertEquals(Arrays.asList("apple", "avocado"), dataProvider.getList(criteria));
+        criteria.prefix = "b";
+        assertEquals("modified criteria are a different key", Arrays.asList("banana"), dataProvider.getList(criteria));
+        assertEquals(Arrays.asList("apple", "avocado"), dataProvider.getList(new Criteria("a")));
+        assertEquals(2, itemDataProvider.listCalls);
+        assertEquals(1, dataProvider.getListHitCount());
+        assertEquals(2, dataProvider.getListMissCount());
+
+        dataProvider.getList(new Criteria("a")).clear();
+        assertEquals("callers get a copy", 2, dataProvider.getList(new Criteria("a")).size());
+    }
+
+    public void testDetailObjects()
+    {
+        assertEquals("APPLE", dataProvider.getDetailObject("apple", false));
+        assertEquals("APPLE", dataProvider.getDetailObject("apple", false));
+        assertEquals(1, itemDataProvider.detailCalls);
+        dataProvider.getDetailObject("apple", true);
+        assertEquals("forceLoad bypasses the cache", 2, itemDataProvider.detailCalls);
+        assertEquals(1.0 / 3, dataProvider.getHitRatio(), 0.001);
+    }
+
+    public void testUpdateAndDeleteArePatchedIntoCachedLists()
+    {
+        dataProvider.getList(new Criteria("a"));
+        dataProvider.getDetailObject("apple", false);
+        TestListener listener = new TestListener();
+        dataProvider.addDataProviderListener(listener);
+
+        dataProvider.update("apple");
+        assertEquals(Arrays.asList("apple2", "avocado"), dataProvider.getList(new Criteria("a")));
+        assertEquals(1, itemDataProvider.listCalls);
+        assertEquals("listeners get the events of the decorated dataProvider", 1, listener.events.size());
+        dataProvider.getDetailObject("apple", false);
+        assertEquals("updated details are reloaded", 2, itemDataProvider.detailCalls);
+
+        itemDataProvider.delete("avocado");
+        assertEquals(Arrays.asList("apple2"), dataProvider.getList(new Criteria("a")));
+        assertEquals(1, itemDataProvider.listCalls);
+        assertEquals(1, dataProvider.getCachedRowCount());
+    }
+
+    public void testCreateDropsListsUnlessCriteriaCanBeMatched()
+    {
+        dataProvider.getList(new Criteria("a"));
+        dataProvider.create("apricot");
+        assertEquals(0, dataProvider.getCachedListCount());
+
+        dataProvider = new CachingDataProvider(itemDataProvider)
+        {
+            @Override
+            protected Boolean matchesCriteria(Object criteria, Object entity)
+            {
+                return Boolean.valueOf(((Criteria) criteria).matches((String) entity));
+            }
+        };
+        dataProvider.getList(new Criteria("a"));
+        dataProvider.getList(new Criteria("b"));
+        dataProvider.create("almond");
+        assertEquals(2, dataProvider.getCachedListCount());
+        assertTrue(dataProvider.getList(new Criteria("a")).contains("almond"));
+        assertFalse(dataProvider.getList(new Criteria("b")).contains("almond"));
+    }
+
+    public void testMaxCachedRows()
+    {
+        dataProvider.setMaxCachedRows(2);
+        dataProvider.getList(new Criteria("a"));
+        dataProvider.getList(new Criteria("b"));
+        assertEquals("least recently used list is dropped", 1, dataProvider.getCachedListCount());
+        assertEquals(1, dataProvider.getCachedRowCount());
+        dataProvider.getList(new Criteria(""));
+        assertEquals("lists larger than the maximum aren't cached", 1, dataProvider.getCachedListCount());
+    }
+
+    public void testUserSwitchClearsCache()
+    {
+        dataProvider.getList(new Criteria("a"));
+        dataProvider.userLogout(null);
+        dataProvider.getList(new Criteria("a"));
+        assertEquals(2, itemDataProvider.listCalls);
+    }
+
+    public void testAllwaysRefreshedListsAreNotCached()
+    {
+        itemDataProvider.refreshPolicy = RefreshPolicy.ALLWAYS;
+        dataProvider.getList(new Criteria("a"));
+        dataProvider.getList(new Criteria("a"));
+        assertEquals(2, itemDataProvider.listCalls);
+        assertEquals(0, dataProvider.getCachedListCount());
+        assertEquals(2, dataProvider.getListMissCount());
+    }
+
+    public void testTimeToLive()
+    {
+        final long[] now = {1000};
+        dataProvider = new CachingDataProvider(itemDataProvider)
+        {
+            @Override
+            protected long currentTimeMillis()
+            {
+                return now[0];
+            }
+        };
+        dataProvider.setTimeToLive(100);
+        dataProvider.getList(new Criteria("a"));
+        now[0] += 99;
+        dataProvider.getList(new Criteria("a"));
+        assertEquals(1, itemDataProvider.listCalls);
+        now[0] += 1;
+        dataProvider.getList(new Criteria("a"));
+        assertEquals("expired lists are fetched again", 2, itemDataProvider.listCalls);
+        assertEquals(2, dataProvider.getCachedRowCount());
+    }
+
+    public void testClearForcesRefresh()
+    {
+        dataProvider.getList(new Criteria("a"));
+        dataProvider.clear();
+        dataProvider.getList(new Criteria("a"));
+        assertEquals(2, itemDataProvider.listCalls);
+    }
+
+    public void testListsFetchedWhileBaseCriteriaChangeAreNotCached()
+    {
+        final BaseCriteriaDataProvider baseCriteriaDataProvider = new BaseCriteriaDataProvider("apple", "avocado",
+                "banana");
+        itemDataProvider = baseCriteriaDataProvider;
+        dataProvider = new CachingDataProvider(baseCriteriaDataProvider);
+        dataProvider.setBaseCriteria("a");
+        baseCriteriaDataProvider.onGetList = new Runnable()
+        {
+            public void run()
+            {
+                dataProvider.setBaseCriteria("b");
+            }
+        };
+        assertEquals(Arrays.asList("banana"), dataProvider.getList(new Criteria("")));
+        assertEquals(0, dataProvider.getCachedListCount());
+
+        dataProvider.setBaseCriteria("a");
+        assertEquals(Arrays.asList("apple", "avocado"), dataProvider.getList(new Criteria("")));
+        assertEquals(2, itemDataProvider.listCalls);
+        dataProvider.setBaseCriteria("a");
+        dataProvider.getList(new Criteria(""));
+        assertEquals("setting the same base criteria keeps the cache", 2, itemDataProvider.listCalls);
+    }
+
+    public static class Criteria implements Serializable
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        private String prefix;
+
+        public Criteria(String prefix)
+        {
+            this.prefix = prefix;
+        }
+
+        public boolean matches(String item)
+        {
+            return item.startsWith(prefix);
+        }
+    }
+
+    private static class TestListener implements DataProviderListener
+    {
+
+        private final List<Object> events = new ArrayList<Object>();
+
+        public void update(Observable o, Object arg)
+        {
+            events.add(arg);
+        }
+    }
+
+    private static class ItemDataProvider extends AbstractDataProvider
+    {
+
+        private final List<String> items;
+
+        private int listCalls;
+
+        private int detailCalls;
+
+        private RefreshPolicy refreshPolicy = RefreshPolicy.ON_USER_SWITCH;
+
+        public ItemDataProvider(String... items)
+        {
+            this.items = new ArrayList<String>(Arrays.asList(items));
+        }
+
+        public List getList(Object criteria)
+        {
+            listCalls++;
+            List<String> result = new ArrayList<String>();
+            for (Iterator<String> i = items.iterator(); i.hasNext();)
+            {
+                String item = i.next();
+                if (((Criteria) criteria).matches(item))
+                    result.add(item);
+            }
+            return result;
+        }
+
+        @Override
+        public RefreshPolicy getRefreshPolicy()
+        {
+            return refreshPolicy;
+        }
+
+        @Override
+        protected Object loadDetailObject(Object baseObject)
+        {
+            detailCalls++;
+            return ((String) baseObject).toUpperCase();
+        }
+
+        @Override
+        protected boolean isDetailObject(Object objectToCheck)
+        {
+            return false;
+        }
+
+        @Override
+        public Object doUpdate(Object updatedData)
+        {
+            String updated = updatedData + "2";
+            items.set(items.indexOf(updatedData), updated);
+            return updated;
+        }
+
+        @Override
+        public Object doCreate(Object newData)
+        {
+            items.add((String) newData);
+            return newData;
+        }
+
+        @Override
+        public void doDelete(Object dataToRemove)
+        {
+            items.remove(dataToRemove);
+        }
+
+        public boolean supportsFiltering()
+        {
+            return true;
+        }
+
+        public boolean supportsUpdate()
+        {
+            return true;
+        }
+
+        public boolean supportsCreate()
+        {
+            return true;
+        }
+
+        public boolean supportsClone()
+        {
+            return false;
+        }
+
+        public boolean supportsDelete()
+        {
+            return true;
+        }
+    }
+
+    private static class BaseCriteriaDataProvider extends ItemDataProvider
+    {
+
+        private String baseCriteria;
+
+        private Runnable onGetList;
+
+        public BaseCriteriaDataProvider(String... items)
+        {
+            super(items);
+        }
+
+        @Override
+        public List getList(Object criteria)
+        {
+            if (onGetList != null)
+            {
+                Runnable runnable = onGetList;
+                onGetList = null;
+                runnable.run();
+            }
+            List<String> result = new ArrayList<String>();
+            for (Iterator i = super.getList(criteria).iterator(); i.hasNext();)
+            {
+                String item = (String) i.next();
+                if (item.startsWith(baseCriteria))
+                    result.add(item);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean supportsBaseCriteria()
+        {
+            return true;
+        }
+
+        @Override
+        public void setBaseCriteria(Object criteria)
+        {
+            this.baseCriteria = (String) criteria;
+        }
+    }
+}
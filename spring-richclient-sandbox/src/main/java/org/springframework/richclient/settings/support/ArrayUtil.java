@@ -15,19 +15,210 @@
  */
 package org.springframework.richclient.settings.support;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 
 /**
- * Utility class for converting a String array to an int array
+ * Utility class for converting a String array to an int array, and for
+ * encoding int arrays as strings.
+ * <p>
+ * Besides the comma separated form, int arrays can be encoded in a compact
+ * form for large arrays such as the column widths of wide tables or the
+ * expansion state of large trees: {@link #asCompactString(int[])} stores each
+ * value as a variable length number and {@link #asBitString(int[])} stores
+ * 0/1 flags as single bits, both Base64 encoded. {@link #parseIntArray(String)}
+ * reads all forms, so settings written in the comma separated form remain
+ * readable.
  * 
  * @author Peter De Bruycker
  */
 public class ArrayUtil {
 
+    /**
+     * Prefix of the compact form of an int array.
+     */
+    public static final char COMPACT_PREFIX = '~';
+
+    /**
+     * Prefix of the bit form of an array of 0/1 flags.
+     */
+    public static final char BIT_PREFIX = '#';
+
+    private static final char[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+            .toCharArray();
+
     private ArrayUtil() {
 
     }
 
+    /**
+     * Parses an int array from its comma separated, compact or bit form.
+     * 
+     * @param string the encoded array
+     * @return the array, empty if the string is empty
+     * @throws IllegalArgumentException if the string isn't a valid encoding
+     */
+    public static int[] parseIntArray(String string) throws IllegalArgumentException {
+        if (string == null || string.length() == 0) {
+            return new int[0];
+        }
+        if (string.charAt(0) == COMPACT_PREFIX) {
+            return fromCompactString(string);
+        }
+        if (string.charAt(0) == BIT_PREFIX) {
+            return fromBitString(string);
+        }
+        return toIntArray(string.split(","));
+    }
+
+    /**
+     * Returns the comma separated form of the given array.
+     */
+    public static String asString(int[] array) {
+        StringBuffer sb = new StringBuffer(array.length * 4);
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(array[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the compact form of the given array: each value is stored as a
+     * variable length number of 7 bit groups (small values take a single
+     * byte), and the bytes are Base64 encoded.
+     */
+    public static String asCompactString(int[] array) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(array.length * 2);
+        for (int i = 0; i < array.length; i++) {
+            // zigzag, so small negative values stay small as well
+            int value = (array[i] << 1) ^ (array[i] >> 31);
+            while ((value & ~0x7F) != 0) {
+                bytes.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes.write(value);
+        }
+        return COMPACT_PREFIX + encodeBase64(bytes.toByteArray());
+    }
+
+    /**
+     * Returns the bit form of the given array of flags: the length followed by
+     * one bit per flag, Base64 encoded. Values other than 0 are stored as 1.
+     */
+    public static String asBitString(int[] flags) {
+        byte[] bytes = new byte[4 + (flags.length + 7) / 8];
+        bytes[0] = (byte) (flags.length >>> 24);
+        bytes[1] = (byte) (flags.length >>> 16);
+        bytes[2] = (byte) (flags.length >>> 8);
+        bytes[3] = (byte) flags.length;
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i] != 0) {
+                bytes[4 + i / 8] |= 1 << (i % 8);
+            }
+        }
+        return BIT_PREFIX + encodeBase64(bytes);
+    }
+
+    private static int[] fromCompactString(String string) {
+        byte[] bytes = decodeBase64(string.substring(1));
+        int[] result = new int[bytes.length];
+        int count = 0;
+        int i = 0;
+        while (i < bytes.length) {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                if (i == bytes.length || shift > 28) {
+                    throw new IllegalArgumentException("Invalid compact array: " + string);
+                }
+                b = bytes[i++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            result[count++] = (value >>> 1) ^ -(value & 1);
+        }
+        int[] trimmed = new int[count];
+        System.arraycopy(result, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    private static int[] fromBitString(String string) {
+        byte[] bytes = decodeBase64(string.substring(1));
+        if (bytes.length < 4) {
+            throw new IllegalArgumentException("Invalid bit array: " + string);
+        }
+        int length = ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8)
+                | (bytes[3] & 0xFF);
+        if (length < 0 || bytes.length != 4 + (length + 7) / 8) {
+            throw new IllegalArgumentException("Invalid bit array: " + string);
+        }
+        int[] flags = new int[length];
+        for (int i = 0; i < length; i++) {
+            flags[i] = (bytes[4 + i / 8] >> (i % 8)) & 1;
+        }
+        return flags;
+    }
+
+    private static String encodeBase64(byte[] bytes) {
+        StringBuffer sb = new StringBuffer((bytes.length + 2) / 3 * 4);
+        for (int i = 0; i < bytes.length; i += 3) {
+            int b0 = bytes[i] & 0xFF;
+            int b1 = i + 1 < bytes.length ? bytes[i + 1] & 0xFF : 0;
+            int b2 = i + 2 < bytes.length ? bytes[i + 2] & 0xFF : 0;
+            sb.append(BASE64[b0 >> 2]);
+            sb.append(BASE64[((b0 & 0x03) << 4) | (b1 >> 4)]);
+            sb.append(i + 1 < bytes.length ? BASE64[((b1 & 0x0F) << 2) | (b2 >> 6)] : '=');
+            sb.append(i + 2 < bytes.length ? BASE64[b2 & 0x3F] : '=');
+        }
+        return sb.toString();
+    }
+
+    private static byte[] decodeBase64(String string) {
+        if (string.length() % 4 != 0) {
+            throw new IllegalArgumentException("Invalid Base64 string: " + string);
+        }
+        int padding = string.endsWith("==") ? 2 : string.endsWith("=") ? 1 : 0;
+        byte[] bytes = new byte[string.length() / 4 * 3 - padding];
+        int count = 0;
+        for (int i = 0; i < string.length(); i += 4) {
+            int group = 0;
+            for (int j = 0; j < 4; j++) {
+                char c = string.charAt(i + j);
+                group <<= 6;
+                if (c != '=') {
+                    group |= decodeBase64Char(c, string);
+                }
+            }
+            for (int j = 2; j >= 0 && count < bytes.length; j--) {
+                bytes[count++] = (byte) (group >> (8 * j));
+            }
+        }
+        return bytes;
+    }
+
+    private static int decodeBase64Char(char c, String string) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        }
+        if (c == '+') {
+            return 62;
+        }
+        if (c == '/') {
+            return 63;
+        }
+        throw new IllegalArgumentException("Invalid Base64 string: " + string);
+    }
+
     public static int[] toIntArray(String[] stringArray) throws IllegalArgumentException {
         int result[] = new int[stringArray.length];
         for (int i = 0; i < stringArray.length; i++) {
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2004 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.richclient.settings.support;
+
+import org.springframework.richclient.settings.Settings;
+
+/**
+ * Helper methods for mementos that only write the settings whose value
+ * changed. Settings fire a change event and mark their backing store dirty on
+ * every write, so saving an unchanged component state this way doesn't cause
+ * any events or store updates.
+ */
+final class MementoUtil {
+
+	private MementoUtil() {
+
+	}
+
+	static void setString(Settings settings, String key, String value) {
+		if (!settings.contains(key) || !value.equals(settings.getString(key))) {
+			settings.setString(key, value);
+		}
+	}
+
+	static void setInt(Settings settings, String key, int value) {
+		if (!settings.contains(key) || settings.getInt(key) != value) {
+			settings.setInt(key, value);
+		}
+	}
+
+	static void setBoolean(Settings settings, String key, boolean value) {
+		if (!settings.contains(key) || settings.getBoolean(key) != value) {
+			settings.setBoolean(key, value);
+		}
+	}
+
+	static void remove(Settings settings, String key) {
+		if (settings.contains(key)) {
+			settings.remove(key);
+		}
+	}
+}
@@ -48,7 +48,7 @@ public class SplitPaneMemento implements Memento {
 	}
 
 	public void saveState(Settings settings) {
-		settings.setInt(key + ".dividerLocation", splitPane.getDividerLocation());
+		MementoUtil.setInt(settings, key + ".dividerLocation", splitPane.getDividerLocation());
 	}
 
 	public void restoreState(Settings settings) {
@@ -1,7 +1,9 @@
 package org.springframework.richclient.settings.support;
 
 import javax.swing.JTable;
+import javax.swing.table.DefaultTableColumnModel;
 import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -9,6 +11,16 @@ import org.springframework.richclient.settings.Settings;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+/**
+ * Memento for saving and restoring the column order, the column widths and the
+ * row selection of a <code>JTable</code>.
+ * <p>
+ * Only the settings that changed since the last save are written. For tables
+ * with many columns, the column order and widths can be stored in a compact
+ * form, see {@link #setCompactEncoding(boolean)}. Restoring the state applies
+ * all column changes while the column model is detached from the table, so the
+ * table is laid out once instead of once for every moved or resized column.
+ */
 public class TableMemento implements Memento {
 	private static final Log logger = LogFactory.getLog(TableMemento.class);
 
@@ -26,6 +38,8 @@ public class TableMemento implements Memento {
 
 	private String key;
 
+	private boolean compactEncoding;
+
 	public TableMemento(JTable table, String key) {
 		Assert.notNull(table, "Table cannot be null");
 		Assert.isTrue(StringUtils.hasText(key) || StringUtils.hasText(table.getName()),
@@ -43,6 +57,20 @@ public class TableMemento implements Memento {
 		this(table, null);
 	}
 
+	/**
+	 * Sets whether the column order and widths are stored in the compact form
+	 * of {@link ArrayUtil#asCompactString(int[])} instead of as comma
+	 * separated values. Both forms are read when restoring, regardless of this
+	 * setting. Defaults to <code>false</code>.
+	 */
+	public void setCompactEncoding(boolean compactEncoding) {
+		this.compactEncoding = compactEncoding;
+	}
+
+	public boolean isCompactEncoding() {
+		return compactEncoding;
+	}
+
 	public void saveState(Settings settings) {
 		saveSelectedRows(settings);
 		saveColumnOrder(settings);
@@ -50,70 +78,80 @@ public class TableMemento implements Memento {
 	}
 
 	void saveColumnWidths(Settings settings) {
-		StringBuffer sb = new StringBuffer();
-		int columnCount = table.getColumnCount();
-		for (int i = 0; i < columnCount; i++) {
-			sb.append(table.getColumnModel().getColumn(i).getWidth());
-			if (i < columnCount - 1) {
-				sb.append(",");
-			}
+		TableColumnModel columnModel = table.getColumnModel();
+		int[] widths = new int[columnModel.getColumnCount()];
+		for (int i = 0; i < widths.length; i++) {
+			widths[i] = columnModel.getColumn(i).getWidth();
 		}
-		settings.setString(key + "." + COLUMN_WIDTHS, sb.toString());
+		MementoUtil.setString(settings, key + "." + COLUMN_WIDTHS, encode(widths));
 	}
 
 	void saveColumnOrder(Settings settings) {
-		StringBuffer sb = new StringBuffer();
-		for (int i = 0; i < table.getColumnModel().getColumnCount(); i++) {
-			TableColumn column = table.getColumnModel().getColumn(i);
-			sb.append(column.getModelIndex());
-			if (i < table.getColumnModel().getColumnCount() - 1) {
-				sb.append(",");
-			}
+		TableColumnModel columnModel = table.getColumnModel();
+		int[] columns = new int[columnModel.getColumnCount()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = columnModel.getColumn(i).getModelIndex();
 		}
-		settings.setString(key + "." + COLUMN_ORDER, sb.toString());
+		MementoUtil.setString(settings, key + "." + COLUMN_ORDER, encode(columns));
+	}
+
+	private String encode(int[] array) {
+		return compactEncoding ? ArrayUtil.asCompactString(array) : ArrayUtil.asString(array);
 	}
 
 	void saveSelectedRows(Settings settings) {
 		String settingsKey = key + "." + SELECTED_ROWS;
-		if (settings.contains(settingsKey)) {
-			settings.remove(settingsKey);
-		}
 
 		if (table.getSelectedRowCount() > 0) {
-			settings.setInt(key + "." + ANCHOR, table.getSelectionModel().getAnchorSelectionIndex());
-			settings.setInt(key + "." + LEAD, table.getSelectionModel().getLeadSelectionIndex());
+			MementoUtil.setInt(settings, key + "." + ANCHOR, table.getSelectionModel().getAnchorSelectionIndex());
+			MementoUtil.setInt(settings, key + "." + LEAD, table.getSelectionModel().getLeadSelectionIndex());
 		}
 
 		String selectionString = ArrayUtil.asIntervalString(table.getSelectedRows());
 		if (selectionString.length() > 0) {
-			settings.setString(settingsKey, selectionString);
+			MementoUtil.setString(settings, settingsKey, selectionString);
+		} else {
+			MementoUtil.remove(settings, settingsKey);
 		}
 	}
 
 	public void restoreState(Settings settings) {
-		restoreColumnOrder(settings);
-		restoreColumnWidths(settings);
+		TableColumnModel columnModel = table.getColumnModel();
+		// detach the column model, so the table isn't laid out for every change
+		table.setColumnModel(new DefaultTableColumnModel());
+		try {
+			restoreColumnOrder(settings, columnModel);
+			restoreColumnWidths(settings, columnModel);
+		} finally {
+			table.setColumnModel(columnModel);
+		}
 		restoreSelectedRows(settings);
 	}
 
 	void restoreColumnWidths(Settings settings) {
+		restoreColumnWidths(settings, table.getColumnModel());
+	}
+
+	private void restoreColumnWidths(Settings settings, TableColumnModel columnModel) {
 		table.getSelectionModel().clearSelection();
 		String widthSetting = settings.getString(key + "." + COLUMN_WIDTHS);
 		if (StringUtils.hasText(widthSetting)) {
-
-			String[] stringWidths = widthSetting.split(",");
-
 			try {
-				int[] widths = ArrayUtil.toIntArray(stringWidths);
+				int[] widths = ArrayUtil.parseIntArray(widthSetting);
 
-				if (widths.length == table.getColumnCount()) {
+				if (widths.length == columnModel.getColumnCount()) {
 					for (int i = 0; i < widths.length; i++) {
-						table.getColumnModel().getColumn(i).setWidth(widths[i]);
-						table.getColumnModel().getColumn(i).setPreferredWidth(widths[i]);
+						TableColumn column = columnModel.getColumn(i);
+						if (column.getWidth() != widths[i]) {
+							column.setWidth(widths[i]);
+						}
+						if (column.getPreferredWidth() != widths[i]) {
+							column.setPreferredWidth(widths[i]);
+						}
 					}
 				} else {
-					logger.warn("Unable to restore column widths, table has " + table.getColumnCount() + " columns, "
-							+ widths.length + " columns stored in settings");
+					logger.warn("Unable to restore column widths, table has " + columnModel.getColumnCount()
+							+ " columns, " + widths.length + " columns stored in settings");
 				}
 			} catch (IllegalArgumentException e) {
 				logger.warn("Unable to restore column widths", e);
@@ -162,21 +200,26 @@ public class TableMemento implements Memento {
 	}
 
 	void restoreColumnOrder(Settings settings) {
+		restoreColumnOrder(settings, table.getColumnModel());
+	}
+
+	private void restoreColumnOrder(Settings settings, TableColumnModel columnModel) {
 		table.getSelectionModel().clearSelection();
 		String orderSetting = settings.getString(key + "." + COLUMN_ORDER);
 		if (StringUtils.hasText(orderSetting)) {
-			String[] stringColumns = orderSetting.split(",");
-
 			try {
-				int[] columns = ArrayUtil.toIntArray(stringColumns);
+				int[] columns = ArrayUtil.parseIntArray(orderSetting);
 
-				if (columns.length == table.getColumnCount()) {
+				if (columns.length == columnModel.getColumnCount()) {
 					for (int i = 0; i < columns.length; i++) {
-						table.moveColumn(getPosition(table, columns[i]), i);
+						int position = getPosition(columnModel, columns[i]);
+						if (position != i) {
+							columnModel.moveColumn(position, i);
+						}
 					}
 				} else {
-					logger.warn("Unable to restore column order, table has " + table.getColumnCount() + " columns, "
-							+ columns.length + " columns stored in settings");
+					logger.warn("Unable to restore column order, table has " + columnModel.getColumnCount()
+							+ " columns, " + columns.length + " columns stored in settings");
 				}
 			} catch (IllegalArgumentException e) {
 				logger.warn("Unable to restore column order.", e);
@@ -189,15 +232,15 @@ public class TableMemento implements Memento {
 	 * index remains constant, but the position changes as the columns are
 	 * moved.
 	 * 
-	 * @param table
-	 *            the table
+	 * @param columnModel
+	 *            the column model
 	 * @param modelIndex
 	 *            the modelIndex
 	 * @return the position
 	 */
-	private static int getPosition(JTable table, int modelIndex) {
-		for (int i = 0; i < table.getColumnCount(); i++) {
-			TableColumn column = table.getColumnModel().getColumn(i);
+	private static int getPosition(TableColumnModel columnModel, int modelIndex) {
+		for (int i = 0; i < columnModel.getColumnCount(); i++) {
+			TableColumn column = columnModel.getColumn(i);
 			if (column.getModelIndex() == modelIndex) {
 				return i;
 			}
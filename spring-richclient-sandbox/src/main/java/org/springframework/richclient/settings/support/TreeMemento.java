@@ -22,6 +22,11 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
+ * Memento for saving and restoring the expansion state and the selection of a
+ * <code>JTree</code>. Only the settings that changed since the last save are
+ * written. For large trees, the expansion state can be stored as a bit set,
+ * see {@link #setCompactEncoding(boolean)}.
+ * 
  * @author Peter De Bruycker
  */
 public class TreeMemento implements Memento {
@@ -34,6 +39,8 @@ public class TreeMemento implements Memento {
 
 	private JTree tree;
 
+	private boolean compactEncoding;
+
 	public TreeMemento(JTree tree) {
 		this(tree, null);
 	}
@@ -59,6 +66,20 @@ public class TreeMemento implements Memento {
 		return key;
 	}
 
+	/**
+	 * Sets whether the expansion state is stored in the bit form of
+	 * {@link ArrayUtil#asBitString(int[])} instead of as comma separated
+	 * values. Both forms are read when restoring, regardless of this setting.
+	 * Defaults to <code>false</code>.
+	 */
+	public void setCompactEncoding(boolean compactEncoding) {
+		this.compactEncoding = compactEncoding;
+	}
+
+	public boolean isCompactEncoding() {
+		return compactEncoding;
+	}
+
 	public void restoreState(Settings settings) {
 		restoreExpansionState(settings);
 		restoreSelectionState(settings);
@@ -70,24 +91,20 @@ public class TreeMemento implements Memento {
 	}
 
 	void saveExpansionState(Settings settings) {
-		int rowCount = tree.getRowCount();
-		StringBuffer sb = new StringBuffer();
-		for (int i = 0; i < rowCount; i++) {
-			sb.append(tree.isExpanded(i) ? 1 : 0);
-			if (i < rowCount - 1) {
-				sb.append(",");
-			}
+		int[] expansionStates = new int[tree.getRowCount()];
+		for (int i = 0; i < expansionStates.length; i++) {
+			expansionStates[i] = tree.isExpanded(i) ? 1 : 0;
 		}
-		settings.setString(key + "." + EXPANSION_STATE, sb.toString());
+		String expansionString = compactEncoding ? ArrayUtil.asBitString(expansionStates) : ArrayUtil
+				.asString(expansionStates);
+		MementoUtil.setString(settings, key + "." + EXPANSION_STATE, expansionString);
 	}
 
 	void restoreExpansionState(Settings settings) {
 		String expansionKey = key + "." + EXPANSION_STATE;
 		if (settings.contains(expansionKey)) {
-			String[] states = settings.getString(expansionKey).split(",");
-
 			try {
-				int[] expansionStates = ArrayUtil.toIntArray(states);
+				int[] expansionStates = ArrayUtil.parseIntArray(settings.getString(expansionKey));
 
 				for (int i = 0; i < expansionStates.length; i++) {
 					if (expansionStates[i] == 1) {
@@ -105,15 +122,15 @@ public class TreeMemento implements Memento {
 	 */
 	void saveSelectionState(Settings settings) {
 		String selectionKey = key + "." + SELECTED_ROWS;
-		if (settings.contains(selectionKey)) {
-			settings.remove(selectionKey);
-		}
 
+		String selectionString = "";
 		if (tree.getSelectionCount() > 0) {
-			String selectionString = ArrayUtil.asIntervalString(tree.getSelectionRows());
-			if (selectionString.length() > 0) {
-				settings.setString(selectionKey, selectionString);
-			}
+			selectionString = ArrayUtil.asIntervalString(tree.getSelectionRows());
+		}
+		if (selectionString.length() > 0) {
+			MementoUtil.setString(settings, selectionKey, selectionString);
+		} else {
+			MementoUtil.remove(settings, selectionKey);
 		}
 	}
 
@@ -23,7 +23,8 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
- * Memento for saving and restoring Window settings.
+ * Memento for saving and restoring Window settings. Only the settings that
+ * changed since the last save are written.
  * 
  * @author Peter De Bruycker
  */
@@ -59,18 +60,18 @@ public class WindowMemento implements Memento {
 	void saveMaximizedState(Settings settings) {
 		if (window instanceof Frame) {
 			Frame frame = (Frame) window;
-			settings.setBoolean(key + ".maximized", frame.getExtendedState() == Frame.MAXIMIZED_BOTH);
+			MementoUtil.setBoolean(settings, key + ".maximized", frame.getExtendedState() == Frame.MAXIMIZED_BOTH);
 		}
 	}
 
 	void saveSize(Settings settings) {
-		settings.setInt(key + ".height", window.getHeight());
-		settings.setInt(key + ".width", window.getWidth());
+		MementoUtil.setInt(settings, key + ".height", window.getHeight());
+		MementoUtil.setInt(settings, key + ".width", window.getWidth());
 	}
 
 	void saveLocation(Settings settings) {
-		settings.setInt(key + ".x", window.getX());
-		settings.setInt(key + ".y", window.getY());
+		MementoUtil.setInt(settings, key + ".x", window.getX());
+		MementoUtil.setInt(settings, key + ".y", window.getY());
 	}
 
 	public void restoreState(Settings settings) {
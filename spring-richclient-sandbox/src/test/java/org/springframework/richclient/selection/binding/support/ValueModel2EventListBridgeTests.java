@@ -29,6 +29,8 @@ import org.springframework.richclient.application.ApplicationServicesLocator;
 
 import ca.odell.glazedlists.BasicEventList;
 import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
 
 /**
  * Testcase for ValueModel2EventListBridge
@@ -84,6 +86,32 @@ public class ValueModel2EventListBridgeTests extends TestCase {
         assertEquals(list2, eventList);
     }
 
+    public void testOnlyDifferencesAreApplied() {
+        List list1 = Arrays.asList(new String[] { "item1", "item2", "item3", "item4" });
+        List list2 = Arrays.asList(new String[] { "item1", "item3", "item4", "item5" });
+
+        EventList eventList = new BasicEventList();
+        ValueModel valueModel = new ValueHolder(list1);
+        new ValueModel2EventListBridge(valueModel, eventList);
+
+        final int[] counts = new int[3];
+        eventList.addListEventListener(new ListEventListener() {
+            public void listChanged(ListEvent listChanges) {
+                while (listChanges.next()) {
+                    counts[listChanges.getType()]++;
+                }
+            }
+        });
+
+        valueModel.setValue(list2);
+        assertEquals(list2, eventList);
+        assertEquals("one element removed", 1, counts[ListEvent.DELETE]);
+        assertEquals("one element added", 1, counts[ListEvent.INSERT]);
+
+        valueModel.setValue(null);
+        assertTrue(eventList.isEmpty());
+    }
+
     protected void setUp() throws Exception {
         ApplicationServices services = new ApplicationServices() {
 
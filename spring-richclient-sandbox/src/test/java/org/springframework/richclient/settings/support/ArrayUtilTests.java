@@ -45,6 +45,59 @@ public class ArrayUtilTests extends TestCase {
         }
     }
 
+    public void testParseIntArray() {
+        assertEquals(0, ArrayUtil.parseIntArray("").length);
+        assertIntArrayEquals(new int[] { 30, 120, 50 }, ArrayUtil.parseIntArray("30,120,50"));
+    }
+
+    public void testCompactString() {
+        int[] array = new int[500];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (i % 7 == 0) ? -i : i * 37;
+        }
+        array[1] = Integer.MAX_VALUE;
+        array[2] = Integer.MIN_VALUE;
+
+        String compact = ArrayUtil.asCompactString(array);
+        assertEquals(ArrayUtil.COMPACT_PREFIX, compact.charAt(0));
+        assertTrue(compact.length() < ArrayUtil.asString(array).length());
+        assertIntArrayEquals(array, ArrayUtil.parseIntArray(compact));
+
+        assertIntArrayEquals(new int[0], ArrayUtil.parseIntArray(ArrayUtil.asCompactString(new int[0])));
+        assertIntArrayEquals(new int[] { 5 }, ArrayUtil.parseIntArray(ArrayUtil.asCompactString(new int[] { 5 })));
+    }
+
+    public void testBitString() {
+        for (int length = 0; length < 20; length++) {
+            int[] flags = new int[length];
+            for (int i = 0; i < length; i++) {
+                flags[i] = (i % 3 == 0) ? 1 : 0;
+            }
+            String bits = ArrayUtil.asBitString(flags);
+            assertEquals(ArrayUtil.BIT_PREFIX, bits.charAt(0));
+            assertIntArrayEquals(flags, ArrayUtil.parseIntArray(bits));
+        }
+    }
+
+    public void testParseIntArrayInvalidArguments() {
+        String[] invalid = { "1,x", "~abc", "~!!!!", "~////", "#AAAA", "#AAAAAQ==" };
+        for (int i = 0; i < invalid.length; i++) {
+            try {
+                ArrayUtil.parseIntArray(invalid[i]);
+                fail("Should throw IllegalArgumentException for " + invalid[i]);
+            } catch (IllegalArgumentException e) {
+                pass();
+            }
+        }
+    }
+
+    private static void assertIntArrayEquals(int[] expected, int[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i]);
+        }
+    }
+
     private static void pass() {
         // test passes
     }
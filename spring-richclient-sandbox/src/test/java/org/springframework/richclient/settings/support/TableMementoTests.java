@@ -15,7 +15,12 @@
  */
 package org.springframework.richclient.settings.support;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
 import javax.swing.JTable;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.TableColumnModelEvent;
 
 import junit.framework.TestCase;
 
@@ -190,6 +195,82 @@ public class TableMementoTests extends TestCase {
 		assertEquals("0,1,2,3", settings.getString("table.columnOrder"));
 	}
 
+	public void testSaveStateOnlyWritesChanges() {
+		TransientSettings settings = new TransientSettings();
+		table.getSelectionModel().setSelectionInterval(1, 2);
+		memento.saveState(settings);
+
+		WriteCounter writes = new WriteCounter();
+		settings.addPropertyChangeListener(writes);
+		memento.saveState(settings);
+		assertEquals(0, writes.count);
+
+		table.getColumnModel().getColumn(2).setWidth(77);
+		table.getSelectionModel().clearSelection();
+		memento.saveState(settings);
+		assertEquals(1, writes.count);
+		assertFalse(settings.contains("table.selectedRows"));
+		assertTrue(settings.getString("table.columnWidths").indexOf("77") >= 0);
+	}
+
+	public void testCompactEncoding() throws Exception {
+		TransientSettings settings = new TransientSettings();
+		memento.setCompactEncoding(true);
+
+		table.getColumnModel().moveColumn(0, 2);
+		table.getColumnModel().getColumn(1).setWidth(120);
+		memento.saveState(settings);
+		assertEquals(ArrayUtil.COMPACT_PREFIX, settings.getString("table.columnOrder").charAt(0));
+		assertEquals(ArrayUtil.COMPACT_PREFIX, settings.getString("table.columnWidths").charAt(0));
+
+		setUp();
+		memento.restoreState(settings);
+		assertEquals(1, table.getColumnModel().getColumn(0).getModelIndex());
+		assertEquals(2, table.getColumnModel().getColumn(1).getModelIndex());
+		assertEquals(0, table.getColumnModel().getColumn(2).getModelIndex());
+		assertEquals(120, table.getColumnModel().getColumn(1).getPreferredWidth());
+
+		memento.saveColumnOrder(settings);
+		assertEquals("1,2,0,3", settings.getString("table.columnOrder"));
+	}
+
+	public void testRestoreStateDoesNotNotifyTablePerColumn() {
+		final int[] events = new int[1];
+		table = new JTable(5, 4) {
+			public void columnMoved(TableColumnModelEvent e) {
+				events[0]++;
+				super.columnMoved(e);
+			}
+
+			public void columnMarginChanged(ChangeEvent e) {
+				events[0]++;
+				super.columnMarginChanged(e);
+			}
+		};
+		memento = new TableMemento(table, "table");
+		events[0] = 0;
+
+		TransientSettings settings = new TransientSettings();
+		settings.setString("table.columnOrder", "3,2,1,0");
+		settings.setString("table.columnWidths", "30,120,50,70");
+		memento.restoreState(settings);
+
+		assertEquals(0, events[0]);
+		assertEquals(3, table.getColumnModel().getColumn(0).getModelIndex());
+		assertEquals(0, table.getColumnModel().getColumn(3).getModelIndex());
+		assertEquals(120, table.getColumnModel().getColumn(1).getPreferredWidth());
+		assertEquals(table.getColumnModel(), table.getTableHeader().getColumnModel());
+	}
+
+	private static class WriteCounter implements PropertyChangeListener {
+
+		private int count;
+
+		public void propertyChange(PropertyChangeEvent evt) {
+			count++;
+		}
+	}
+
 	protected void setUp() throws Exception {
 		table = new JTable(new Object[][] { { "cel(0,0)", "cell(0,1)", "cell(0,2)", "cell(0,3)" },
 				{ "cell(1,0)", "cell(1,1)", "cell(1,2)", "cell(1,3)" },
@@ -15,6 +15,9 @@
  */
 package org.springframework.richclient.settings.support;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
 import javax.swing.JTree;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
@@ -116,6 +119,40 @@ public class TreeMementoTests extends TestCase {
         assertFalse(tree.isExpanded(6));
     }
 
+    public void testCompactExpansionState() {
+        Settings settings = new TransientSettings();
+        memento.setCompactEncoding(true);
+        tree.expandRow(2);
+
+        memento.saveExpansionState(settings);
+        assertEquals(ArrayUtil.BIT_PREFIX, settings.getString("tree.expansionState").charAt(0));
+
+        tree.collapseRow(2);
+        memento.restoreExpansionState(settings);
+        assertEquals(7, tree.getRowCount());
+        assertTrue(tree.isExpanded(2));
+    }
+
+    public void testSaveStateOnlyWritesChanges() {
+        Settings settings = new TransientSettings();
+        tree.setSelectionRow(1);
+        memento.saveState(settings);
+
+        final int[] writes = new int[1];
+        settings.addPropertyChangeListener(new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                writes[0]++;
+            }
+        });
+        memento.saveState(settings);
+        assertEquals(0, writes[0]);
+
+        tree.setSelectionRow(3);
+        memento.saveState(settings);
+        assertEquals(1, writes[0]);
+        assertEquals("3", settings.getString("tree.selectedRows"));
+    }
+
     public void testRestoreExpansionStateWithInvalidSettingsString() {
         Settings settings = new TransientSettings();
         settings.setString("key.expansionState", "invalidPref");